@@ -0,0 +1,172 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AdmissionController - Decides which requests may queue when the server is saturated
+ * Tracks queued and running requests and the time requests wait in the queue
+ * (an exponentially weighted average). From those it derives a pressure
+ * level 0..3 and sheds every request whose priority is below it:
+ *
+ * pressure  queue filled  queue wait      shed
+ *    0        < 50%        < target        nothing
+ *    1        >= 50%       >= target       anonymous
+ *    2        >= 70%       >= 2 x target   + adopters
+ *    3        >= 90%       >= 4 x target   + shelters
+ *
+ * Admins are only turned away once the queue is completely full. An empty
+ * queue means no waiting, so a stale wait average never keeps shedding.
+ */
+public final class AdmissionController {
+    // Priorities, lowest first; a role's priority is also its index in PRIORITY_NAMES
+    static final int ANONYMOUS = 0;
+    static final int ADOPTER = 1;
+    static final int SHELTER = 2;
+    static final int ADMIN = 3;
+    static final String[] PRIORITY_NAMES = { "anonymous", "adopter", "shelter", "admin" };
+
+    // Weight of the newest sample in the queue wait average
+    private static final double ALPHA = 0.2;
+
+    private final int queueCapacity;
+    private final long targetWaitNanos;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    // Average queue wait in nanoseconds, stored as double bits
+    private final AtomicLong averageWait = new AtomicLong(Double.doubleToLongBits(0));
+    private final LongAdder[] admitted = new LongAdder[PRIORITY_NAMES.length];
+    private final LongAdder[] shed = new LongAdder[PRIORITY_NAMES.length];
+
+    /**
+     * Snapshot of the controller for /api/metrics
+     */
+    static class AdmissionStats {
+        final int queued;
+        final int running;
+        final double averageWaitMillis;
+        final int pressure;
+        final long[] admitted;
+        final long[] shed;
+
+        AdmissionStats(int queued, int running, double averageWaitMillis, int pressure, long[] admitted,
+                long[] shed) {
+            this.queued = queued;
+            this.running = running;
+            this.averageWaitMillis = averageWaitMillis;
+            this.pressure = pressure;
+            this.admitted = admitted;
+            this.shed = shed;
+        }
+    }
+
+    AdmissionController(int queueCapacity, long targetWaitMillis) {
+        if (queueCapacity < 1 || targetWaitMillis < 1) {
+            throw new IllegalArgumentException("Invalid admission limits: queue " + queueCapacity
+                    + ", target wait " + targetWaitMillis + " ms");
+        }
+        this.queueCapacity = queueCapacity;
+        this.targetWaitNanos = TimeUnit.MILLISECONDS.toNanos(targetWaitMillis);
+        for (int i = 0; i < PRIORITY_NAMES.length; i++) {
+            admitted[i] = new LongAdder();
+            shed[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Priority of a user role; unknown or missing roles count as anonymous
+     */
+    static int priorityOf(String role) {
+        if (role == null) {
+            return ANONYMOUS;
+        }
+        switch (role) {
+            case "admin":
+                return ADMIN;
+            case "shelter":
+                return SHELTER;
+            case "adopter":
+                return ADOPTER;
+            default:
+                return ANONYMOUS;
+        }
+    }
+
+    /**
+     * Reserve a queue slot for a request of the given priority
+     * @return false if the request should be shed
+     */
+    boolean tryAdmit(int priority) {
+        while (true) {
+            int current = queued.get();
+            if (current >= queueCapacity || priority < pressure(current)) {
+                shed[priority].increment();
+                return false;
+            }
+            if (queued.compareAndSet(current, current + 1)) {
+                admitted[priority].increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * An admitted request left the queue after waiting waitNanos and starts running
+     */
+    void started(long waitNanos) {
+        queued.decrementAndGet();
+        running.incrementAndGet();
+        recordWait(waitNanos);
+    }
+
+    /**
+     * An admitted request timed out after waiting waitNanos and left the queue without running
+     */
+    void expired(long waitNanos) {
+        queued.decrementAndGet();
+        recordWait(waitNanos);
+    }
+
+    private void recordWait(long waitNanos) {
+        long bits;
+        double next;
+        do {
+            bits = averageWait.get();
+            next = (1 - ALPHA) * Double.longBitsToDouble(bits) + ALPHA * waitNanos;
+        } while (!averageWait.compareAndSet(bits, Double.doubleToLongBits(next)));
+    }
+
+    /**
+     * A started request finished
+     */
+    void finished() {
+        running.decrementAndGet();
+    }
+
+    int pressure() {
+        return pressure(queued.get());
+    }
+
+    private int pressure(int queuedNow) {
+        if (queuedNow == 0) {
+            return 0;
+        }
+        double fill = (double) queuedNow / queueCapacity;
+        int byFill = fill >= 0.9 ? 3 : fill >= 0.7 ? 2 : fill >= 0.5 ? 1 : 0;
+        double wait = Double.longBitsToDouble(averageWait.get());
+        int byWait = wait >= 4 * targetWaitNanos ? 3 : wait >= 2 * targetWaitNanos ? 2
+                : wait >= targetWaitNanos ? 1 : 0;
+        return Math.max(byFill, byWait);
+    }
+
+    AdmissionStats stats() {
+        long[] admittedCounts = new long[PRIORITY_NAMES.length];
+        long[] shedCounts = new long[PRIORITY_NAMES.length];
+        for (int i = 0; i < PRIORITY_NAMES.length; i++) {
+            admittedCounts[i] = admitted[i].sum();
+            shedCounts[i] = shed[i].sum();
+        }
+        return new AdmissionStats(queued.get(), running.get(),
+                Double.longBitsToDouble(averageWait.get()) / 1_000_000.0, pressure(), admittedCounts, shedCounts);
+    }
+}
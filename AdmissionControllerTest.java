@@ -0,0 +1,115 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AdmissionControllerTest - Unit tests for AdmissionController
+ * Tests priority-ordered load shedding
+ *
+ * Coverage:
+ * - Role to priority mapping
+ * - Everyone admitted without pressure
+ * - Lowest priorities shed first as the queue fills
+ * - Shedding on queue wait
+ * - Recovery once the queue drains
+ * - Requests that time out in the queue stop counting
+ */
+@DisplayName("AdmissionController Load Shedding Tests")
+public class AdmissionControllerTest {
+
+    private AdmissionController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new AdmissionController(10, 50);
+    }
+
+    private void fill(int requests) {
+        for (int i = 0; i < requests; i++) {
+            assertTrue(controller.tryAdmit(AdmissionController.ADMIN));
+        }
+    }
+
+    @Test
+    @DisplayName("Should rank admin > shelter > adopter > anonymous")
+    void testPriorities() {
+        assertEquals(AdmissionController.ADMIN, AdmissionController.priorityOf("admin"));
+        assertEquals(AdmissionController.SHELTER, AdmissionController.priorityOf("shelter"));
+        assertEquals(AdmissionController.ADOPTER, AdmissionController.priorityOf("adopter"));
+        assertEquals(AdmissionController.ANONYMOUS, AdmissionController.priorityOf(null));
+        assertEquals(AdmissionController.ANONYMOUS, AdmissionController.priorityOf("unknown"));
+    }
+
+    @Test
+    @DisplayName("Should admit everyone while the queue is short")
+    void testNoPressure() {
+        fill(4);
+        assertEquals(0, controller.pressure());
+        assertTrue(controller.tryAdmit(AdmissionController.ANONYMOUS));
+    }
+
+    @Test
+    @DisplayName("Should shed the lowest priorities first as the queue fills")
+    void testShedByFill() {
+        fill(5);
+        assertFalse(controller.tryAdmit(AdmissionController.ANONYMOUS));
+        assertTrue(controller.tryAdmit(AdmissionController.ADOPTER));
+
+        fill(1);
+        assertFalse(controller.tryAdmit(AdmissionController.ADOPTER));
+        assertTrue(controller.tryAdmit(AdmissionController.SHELTER));
+
+        fill(1);
+        assertFalse(controller.tryAdmit(AdmissionController.SHELTER));
+        assertTrue(controller.tryAdmit(AdmissionController.ADMIN));
+        assertFalse(controller.tryAdmit(AdmissionController.ADMIN), "A full queue turns everyone away");
+
+        AdmissionController.AdmissionStats stats = controller.stats();
+        assertEquals(10, stats.queued);
+        assertEquals(1, stats.shed[AdmissionController.ANONYMOUS]);
+        assertEquals(1, stats.shed[AdmissionController.ADMIN]);
+    }
+
+    @Test
+    @DisplayName("Should shed when requests wait too long in the queue")
+    void testShedByWait() {
+        fill(2);
+        // Requests have been waiting well over four times the 50 ms target
+        for (int i = 0; i < 20; i++) {
+            controller.started(TimeUnit.MILLISECONDS.toNanos(500));
+            controller.finished();
+            fill(1);
+        }
+        assertEquals(3, controller.pressure());
+        assertFalse(controller.tryAdmit(AdmissionController.SHELTER));
+        assertTrue(controller.tryAdmit(AdmissionController.ADMIN));
+    }
+
+    @Test
+    @DisplayName("Should stop shedding once the queue drains")
+    void testRecovery() {
+        fill(1);
+        for (int i = 0; i < 20; i++) {
+            controller.started(TimeUnit.MILLISECONDS.toNanos(500));
+            fill(1);
+        }
+        controller.started(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, controller.stats().queued);
+        assertEquals(21, controller.stats().running);
+        assertEquals(0, controller.pressure());
+        assertTrue(controller.tryAdmit(AdmissionController.ANONYMOUS));
+    }
+
+    @Test
+    @DisplayName("Should free the queue place of a request that timed out waiting")
+    void testExpired() {
+        fill(10);
+        assertFalse(controller.tryAdmit(AdmissionController.ADMIN));
+        controller.expired(TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(9, controller.stats().queued);
+        assertEquals(0, controller.stats().running);
+        assertTrue(controller.tryAdmit(AdmissionController.ADMIN));
+    }
+}
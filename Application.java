@@ -0,0 +1,92 @@
+/**
+ * Application class - inherits from Entity
+ */
+class Application extends Entity {
+    private int adopterId;
+    private int petId;
+    private int shelterId; // shelter that listed the pet, 0 if unknown
+    // Volatile: the in-memory ApplicationStore changes it in place while other threads read
+    private volatile String status;
+    private String applicationNotes;
+
+    public Application(int id, int adopterId, int petId, String applicationNotes) {
+        super(id);
+        this.adopterId = adopterId;
+        this.petId = petId;
+        this.applicationNotes = applicationNotes;
+        this.status = "submitted";
+    }
+
+    public int getAdopterId() {
+        return adopterId;
+    }
+
+    public int getPetId() {
+        return petId;
+    }
+
+    public int getShelterId() {
+        return shelterId;
+    }
+
+    void setShelterId(int shelterId) {
+        this.shelterId = shelterId;
+    }
+
+    public String getApplicationNotes() {
+        return applicationNotes;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Detached copy, for a snapshot that must not see later changes
+     */
+    Application copy() {
+        Application copy = new Application(id, adopterId, petId, applicationNotes);
+        copy.shelterId = shelterId;
+        copy.status = status;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
+    @Override
+    void validate() throws ApplicationException {
+        if (adopterId <= 0 || petId <= 0) {
+            throw new ApplicationException("Invalid adopter or pet ID!");
+        }
+    }
+
+    @Override
+    String getEntityType() {
+        return "Application";
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + String.format(" | Adopter: %d | Pet: %d | Status: %s",
+                adopterId, petId, status);
+    }
+
+    @Override
+    public void save() throws DatabaseException {
+        // Will be implemented in DAO
+    }
+
+    @Override
+    public void delete() throws DatabaseException {
+        // Will be implemented in DAO
+    }
+
+    @Override
+    public void update() throws DatabaseException {
+        // Will be implemented in DAO
+    }
+}
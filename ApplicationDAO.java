@@ -0,0 +1,220 @@
+import java.util.*;
+import java.sql.*;
+
+/**
+ * ApplicationDAO - Data Access Object for Application entities
+ */
+class ApplicationDAO extends BaseDAO<Application> {
+    private static final String TABLE_NAME = "applications";
+    // Rejected and adopted applications no longer block a new one for the same pet;
+    // the schemas' idx_applications_active enforces one active application per adopter and pet
+    static final String ACTIVE = "status NOT IN ('rejected', 'adopted')";
+
+    public ApplicationDAO() {
+        super(Application.class);
+    }
+
+    public ApplicationDAO(SqlEngine engine) {
+        super(Application.class, engine);
+    }
+
+    @Override
+    String tableName() {
+        return TABLE_NAME;
+    }
+
+    @Override
+    String insertSql() {
+        return "INSERT INTO " + TABLE_NAME + " (adopter_id, pet_id, status, application_notes, created_at)"
+                + " VALUES (?, ?, ?, ?, ?)";
+    }
+
+    @Override
+    void bindInsert(PreparedStatement pstmt, Application application) throws SQLException {
+        pstmt.setInt(1, application.getAdopterId());
+        pstmt.setInt(2, application.getPetId());
+        pstmt.setString(3, application.getStatus());
+        pstmt.setString(4, application.getApplicationNotes());
+        pstmt.setTimestamp(5, Timestamp.valueOf(application.getCreatedAt()));
+    }
+
+    @Override
+    String updateSql() {
+        return "UPDATE " + TABLE_NAME + " SET status = ? WHERE id = ?";
+    }
+
+    @Override
+    void bindUpdate(PreparedStatement pstmt, Application application) throws SQLException {
+        pstmt.setString(1, application.getStatus());
+        pstmt.setInt(2, application.getId());
+    }
+
+    @Override
+    void save(Application application) throws DatabaseException {
+        insertOne(application);
+        System.out.println("✓ Application saved successfully!");
+    }
+
+    @Override
+    String columns() {
+        // The pet's shelter comes along through a primary key probe on pets
+        return "id, adopter_id, pet_id, status, application_notes, created_at,"
+                + " (SELECT p.shelter_id FROM pets p WHERE p.id = " + TABLE_NAME + ".pet_id) AS shelter_id";
+    }
+
+    @Override
+    Application mapRow(ResultSet rs) throws SQLException {
+        Application application = new Application(
+                rs.getInt("id"),
+                rs.getInt("adopter_id"),
+                rs.getInt("pet_id"),
+                rs.getString("application_notes"));
+        application.setStatus(rs.getString("status"));
+        application.setShelterId(rs.getInt("shelter_id"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            application.createdAt = createdAt.toLocalDateTime();
+        }
+        return application;
+    }
+
+    @Override
+    Application findById(int id) throws DatabaseException {
+        return queryOne("find application", selectSql("WHERE id = ?"), id);
+    }
+
+    @Override
+    List<Application> findAll() throws DatabaseException {
+        return queryList("fetch applications", selectSql("ORDER BY id"));
+    }
+
+    /**
+     * Applications for one pet, served by idx_applications_pet
+     */
+    List<Application> findApplicationsForPet(int petId) throws DatabaseException {
+        return queryList("fetch pet applications", selectSql("WHERE pet_id = ? ORDER BY id"), petId);
+    }
+
+    /**
+     * Applications submitted by one adopter, served by idx_applications_adopter
+     */
+    List<Application> findByAdopter(int adopterId) throws DatabaseException {
+        return queryList("fetch adopter applications", selectSql("WHERE adopter_id = ? ORDER BY id"), adopterId);
+    }
+
+    /**
+     * Applications for pets listed by one shelter, joined through idx_pets_shelter and idx_applications_pet
+     */
+    List<Application> findByShelter(int shelterId) throws DatabaseException {
+        String sql = "SELECT a.id, a.adopter_id, a.pet_id, a.status, a.application_notes, a.created_at, p.shelter_id"
+                + " FROM " + TABLE_NAME + " a JOIN pets p ON p.id = a.pet_id WHERE p.shelter_id = ? ORDER BY a.id";
+        return queryList("fetch shelter applications", sql, shelterId);
+    }
+
+    /**
+     * Applications in the given status, served by idx_applications_status
+     */
+    List<Application> findByStatus(String status) throws DatabaseException {
+        return queryList("fetch " + status + " applications", selectSql("WHERE status = ? ORDER BY id"), status);
+    }
+
+    /**
+     * The adopter's active application for the pet, or null; served by idx_applications_adopter
+     */
+    Application findActive(int adopterId, int petId) throws DatabaseException {
+        return queryOne("find active application",
+                selectSql("WHERE adopter_id = ? AND pet_id = ? AND " + ACTIVE + " ORDER BY id LIMIT 1"),
+                adopterId, petId);
+    }
+
+    /**
+     * Insert the application unless its adopter already has an active one for the pet.
+     * The database refuses the duplicate: idx_applications_active is unique over each
+     * adopter and pet's active application, so of two identical concurrent submissions
+     * exactly one is inserted.
+     * @return true if it was inserted (its generated id is written back), false for a duplicate
+     */
+    boolean submit(Application application) throws DatabaseException {
+        try {
+            engine.write(session -> {
+                PreparedStatement pstmt = session.prepareInsert(insertSql());
+                bindInsert(pstmt, application);
+                pstmt.executeUpdate();
+                application.id = session.generatedIds(pstmt, 1)[0];
+                return null;
+            });
+        } catch (SQLException e) {
+            if (engine.isDuplicateKey(e)) {
+                return false;
+            }
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to submit application: " + e.getMessage(), e);
+        }
+        afterSave(application);
+        return true;
+    }
+
+    /**
+     * What updateStatus() did
+     */
+    static final class StatusChange {
+        final int outcome; // ApplicationRepository.UPDATED, NOT_FOUND or CLASHED
+        final Application before; // as it was before the change, if UPDATED
+
+        StatusChange(int outcome, Application before) {
+            this.outcome = outcome;
+            this.before = before;
+        }
+    }
+
+    /**
+     * Change one application's status. Reactivating a rejected or adopted application is
+     * refused by idx_applications_active while its adopter has another active one for the
+     * same pet. The update only applies to the status it read, and reads again if another
+     * writer got there first, so the previous status it reports is the one it replaced.
+     */
+    StatusChange updateStatus(int id, String status) throws DatabaseException {
+        String select = selectSql("WHERE id = ?");
+        String update = "UPDATE " + TABLE_NAME + " SET status = ? WHERE id = ? AND status = ?";
+        try {
+            return engine.write(session -> {
+                while (true) {
+                    PreparedStatement find = session.prepare(select);
+                    find.setInt(1, id);
+                    Application application;
+                    try (ResultSet rs = find.executeQuery()) {
+                        application = rs.next() ? mapRow(rs) : null;
+                    }
+                    if (application == null) {
+                        return new StatusChange(ApplicationRepository.NOT_FOUND, null);
+                    }
+                    PreparedStatement pstmt = session.prepare(update);
+                    pstmt.setString(1, status);
+                    pstmt.setInt(2, id);
+                    pstmt.setString(3, application.getStatus());
+                    if (pstmt.executeUpdate() > 0) {
+                        return new StatusChange(ApplicationRepository.UPDATED, application);
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            if (engine.isDuplicateKey(e)) {
+                return new StatusChange(ApplicationRepository.CLASHED, null);
+            }
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to update application status: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    void update(Application application) throws DatabaseException {
+        updateOne(application);
+        System.out.println("✓ Application updated successfully!");
+    }
+
+    @Override
+    void delete(int id) throws DatabaseException {
+        deleteOne(id);
+        System.out.println("✓ Application deleted successfully!");
+    }
+}
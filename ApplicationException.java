@@ -0,0 +1,5 @@
+class ApplicationException extends Exception {
+    public ApplicationException(String message) {
+        super(message);
+    }
+}
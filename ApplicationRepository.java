@@ -0,0 +1,64 @@
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Application storage; an adopter has at most one active (not rejected or
+ * adopted) application per pet
+ */
+interface ApplicationRepository {
+    // updateStatus() outcomes
+    int UPDATED = 0;
+    int NOT_FOUND = 1;
+    int CLASHED = 2; // reactivating it would clash with another active application for the same pair
+
+    /**
+     * Submit a new application unless the adopter already has an active one for the pet.
+     * The duplicate check and the insert are one atomic step.
+     * @return the new application, or null for a duplicate
+     */
+    Application submit(int adopterId, int petId, int shelterId, String notes) throws DatabaseException;
+
+    /**
+     * Add an existing application as it is (demo data, restores)
+     */
+    void add(Application application) throws DatabaseException;
+
+    Application findById(int id) throws DatabaseException;
+
+    /**
+     * Every application, in id order
+     */
+    Collection<Application> findAll() throws DatabaseException;
+
+    List<Application> findByAdopter(int adopterId) throws DatabaseException;
+
+    List<Application> findByPet(int petId) throws DatabaseException;
+
+    /**
+     * Applications for pets listed by the shelter
+     */
+    List<Application> findByShelter(int shelterId) throws DatabaseException;
+
+    /**
+     * The adopter's active application for the pet, or null
+     */
+    Application findActive(int adopterId, int petId) throws DatabaseException;
+
+    /**
+     * @return UPDATED, NOT_FOUND, or CLASHED if reactivating it would clash
+     *         with another active application for the same pair
+     */
+    int updateStatus(int id, String status) throws DatabaseException;
+
+    /**
+     * @return the removed application, or null if it did not exist
+     */
+    Application remove(int id) throws DatabaseException;
+
+    int size() throws DatabaseException;
+
+    /**
+     * Count every stored application, for PlatformStats.reconcile()
+     */
+    void recount(PlatformStats.Recount recount) throws DatabaseException;
+}
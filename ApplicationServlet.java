@@ -1,50 +1,25 @@
 import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.ZoneId;
+import java.util.Collection;
 
 /**
  * ApplicationServlet - Handles adoption applications
  * GET /api/applications - List applications
  * POST /api/applications - Submit adoption application
  * PUT /api/applications - Update application status (Shelter/Admin only)
+ *
+ * Applications are read and written through Repositories.web().
  */
-public class ApplicationServlet extends HttpServlet {
+public class ApplicationServlet extends AsyncHttpServlet {
     private static final Gson gson = new Gson();
-    private static List<ApplicationData> applicationDatabase = new ArrayList<>();
-    private static int applicationCounter = 1;
-
-    static class ApplicationData {
-        int id;
-        int adopterId;
-        int petId;
-        String status;
-        String applicationNotes;
-        long createdAt;
-
-        ApplicationData(int adopterId, int petId, String applicationNotes) {
-            this.id = applicationCounter++;
-            this.adopterId = adopterId;
-            this.petId = petId;
-            this.status = "submitted";
-            this.applicationNotes = applicationNotes;
-            this.createdAt = System.currentTimeMillis();
-        }
-    }
-
-    // Initialize demo data
-    static {
-        applicationDatabase.add(new ApplicationData(3, 1, "I love dogs and have a big backyard!"));
-        applicationDatabase.add(new ApplicationData(4, 2, "Cats are perfect for my apartment."));
-    }
+    static final ApplicationRepository applications = Repositories.web().applications;
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
@@ -53,31 +28,43 @@ public class ApplicationServlet extends HttpServlet {
         response.setCharacterEncoding("UTF-8");
         PrintWriter out = response.getWriter();
 
-        HttpSession session = request.getSession(false);
-        if (session == null) {
+        AuthPrincipal principal = AuthPrincipal.of(request);
+        if (principal == null) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             out.println("{\"success\": false, \"message\": \"Not authenticated\"}");
             return;
         }
 
-        String userRole = (String) session.getAttribute("userRole");
-        int userId = Integer.parseInt((String) session.getAttribute("userId"));
-
-        JsonArray applicationsArray = new JsonArray();
+        String userRole = principal.role;
+        int userId = principal.userIdAsInt();
 
-        for (ApplicationData app : applicationDatabase) {
-            // Adopters see only their applications
-            if ("adopter".equals(userRole) && app.adopterId != userId) {
-                continue;
+        // Adopters see only their applications and shelters only those for their pets,
+        // each straight from its index; admins see everything
+        Collection<Application> visible;
+        try {
+            if ("adopter".equals(userRole)) {
+                visible = applications.findByAdopter(userId);
+            } else if ("shelter".equals(userRole)) {
+                visible = applications.findByShelter(userId);
+            } else {
+                visible = applications.findAll();
             }
-            // Shelters see applications for their pets (would need pet-shelter mapping)
-            // For demo, we show all. In production, filter by shelterPets.
-
-            applicationsArray.add(applicationToJson(app));
+        } catch (DatabaseException e) {
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            out.println(errorJson("Error: " + e.getMessage()));
+            return;
         }
 
+        // Stream each application straight onto the response instead of building a JsonArray tree
         response.setStatus(HttpServletResponse.SC_OK);
-        out.println(applicationsArray.toString());
+        JsonWriter json = PetServlet.newJsonWriter(out);
+        json.beginArray();
+        for (Application app : visible) {
+            writeApplication(json, app);
+        }
+        json.endArray();
+        json.flush();
+        out.println();
     }
 
     @Override
@@ -87,8 +74,8 @@ public class ApplicationServlet extends HttpServlet {
         response.setCharacterEncoding("UTF-8");
         PrintWriter out = response.getWriter();
 
-        HttpSession session = request.getSession(false);
-        if (session == null || !"adopter".equals(session.getAttribute("userRole"))) {
+        AuthPrincipal principal = AuthPrincipal.of(request);
+        if (principal == null || !principal.hasRole("adopter")) {
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             out.println("{\"success\": false, \"message\": \"Only adopters can submit applications\"}");
             return;
@@ -103,33 +90,37 @@ public class ApplicationServlet extends HttpServlet {
             }
 
             JsonObject appRequest = gson.fromJson(sb.toString(), JsonObject.class);
-            int adopterId = Integer.parseInt((String) session.getAttribute("userId"));
+            int adopterId = principal.userIdAsInt();
             int petId = appRequest.get("petId").getAsInt();
             String notes = appRequest.get("notes").getAsString();
 
-            // Check for duplicate applications
-            for (ApplicationData app : applicationDatabase) {
-                if (app.adopterId == adopterId && app.petId == petId
-                        && !("rejected".equals(app.status) || "adopted".equals(app.status))) {
-                    response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
-                    out.println("{\"success\": false, \"message\": \"You already have an active application for this pet\"}");
-                    return;
-                }
+            Pet pet = PetServlet.findPet(petId);
+            if (pet == null) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                out.println("{\"success\": false, \"message\": \"Pet not found\"}");
+                return;
+            }
+
+            // Duplicate check and insert in one atomic step
+            Application newApp = applications.submit(adopterId, petId, pet.getShelterId(), notes);
+            if (newApp == null) {
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                out.println("{\"success\": false, \"message\": \"You already have an active application for this pet\"}");
+                return;
             }
 
-            ApplicationData newApp = new ApplicationData(adopterId, petId, notes);
-            applicationDatabase.add(newApp);
+            EventBus.DEFAULT.publish("application.submitted", eventData(newApp), newApp.getShelterId());
 
             JsonObject responseJson = new JsonObject();
             responseJson.addProperty("success", true);
             responseJson.addProperty("message", "Application submitted successfully");
-            responseJson.addProperty("applicationId", newApp.id);
+            responseJson.addProperty("applicationId", newApp.getId());
 
             response.setStatus(HttpServletResponse.SC_CREATED);
             out.println(responseJson.toString());
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            out.println("{\"success\": false, \"message\": \"Error: " + e.getMessage() + "\"}");
+            out.println(errorJson("Error: " + e.getMessage()));
         }
     }
 
@@ -140,10 +131,10 @@ public class ApplicationServlet extends HttpServlet {
         response.setCharacterEncoding("UTF-8");
         PrintWriter out = response.getWriter();
 
-        HttpSession session = request.getSession(false);
-        String userRole = session != null ? (String) session.getAttribute("userRole") : null;
+        AuthPrincipal principal = AuthPrincipal.of(request);
+        String userRole = principal != null ? principal.role : null;
 
-        if (session == null || (!("shelter".equals(userRole) || "admin".equals(userRole)))) {
+        if (!"shelter".equals(userRole) && !"admin".equals(userRole)) {
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             out.println("{\"success\": false, \"message\": \"Shelter or Admin access required\"}");
             return;
@@ -161,36 +152,71 @@ public class ApplicationServlet extends HttpServlet {
             int applicationId = updateRequest.get("applicationId").getAsInt();
             String newStatus = updateRequest.get("status").getAsString();
 
-            for (ApplicationData app : applicationDatabase) {
-                if (app.id == applicationId) {
-                    app.status = newStatus;
-
-                    JsonObject responseJson = new JsonObject();
-                    responseJson.addProperty("success", true);
-                    responseJson.addProperty("message", "Application status updated to: " + newStatus);
+            Application app = applications.findById(applicationId);
+            if (app == null) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                out.println("{\"success\": false, \"message\": \"Application not found\"}");
+                return;
+            }
+            // Shelters may only decide on applications for their own pets
+            if ("shelter".equals(userRole)
+                    && app.getShelterId() != principal.userIdAsInt()) {
+                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                out.println("{\"success\": false, \"message\": \"Application is for another shelter's pet\"}");
+                return;
+            }
+            int outcome = applications.updateStatus(applicationId, newStatus);
+            if (outcome == ApplicationRepository.NOT_FOUND) {
+                // Removed since it was read above
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                out.println("{\"success\": false, \"message\": \"Application not found\"}");
+                return;
+            }
+            if (outcome == ApplicationRepository.CLASHED) {
+                response.setStatus(HttpServletResponse.SC_CONFLICT);
+                out.println("{\"success\": false, \"message\": \"Adopter already has another active application for this pet\"}");
+                return;
+            }
 
-                    response.setStatus(HttpServletResponse.SC_OK);
-                    out.println(responseJson.toString());
-                    return;
-                }
+            // Both sides of the application see the decision live
+            Application updated = applications.findById(applicationId);
+            if (updated != null) {
+                EventBus.DEFAULT.publish("application.status", eventData(updated), updated.getAdopterId(),
+                        updated.getShelterId());
             }
 
-            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-            out.println("{\"success\": false, \"message\": \"Application not found\"}");
+            JsonObject responseJson = new JsonObject();
+            responseJson.addProperty("success", true);
+            responseJson.addProperty("message", "Application status updated to: " + newStatus);
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            out.println(responseJson.toString());
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            out.println("{\"success\": false, \"message\": \"Error: " + e.getMessage() + "\"}");
+            out.println(errorJson("Error: " + e.getMessage()));
         }
     }
 
-    private JsonObject applicationToJson(ApplicationData app) {
-        JsonObject json = new JsonObject();
-        json.addProperty("id", app.id);
-        json.addProperty("adopterId", app.adopterId);
-        json.addProperty("petId", app.petId);
-        json.addProperty("status", app.status);
-        json.addProperty("notes", app.applicationNotes);
-        json.addProperty("submittedAt", app.createdAt);
-        return json;
+    /**
+     * Payload of application events on /api/events
+     */
+    static String eventData(Application app) {
+        JsonObject data = new JsonObject();
+        data.addProperty("applicationId", app.getId());
+        data.addProperty("petId", app.getPetId());
+        data.addProperty("status", app.getStatus());
+        return data.toString();
+    }
+
+    static void writeApplication(JsonWriter json, Application app) throws IOException {
+        json.beginObject();
+        json.name("id").value(app.getId());
+        json.name("adopterId").value(app.getAdopterId());
+        json.name("petId").value(app.getPetId());
+        json.name("status").value(app.getStatus());
+        json.name("notes").value(app.getApplicationNotes());
+        // Epoch milliseconds, as before
+        json.name("submittedAt").value(app.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        json.endObject();
     }
 }
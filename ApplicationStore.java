@@ -0,0 +1,237 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * ApplicationStore - Thread-safe in-memory ApplicationRepository
+ * O(1) lookup by id, per-adopter, per-pet and per-shelter indexes ordered by
+ * application id, and a map from (adopterId, petId) to that pair's active application.
+ *
+ * submit() claims the pair with one atomic computeIfAbsent, so of two identical
+ * concurrent submissions exactly one succeeds. All status changes must go
+ * through updateStatus() so the active-pair map and the PlatformStats
+ * counters stay in step.
+ */
+public class ApplicationStore implements ApplicationRepository {
+    private final Map<Integer, Application> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Application> ordered = new ConcurrentSkipListMap<>();
+    private final Map<Long, Application> activeByPair = new ConcurrentHashMap<>();
+    private final Index byAdopter = new Index();
+    private final Index byPet = new Index();
+    private final Index byShelter = new Index();
+    private final PlatformStats stats;
+
+    public ApplicationStore() {
+        this(new PlatformStats());
+    }
+
+    public ApplicationStore(PlatformStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Secondary index: key -> applications with that key, ordered by id
+     */
+    private static final class Index {
+        private final Map<Integer, ConcurrentSkipListMap<Integer, Application>> buckets = new ConcurrentHashMap<>();
+
+        void add(int key, Application app) {
+            buckets.compute(key, (k, bucket) -> {
+                if (bucket == null) {
+                    bucket = new ConcurrentSkipListMap<>();
+                }
+                bucket.put(app.getId(), app);
+                return bucket;
+            });
+        }
+
+        void remove(int key, Application app) {
+            buckets.computeIfPresent(key, (k, bucket) -> {
+                bucket.remove(app.getId());
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+
+        List<Application> get(int key) {
+            ConcurrentSkipListMap<Integer, Application> bucket = buckets.get(key);
+            return bucket == null ? Collections.emptyList() : new ArrayList<>(bucket.values());
+        }
+    }
+
+    /**
+     * Rejected and adopted applications no longer block a new one for the same pet
+     */
+    static boolean isActive(String status) {
+        return !("rejected".equals(status) || "adopted".equals(status));
+    }
+
+    private static long pairKey(int adopterId, int petId) {
+        return ((long) adopterId << 32) | (petId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Submit a new application unless the adopter already has an active one for the pet
+     * @return the new application, or null for a duplicate
+     */
+    @Override
+    public Application submit(int adopterId, int petId, int shelterId, String notes) {
+        // The application (and its id) is only created by the caller that wins the pair
+        Application[] created = new Application[1];
+        activeByPair.computeIfAbsent(pairKey(adopterId, petId), key -> {
+            created[0] = new Application(IdAllocator.APPLICATIONS.next(), adopterId, petId, notes);
+            created[0].setShelterId(shelterId);
+            return created[0];
+        });
+        if (created[0] == null) {
+            return null;
+        }
+        index(created[0]);
+        return created[0];
+    }
+
+    /**
+     * Add an existing application (demo data, restores), taking the next id from
+     * IdAllocator.APPLICATIONS if it has none; fails if the id is already taken
+     */
+    @Override
+    public void add(Application app) {
+        if (app.getId() == 0) {
+            app.id = IdAllocator.APPLICATIONS.next();
+        } else {
+            IdAllocator.APPLICATIONS.reserveUpTo(app.getId());
+        }
+        synchronized (app) {
+            if (byId.putIfAbsent(app.getId(), app) != null) {
+                throw new IllegalStateException("Duplicate application id: " + app.getId());
+            }
+            if (isActive(app.getStatus()) && activeByPair.putIfAbsent(pairKey(app.getAdopterId(), app.getPetId()), app) != null) {
+                byId.remove(app.getId(), app);
+                throw new IllegalStateException("Adopter " + app.getAdopterId()
+                        + " already has an active application for pet " + app.getPetId());
+            }
+            index(app);
+        }
+    }
+
+    private void index(Application app) {
+        byId.put(app.getId(), app);
+        ordered.put(app.getId(), app);
+        byAdopter.add(app.getAdopterId(), app);
+        byPet.add(app.getPetId(), app);
+        if (app.getShelterId() > 0) {
+            byShelter.add(app.getShelterId(), app);
+        }
+        stats.applicationAdded(app.getShelterId(), app.getStatus());
+    }
+
+    @Override
+    public Application findById(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Every application, in id order (live, weakly consistent view)
+     */
+    @Override
+    public Collection<Application> findAll() {
+        return Collections.unmodifiableCollection(ordered.values());
+    }
+
+    @Override
+    public List<Application> findByAdopter(int adopterId) {
+        return byAdopter.get(adopterId);
+    }
+
+    @Override
+    public List<Application> findByPet(int petId) {
+        return byPet.get(petId);
+    }
+
+    /**
+     * Applications for pets listed by the shelter, in time proportional to that shelter's own applications
+     */
+    @Override
+    public List<Application> findByShelter(int shelterId) {
+        return byShelter.get(shelterId);
+    }
+
+    /**
+     * The adopter's active application for the pet, or null
+     */
+    @Override
+    public Application findActive(int adopterId, int petId) {
+        return activeByPair.get(pairKey(adopterId, petId));
+    }
+
+    /**
+     * Change an application's status, releasing its (adopter, pet) pair once it is rejected or adopted
+     * @return UPDATED, NOT_FOUND, or CLASHED if reactivating it would clash
+     *         with another active application for the same pair
+     */
+    @Override
+    public int updateStatus(int id, String status) {
+        Application app = byId.get(id);
+        if (app == null) {
+            return NOT_FOUND;
+        }
+        synchronized (app) {
+            long key = pairKey(app.getAdopterId(), app.getPetId());
+            boolean wasActive = isActive(app.getStatus());
+            boolean nowActive = isActive(status);
+            if (!wasActive && nowActive && activeByPair.putIfAbsent(key, app) != null) {
+                return CLASHED;
+            }
+            stats.applicationStatusChanged(app.getShelterId(), app.getStatus(), status);
+            app.setStatus(status);
+            if (wasActive && !nowActive) {
+                activeByPair.remove(key, app);
+            }
+        }
+        return UPDATED;
+    }
+
+    /**
+     * Remove an application from the store and every index
+     * @return the removed application, or null if it did not exist
+     */
+    @Override
+    public Application remove(int id) {
+        Application app = byId.get(id);
+        if (app == null) {
+            return null;
+        }
+        synchronized (app) {
+            if (!byId.remove(id, app)) {
+                return null;
+            }
+            ordered.remove(id);
+            activeByPair.remove(pairKey(app.getAdopterId(), app.getPetId()), app);
+            byAdopter.remove(app.getAdopterId(), app);
+            byPet.remove(app.getPetId(), app);
+            byShelter.remove(app.getShelterId(), app);
+            stats.applicationRemoved(app.getShelterId(), app.getStatus());
+        }
+        return app;
+    }
+
+    @Override
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Count every stored application, for PlatformStats.reconcile()
+     */
+    @Override
+    public void recount(PlatformStats.Recount recount) {
+        for (Application app : ordered.values()) {
+            synchronized (app) {
+                recount.application(app.getShelterId(), app.getStatus());
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ApplicationStoreTest - Unit tests for ApplicationStore
+ * Tests the atomic duplicate check and index consistency
+ *
+ * Coverage:
+ * - Duplicate active applications rejected
+ * - Re-applying after rejection
+ * - Lookup by adopter, pet and shelter
+ * - Concurrent identical submissions
+ * - Removal from every index
+ */
+@DisplayName("ApplicationStore Index Tests")
+public class ApplicationStoreTest {
+
+    private ApplicationStore store;
+    private Application first;
+
+    @BeforeEach
+    void setUp() {
+        store = new ApplicationStore();
+        first = store.submit(3, 1, 2, "I love dogs!");
+        store.submit(4, 2, 2, "Cats are perfect!");
+        store.submit(3, 2, 2, "Also a cat person");
+    }
+
+    @Test
+    @DisplayName("Should reject a duplicate active application")
+    void testDuplicateRejected() {
+        assertNotNull(first);
+        assertNull(store.submit(3, 1, 2, "Again"), "Same adopter and pet should be a duplicate");
+        assertEquals(3, store.size(), "Duplicate should not be stored");
+        assertSame(first, store.findActive(3, 1));
+    }
+
+    @Test
+    @DisplayName("Should allow re-applying once the previous application is rejected")
+    void testReapplyAfterRejection() {
+        assertEquals(ApplicationRepository.UPDATED, store.updateStatus(first.getId(), "rejected"));
+        assertNull(store.findActive(3, 1), "Rejected application should release the pair");
+
+        Application second = store.submit(3, 1, 2, "Second try");
+        assertNotNull(second, "New application should be accepted");
+        assertEquals(ApplicationRepository.CLASHED, store.updateStatus(first.getId(), "submitted"),
+                "Old application cannot become active again");
+        assertEquals(ApplicationRepository.NOT_FOUND, store.updateStatus(999, "submitted"));
+    }
+
+    @Test
+    @DisplayName("Should find applications by adopter and pet")
+    void testSecondaryIndexes() {
+        List<Application> adopter3 = store.findByAdopter(3);
+        assertEquals(2, adopter3.size(), "Adopter 3 has two applications");
+        assertTrue(adopter3.get(0).getId() < adopter3.get(1).getId(), "Should be in id order");
+        assertEquals(2, store.findByPet(2).size(), "Pet 2 has two applications");
+        assertEquals(3, store.findByShelter(2).size(), "Shelter 2 listed both pets");
+        assertTrue(store.findByAdopter(99).isEmpty());
+        assertTrue(store.findByShelter(99).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should accept exactly one of many identical concurrent submissions")
+    void testConcurrentDuplicates() throws InterruptedException {
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    if (store.submit(7, 9, 5, "Race") != null) {
+                        accepted.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1, accepted.get(), "Only one identical submission should succeed");
+        assertEquals(1, store.findByAdopter(7).size());
+    }
+
+    @Test
+    @DisplayName("Should remove application from every index")
+    void testRemove() {
+        assertNotNull(store.remove(first.getId()));
+
+        assertNull(store.findById(first.getId()));
+        assertNull(store.findActive(3, 1));
+        assertTrue(store.findByPet(1).isEmpty());
+        assertEquals(2, store.findByShelter(2).size(), "Shelter index should drop the application");
+        assertNull(store.remove(first.getId()), "Second delete should find nothing");
+    }
+}
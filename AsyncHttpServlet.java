@@ -0,0 +1,342 @@
+import com.google.gson.JsonObject;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AsyncHttpServlet - Runs doGet/doPost/... off the container thread
+ * When the container supports async, service() starts an AsyncContext, queues
+ * the request and returns the container thread at once. Queued requests run
+ * on virtual threads, at most petadoption.async.maxRunning at a time. Every
+ * request gets a RequestDeadline, which bounds its JDBC statements:
+ * - shed by the AdmissionController -> 503 with Retry-After
+ * - deadline passes while queued    -> 504, the handler never runs
+ * - deadline passes while running   -> running statement cancelled; 504 if
+ *                                      the handler ran into the deadline
+ *
+ * Only the thread that moves a request out of the queue writes its response,
+ * so a late handler never writes to a response that has been completed.
+ *
+ * The queue is ordered by the user's role (admin > shelter > adopter >
+ * anonymous), first come first served within a role, and under pressure
+ * the lowest priorities are shed first.
+ *
+ * Configured with petadoption.async.* system properties; without async
+ * support (or with petadoption.async.enabled=false) requests run inline,
+ * still under a deadline.
+ */
+public abstract class AsyncHttpServlet extends HttpServlet {
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("petadoption.async.enabled", "true"));
+    static final long DEFAULT_TIMEOUT_MILLIS = Long.getLong("petadoption.async.timeoutMs", 10_000);
+    static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    // Bounds the (otherwise unbounded) priority queue below
+    static final AdmissionController ADMISSION = new AdmissionController(
+            Integer.getInteger("petadoption.async.queueSize", 256),
+            Long.getLong("petadoption.async.targetQueueWaitMs", 50));
+
+    // Handlers running at once; the rest wait in QUEUE in priority order
+    private static final Semaphore RUNNING_SLOTS = new Semaphore(
+            Integer.getInteger("petadoption.async.maxRunning", 256));
+    private static final PriorityBlockingQueue<QueuedRequest> QUEUE = new PriorityBlockingQueue<>();
+    private static final ExecutorService WORKERS = Executors.newVirtualThreadPerTaskExecutor();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final ScheduledThreadPoolExecutor DEADLINES = new ScheduledThreadPoolExecutor(1,
+            daemonThreads("petadoption-deadline-"));
+
+    static {
+        DEADLINES.setRemoveOnCancelPolicy(true);
+    }
+
+    // Request states: whoever moves a request out of QUEUED writes its response
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int TIMED_OUT = 2;
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        RequestDeadline deadline = new RequestDeadline(timeoutMillis(request));
+        if (!ENABLED || !request.isAsyncSupported()) {
+            runHandler(deadline, request, response);
+            return;
+        }
+
+        int priority = AdmissionController.priorityOf(AuthPrincipal.roleOf(request));
+        if (!ADMISSION.tryAdmit(priority)) {
+            response.setHeader("Retry-After", "1");
+            sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy, please retry");
+            return;
+        }
+
+        AsyncContext async = request.startAsync(request, response);
+        // The handler's thread always completes the request, so the container must not time it out
+        async.setTimeout(0);
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                deadline.cancel();
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        QueuedRequest queued = new QueuedRequest(priority, deadline, new DispatchedRequest(request), response, async);
+        queued.timer = DEADLINES.schedule(queued::expire, deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        QUEUE.add(queued);
+        dispatch();
+    }
+
+    /**
+     * Start queued requests, highest priority first, while fewer than maxRunning are running
+     */
+    private static void dispatch() {
+        while (RUNNING_SLOTS.tryAcquire()) {
+            QueuedRequest next = QUEUE.poll();
+            if (next == null) {
+                RUNNING_SLOTS.release();
+                // A request queued while we held the slot found none free; start it ourselves
+                if (QUEUE.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            // Queue wait ends here: time until the virtual thread is scheduled is CPU load, not queueing
+            ADMISSION.started(System.nanoTime() - next.enqueuedNanos);
+            try {
+                WORKERS.execute(next::run);
+            } catch (RejectedExecutionException e) {
+                // Only when the executor is shutting down
+                ADMISSION.finished();
+                RUNNING_SLOTS.release();
+                next.reject();
+            }
+        }
+    }
+
+    /**
+     * Run the handler under its deadline and answer 504 if it ran into the deadline.
+     * A handler that finished in time keeps its response, however late the clock is now.
+     */
+    private void runHandler(RequestDeadline deadline, HttpServletRequest request, HttpServletResponse response) {
+        try {
+            deadline.runWith(() -> handle(request, response));
+        } catch (RequestDeadline.ExceededException e) {
+            // Recorded by the deadline
+        }
+        // A servlet that caught the timeout itself has only written a generic error; report it as one
+        if (deadline.exceeded()) {
+            sendError(response, HttpServletResponse.SC_GATEWAY_TIMEOUT, "Request timed out");
+        }
+    }
+
+    /**
+     * Admitted request waiting for a running slot: higher priority first, then arrival order.
+     * Reported to the AdmissionController when it leaves the queue, even if it never runs.
+     */
+    private final class QueuedRequest implements Comparable<QueuedRequest> {
+        final int priority;
+        final long sequence = SEQUENCE.incrementAndGet();
+        final long enqueuedNanos = System.nanoTime();
+        final RequestDeadline deadline;
+        final HttpServletRequest request;
+        final HttpServletResponse response;
+        final AsyncContext async;
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+        volatile ScheduledFuture<?> timer;
+
+        QueuedRequest(int priority, RequestDeadline deadline, HttpServletRequest request,
+                HttpServletResponse response, AsyncContext async) {
+            this.priority = priority;
+            this.deadline = deadline;
+            this.request = request;
+            this.response = response;
+            this.async = async;
+        }
+
+        void run() {
+            try {
+                // Skip work whose deadline passed while it was queued; the timer has answered it
+                if (state.compareAndSet(QUEUED, RUNNING)) {
+                    try {
+                        runHandler(deadline, request, response);
+                    } finally {
+                        timer.cancel(false);
+                        completeQuietly(async);
+                    }
+                }
+            } finally {
+                ADMISSION.finished();
+                RUNNING_SLOTS.release();
+                dispatch();
+            }
+        }
+
+        /**
+         * Deadline timer: answer a request that never started, or cancel the running one's
+         * statement and leave the answer to its thread
+         */
+        void expire() {
+            if (state.compareAndSet(QUEUED, TIMED_OUT)) {
+                // Leave the queue now rather than when dispatch reaches it, so it stops counting against
+                // admission; if dispatch already took it, run() does the accounting
+                if (QUEUE.remove(this)) {
+                    ADMISSION.expired(System.nanoTime() - enqueuedNanos);
+                }
+                sendError(response, HttpServletResponse.SC_GATEWAY_TIMEOUT, "Request timed out");
+                completeQuietly(async);
+            } else {
+                deadline.cancel();
+            }
+        }
+
+        void reject() {
+            if (state.compareAndSet(QUEUED, TIMED_OUT)) {
+                timer.cancel(false);
+                response.setHeader("Retry-After", "1");
+                sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy, please retry");
+                completeQuietly(async);
+            }
+        }
+
+        @Override
+        public int compareTo(QueuedRequest other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * The request with its servlet path and path info as mapped for this servlet.
+     * The container clears the mapping once its thread leaves service(), so a
+     * handler running later on the executor would otherwise see null/the full URI.
+     */
+    private static final class DispatchedRequest extends HttpServletRequestWrapper {
+        private final String servletPath;
+        private final String pathInfo;
+
+        DispatchedRequest(HttpServletRequest request) {
+            super(request);
+            this.servletPath = request.getServletPath();
+            this.pathInfo = request.getPathInfo();
+        }
+
+        @Override
+        public String getServletPath() {
+            return servletPath;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return pathInfo;
+        }
+    }
+
+    /**
+     * Dispatch to doGet/doPost/... as HttpServlet would. Whatever a handler throws is answered
+     * here, so the request is never completed with an empty 200.
+     */
+    private void handle(HttpServletRequest request, HttpServletResponse response) {
+        try {
+            super.service(request, response);
+        } catch (ServletException | IOException e) {
+            sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error: " + e.getMessage());
+        } catch (RequestDeadline.ExceededException e) {
+            throw e; // answered 504 by runHandler()
+        } catch (RuntimeException e) {
+            System.err.println("❌ " + request.getMethod() + " " + request.getRequestURI() + " failed: " + e);
+            sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal server error");
+        }
+    }
+
+    /**
+     * Per-request budget: the configured default, which a client may shorten with X-Request-Timeout-Ms
+     */
+    static long timeoutMillis(HttpServletRequest request) {
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                long requested = Long.parseLong(header.trim());
+                if (requested > 0) {
+                    return Math.min(requested, DEFAULT_TIMEOUT_MILLIS);
+                }
+            } catch (NumberFormatException e) {
+                // Malformed header: use the default
+            }
+        }
+        return DEFAULT_TIMEOUT_MILLIS;
+    }
+
+    /**
+     * Replace whatever is buffered with a JSON error, unless the response is already on the wire
+     */
+    static void sendError(HttpServletResponse response, int status, String message) {
+        if (response.isCommitted()) {
+            return;
+        }
+        try {
+            response.resetBuffer();
+            response.setStatus(status);
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().println(errorJson(message));
+        } catch (IOException | IllegalStateException e) {
+            // Client is gone or the response was already closed
+        }
+    }
+
+    /**
+     * {"success": false, "message": ...} with the message escaped, so client input echoed in it stays valid JSON
+     */
+    static String errorJson(String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("success", false);
+        error.addProperty("message", message);
+        return error.toString();
+    }
+
+    private static void completeQuietly(AsyncContext async) {
+        try {
+            async.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
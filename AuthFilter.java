@@ -0,0 +1,24 @@
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * AuthFilter - Resolves the request's AuthPrincipal once, before any servlet runs
+ * Invalid or expired tokens simply leave the request anonymous; the servlets
+ * decide which endpoints need a login.
+ */
+public class AuthFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (request instanceof HttpServletRequest) {
+            AuthPrincipal.of((HttpServletRequest) request);
+        }
+        chain.doFilter(request, response);
+    }
+}
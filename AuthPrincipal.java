@@ -0,0 +1,75 @@
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * AuthPrincipal - The authenticated user of a request
+ * Resolved once per request, by AuthFilter or on first use, and kept as a
+ * request attribute:
+ * 1. a signed token (Authorization: Bearer ... or the petadoption_token cookie)
+ * 2. otherwise the attributes of an existing HttpSession (session mode)
+ */
+public final class AuthPrincipal {
+    static final String REQUEST_ATTRIBUTE = "petadoption.principal";
+    // Marks a request that was resolved and found anonymous, so it is not parsed again
+    private static final Object ANONYMOUS = new Object();
+
+    final String userId;
+    final String email;
+    final String name;
+    final String role;
+    final long expiresAtEpochSecond;
+
+    AuthPrincipal(String userId, String email, String name, String role, long expiresAtEpochSecond) {
+        this.userId = userId;
+        this.email = email;
+        this.name = name;
+        this.role = role;
+        this.expiresAtEpochSecond = expiresAtEpochSecond;
+    }
+
+    int userIdAsInt() {
+        return Integer.parseInt(userId);
+    }
+
+    boolean hasRole(String expected) {
+        return expected.equals(role);
+    }
+
+    /**
+     * Principal of the request, or null when it is not authenticated
+     */
+    static AuthPrincipal of(HttpServletRequest request) {
+        Object cached = request.getAttribute(REQUEST_ATTRIBUTE);
+        if (cached == null) {
+            AuthPrincipal resolved = resolve(request);
+            request.setAttribute(REQUEST_ATTRIBUTE, resolved != null ? resolved : ANONYMOUS);
+            return resolved;
+        }
+        return cached instanceof AuthPrincipal ? (AuthPrincipal) cached : null;
+    }
+
+    /**
+     * Role of the request's user, or null when it is not authenticated
+     */
+    static String roleOf(HttpServletRequest request) {
+        AuthPrincipal principal = of(request);
+        return principal != null ? principal.role : null;
+    }
+
+    private static AuthPrincipal resolve(HttpServletRequest request) {
+        String token = SessionTokens.fromRequest(request);
+        if (token != null) {
+            return SessionTokens.verify(token);
+        }
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute("userId") == null) {
+            return null;
+        }
+        return new AuthPrincipal(
+                (String) session.getAttribute("userId"),
+                (String) session.getAttribute("userEmail"),
+                (String) session.getAttribute("userName"),
+                (String) session.getAttribute("userRole"),
+                Long.MAX_VALUE);
+    }
+}
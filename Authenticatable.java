@@ -0,0 +1,8 @@
+/**
+ * Interface for authentication
+ */
+interface Authenticatable {
+    boolean authenticate(String email, String password) throws InvalidUserException;
+
+    String getRole();
+}
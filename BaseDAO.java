@@ -0,0 +1,297 @@
+import java.util.*;
+import java.sql.*;
+
+/**
+ * Abstract base DAO class with generic type
+ * Demonstrates generics and abstraction
+ */
+abstract class BaseDAO<T extends Entity> {
+    static final int DEFAULT_BATCH_SIZE = Integer.getInteger("petadoption.db.batchSize", 500);
+
+    protected Class<T> entityClass;
+    final SqlEngine engine;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    public BaseDAO(Class<T> entityClass) {
+        this(entityClass, MySqlEngine.INSTANCE);
+    }
+
+    public BaseDAO(Class<T> entityClass, SqlEngine engine) {
+        this.entityClass = entityClass;
+        this.engine = engine;
+    }
+
+    abstract void save(T entity) throws DatabaseException;
+
+    abstract T findById(int id) throws DatabaseException;
+
+    abstract List<T> findAll() throws DatabaseException;
+
+    abstract void update(T entity) throws DatabaseException;
+
+    abstract void delete(int id) throws DatabaseException;
+
+    // SQL and parameter binding shared by the single-row and batch paths
+    abstract String tableName();
+
+    abstract String insertSql();
+
+    abstract void bindInsert(PreparedStatement pstmt, T entity) throws SQLException;
+
+    abstract String updateSql();
+
+    abstract void bindUpdate(PreparedStatement pstmt, T entity) throws SQLException;
+
+    // Explicit column list and row mapping shared by every read
+    abstract String columns();
+
+    abstract T mapRow(ResultSet rs) throws SQLException;
+
+    // Hooks run after a row is written, e.g. to keep an in-memory index in step
+    void afterSave(T entity) {
+    }
+
+    void afterUpdate(T entity) {
+    }
+
+    void afterDelete(int id) {
+    }
+
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Insert many entities with JDBC batching, one transaction per chunk.
+     * Generated ids are written back into the entities.
+     * @return number of rows inserted
+     */
+    int saveAll(Collection<T> entities) throws DatabaseException {
+        return executeBatch("save", insertSql(), entities, this::bindInsert, true, this::afterSave);
+    }
+
+    /**
+     * Update many entities with JDBC batching, one transaction per chunk
+     * @return number of rows updated
+     */
+    int updateAll(Collection<T> entities) throws DatabaseException {
+        return executeBatch("update", updateSql(), entities, this::bindUpdate, false, this::afterUpdate);
+    }
+
+    /**
+     * Delete many rows by id with JDBC batching, one transaction per chunk
+     * @return number of rows deleted
+     */
+    int deleteAll(Collection<Integer> ids) throws DatabaseException {
+        return executeBatch("delete", "DELETE FROM " + tableName() + " WHERE id = ?", ids,
+                (pstmt, id) -> pstmt.setInt(1, id), false, this::afterDelete);
+    }
+
+    /**
+     * Binds one item's parameters onto a statement
+     */
+    interface Binder<E> {
+        void bind(PreparedStatement pstmt, E item) throws SQLException;
+    }
+
+    private <E> int executeBatch(String operation, String sql, Collection<E> items, Binder<E> binder,
+            boolean readGeneratedKeys, java.util.function.Consumer<E> afterWrite) throws DatabaseException {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        // Row counts, written from inside the unit of work
+        int[] affected = { 0 };
+        int[] committed = { 0 };
+        try {
+            engine.write(session -> {
+                Connection conn = session.connection();
+                PreparedStatement pstmt = readGeneratedKeys ? session.prepareInsert(sql) : session.prepare(sql);
+                conn.setAutoCommit(false);
+                try {
+                    List<E> chunk = new ArrayList<>(Math.min(batchSize, items.size()));
+                    Iterator<E> it = items.iterator();
+                    while (it.hasNext()) {
+                        E item = it.next();
+                        binder.bind(pstmt, item);
+                        pstmt.addBatch();
+                        chunk.add(item);
+                        if (chunk.size() == batchSize || !it.hasNext()) {
+                            for (int count : pstmt.executeBatch()) {
+                                affected[0] += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                            }
+                            if (readGeneratedKeys) {
+                                assignGeneratedIds(session.generatedIds(pstmt, chunk.size()), chunk);
+                            }
+                            conn.commit();
+                            committed[0] += chunk.size();
+                            for (E written : chunk) {
+                                afterWrite.accept(written);
+                            }
+                            chunk.clear();
+                        }
+                    }
+                } catch (SQLException e) {
+                    pstmt.clearBatch();
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to " + operation + " " + tableName() + " batch after "
+                    + committed[0] + " committed rows: " + e.getMessage(), e);
+        }
+        System.out.println("✓ Batch " + operation + " on " + tableName() + ": " + affected[0] + " rows");
+        return affected[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> void assignGeneratedIds(int[] ids, List<E> chunk) {
+        for (int i = 0; i < ids.length && i < chunk.size(); i++) {
+            ((T) chunk.get(i)).id = ids[i];
+        }
+    }
+
+    /**
+     * Insert one entity and write its generated id back
+     */
+    void insertOne(T entity) throws DatabaseException {
+        try {
+            engine.write(session -> {
+                PreparedStatement pstmt = session.prepareInsert(insertSql());
+                bindInsert(pstmt, entity);
+                pstmt.executeUpdate();
+                int[] ids = session.generatedIds(pstmt, 1);
+                if (ids.length > 0) {
+                    entity.id = ids[0];
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to save " + entity.getEntityType().toLowerCase() + ": "
+                    + e.getMessage(), e);
+        }
+        afterSave(entity);
+    }
+
+    /**
+     * Update one entity's row
+     */
+    void updateOne(T entity) throws DatabaseException {
+        try {
+            engine.write(session -> {
+                PreparedStatement pstmt = session.prepare(updateSql());
+                bindUpdate(pstmt, entity);
+                return pstmt.executeUpdate();
+            });
+        } catch (SQLException e) {
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to update " + entity.getEntityType().toLowerCase() + ": "
+                    + e.getMessage(), e);
+        }
+        afterUpdate(entity);
+    }
+
+    /**
+     * Delete one row by id
+     * @return false if no row had the id
+     */
+    boolean deleteOne(int id) throws DatabaseException {
+        String sql = "DELETE FROM " + tableName() + " WHERE id = ?";
+        int deleted;
+        try {
+            deleted = engine.write(session -> {
+                PreparedStatement pstmt = session.prepare(sql);
+                pstmt.setInt(1, id);
+                return pstmt.executeUpdate();
+            });
+        } catch (SQLException e) {
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to delete " + entityClass.getSimpleName().toLowerCase() + ": "
+                    + e.getMessage(), e);
+        }
+        afterDelete(id);
+        return deleted > 0;
+    }
+
+    /**
+     * Number of rows in the table
+     */
+    int count() throws DatabaseException {
+        String sql = "SELECT COUNT(*) FROM " + tableName();
+        try {
+            return engine.read(session -> {
+                try (ResultSet rs = session.prepare(sql).executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
+        } catch (SQLException e) {
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to count " + tableName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * SELECT of this DAO's columns followed by an optional WHERE/ORDER BY clause
+     */
+    String selectSql(String clause) {
+        return "SELECT " + columns() + " FROM " + tableName() + (clause.isEmpty() ? "" : " " + clause);
+    }
+
+    /**
+     * Run a query expected to match at most one row
+     * @param what used in the error message, e.g. "find user"
+     */
+    T queryOne(String what, String sql, Object... params) throws DatabaseException {
+        try {
+            return engine.read(session -> {
+                try (ResultSet rs = prepare(session, sql, params).executeQuery()) {
+                    return rs.next() ? mapRow(rs) : null;
+                }
+            });
+        } catch (SQLException e) {
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to " + what + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run a query and map every row into a plain ArrayList
+     * @param what used in the error message, e.g. "fetch pets"
+     */
+    List<T> queryList(String what, String sql, Object... params) throws DatabaseException {
+        try {
+            return engine.read(session -> {
+                List<T> result = new ArrayList<>();
+                try (ResultSet rs = prepare(session, sql, params).executeQuery()) {
+                    while (rs.next()) {
+                        result.add(mapRow(rs));
+                    }
+                }
+                return result;
+            });
+        } catch (SQLException e) {
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to " + what + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static PreparedStatement prepare(SqlSession session, String sql, Object... params) throws SQLException {
+        PreparedStatement pstmt = session.prepare(sql);
+        for (int i = 0; i < params.length; i++) {
+            pstmt.setObject(i + 1, params[i]);
+        }
+        return pstmt;
+    }
+}
@@ -0,0 +1,106 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Size- and TTL-bounded LRU cache with hit/miss/eviction counters
+ */
+class BoundedCache<K, V> {
+    static final int DEFAULT_MAX_SIZE = Integer.getInteger("petadoption.cache.maxSize", 10_000);
+    static final long DEFAULT_TTL_MILLIS = Long.getLong("petadoption.cache.ttlMs", 60_000);
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private long generation = 0;
+
+    private static final class CacheEntry<V> {
+        final V value;
+        final long expiresAtNanos;
+
+        CacheEntry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    BoundedCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    BoundedCache(String name) {
+        this(name, DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * Cached value, or null on a miss or expired entry
+     */
+    synchronized V get(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos > 0) {
+            entries.remove(key);
+            expirations.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Token to pass to put() after loading a value on a miss
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Cache a loaded value unless something was invalidated since the load started
+     */
+    synchronized void put(K key, V value, long loadedAtGeneration) {
+        if (value != null && loadedAtGeneration == generation) {
+            entries.put(key, new CacheEntry<>(value, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    synchronized void invalidate(K key) {
+        generation++;
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    synchronized void invalidateAll() {
+        generation++;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    synchronized CacheStats stats() {
+        return new CacheStats(name, hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                invalidations.sum(), entries.size(), maxSize);
+    }
+}
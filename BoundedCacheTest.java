@@ -0,0 +1,76 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * BoundedCacheTest - Unit tests for BoundedCache
+ * Tests the size and TTL bounds and the guard against caching stale loads
+ *
+ * Coverage:
+ * - Hits and misses counted
+ * - Least recently used entry evicted at the size cap
+ * - Expired entries dropped
+ * - A load that raced with an invalidation is not cached
+ */
+@DisplayName("BoundedCache Tests")
+public class BoundedCacheTest {
+
+    @Test
+    @DisplayName("Should count hits and misses")
+    void testHitsAndMisses() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, 60_000);
+        assertNull(cache.get(1));
+        cache.put(1, "one", cache.generation());
+        assertEquals("one", cache.get(1));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits);
+        assertEquals(1, stats.misses);
+        assertEquals(1, stats.size);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry at the size cap")
+    void testEviction() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 2, 60_000);
+        cache.put(1, "one", cache.generation());
+        cache.put(2, "two", cache.generation());
+        cache.get(1);
+        cache.put(3, "three", cache.generation());
+
+        assertEquals("one", cache.get(1));
+        assertNull(cache.get(2), "least recently used");
+        assertEquals("three", cache.get(3));
+        assertEquals(1, cache.stats().evictions);
+        assertEquals(2, cache.stats().size);
+    }
+
+    @Test
+    @DisplayName("Should drop entries once their TTL has passed")
+    void testExpiry() throws InterruptedException {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, 0);
+        cache.put(1, "one", cache.generation());
+        Thread.sleep(1);
+
+        assertNull(cache.get(1));
+        assertEquals(1, cache.stats().expirations);
+        assertEquals(0, cache.stats().size);
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that started before an invalidation")
+    void testStaleLoad() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>("test", 10, 60_000);
+        long generation = cache.generation();
+        // A write lands while the value is being loaded
+        cache.invalidate(1);
+        cache.put(1, "stale", generation);
+        assertNull(cache.get(1));
+
+        cache.put(1, "fresh", cache.generation());
+        cache.invalidateAll();
+        assertNull(cache.get(1));
+        cache.put(1, null, cache.generation());
+        assertEquals(0, cache.stats().size, "misses are not cached");
+    }
+}
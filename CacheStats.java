@@ -0,0 +1,37 @@
+/**
+ * Point-in-time cache counters
+ */
+class CacheStats {
+    final String name;
+    final long hits;
+    final long misses;
+    final long evictions;
+    final long expirations;
+    final long invalidations;
+    final int size;
+    final int maxSize;
+
+    CacheStats(String name, long hits, long misses, long evictions, long expirations, long invalidations,
+            int size, int maxSize) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: size=%d/%d hits=%d misses=%d hitRate=%.1f%% evictions=%d expirations=%d "
+                + "invalidations=%d",
+                name, size, maxSize, hits, misses, hitRate() * 100, evictions, expirations, invalidations);
+    }
+}
@@ -0,0 +1,112 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * CachedDAOTest - Unit tests for CachedUserDAO and CachedPetDAO
+ * Runs the caches over an embedded database file in a temporary directory
+ *
+ * Coverage:
+ * - Repeated lookups served from the cache
+ * - Email and password changes seen straight away
+ * - Only exact stored emails cached
+ * - Callers get copies, never the cached objects
+ */
+@DisplayName("Cached DAO Tests")
+public class CachedDAOTest {
+
+    @TempDir
+    Path dir;
+
+    private SQLiteEngine engine;
+
+    @BeforeEach
+    void setUp() throws DatabaseException {
+        engine = SQLiteEngine.open(new SQLiteEngine.Config(dir.resolve("pets.db").toString(), 2, "NORMAL",
+                64L * 1024 * 1024, 2048, 1000, 2000, 16));
+    }
+
+    @AfterEach
+    void tearDown() throws DatabaseException {
+        engine.close();
+    }
+
+    private static CacheStats stats(List<CacheStats> all, String name) {
+        return all.stream().filter(stats -> stats.name.equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the cache and see every write")
+    void testUserCache() throws Exception {
+        CachedUserDAO users = new CachedUserDAO(engine);
+        User user = new User(0, "Cached", "cached@pet.com", "adopter", "cached123");
+        users.insertOne(user);
+
+        assertEquals(user.getId(), users.findByEmail("cached@pet.com").getId());
+        assertEquals(user.getId(), users.findByEmail("cached@pet.com").getId());
+        assertEquals(1, stats(users.cacheStats(), "users.byEmail").hits);
+
+        // A password change is seen by the next login
+        User changed = users.findByEmail("cached@pet.com");
+        changed.setPasswordHash(PasswordHasher.hash("changed123", 1_000));
+        users.updateOne(changed);
+        assertTrue(PasswordHasher.verify("changed123", users.findByEmail("cached@pet.com").getPasswordHash()));
+
+        // The old email stops resolving once it is changed
+        changed = users.findById(user.getId());
+        changed.setEmail("renamed@pet.com");
+        users.updateOne(changed);
+        assertNull(users.findByEmail("cached@pet.com"));
+        assertEquals(user.getId(), users.findByEmail("renamed@pet.com").getId());
+
+        users.deleteOne(user.getId());
+        assertNull(users.findByEmail("renamed@pet.com"));
+        assertNull(users.findById(user.getId()));
+    }
+
+    @Test
+    @DisplayName("Should only cache a user under the email as stored")
+    void testEmailVariants() throws Exception {
+        CachedUserDAO users = new CachedUserDAO(engine);
+        users.insertOne(new User(0, "Lower", "case@pet.com", "adopter", "lower123"));
+        users.insertOne(new User(0, "Upper", "CASE@pet.com", "adopter", "upper123"));
+
+        assertEquals("Lower", users.findByEmail("case@pet.com").getName());
+        assertEquals("Upper", users.findByEmail("CASE@pet.com").getName());
+        assertEquals("Lower", users.findByEmail("case@pet.com").getName());
+        assertNull(users.findByEmail("Case@pet.com"));
+        assertEquals(2, stats(users.cacheStats(), "users.byEmail").size);
+    }
+
+    @Test
+    @DisplayName("Should hand out copies of cached users and pets")
+    void testCopies() throws Exception {
+        CachedUserDAO users = new CachedUserDAO(engine);
+        User shelter = new User(0, "Shelter", "shelter@pet.com", "shelter", "shelter123");
+        users.insertOne(shelter);
+        users.findById(shelter.getId()).setName("Changed in place");
+        assertEquals("Shelter", users.findById(shelter.getId()).getName());
+
+        CachedPetDAO pets = new CachedPetDAO(engine);
+        Pet pet = new Pet(0, shelter.getId(), "Max", "Dog", "Beagle", 3, "Friendly");
+        pets.insertOne(pet);
+        Pet first = pets.findById(pet.getId());
+        first.setAdoptionStatus("adopted");
+        Pet second = pets.findById(pet.getId());
+        assertNotSame(first, second);
+        assertEquals("available", second.getAdoptionStatus());
+        assertEquals(1, stats(pets.cacheStats(), "pets.byId").hits);
+
+        pets.findAvailable().get(0).setAdoptionStatus("adopted");
+        assertEquals("available", pets.findAvailable().get(0).getAdoptionStatus());
+
+        pets.updateAdoptionStatus(pet.getId(), "pending");
+        assertEquals("pending", pets.findById(pet.getId()).getAdoptionStatus());
+        assertTrue(pets.findAvailable().isEmpty());
+    }
+}
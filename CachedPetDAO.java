@@ -0,0 +1,79 @@
+import java.util.*;
+
+/**
+ * Read-through cache over PetDAO
+ * findById is cached per pet and findAvailable as one query result; every
+ * write path (single or batch) invalidates through the BaseDAO hooks.
+ * Like PetDAO it returns fresh copies, never the cached objects.
+ */
+class CachedPetDAO extends PetDAO {
+    private static final String AVAILABLE_KEY = "available";
+
+    private final BoundedCache<Integer, Pet> byId = new BoundedCache<>("pets.byId");
+    private final BoundedCache<String, List<Pet>> queries = new BoundedCache<>("pets.queries", 64,
+            BoundedCache.DEFAULT_TTL_MILLIS);
+
+    CachedPetDAO() {
+    }
+
+    CachedPetDAO(SqlEngine engine) {
+        super(engine);
+    }
+
+    @Override
+    Pet findById(int id) throws DatabaseException {
+        Pet pet = byId.get(id);
+        if (pet == null) {
+            long generation = byId.generation();
+            pet = super.findById(id);
+            byId.put(id, pet, generation);
+        }
+        return pet == null ? null : pet.copy();
+    }
+
+    @Override
+    List<Pet> findAvailable() throws DatabaseException {
+        List<Pet> pets = queries.get(AVAILABLE_KEY);
+        if (pets == null) {
+            long generation = queries.generation();
+            pets = Collections.unmodifiableList(super.findAvailable());
+            queries.put(AVAILABLE_KEY, pets, generation);
+        }
+        List<Pet> copies = new ArrayList<>(pets.size());
+        for (Pet pet : pets) {
+            copies.add(pet.copy());
+        }
+        return copies;
+    }
+
+    @Override
+    void afterSave(Pet pet) {
+        super.afterSave(pet);
+        queries.invalidateAll();
+    }
+
+    @Override
+    void afterUpdate(Pet pet) {
+        super.afterUpdate(pet);
+        byId.invalidate(pet.getId());
+        queries.invalidateAll();
+    }
+
+    @Override
+    void afterDelete(int id) {
+        super.afterDelete(id);
+        byId.invalidate(id);
+        queries.invalidateAll();
+    }
+
+    @Override
+    void afterStatusChange(int id) {
+        super.afterStatusChange(id);
+        byId.invalidate(id);
+        queries.invalidateAll();
+    }
+
+    List<CacheStats> cacheStats() {
+        return Arrays.asList(byId.stats(), queries.stats());
+    }
+}
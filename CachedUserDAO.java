@@ -0,0 +1,100 @@
+import java.util.*;
+
+/**
+ * Read-through cache over UserDAO for findById and findByEmail (the login path)
+ * A user is only cached under the email exactly as stored; lookups by another
+ * spelling (a case variant that MySQL's collation matches) go to the database,
+ * so every entry can be dropped by the user's stored email, before and after a
+ * write. Callers get copies, never the cached objects.
+ */
+class CachedUserDAO extends UserDAO {
+    private final BoundedCache<Integer, User> byId = new BoundedCache<>("users.byId");
+    private final BoundedCache<String, User> byEmail = new BoundedCache<>("users.byEmail");
+
+    CachedUserDAO() {
+    }
+
+    CachedUserDAO(SqlEngine engine) {
+        super(engine);
+    }
+
+    @Override
+    User findById(int id) throws DatabaseException {
+        User user = byId.get(id);
+        if (user == null) {
+            long generation = byId.generation();
+            user = super.findById(id);
+            byId.put(id, user, generation);
+        }
+        return user == null ? null : user.copy();
+    }
+
+    @Override
+    User findByEmail(String email) throws DatabaseException {
+        User user = byEmail.get(email);
+        if (user == null) {
+            long generation = byEmail.generation();
+            user = super.findByEmail(email);
+            if (user != null && user.getEmail().equals(email)) {
+                byEmail.put(email, user, generation);
+            }
+        }
+        return user == null ? null : user.copy();
+    }
+
+    /**
+     * Also drops the email the user had before, in case this update changes it
+     */
+    @Override
+    void updateOne(User user) throws DatabaseException {
+        User before = super.findById(user.getId());
+        super.updateOne(user);
+        if (before != null) {
+            byEmail.invalidate(before.getEmail());
+        }
+    }
+
+    @Override
+    boolean deleteOne(int id) throws DatabaseException {
+        User before = super.findById(id);
+        boolean deleted = super.deleteOne(id);
+        if (before != null) {
+            byEmail.invalidate(before.getEmail());
+        }
+        return deleted;
+    }
+
+    /**
+     * Batch writes drop every cached email rather than read each user's previous one
+     */
+    @Override
+    int updateAll(Collection<User> users) throws DatabaseException {
+        int updated = super.updateAll(users);
+        byEmail.invalidateAll();
+        return updated;
+    }
+
+    @Override
+    int deleteAll(Collection<Integer> ids) throws DatabaseException {
+        int deleted = super.deleteAll(ids);
+        byEmail.invalidateAll();
+        return deleted;
+    }
+
+    @Override
+    void afterUpdate(User user) {
+        super.afterUpdate(user);
+        byId.invalidate(user.getId());
+        byEmail.invalidate(user.getEmail());
+    }
+
+    @Override
+    void afterDelete(int id) {
+        super.afterDelete(id);
+        byId.invalidate(id);
+    }
+
+    List<CacheStats> cacheStats() {
+        return Arrays.asList(byId.stats(), byEmail.stats());
+    }
+}
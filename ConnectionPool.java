@@ -0,0 +1,242 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.sql.*;
+
+/**
+ * Bounded JDBC connection pool
+ * Callers get a proxy whose close() hands the physical connection back to the pool,
+ * so DAO code keeps using plain try-with-resources.
+ */
+class ConnectionPool {
+    private final PoolConfig config;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    /**
+     * Physical connection plus the bookkeeping the pool needs
+     */
+    private static final class PooledConnection {
+        final Connection physical;
+        volatile long lastUsedNanos = System.nanoTime();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+    }
+
+    ConnectionPool(PoolConfig config) {
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize, true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ConnectionPoolEvictor");
+            t.setDaemon(true);
+            return t;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdle, config.evictionIntervalMillis,
+                config.evictionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the configured borrow timeout
+     */
+    Connection borrow() throws DatabaseException {
+        if (closed) {
+            throw new DatabaseException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new DatabaseException("Timed out after " + config.borrowTimeoutMillis
+                        + "ms waiting for a database connection (" + metrics() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulate(waited);
+            borrows.increment();
+            active.incrementAndGet();
+            return wrap(pooled);
+        } catch (SQLException e) {
+            permits.release();
+            throw new DatabaseException("Failed to connect to database: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Most recently used idle connection that still passes validation, or null
+     */
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long idleNanos = System.nanoTime() - pooled.lastUsedNanos;
+            if (idleNanos < TimeUnit.MILLISECONDS.toNanos(config.validationIntervalMillis)) {
+                return pooled;
+            }
+            try {
+                if (pooled.physical.isValid(config.validationTimeoutSeconds)) {
+                    return pooled;
+                }
+            } catch (SQLException ignored) {
+                // fall through and discard it
+            }
+            discard(pooled);
+        }
+        return null;
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(config.url, config.user, config.password);
+        total.incrementAndGet();
+        created.increment();
+        return new PooledConnection(physical);
+    }
+
+    private void discard(PooledConnection pooled) {
+        total.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+            // already broken
+        }
+    }
+
+    /**
+     * Return a connection, resetting any transaction state a caller left behind
+     */
+    private void release(PooledConnection pooled) {
+        active.decrementAndGet();
+        try {
+            if (closed || pooled.physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastUsedNanos = System.nanoTime();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Close connections idle past the timeout (oldest first) and top the pool back up to minSize
+     */
+    private void evictIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(config.idleTimeoutMillis);
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && total.get() > config.minSize) {
+            PooledConnection pooled = it.next();
+            if (pooled.lastUsedNanos < cutoff && idle.removeLastOccurrence(pooled)) {
+                discard(pooled);
+                evicted.increment();
+            }
+        }
+        try {
+            // Each new connection holds a permit while it opens, so borrowers and the top-up
+            // together never go past maxSize; when all permits are out the pool is busy anyway
+            while (!closed && total.get() < config.minSize && permits.tryAcquire()) {
+                try {
+                    PooledConnection pooled = open();
+                    idle.offerLast(pooled);
+                    // shutdown() may have drained the idle list while this one was opening
+                    if (closed && idle.remove(pooled)) {
+                        discard(pooled);
+                    }
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Connection pool could not reach min size: " + e.getMessage());
+        }
+    }
+
+    private Connection wrap(PooledConnection pooled) {
+        AtomicBoolean returned = new AtomicBoolean(false);
+        return (Connection) java.lang.reflect.Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (returned.compareAndSet(false, true)) {
+                                release(pooled);
+                            }
+                            return null;
+                        case "isClosed":
+                            return returned.get() || pooled.physical.isClosed();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Pooled[" + pooled.physical + "]";
+                        default:
+                            if (returned.get()) {
+                                throw new SQLException("Connection has already been returned to the pool");
+                            }
+                            try {
+                                return method.invoke(pooled.physical, args);
+                            } catch (java.lang.reflect.InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    PoolMetrics metrics() {
+        long borrowCount = borrows.sum();
+        return new PoolMetrics(
+                active.get(),
+                idle.size(),
+                total.get(),
+                permits.getQueueLength(),
+                borrowCount,
+                timeouts.sum(),
+                created.sum(),
+                evicted.sum(),
+                borrowCount == 0 ? 0 : totalWaitNanos.sum() / 1_000_000.0 / borrowCount,
+                maxWaitNanos.get() / 1_000_000.0);
+    }
+
+    /**
+     * Close every idle connection; borrowed ones are closed as they come back
+     */
+    void shutdown() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+}
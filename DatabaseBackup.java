@@ -0,0 +1,643 @@
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * DatabaseBackup - Streaming, compressed, incremental backups of the platform tables
+ * Each backup is one gzip-compressed NDJSON file: a header line, one line per
+ * row ({"table": ..., "row": {...}}), a summary line per table and an end line
+ * with the row count and a CRC32 of the row lines, so a truncated or damaged
+ * file fails verify().
+ *
+ * Rows are read with a forward-only cursor (setFetchSize, or MySQL's streaming
+ * mode) and written straight to the file, so memory stays flat whatever the
+ * table size. A full backup copies every row inside one read-only transaction;
+ * an incremental one only rows changed since the previous backup, found through
+ * each table's high-water mark (updated_at, or id for the append-only messages).
+ * The marks are kept in backup.properties next to the files.
+ *
+ * updated_at is set when a row is written but the row only becomes visible when
+ * its transaction commits, so a row stamped before the previous mark can appear
+ * after that backup ran. Incremental reads therefore go back OVERLAP_MILLIS
+ * before the mark, which must be at least the longest write transaction.
+ * restore() upserts by id, so a row seen twice is harmless. Deletions are only
+ * picked up by the next full backup.
+ *
+ * restore() writes MySQL (ON DUPLICATE KEY UPDATE) or SQLite (ON CONFLICT) upserts.
+ *
+ * Configuration: petadoption.backup.dir, .fetchSize, .fullEvery (incrementals
+ * between full backups), .keepFull (full backup chains kept on disk) and
+ * .overlapMillis (default 60000).
+ */
+public class DatabaseBackup {
+    static final String FULL = "full";
+    static final String INCREMENTAL = "incremental";
+    static final int FETCH_SIZE = Integer.getInteger("petadoption.backup.fetchSize", 500);
+    static final long OVERLAP_MILLIS = Long.getLong("petadoption.backup.overlapMillis", 60_000);
+    private static final String STATE_FILE = "backup.properties";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    /**
+     * A backed-up table and the column its incremental reads follow
+     */
+    static final class Table {
+        final String name;
+        final String changeColumn;
+        final boolean timestamped;
+
+        Table(String name, String changeColumn, boolean timestamped) {
+            this.name = name;
+            this.changeColumn = changeColumn;
+            this.timestamped = timestamped;
+        }
+    }
+
+    // In foreign key order, so a restore never inserts a row before the rows it references
+    static final List<Table> TABLES = Collections.unmodifiableList(List.of(
+            new Table("users", "updated_at", true),
+            new Table("pets", "updated_at", true),
+            new Table("applications", "updated_at", true),
+            new Table("messages", "id", false)));
+
+    /**
+     * Thrown when a backup cannot be written, read or verified
+     */
+    public static class BackupException extends Exception {
+        public BackupException(String message) {
+            super(message);
+        }
+
+        public BackupException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Outcome of one backup, verify or restore
+     */
+    static class Result {
+        final Path file;
+        final String kind;
+        final long rows;
+        final long bytes;
+        final long millis;
+
+        Result(Path file, String kind, long rows, long bytes, long millis) {
+            this.file = file;
+            this.kind = kind;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.millis = millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: %d rows, %d bytes in %d ms", kind, file.getFileName(), rows, bytes, millis);
+        }
+    }
+
+    private final Path dir;
+    private final int fullEvery;
+    private final int keepFull;
+
+    DatabaseBackup() {
+        this(Path.of(System.getProperty("petadoption.backup.dir", "backups")),
+                Integer.getInteger("petadoption.backup.fullEvery", 24),
+                Integer.getInteger("petadoption.backup.keepFull", 3));
+    }
+
+    DatabaseBackup(Path dir, int fullEvery, int keepFull) {
+        if (fullEvery < 0 || keepFull < 1) {
+            throw new IllegalArgumentException("Invalid backup settings: fullEvery " + fullEvery
+                    + ", keepFull " + keepFull);
+        }
+        this.dir = dir;
+        this.fullEvery = fullEvery;
+        this.keepFull = keepFull;
+    }
+
+    // ===================== BACKUP =====================
+
+    /**
+     * Full backup when there is none yet or the chain is long enough, incremental otherwise
+     */
+    synchronized Result backup() throws BackupException {
+        Properties state = loadState();
+        int sinceFull = Integer.parseInt(state.getProperty("sinceFull", "-1"));
+        boolean full = sinceFull < 0 || sinceFull >= fullEvery;
+        return backup(full ? FULL : INCREMENTAL, state);
+    }
+
+    synchronized Result backupFull() throws BackupException {
+        return backup(FULL, loadState());
+    }
+
+    private Result backup(String kind, Properties state) throws BackupException {
+        long started = System.currentTimeMillis();
+        boolean full = FULL.equals(kind);
+        Path file = dir.resolve("backup-" + LocalDateTime.now().format(FILE_TIME) + "-" + kind + ".ndjson.gz");
+        Path tmp = dir.resolve(file.getFileName() + ".tmp");
+        Properties next = new Properties();
+        long rows = 0;
+        try {
+            Files.createDirectories(dir);
+            try (Connection conn = DatabaseConnection.getConnection();
+                    Writer out = new BufferedWriter(new OutputStreamWriter(
+                            new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024), StandardCharsets.UTF_8))) {
+                boolean streaming = "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+                int isolation = conn.getTransactionIsolation();
+                // One snapshot for every table, so the backup is consistent across foreign keys
+                conn.setAutoCommit(false);
+                conn.setReadOnly(true);
+                conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                try {
+                    JsonWriter json = lineWriter(out);
+                    json.beginObject();
+                    json.name("type").value("header");
+                    json.name("kind").value(kind);
+                    json.name("createdAt").value(LocalDateTime.now().toString());
+                    json.endObject();
+                    out.write('\n');
+
+                    CRC32 crc = new CRC32();
+                    for (Table table : TABLES) {
+                        String mark = full ? null : state.getProperty("highWater." + table.name);
+                        String highWater = mark;
+                        long tableRows = 0;
+                        try (PreparedStatement stmt = conn.prepareStatement(selectSql(table, mark),
+                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                            // MySQL streams row by row only with MIN_VALUE; other drivers honour the hint
+                            stmt.setFetchSize(streaming ? Integer.MIN_VALUE : FETCH_SIZE);
+                            if (mark != null) {
+                                bindMark(stmt, table, mark);
+                            }
+                            try (ResultSet rs = stmt.executeQuery()) {
+                                ResultSetMetaData meta = rs.getMetaData();
+                                int changeIndex = rs.findColumn(table.changeColumn);
+                                while (rs.next()) {
+                                    String line = rowLine(table.name, rs, meta);
+                                    crc.update(line.getBytes(StandardCharsets.UTF_8));
+                                    out.write(line);
+                                    out.write('\n');
+                                    highWater = later(table, highWater, changeValue(table, rs, changeIndex));
+                                    tableRows++;
+                                }
+                            }
+                        }
+                        json.beginObject();
+                        json.name("type").value("table");
+                        json.name("table").value(table.name);
+                        json.name("rows").value(tableRows);
+                        json.name("highWater").value(highWater);
+                        json.endObject();
+                        out.write('\n');
+                        if (highWater != null) {
+                            next.setProperty("highWater." + table.name, highWater);
+                        }
+                        rows += tableRows;
+                    }
+                    conn.commit();
+
+                    json.beginObject();
+                    json.name("type").value("end");
+                    json.name("rows").value(rows);
+                    json.name("crc32").value(Long.toHexString(crc.getValue()));
+                    json.endObject();
+                    out.write('\n');
+                } finally {
+                    conn.setTransactionIsolation(isolation);
+                    conn.setReadOnly(false);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (SQLException | IOException | DatabaseException e) {
+            deleteQuietly(tmp);
+            throw new BackupException("Backup failed: " + e.getMessage(), e);
+        }
+
+        int sinceFull = full ? 0 : Integer.parseInt(state.getProperty("sinceFull", "0")) + 1;
+        next.setProperty("sinceFull", Integer.toString(sinceFull));
+        next.setProperty("lastBackup", file.getFileName().toString());
+        saveState(next);
+        if (full) {
+            pruneOldChains();
+        }
+        return new Result(file, kind, rows, size(file), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Every column of the table, or only the rows at or after the mark (less the overlap).
+     * SELECT * on purpose: a backup must carry columns added after this code was written.
+     */
+    private static String selectSql(Table table, String mark) {
+        String sql = "SELECT * FROM " + table.name;
+        if (mark != null) {
+            sql += table.timestamped ? " WHERE " + table.changeColumn + " >= ?" : " WHERE " + table.changeColumn + " > ?";
+        }
+        return sql;
+    }
+
+    private static void bindMark(PreparedStatement stmt, Table table, String mark) throws SQLException {
+        if (table.timestamped) {
+            stmt.setTimestamp(1, new Timestamp(Timestamp.valueOf(mark).getTime() - OVERLAP_MILLIS));
+        } else {
+            stmt.setLong(1, Long.parseLong(mark));
+        }
+    }
+
+    /**
+     * The row's change column, in the form stored as a high-water mark
+     */
+    private static String changeValue(Table table, ResultSet rs, int index) throws SQLException {
+        if (table.timestamped) {
+            Timestamp time = rs.getTimestamp(index);
+            return time == null ? null : time.toString();
+        }
+        long id = rs.getLong(index);
+        return rs.wasNull() ? null : Long.toString(id);
+    }
+
+    private static String later(Table table, String current, String candidate) {
+        if (candidate == null || current == null) {
+            return current == null ? candidate : current;
+        }
+        boolean after = table.timestamped
+                ? Timestamp.valueOf(candidate).after(Timestamp.valueOf(current))
+                : Long.parseLong(candidate) > Long.parseLong(current);
+        return after ? candidate : current;
+    }
+
+    /**
+     * One row as {"table": ..., "row": {column: value}}; numbers stay numbers,
+     * timestamps are written in JDBC escape format
+     */
+    private static String rowLine(String table, ResultSet rs, ResultSetMetaData meta) throws SQLException {
+        JsonObject row = new JsonObject();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            String column = meta.getColumnLabel(i).toLowerCase();
+            switch (meta.getColumnType(i)) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    long number = rs.getLong(i);
+                    row.add(column, rs.wasNull() ? null : new JsonPrimitive(number));
+                    break;
+                case Types.TIMESTAMP:
+                case Types.TIMESTAMP_WITH_TIMEZONE:
+                    Timestamp time = rs.getTimestamp(i);
+                    row.add(column, time == null ? null : new JsonPrimitive(time.toString()));
+                    break;
+                default:
+                    String text = rs.getString(i);
+                    row.add(column, text == null ? null : new JsonPrimitive(text));
+            }
+        }
+        JsonObject line = new JsonObject();
+        line.addProperty("table", table);
+        line.add("row", row);
+        return line.toString();
+    }
+
+    // ===================== VERIFY =====================
+
+    /**
+     * Read a backup end to end and check its row counts and checksum
+     */
+    Result verify(Path file) throws BackupException {
+        long started = System.currentTimeMillis();
+        String[] kind = new String[1];
+        long rows = read(file, null, header -> kind[0] = header.get("kind").getAsString());
+        return new Result(file, kind[0], rows, size(file), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Receives each row of a backup being read
+     */
+    interface RowSink {
+        void accept(String table, JsonObject row) throws SQLException;
+    }
+
+    interface HeaderSink {
+        void accept(JsonObject header);
+    }
+
+    /**
+     * Stream a backup file, handing rows to the sink and checking the summary lines
+     * @return number of rows read
+     */
+    private static long read(Path file, RowSink sink, HeaderSink headerSink) throws BackupException {
+        CRC32 crc = new CRC32();
+        long rows = 0;
+        Map<String, Long> rowsByTable = new LinkedHashMap<>();
+        boolean ended = false;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file), 64 * 1024), StandardCharsets.UTF_8))) {
+            String line = in.readLine();
+            if (line == null) {
+                throw new BackupException("Empty backup: " + file.getFileName());
+            }
+            JsonObject header = JsonParser.parseString(line).getAsJsonObject();
+            if (!"header".equals(type(header))) {
+                throw new BackupException("Missing header: " + file.getFileName());
+            }
+            if (headerSink != null) {
+                headerSink.accept(header);
+            }
+            while ((line = in.readLine()) != null) {
+                if (ended) {
+                    throw new BackupException("Data after end marker: " + file.getFileName());
+                }
+                JsonObject entry = JsonParser.parseString(line).getAsJsonObject();
+                switch (type(entry)) {
+                    case "table":
+                        long expected = entry.get("rows").getAsLong();
+                        long actual = rowsByTable.getOrDefault(entry.get("table").getAsString(), 0L);
+                        if (expected != actual) {
+                            throw new BackupException("Table " + entry.get("table").getAsString() + " has "
+                                    + actual + " rows, expected " + expected + ": " + file.getFileName());
+                        }
+                        break;
+                    case "end":
+                        if (entry.get("rows").getAsLong() != rows
+                                || !entry.get("crc32").getAsString().equals(Long.toHexString(crc.getValue()))) {
+                            throw new BackupException("Checksum mismatch: " + file.getFileName());
+                        }
+                        ended = true;
+                        break;
+                    default:
+                        crc.update(line.getBytes(StandardCharsets.UTF_8));
+                        String table = entry.get("table").getAsString();
+                        rowsByTable.merge(table, 1L, Long::sum);
+                        rows++;
+                        if (sink != null) {
+                            sink.accept(table, entry.getAsJsonObject("row"));
+                        }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new BackupException("Unreadable backup " + file.getFileName() + ": " + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new BackupException("Restore of " + file.getFileName() + " failed: " + e.getMessage(), e);
+        }
+        if (!ended) {
+            throw new BackupException("Truncated backup (no end marker): " + file.getFileName());
+        }
+        return rows;
+    }
+
+    private static String type(JsonObject entry) {
+        JsonElement type = entry.get("type");
+        return type == null ? "row" : type.getAsString();
+    }
+
+    // ===================== RESTORE =====================
+
+    /**
+     * Backups needed to restore the latest state: the newest full backup and the incrementals after it
+     */
+    List<Path> latestChain() throws BackupException {
+        List<Path> files = backupFiles();
+        int start = -1;
+        for (int i = 0; i < files.size(); i++) {
+            if (files.get(i).getFileName().toString().endsWith("-" + FULL + ".ndjson.gz")) {
+                start = i;
+            }
+        }
+        return start < 0 ? Collections.emptyList() : files.subList(start, files.size());
+    }
+
+    /**
+     * Verify the latest chain, then upsert its rows oldest backup first, each file in one transaction
+     * @return number of rows applied
+     */
+    synchronized long restore() throws BackupException {
+        List<Path> chain = latestChain();
+        if (chain.isEmpty()) {
+            throw new BackupException("No full backup in " + dir);
+        }
+        // Check everything first so a damaged file never leaves a half-restored database
+        for (Path file : chain) {
+            verify(file);
+        }
+        long rows = 0;
+        for (Path file : chain) {
+            rows += restore(file);
+        }
+        return rows;
+    }
+
+    private long restore(Path file) throws BackupException {
+        try (Connection conn = DatabaseConnection.getConnection();
+                Upserts upserts = new Upserts(conn)) {
+            conn.setAutoCommit(false);
+            try {
+                long rows = read(file, upserts::add, null);
+                upserts.flush();
+                conn.commit();
+                return rows;
+            } catch (BackupException | SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException | DatabaseException e) {
+            throw new BackupException("Restore of " + file.getFileName() + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Batched upserts by id per table and column list, in the restored database's dialect
+     */
+    static final class Upserts implements AutoCloseable {
+        private final Connection conn;
+        private final boolean sqlite;
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<>();
+        private final Map<String, Integer> pending = new LinkedHashMap<>();
+
+        Upserts(Connection conn) throws SQLException {
+            this.conn = conn;
+            String product = conn.getMetaData().getDatabaseProductName();
+            this.sqlite = "SQLite".equalsIgnoreCase(product);
+            if (!sqlite && !"MySQL".equalsIgnoreCase(product)) {
+                throw new SQLException("Restore supports MySQL and SQLite, not " + product);
+            }
+        }
+
+        void add(String table, JsonObject row) throws SQLException {
+            List<String> columns = new ArrayList<>(row.keySet());
+            String key = table + ":" + String.join(",", columns);
+            PreparedStatement stmt = statements.get(key);
+            if (stmt == null) {
+                stmt = conn.prepareStatement(upsertSql(table, columns, sqlite));
+                statements.put(key, stmt);
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                JsonElement value = row.get(columns.get(i));
+                if (value == null || value.isJsonNull()) {
+                    stmt.setObject(i + 1, null);
+                } else if (value.getAsJsonPrimitive().isNumber()) {
+                    stmt.setLong(i + 1, value.getAsLong());
+                } else {
+                    stmt.setString(i + 1, value.getAsString());
+                }
+            }
+            stmt.addBatch();
+            if (pending.merge(key, 1, Integer::sum) >= BaseDAO.DEFAULT_BATCH_SIZE) {
+                stmt.executeBatch();
+                pending.put(key, 0);
+            }
+        }
+
+        void flush() throws SQLException {
+            for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+                if (entry.getValue() > 0) {
+                    statements.get(entry.getKey()).executeBatch();
+                    entry.setValue(0);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (PreparedStatement stmt : statements.values()) {
+                stmt.close();
+            }
+        }
+
+        private static String upsertSql(String table, List<String> columns, boolean sqlite) {
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (")
+                    .append(String.join(", ", columns)).append(") VALUES (")
+                    .append(String.join(", ", Collections.nCopies(columns.size(), "?")))
+                    .append(sqlite ? ") ON CONFLICT(id) DO UPDATE SET " : ") ON DUPLICATE KEY UPDATE ");
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                String column = columns.get(i);
+                sql.append(column).append(sqlite ? " = excluded." + column : " = VALUES(" + column + ")");
+            }
+            return sql.toString();
+        }
+    }
+
+    // ===================== FILES =====================
+
+    /**
+     * Completed backups, oldest first (file names sort by time)
+     */
+    List<Path> backupFiles() throws BackupException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "backup-*.ndjson.gz")) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            throw new BackupException("Cannot list backups in " + dir + ": " + e.getMessage(), e);
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * Delete whole chains beyond the newest keepFull full backups
+     */
+    private void pruneOldChains() throws BackupException {
+        List<Path> files = backupFiles();
+        int fullSeen = 0;
+        for (int i = files.size() - 1; i >= 0; i--) {
+            Path file = files.get(i);
+            if (fullSeen >= keepFull) {
+                deleteQuietly(file);
+            } else if (file.getFileName().toString().endsWith("-" + FULL + ".ndjson.gz")) {
+                fullSeen++;
+            }
+        }
+    }
+
+    private Properties loadState() throws BackupException {
+        Properties state = new Properties();
+        Path file = dir.resolve(STATE_FILE);
+        if (Files.exists(file)) {
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                state.load(in);
+            } catch (IOException e) {
+                throw new BackupException("Cannot read " + file + ": " + e.getMessage(), e);
+            }
+        }
+        return state;
+    }
+
+    private void saveState(Properties state) throws BackupException {
+        Path file = dir.resolve(STATE_FILE);
+        Path tmp = dir.resolve(STATE_FILE + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            state.store(out, "Backup high-water marks");
+        } catch (IOException e) {
+            throw new BackupException("Cannot write " + file + ": " + e.getMessage(), e);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new BackupException("Cannot write " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static JsonWriter lineWriter(Writer out) {
+        JsonWriter json = new JsonWriter(out);
+        // One JSON document per line
+        json.setLenient(true);
+        return json;
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left for the next prune
+        }
+    }
+}
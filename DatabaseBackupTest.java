@@ -0,0 +1,142 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * DatabaseBackupTest - Unit tests for DatabaseBackup
+ * Tests the backup file format checks and chain selection (no database server needed)
+ *
+ * Coverage:
+ * - A well-formed backup verifies
+ * - Wrong checksum and wrong per-table counts are rejected
+ * - Truncated files are rejected
+ * - The restore chain starts at the newest full backup
+ * - Restore upserts also run on SQLite
+ */
+@DisplayName("DatabaseBackup File Tests")
+public class DatabaseBackupTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseBackup backup;
+
+    private static final String[] ROWS = {
+        "{\"table\":\"users\",\"row\":{\"id\":1,\"name\":\"Admin User\",\"updated_at\":\"2026-01-01 10:00:00.0\"}}",
+        "{\"table\":\"pets\",\"row\":{\"id\":1,\"name\":\"Max\",\"updated_at\":\"2026-01-01 10:00:01.0\"}}",
+        "{\"table\":\"pets\",\"row\":{\"id\":2,\"name\":\"Luna\",\"updated_at\":\"2026-01-01 10:00:02.0\"}}"
+    };
+
+    /**
+     * Write a backup file; the checksum and pet count can be overridden to corrupt it
+     */
+    private Path write(String name, String kind, String crcOverride, int petRows) throws IOException {
+        CRC32 crc = new CRC32();
+        StringBuilder text = new StringBuilder("{\"type\":\"header\",\"kind\":\"" + kind + "\"}\n");
+        for (String row : ROWS) {
+            crc.update(row.getBytes(StandardCharsets.UTF_8));
+            text.append(row).append('\n');
+        }
+        text.append("{\"type\":\"table\",\"table\":\"users\",\"rows\":1}\n");
+        text.append("{\"type\":\"table\",\"table\":\"pets\",\"rows\":").append(petRows).append("}\n");
+        text.append("{\"type\":\"end\",\"rows\":3,\"crc32\":\"")
+                .append(crcOverride != null ? crcOverride : Long.toHexString(crc.getValue())).append("\"}\n");
+        Path file = dir.resolve(name);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    @BeforeEach
+    void setUp() {
+        backup = new DatabaseBackup(dir, 24, 3);
+    }
+
+    @Test
+    @DisplayName("Should verify a well-formed backup")
+    void testVerify() throws Exception {
+        Path file = write("backup-20260101-100000-000-full.ndjson.gz", "full", null, 2);
+
+        DatabaseBackup.Result result = backup.verify(file);
+
+        assertEquals(3, result.rows);
+        assertEquals(DatabaseBackup.FULL, result.kind);
+    }
+
+    @Test
+    @DisplayName("Should reject a backup whose checksum does not match")
+    void testChecksumMismatch() throws Exception {
+        Path file = write("backup-20260101-100000-000-full.ndjson.gz", "full", "deadbeef", 2);
+
+        assertThrows(DatabaseBackup.BackupException.class, () -> backup.verify(file));
+    }
+
+    @Test
+    @DisplayName("Should reject a backup whose table count does not match")
+    void testTableCountMismatch() throws Exception {
+        Path file = write("backup-20260101-100000-000-full.ndjson.gz", "full", null, 5);
+
+        assertThrows(DatabaseBackup.BackupException.class, () -> backup.verify(file));
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated backup")
+    void testTruncated() throws Exception {
+        Path file = write("backup-20260101-100000-000-full.ndjson.gz", "full", null, 2);
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = dir.resolve("backup-20260101-100001-000-full.ndjson.gz");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 12));
+
+        assertThrows(DatabaseBackup.BackupException.class, () -> backup.verify(truncated));
+    }
+
+    @Test
+    @DisplayName("Should restore from the newest full backup and the incrementals after it")
+    void testLatestChain() throws Exception {
+        write("backup-20260101-100000-000-full.ndjson.gz", "full", null, 2);
+        write("backup-20260101-100030-000-incremental.ndjson.gz", "incremental", null, 2);
+        Path full = write("backup-20260101-100100-000-full.ndjson.gz", "full", null, 2);
+        Path incremental = write("backup-20260101-100130-000-incremental.ndjson.gz", "incremental", null, 2);
+
+        List<Path> chain = backup.latestChain();
+
+        assertEquals(List.of(full, incremental), chain);
+    }
+
+    @Test
+    @DisplayName("Should upsert restored rows by id on SQLite")
+    void testSqliteUpserts() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("restore.db"));
+                Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE pets (id INTEGER PRIMARY KEY, name TEXT)");
+            try (DatabaseBackup.Upserts upserts = new DatabaseBackup.Upserts(conn)) {
+                upserts.add("pets", JsonParser.parseString("{\"id\":1,\"name\":\"Max\"}").getAsJsonObject());
+                upserts.add("pets", JsonParser.parseString("{\"id\":1,\"name\":\"Maximus\"}").getAsJsonObject());
+                upserts.add("pets", JsonParser.parseString("{\"id\":2,\"name\":\"Luna\"}").getAsJsonObject());
+                upserts.flush();
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*), MAX(CASE WHEN id = 1 THEN name END) FROM pets")) {
+                assertTrue(rs.next());
+                assertEquals(2, rs.getInt(1));
+                assertEquals("Maximus", rs.getString(2));
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+import java.sql.*;
+
+/**
+ * Database connection manager
+ * Hands out pooled JDBC connections to MySQL
+ */
+class DatabaseConnection {
+    // rewriteBatchedStatements lets Connector/J send a JDBC batch as one multi-row statement
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/pet_adoption?rewriteBatchedStatements=true";
+    private static final String DB_USER = "root";
+    private static final String DB_PASSWORD = "root";
+    private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
+
+    private static ConnectionPool pool;
+
+    static {
+        try {
+            Class.forName(DRIVER);
+            System.out.println("✓ JDBC Driver loaded successfully!");
+        } catch (ClassNotFoundException e) {
+            System.err.println("❌ JDBC Driver not found: " + e.getMessage());
+        }
+    }
+
+    private static synchronized ConnectionPool pool() {
+        if (pool == null) {
+            pool = new ConnectionPool(PoolConfig.fromSystemProperties(DB_URL, DB_USER, DB_PASSWORD));
+            System.out.println("✓ Database connection pool started!");
+        }
+        return pool;
+    }
+
+    /**
+     * Borrow a pooled database connection; close() returns it to the pool
+     */
+    public static Connection getConnection() throws DatabaseException {
+        return pool().borrow();
+    }
+
+    /**
+     * Current pool counters (active, idle, wait time, ...)
+     */
+    public static PoolMetrics getPoolMetrics() {
+        return pool().metrics();
+    }
+
+    /**
+     * Shut down the pool and close its connections
+     */
+    public static synchronized void closeConnection() throws DatabaseException {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+            System.out.println("✓ Database connection pool closed!");
+        }
+    }
+
+    /**
+     * Check if database exists, create if needed
+     */
+    public static void initializeDatabase() throws DatabaseException {
+        // The configured URL (petadoption.db.url), split into the server and the database on it
+        PoolConfig config = PoolConfig.fromSystemProperties(DB_URL, DB_USER, DB_PASSWORD);
+        int slash = config.url.indexOf('/', config.url.indexOf("//") + 2);
+        int query = config.url.indexOf('?');
+        String database = slash < 0 ? "" : config.url.substring(slash + 1, query < 0 ? config.url.length() : query);
+        String serverUrl = slash < 0 ? config.url
+                : config.url.substring(0, slash) + (query < 0 ? "" : config.url.substring(query));
+        try {
+            if (!database.isEmpty()) {
+                // Connect without specifying database
+                try (Connection tempConn = DriverManager.getConnection(serverUrl, config.user, config.password);
+                        Statement stmt = tempConn.createStatement()) {
+                    stmt.execute("CREATE DATABASE IF NOT EXISTS `" + database.replace("`", "``") + "`");
+                    System.out.println("✓ Database '" + database + "' ready!");
+                }
+            }
+
+            // Now create tables
+            createTables();
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to initialize database: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create all required tables
+     */
+    private static void createTables() throws DatabaseException {
+        try (Connection conn = getConnection();
+                Statement stmt = conn.createStatement()) {
+            // Users table
+            stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
+                    "id INT PRIMARY KEY AUTO_INCREMENT," +
+                    "name VARCHAR(100) NOT NULL," +
+                    "email VARCHAR(100) UNIQUE NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "password VARCHAR(100) NOT NULL," +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+                    ")");
+            System.out.println("✓ Table 'users' created/verified!");
+
+            // Pets table
+            stmt.execute("CREATE TABLE IF NOT EXISTS pets (" +
+                    "id INT PRIMARY KEY AUTO_INCREMENT," +
+                    "shelter_id INT NOT NULL," +
+                    "name VARCHAR(100) NOT NULL," +
+                    "type VARCHAR(50) NOT NULL," +
+                    "breed VARCHAR(100) NOT NULL," +
+                    "age INT NOT NULL," +
+                    "description TEXT," +
+                    "adoption_status VARCHAR(20) DEFAULT 'available'," +
+                    "approval_status VARCHAR(20) DEFAULT 'pending'," +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+                    ")");
+            System.out.println("✓ Table 'pets' created/verified!");
+            // Rows written before types were normalised (see Pet.normalizeType)
+            String normalizedType = "CONCAT(UPPER(LEFT(type, 1)), LOWER(SUBSTRING(type, 2)))";
+            stmt.executeUpdate("UPDATE pets SET type = " + normalizedType
+                    + " WHERE CAST(type AS BINARY) <> CAST(" + normalizedType + " AS BINARY)");
+
+            // Applications table
+            stmt.execute("CREATE TABLE IF NOT EXISTS applications (" +
+                    "id INT PRIMARY KEY AUTO_INCREMENT," +
+                    "adopter_id INT NOT NULL," +
+                    "pet_id INT NOT NULL," +
+                    "status VARCHAR(20) DEFAULT 'submitted'," +
+                    "application_notes TEXT," +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP," +
+                    "FOREIGN KEY (adopter_id) REFERENCES users(id)," +
+                    "FOREIGN KEY (pet_id) REFERENCES pets(id)" +
+                    ")");
+            System.out.println("✓ Table 'applications' created/verified!");
+
+            // Messages table
+            stmt.execute("CREATE TABLE IF NOT EXISTS messages (" +
+                    "id INT PRIMARY KEY AUTO_INCREMENT," +
+                    "sender_id INT NOT NULL," +
+                    "recipient_id INT NOT NULL," +
+                    "content TEXT NOT NULL," +
+                    "sent_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    "FOREIGN KEY (sender_id) REFERENCES users(id)," +
+                    "FOREIGN KEY (recipient_id) REFERENCES users(id)" +
+                    ")");
+            System.out.println("✓ Table 'messages' created/verified!");
+
+            // Secondary indexes for the filtered DAO queries
+            createIndex(conn, "pets", "idx_pets_adoption_status", "adoption_status, id");
+            createIndex(conn, "pets", "idx_pets_approval_status", "approval_status, id");
+            createIndex(conn, "pets", "idx_pets_shelter", "shelter_id, adoption_status");
+            createIndex(conn, "pets", "idx_pets_type", "type, id");
+            createIndex(conn, "applications", "idx_applications_pet", "pet_id, status");
+            createIndex(conn, "applications", "idx_applications_adopter", "adopter_id, pet_id");
+            createIndex(conn, "applications", "idx_applications_status", "status, id");
+            // One active application per adopter and pet: the key part is NULL once the
+            // application is rejected or adopted, and a unique index allows any number of NULLs
+            createIndex(conn, "applications", "idx_applications_active", "UNIQUE",
+                    "adopter_id, pet_id, (IF(" + ApplicationDAO.ACTIVE + ", 1, NULL))");
+            createIndex(conn, "messages", "idx_messages_recipient", "recipient_id, sent_at");
+            createIndex(conn, "messages", "idx_messages_conversation", "sender_id, recipient_id, sent_at");
+            // Incremental backups read only rows changed since their high-water mark
+            createIndex(conn, "users", "idx_users_updated", "updated_at");
+            createIndex(conn, "pets", "idx_pets_updated", "updated_at");
+            createIndex(conn, "applications", "idx_applications_updated", "updated_at");
+            System.out.println("✓ Indexes created/verified!");
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to create tables: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create an index unless it already exists
+     * (MySQL has no CREATE INDEX IF NOT EXISTS, so check the metadata first)
+     */
+    private static void createIndex(Connection conn, String table, String name, String columns)
+            throws SQLException {
+        createIndex(conn, table, name, "", columns);
+    }
+
+    private static void createIndex(Connection conn, String table, String name, String kind, String columns)
+            throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                if (name.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE " + (kind.isEmpty() ? "" : kind + " ") + "INDEX " + name + " ON " + table
+                    + " (" + columns + ")");
+        }
+    }
+}
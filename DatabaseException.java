@@ -0,0 +1,9 @@
+class DatabaseException extends Exception {
+    public DatabaseException(String message) {
+        super(message);
+    }
+
+    public DatabaseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,1211 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * DurableStore - Write-ahead log and snapshots for the in-memory repositories
+ * Users, pets, applications and messages stay in PetStore, ApplicationStore,
+ * UserStore and MessageStore, so reads never leave memory; every change is also
+ * appended to a write-ahead log before the call returns. Each log record is
+ * framed with its length and a CRC32, so a record torn by a crash is detected
+ * and cut off on the next start.
+ *
+ * Log writes use group commit: a writer appends its record to a buffer and then
+ * waits for an fsync that covers it. One writer at a time writes out the buffer
+ * and fsyncs; writers that arrive meanwhile are all covered by the next fsync,
+ * so many concurrent changes share a handful of fsyncs. With sync=interval
+ * writers do not wait and the log is fsynced every syncMs (a crash can lose up
+ * to syncMs of changes); with sync=off it is written at once and left to the
+ * operating system to flush.
+ *
+ * Every snapshotRecords records the log moves to a new segment and the stores
+ * are copied in the same short pause of the writers, so the snapshot holds
+ * exactly the old segments' changes. The copy is encoded straight to disk and
+ * fsynced in the background, then the older snapshot and segments are deleted. Startup loads
+ * the newest snapshot and replays the segments after it, so restart time is
+ * bounded by the snapshot size plus snapshotRecords records; close() writes a
+ * final snapshot so a clean restart replays nothing.
+ *
+ * Files: snapshot-N.dat (the state at the start of segment N), wal-N.log, and a
+ * lock file so two processes never share a directory.
+ *
+ * Configuration: petadoption.wal.dir (unset: nothing is persisted), .sync (group,
+ * interval or off), .syncMs and .snapshotRecords.
+ */
+public final class DurableStore implements AutoCloseable {
+    static final String GROUP = "group";
+    static final String INTERVAL = "interval";
+    static final String OFF = "off";
+
+    // Record types
+    private static final byte END = 0; // last record of a snapshot: the record count
+    private static final byte USER = 1;
+    private static final byte USER_REMOVED = 2;
+    private static final byte PET = 3;
+    private static final byte PET_ADOPTION_STATUS = 4;
+    private static final byte PET_APPROVAL_STATUS = 5;
+    private static final byte PET_REMOVED = 6;
+    private static final byte APPLICATION = 7;
+    private static final byte APPLICATION_STATUS = 8;
+    private static final byte APPLICATION_REMOVED = 9;
+    private static final byte MESSAGE = 10;
+    private static final byte MESSAGE_REMOVED = 11;
+    private static final byte BATCH = 12; // several records written and replayed as one
+
+    private static final int SNAPSHOT_MAGIC = 0x50415753; // "PAWS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * Where the log lives and how eagerly it is synced
+     */
+    static final class Config {
+        final Path dir;
+        final String sync;
+        final long syncMs;
+        final long snapshotRecords;
+
+        Config(Path dir, String sync, long syncMs, long snapshotRecords) {
+            if (!GROUP.equals(sync) && !INTERVAL.equals(sync) && !OFF.equals(sync)) {
+                throw new IllegalArgumentException("Unknown write-ahead log sync mode: " + sync
+                        + " (expected " + GROUP + ", " + INTERVAL + " or " + OFF + ")");
+            }
+            if (syncMs < 1 || snapshotRecords < 1) {
+                throw new IllegalArgumentException("Invalid write-ahead log settings: syncMs " + syncMs
+                        + ", snapshotRecords " + snapshotRecords);
+            }
+            this.dir = dir;
+            this.sync = sync;
+            this.syncMs = syncMs;
+            this.snapshotRecords = snapshotRecords;
+        }
+
+        /**
+         * Settings from petadoption.wal.*; disabled unless petadoption.wal.dir is set
+         */
+        static Config fromSystemProperties() {
+            String dir = System.getProperty("petadoption.wal.dir", "").trim();
+            return new Config(dir.isEmpty() ? null : Path.of(dir),
+                    System.getProperty("petadoption.wal.sync", GROUP).trim().toLowerCase(),
+                    Long.getLong("petadoption.wal.syncMs", 10),
+                    Long.getLong("petadoption.wal.snapshotRecords", 100_000));
+        }
+
+        boolean enabled() {
+            return dir != null;
+        }
+
+        @Override
+        public String toString() {
+            return "'" + dir + "' (sync=" + sync + (INTERVAL.equals(sync) ? " every " + syncMs + " ms" : "") + ")";
+        }
+    }
+
+    final UserRepository users;
+    final PetRepository pets;
+    final ApplicationRepository applications;
+    final MessageStore messages;
+
+    private final Config config;
+    private final UserStore userStore;
+    private final PetStore petStore;
+    private final ApplicationStore applicationStore;
+    private final DurableMessageStore messageStore;
+
+    // Serializes changes so the log holds them in the order they were made
+    private final Object writeLock = new Object();
+    private LogSegment log; // guarded by writeLock; null while replaying
+    private long segment; // guarded by writeLock
+    private long sinceSnapshot; // guarded by writeLock
+    private boolean snapshotting; // guarded by writeLock
+    private boolean closed; // guarded by writeLock
+
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+    private long recovered;
+
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final ScheduledExecutorService background;
+
+    private DurableStore(Config config, PlatformStats stats, FileChannel lockChannel, FileLock lock) {
+        this.config = config;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.userStore = new UserStore(stats);
+        this.petStore = new PetStore(stats);
+        this.applicationStore = new ApplicationStore(stats);
+        this.messageStore = new DurableMessageStore();
+        this.users = new DurableUserRepository();
+        this.pets = new DurablePetRepository();
+        this.applications = new DurableApplicationRepository();
+        this.messages = messageStore;
+        // One thread for snapshots and one for interval syncs, so a long snapshot never delays a sync
+        this.background = Executors.newScheduledThreadPool(2, task -> {
+            Thread thread = new Thread(task, "petadoption-wal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Lock the directory, load the newest snapshot and replay the log after it
+     */
+    static DurableStore open(Config config, PlatformStats stats) throws DatabaseException {
+        long started = System.currentTimeMillis();
+        FileChannel lockChannel = null;
+        try {
+            Files.createDirectories(config.dir);
+            lockChannel = FileChannel.open(config.dir.resolve("lock"), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            FileLock lock;
+            try {
+                lock = lockChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null; // held by this process
+            }
+            if (lock == null) {
+                throw new DatabaseException("Write-ahead log directory " + config.dir + " is in use by another process");
+            }
+            DurableStore store = new DurableStore(config, stats, lockChannel, lock);
+            store.recover();
+            if (INTERVAL.equals(config.sync)) {
+                store.background.scheduleWithFixedDelay(store::syncInBackground, config.syncMs, config.syncMs,
+                        TimeUnit.MILLISECONDS);
+            }
+            System.out.println("✓ Durable store " + config + " ready (" + store.recovered + " records recovered in "
+                    + (System.currentTimeMillis() - started) + " ms)");
+            return store;
+        } catch (IOException e) {
+            closeQuietly(lockChannel);
+            throw new DatabaseException("Cannot open write-ahead log in " + config.dir + ": " + e.getMessage(), e);
+        } catch (DatabaseException | RuntimeException e) {
+            closeQuietly(lockChannel);
+            throw e;
+        }
+    }
+
+    // ===================== RECOVERY =====================
+
+    private void recover() throws IOException, DatabaseException {
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(config.dir, "*.tmp")) {
+            for (Path file : leftovers) {
+                Files.delete(file); // a snapshot that was never finished
+            }
+        }
+        List<Long> snapshotNumbers = numbered("snapshot-", ".dat");
+        long base = 0;
+        if (!snapshotNumbers.isEmpty()) {
+            base = snapshotNumbers.get(snapshotNumbers.size() - 1);
+            loadSnapshot(snapshotFile(base), base);
+        }
+        List<Long> segments = new ArrayList<>();
+        for (long number : numbered("wal-", ".log")) {
+            if (number >= base) {
+                segments.add(number);
+            }
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            long number = segments.get(i);
+            if (number != base + i) {
+                throw new DatabaseException("Write-ahead log segment " + (base + i) + " is missing in " + config.dir);
+            }
+            replaySegment(segmentFile(number), i == segments.size() - 1);
+        }
+        synchronized (writeLock) {
+            segment = segments.isEmpty() ? base : segments.get(segments.size() - 1);
+            log = new LogSegment(segmentFile(segment), syncs);
+        }
+    }
+
+    private void loadSnapshot(Path file, long number) throws IOException, DatabaseException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION || in.readLong() != number) {
+                throw new DatabaseException("Snapshot " + file + " has an unknown format");
+            }
+            long count = 0;
+            while (true) {
+                byte[] record = readFrame(in);
+                if (record == null) {
+                    throw new DatabaseException("Snapshot " + file + " is damaged after " + count + " records");
+                }
+                if (record[0] == END) {
+                    if (new Decoder(record).getLong() != count) {
+                        throw new DatabaseException("Snapshot " + file + " is incomplete");
+                    }
+                    break;
+                }
+                apply(record);
+                count++;
+            }
+            recovered += count;
+        } catch (EOFException e) {
+            throw new DatabaseException("Snapshot " + file + " is truncated", e);
+        }
+    }
+
+    /**
+     * Replay one segment; a torn record at the end of the last one is cut off
+     */
+    private void replaySegment(Path file, boolean last) throws IOException, DatabaseException {
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            byte[] record;
+            while ((record = readFrame(in)) != null) {
+                apply(record);
+                valid += 8 + record.length;
+                recovered++;
+            }
+        }
+        long size = Files.size(file);
+        if (valid < size) {
+            if (!last) {
+                throw new DatabaseException("Write-ahead log segment " + file + " is damaged at byte " + valid);
+            }
+            System.out.println("⚠ Cutting " + (size - valid) + " bytes of a torn record from " + file.getFileName());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Apply a logged change straight to the stores
+     */
+    private void apply(byte[] record) {
+        Decoder in = new Decoder(record);
+        switch (record[0]) {
+            case USER: {
+                User user = User.fromStorage(in.getInt(), in.getString(), in.getString(), in.getString(),
+                        in.getString());
+                user.createdAt = in.getTime();
+                if (userStore.findById(user.getId()) == null) {
+                    userStore.add(user);
+                } else {
+                    userStore.update(user);
+                }
+                break;
+            }
+            case USER_REMOVED:
+                userStore.remove(in.getInt());
+                break;
+            case PET: {
+                Pet pet = new Pet(in.getInt(), in.getInt(), in.getString(), in.getString(), in.getString(),
+                        in.getInt(), in.getString());
+                pet.setAdoptionStatus(in.getString());
+                pet.setApprovalStatus(in.getString());
+                pet.createdAt = in.getTime();
+                petStore.add(pet);
+                break;
+            }
+            case PET_ADOPTION_STATUS:
+                petStore.updateAdoptionStatus(in.getInt(), in.getString());
+                break;
+            case PET_APPROVAL_STATUS:
+                petStore.updateApprovalStatus(in.getInt(), in.getString());
+                break;
+            case PET_REMOVED:
+                petStore.remove(in.getInt());
+                break;
+            case APPLICATION: {
+                int id = in.getInt();
+                int adopterId = in.getInt();
+                int petId = in.getInt();
+                int shelterId = in.getInt();
+                String status = in.getString();
+                Application app = new Application(id, adopterId, petId, in.getString());
+                app.setShelterId(shelterId);
+                app.setStatus(status);
+                app.createdAt = in.getTime();
+                applicationStore.add(app);
+                break;
+            }
+            case APPLICATION_STATUS:
+                applicationStore.updateStatus(in.getInt(), in.getString());
+                break;
+            case APPLICATION_REMOVED:
+                applicationStore.remove(in.getInt());
+                break;
+            case MESSAGE: {
+                PetAdoptionBackend.Message message = new PetAdoptionBackend.Message(in.getInt(), in.getInt(),
+                        in.getInt(), in.getString());
+                message.sentAt = in.getTime();
+                IdAllocator.MESSAGES.reserveUpTo(message.id);
+                messageStore.restore(message);
+                break;
+            }
+            case MESSAGE_REMOVED:
+                messageStore.restoreRemoval(in.getInt());
+                break;
+            case BATCH:
+                for (int i = in.getInt(); i > 0; i--) {
+                    apply(in.getBytes());
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown write-ahead log record type " + record[0]);
+        }
+    }
+
+    // ===================== WRITES =====================
+
+    /**
+     * A change to the stores
+     */
+    private interface Change<T> {
+        T apply();
+    }
+
+    /**
+     * Make a change and log it: the record is built from the change's result, and null
+     * means nothing changed. Returns once the record is as durable as the sync mode promises;
+     * after a failed log write the change stays in memory but every later write fails.
+     */
+    private <T> T commit(Change<T> change, Function<T, byte[]> record) throws DatabaseException {
+        LogSegment target;
+        long position;
+        T result;
+        synchronized (writeLock) {
+            if (closed) {
+                throw new DatabaseException("Durable store in " + config.dir + " is closed");
+            }
+            result = change.apply();
+            byte[] bytes = record.apply(result);
+            if (bytes == null) {
+                return result;
+            }
+            target = log;
+            position = target.append(bytes);
+            records.incrementAndGet();
+            if (++sinceSnapshot >= config.snapshotRecords && !snapshotting) {
+                snapshotting = true;
+                background.execute(this::snapshotInBackground);
+            }
+        }
+        if (!INTERVAL.equals(config.sync)) {
+            try {
+                target.sync(position, GROUP.equals(config.sync));
+            } catch (IOException e) {
+                throw new DatabaseException("Write-ahead log write failed: " + e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    private void syncInBackground() {
+        LogSegment current;
+        synchronized (writeLock) {
+            current = log;
+        }
+        try {
+            current.sync(current.appended(), true);
+        } catch (IOException e) {
+            System.err.println("❌ Write-ahead log sync failed: " + e.getMessage());
+        }
+    }
+
+    // ===================== SNAPSHOTS =====================
+
+    /**
+     * Snapshot now: the log moves to a new segment and the stores are copied in one pause
+     * of the writers, then the copy is written and the files it replaces are deleted
+     */
+    void snapshot() throws IOException {
+        LogSegment previous;
+        long number;
+        SnapshotView view;
+        synchronized (writeLock) {
+            number = segment + 1;
+            view = new SnapshotView();
+            previous = log;
+            log = new LogSegment(segmentFile(number), syncs);
+            segment = number;
+            sinceSnapshot = 0;
+        }
+        // Everything appended to the old segment is in the view; close() syncs it for waiting writers
+        previous.close();
+
+        Path file = snapshotFile(number);
+        Path tmp = config.dir.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            encodeSnapshot(out, view, number);
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        for (long older : numbered("snapshot-", ".dat")) {
+            if (older < number) {
+                Files.deleteIfExists(snapshotFile(older));
+            }
+        }
+        for (long older : numbered("wal-", ".log")) {
+            if (older < number) {
+                Files.deleteIfExists(segmentFile(older));
+            }
+        }
+        snapshots.incrementAndGet();
+    }
+
+    private void snapshotInBackground() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Snapshot failed: " + e.getMessage());
+        } finally {
+            synchronized (writeLock) {
+                snapshotting = false;
+            }
+        }
+    }
+
+    /**
+     * The stores at one instant, taken under writeLock. Users, pets and applications change in
+     * place, so they are copied; messages never do, so the list shares them. Copying is a plain
+     * pass over the maps, far shorter than encoding the records.
+     */
+    private final class SnapshotView {
+        final List<User> users = new ArrayList<>();
+        final List<Pet> pets = new ArrayList<>();
+        final List<Application> applications = new ArrayList<>();
+        final List<PetAdoptionBackend.Message> messages = new ArrayList<>(messageStore.findAll());
+
+        SnapshotView() {
+            for (User user : userStore.findAll()) {
+                users.add(user.copy());
+            }
+            for (Pet pet : petStore.findAll()) {
+                pets.add(pet.copy());
+            }
+            for (Application app : applicationStore.findAll()) {
+                applications.add(app.copy());
+            }
+        }
+    }
+
+    private static void encodeSnapshot(DataOutputStream out, SnapshotView view, long number) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(number);
+        long count = 0;
+        for (User user : view.users) {
+            writeFrame(out, userRecord(user));
+            count++;
+        }
+        for (Pet pet : view.pets) {
+            writeFrame(out, petRecord(pet));
+            count++;
+        }
+        for (Application app : view.applications) {
+            writeFrame(out, applicationRecord(app));
+            count++;
+        }
+        for (PetAdoptionBackend.Message message : view.messages) {
+            writeFrame(out, messageRecord(message));
+            count++;
+        }
+        writeFrame(out, new Encoder(END).putLong(count).bytes());
+        out.flush();
+    }
+
+    private void syncDirectory() {
+        // Makes the rename durable; not every platform can open a directory, and there it is skipped
+        try (FileChannel channel = FileChannel.open(config.dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // best effort
+        }
+    }
+
+    /**
+     * Write a final snapshot, so the next start replays nothing, and release the directory
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        background.shutdown();
+        try {
+            background.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            // Still write the final snapshot and release the directory; the caller keeps the interrupt
+            Thread.currentThread().interrupt();
+        }
+        boolean dirty;
+        synchronized (writeLock) {
+            dirty = sinceSnapshot > 0;
+        }
+        try {
+            if (dirty) {
+                snapshot();
+            }
+            synchronized (writeLock) {
+                log.close();
+            }
+        } finally {
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    // ===================== METRICS =====================
+
+    /**
+     * Records logged since the store was opened
+     */
+    long records() {
+        return records.get();
+    }
+
+    /**
+     * Log fsyncs since the store was opened; below records() when writes were grouped
+     */
+    long syncs() {
+        return syncs.get();
+    }
+
+    long snapshots() {
+        return snapshots.get();
+    }
+
+    /**
+     * Records loaded from the snapshot and the log when the store was opened
+     */
+    long recovered() {
+        return recovered;
+    }
+
+    // ===================== FILES =====================
+
+    private Path snapshotFile(long number) {
+        return config.dir.resolve("snapshot-" + number + ".dat");
+    }
+
+    private Path segmentFile(long number) {
+        return config.dir.resolve("wal-" + number + ".log");
+    }
+
+    /**
+     * Numbers of the files named prefix + N + suffix, ascending
+     */
+    private List<Long> numbered(String prefix, String suffix) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(config.dir, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    numbers.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                // already failing
+            }
+        }
+    }
+
+    /**
+     * Frame: length, CRC32 of the record, record
+     */
+    private static void writeFrame(DataOutputStream out, byte[] record) throws IOException {
+        out.writeInt(record.length);
+        out.writeInt(crc(record));
+        out.write(record);
+    }
+
+    /**
+     * The next framed record, or null at the end of the data or at a torn or damaged frame
+     */
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 1 || length > MAX_RECORD_BYTES) {
+            return null;
+        }
+        try {
+            int crc = in.readInt();
+            byte[] record = new byte[length];
+            in.readFully(record);
+            return crc(record) == crc ? record : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static int crc(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    // ===================== RECORDS =====================
+
+    private static byte[] userRecord(User user) {
+        return new Encoder(USER).putInt(user.getId()).putString(user.getName()).putString(user.getEmail())
+                .putString(user.getRole()).putString(user.getPasswordHash()).putTime(user.getCreatedAt()).bytes();
+    }
+
+    private static byte[] petRecord(Pet pet) {
+        return new Encoder(PET).putInt(pet.getId()).putInt(pet.getShelterId()).putString(pet.getName())
+                .putString(pet.getType()).putString(pet.getBreed()).putInt(pet.getAge())
+                .putString(pet.getDescription()).putString(pet.getAdoptionStatus())
+                .putString(pet.getApprovalStatus()).putTime(pet.getCreatedAt()).bytes();
+    }
+
+    private static byte[] applicationRecord(Application app) {
+        return new Encoder(APPLICATION).putInt(app.getId()).putInt(app.getAdopterId()).putInt(app.getPetId())
+                .putInt(app.getShelterId()).putString(app.getStatus()).putString(app.getApplicationNotes())
+                .putTime(app.getCreatedAt()).bytes();
+    }
+
+    private static byte[] messageRecord(PetAdoptionBackend.Message message) {
+        return new Encoder(MESSAGE).putInt(message.id).putInt(message.senderId).putInt(message.recipientId)
+                .putString(message.content).putTime(message.sentAt).bytes();
+    }
+
+    private static byte[] statusRecord(byte type, int id, String status) {
+        return new Encoder(type).putInt(id).putString(status).bytes();
+    }
+
+    private static byte[] removedRecord(byte type, int id) {
+        return new Encoder(type).putInt(id).bytes();
+    }
+
+    /**
+     * Builds one record: its type byte, then the fields in order
+     */
+    private static final class Encoder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        Encoder(byte type) {
+            bytes.write(type);
+        }
+
+        Encoder putInt(int value) {
+            try {
+                out.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // cannot happen in memory
+            }
+            return this;
+        }
+
+        Encoder putLong(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        // Length-prefixed UTF-8, -1 for null
+        Encoder putString(String value) {
+            return value == null ? putInt(-1) : putBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Encoder putBytes(byte[] value) {
+            putInt(value.length);
+            bytes.write(value, 0, value.length);
+            return this;
+        }
+
+        // Milliseconds since the epoch, read as UTC both ways so the local time survives unchanged
+        Encoder putTime(LocalDateTime time) {
+            return putLong(time == null ? Long.MIN_VALUE : time.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+
+        byte[] bytes() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Reads one record's fields back in the order they were put
+     */
+    private static final class Decoder {
+        private final DataInputStream in;
+
+        Decoder(byte[] record) {
+            in = new DataInputStream(new ByteArrayInputStream(record, 1, record.length - 1));
+        }
+
+        int getInt() {
+            try {
+                return in.readInt();
+            } catch (IOException e) {
+                throw new IllegalStateException("Write-ahead log record is too short", e);
+            }
+        }
+
+        long getLong() {
+            try {
+                return in.readLong();
+            } catch (IOException e) {
+                throw new IllegalStateException("Write-ahead log record is too short", e);
+            }
+        }
+
+        String getString() {
+            byte[] value = getBytes();
+            return value == null ? null : new String(value, StandardCharsets.UTF_8);
+        }
+
+        byte[] getBytes() {
+            int length = getInt();
+            if (length < 0) {
+                return null;
+            }
+            try {
+                byte[] value = new byte[length];
+                in.readFully(value);
+                return value;
+            } catch (IOException e) {
+                throw new IllegalStateException("Write-ahead log record is too short", e);
+            }
+        }
+
+        LocalDateTime getTime() {
+            long millis = getLong();
+            return millis == Long.MIN_VALUE ? LocalDateTime.now()
+                    : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+        }
+    }
+
+    // ===================== LOG SEGMENT =====================
+
+    /**
+     * One wal-N.log file with group commit: append() only buffers a framed record and
+     * returns its position; sync() writes out everything buffered and fsyncs, one
+     * leader at a time, and returns at once for records an earlier sync covered
+     */
+    static final class LogSegment {
+        private final FileChannel channel;
+        private final AtomicLong syncs;
+        private final Object syncLock = new Object();
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream(1 << 12); // guarded by this
+        private long appended; // guarded by this
+        private volatile long synced;
+        private boolean syncing; // guarded by syncLock: a leader is writing and fsyncing
+        private IOException failure; // guarded by syncLock
+
+        LogSegment(Path file, AtomicLong syncs) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            this.syncs = syncs;
+        }
+
+        /**
+         * Buffer a record
+         * @return its position, to pass to sync()
+         */
+        synchronized long append(byte[] record) {
+            try {
+                writeFrame(new DataOutputStream(pending), record);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return ++appended;
+        }
+
+        synchronized long appended() {
+            return appended;
+        }
+
+        /**
+         * Make every record up to the position durable (or only written, without force).
+         * The first caller becomes the leader and syncs everything buffered so far; the
+         * others wait, and all of them are woken together when a sync covers them.
+         */
+        void sync(long position, boolean force) throws IOException {
+            if (synced >= position) {
+                return;
+            }
+            synchronized (syncLock) {
+                while (true) {
+                    if (failure != null) {
+                        throw new IOException("an earlier write-ahead log write failed", failure);
+                    }
+                    if (synced >= position) {
+                        return; // covered by the leader's sync
+                    }
+                    if (!syncing) {
+                        syncing = true;
+                        break;
+                    }
+                    try {
+                        syncLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("interrupted waiting for the write-ahead log", e);
+                    }
+                }
+            }
+            byte[] batch;
+            long upTo;
+            synchronized (this) {
+                batch = pending.toByteArray();
+                pending.reset();
+                upTo = appended;
+            }
+            IOException failed = null;
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (force) {
+                    channel.force(false);
+                    syncs.incrementAndGet();
+                }
+            } catch (IOException e) {
+                failed = e;
+                throw e;
+            } finally {
+                synchronized (syncLock) {
+                    syncing = false;
+                    if (failed == null) {
+                        synced = upTo;
+                    } else {
+                        failure = failed;
+                    }
+                    syncLock.notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Sync everything appended, then close the file
+         */
+        void close() throws IOException {
+            try {
+                sync(appended(), true);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    // ===================== REPOSITORIES =====================
+
+    /**
+     * PetRepository over the in-memory PetStore, logging each change
+     */
+    private final class DurablePetRepository implements PetRepository {
+
+        @Override
+        public void add(Pet pet) throws DatabaseException {
+            commit(() -> {
+                petStore.add(pet);
+                return pet;
+            }, DurableStore::petRecord);
+        }
+
+        @Override
+        public void addAll(Collection<Pet> pets) throws DatabaseException {
+            // One record for the whole batch: one fsync, replayed all or nothing. If a pet is
+            // refused, the ones added before it are still logged before the failure is rethrown.
+            RuntimeException[] refused = new RuntimeException[1];
+            commit(() -> {
+                List<byte[]> added = new ArrayList<>(pets.size());
+                for (Pet pet : pets) {
+                    try {
+                        petStore.add(pet);
+                    } catch (RuntimeException e) {
+                        refused[0] = e;
+                        break;
+                    }
+                    added.add(petRecord(pet));
+                }
+                return added;
+            }, added -> {
+                if (added.isEmpty()) {
+                    return null;
+                }
+                Encoder batch = new Encoder(BATCH).putInt(added.size());
+                added.forEach(batch::putBytes);
+                return batch.bytes();
+            });
+            if (refused[0] != null) {
+                throw refused[0];
+            }
+        }
+
+        @Override
+        public Pet findById(int id) {
+            return petStore.findById(id);
+        }
+
+        @Override
+        public Collection<Pet> findAll() {
+            return petStore.findAll();
+        }
+
+        @Override
+        public List<Pet> findAll(int afterId, int limit) {
+            return petStore.findAll(afterId, limit);
+        }
+
+        @Override
+        public List<Pet> findByAdoptionStatus(String status, int afterId, int limit) {
+            return petStore.findByAdoptionStatus(status, afterId, limit);
+        }
+
+        @Override
+        public List<Pet> findByApprovalStatus(String status, int afterId, int limit) {
+            return petStore.findByApprovalStatus(status, afterId, limit);
+        }
+
+        @Override
+        public List<Pet> findByType(String type) {
+            return petStore.findByType(type);
+        }
+
+        @Override
+        public List<Pet> findByShelter(int shelterId) {
+            return petStore.findByShelter(shelterId);
+        }
+
+        @Override
+        public List<Pet> search(String query, int limit) {
+            return petStore.search(query, limit);
+        }
+
+        @Override
+        public boolean updateAdoptionStatus(int id, String status) throws DatabaseException {
+            return commit(() -> petStore.updateAdoptionStatus(id, status),
+                    changed -> changed ? statusRecord(PET_ADOPTION_STATUS, id, status) : null);
+        }
+
+        @Override
+        public boolean updateApprovalStatus(int id, String status) throws DatabaseException {
+            return commit(() -> petStore.updateApprovalStatus(id, status),
+                    changed -> changed ? statusRecord(PET_APPROVAL_STATUS, id, status) : null);
+        }
+
+        @Override
+        public Pet remove(int id) throws DatabaseException {
+            return commit(() -> petStore.remove(id), pet -> pet == null ? null : removedRecord(PET_REMOVED, id));
+        }
+
+        @Override
+        public int size() {
+            return petStore.size();
+        }
+
+        @Override
+        public void recount(PlatformStats.Recount recount) {
+            petStore.recount(recount);
+        }
+    }
+
+    /**
+     * ApplicationRepository over the in-memory ApplicationStore, logging each change
+     */
+    private final class DurableApplicationRepository implements ApplicationRepository {
+
+        @Override
+        public Application submit(int adopterId, int petId, int shelterId, String notes) throws DatabaseException {
+            return commit(() -> applicationStore.submit(adopterId, petId, shelterId, notes),
+                    app -> app == null ? null : applicationRecord(app));
+        }
+
+        @Override
+        public void add(Application application) throws DatabaseException {
+            commit(() -> {
+                applicationStore.add(application);
+                return application;
+            }, DurableStore::applicationRecord);
+        }
+
+        @Override
+        public Application findById(int id) {
+            return applicationStore.findById(id);
+        }
+
+        @Override
+        public Collection<Application> findAll() {
+            return applicationStore.findAll();
+        }
+
+        @Override
+        public List<Application> findByAdopter(int adopterId) {
+            return applicationStore.findByAdopter(adopterId);
+        }
+
+        @Override
+        public List<Application> findByPet(int petId) {
+            return applicationStore.findByPet(petId);
+        }
+
+        @Override
+        public List<Application> findByShelter(int shelterId) {
+            return applicationStore.findByShelter(shelterId);
+        }
+
+        @Override
+        public Application findActive(int adopterId, int petId) {
+            return applicationStore.findActive(adopterId, petId);
+        }
+
+        @Override
+        public int updateStatus(int id, String status) throws DatabaseException {
+            return commit(() -> applicationStore.updateStatus(id, status),
+                    outcome -> outcome == UPDATED ? statusRecord(APPLICATION_STATUS, id, status) : null);
+        }
+
+        @Override
+        public Application remove(int id) throws DatabaseException {
+            return commit(() -> applicationStore.remove(id),
+                    app -> app == null ? null : removedRecord(APPLICATION_REMOVED, id));
+        }
+
+        @Override
+        public int size() {
+            return applicationStore.size();
+        }
+
+        @Override
+        public void recount(PlatformStats.Recount recount) {
+            applicationStore.recount(recount);
+        }
+    }
+
+    /**
+     * UserRepository over the in-memory UserStore, logging each change
+     */
+    private final class DurableUserRepository implements UserRepository {
+
+        @Override
+        public void add(User user) throws DatabaseException {
+            commit(() -> {
+                userStore.add(user);
+                return user;
+            }, DurableStore::userRecord);
+        }
+
+        @Override
+        public User findById(int id) {
+            return userStore.findById(id);
+        }
+
+        @Override
+        public User findByEmail(String email) {
+            return userStore.findByEmail(email);
+        }
+
+        @Override
+        public Collection<User> findAll() {
+            return userStore.findAll();
+        }
+
+        @Override
+        public void update(User user) throws DatabaseException {
+            // The whole user is logged, so replaying it restores every changed field
+            commit(() -> {
+                userStore.update(user);
+                return userStore.findById(user.getId());
+            }, stored -> stored == null ? null : userRecord(stored));
+        }
+
+        @Override
+        public User remove(int id) throws DatabaseException {
+            return commit(() -> userStore.remove(id), user -> user == null ? null : removedRecord(USER_REMOVED, id));
+        }
+
+        @Override
+        public int size() {
+            return userStore.size();
+        }
+    }
+
+    /**
+     * MessageStore that logs each message sent or deleted; a failed log write
+     * surfaces as an IllegalStateException, as MessageStore's methods declare nothing
+     */
+    private final class DurableMessageStore extends MessageStore {
+
+        @Override
+        void add(PetAdoptionBackend.Message message) {
+            try {
+                commit(() -> {
+                    super.add(message);
+                    return message;
+                }, DurableStore::messageRecord);
+            } catch (DatabaseException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        PetAdoptionBackend.Message remove(int id) {
+            try {
+                return commit(() -> super.remove(id),
+                        message -> message == null ? null : removedRecord(MESSAGE_REMOVED, id));
+            } catch (DatabaseException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        void restore(PetAdoptionBackend.Message message) {
+            super.add(message);
+        }
+
+        void restoreRemoval(int id) {
+            super.remove(id);
+        }
+    }
+}
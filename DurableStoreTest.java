@@ -0,0 +1,241 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DurableStoreTest - Unit tests for DurableStore
+ * Tests recovery from copies of the log directory taken while the store is open,
+ * which is what a crash leaves behind
+ *
+ * Coverage:
+ * - Every kind of change replayed from the log
+ * - Snapshot plus log tail, with older files deleted
+ * - Clean close leaves only a snapshot to load
+ * - Torn record at the end of the log cut off
+ * - Concurrent writers share fsyncs
+ */
+@DisplayName("DurableStore Write-Ahead Log Tests")
+public class DurableStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private int images;
+
+    private DurableStore open(Path walDir, long snapshotRecords, PlatformStats stats) throws DatabaseException {
+        return DurableStore.open(new DurableStore.Config(walDir, DurableStore.GROUP, 10, snapshotRecords), stats);
+    }
+
+    /**
+     * Copy of the directory as a crash would leave it: whatever has reached the files
+     */
+    private Path crashImage(Path walDir) throws Exception {
+        Path image = Files.createDirectories(dir.resolve("crash-" + (++images)));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(walDir)) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().equals("lock")) {
+                    Files.copy(file, image.resolve(file.getFileName()));
+                }
+            }
+        }
+        return image;
+    }
+
+    private static List<String> files(Path walDir, String glob) throws Exception {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(walDir, glob)) {
+            files.forEach(file -> names.add(file.getFileName().toString()));
+        }
+        names.sort(null);
+        return names;
+    }
+
+    private static Pet pet(int shelterId, String name) {
+        Pet pet = new Pet(0, shelterId, name, "Dog", "Beagle", 3, "Friendly");
+        pet.setApprovalStatus("approved");
+        return pet;
+    }
+
+    @Test
+    @DisplayName("Every kind of change is replayed from the log")
+    void testReplay() throws Exception {
+        Path walDir = dir.resolve("wal");
+        try (DurableStore store = open(walDir, 1_000, new PlatformStats())) {
+            User shelter = new User(0, "Shelter", "shelter@wal.test", "shelter", "shelter123");
+            User adopter = new User(0, "Adopter", "adopter@wal.test", "adopter", "adopter123");
+            store.users.add(shelter);
+            store.users.add(adopter);
+            adopter.setName("Renamed Adopter");
+            store.users.update(adopter);
+
+            Pet max = pet(shelter.getId(), "Max");
+            Pet luna = pet(shelter.getId(), "Luna");
+            store.pets.add(max);
+            store.pets.addAll(List.of(luna, pet(shelter.getId(), "Rex")));
+            store.pets.updateAdoptionStatus(max.getId(), "adopted");
+            store.pets.remove(luna.getId());
+
+            Application app = store.applications.submit(adopter.getId(), max.getId(), shelter.getId(), "Garden");
+            store.applications.updateStatus(app.getId(), "approved");
+            PetAdoptionBackend.Message hello = new PetAdoptionBackend.Message(IdAllocator.MESSAGES.next(),
+                    adopter.getId(), shelter.getId(), "Hello");
+            store.messages.add(hello);
+            assertEquals(10, store.records(), "the batch is one record");
+
+            PlatformStats stats = new PlatformStats();
+            try (DurableStore recovered = open(crashImage(walDir), 1_000, stats)) {
+                assertEquals(10, recovered.recovered());
+                assertEquals("Renamed Adopter", recovered.users.findByEmail("adopter@wal.test").getName());
+                assertNotNull(recovered.users.login("adopter@wal.test", "adopter123"));
+                assertEquals(2, recovered.pets.size());
+                assertNull(recovered.pets.findById(luna.getId()));
+                assertEquals("adopted", recovered.pets.findById(max.getId()).getAdoptionStatus());
+                assertEquals(1, recovered.pets.search("rex", 10).size());
+                Application restored = recovered.applications.findActive(adopter.getId(), max.getId());
+                assertEquals("approved", restored.getStatus());
+                assertEquals(shelter.getId(), restored.getShelterId());
+                assertEquals(app.getCreatedAt().withNano(0), restored.getCreatedAt().withNano(0));
+                assertEquals("Hello", recovered.messages.inbox(shelter.getId(), 0, 10).get(0).content);
+                assertEquals(1, stats.global().petsWithAdoptionStatus("adopted"));
+                assertEquals(2, stats.users());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A snapshot plus the log after it restores the stores and replaces older files")
+    void testSnapshotAndTail() throws Exception {
+        Path walDir = dir.resolve("wal");
+        try (DurableStore store = open(walDir, 1_000, new PlatformStats())) {
+            for (int i = 0; i < 5; i++) {
+                store.pets.add(pet(7, "Before " + i));
+            }
+            store.snapshot();
+            store.snapshot();
+            Pet after = pet(7, "After");
+            store.pets.add(after);
+            store.pets.updateApprovalStatus(after.getId(), "rejected");
+
+            assertEquals(List.of("snapshot-2.dat"), files(walDir, "snapshot-*"));
+            assertEquals(List.of("wal-2.log"), files(walDir, "wal-*"));
+            try (DurableStore recovered = open(crashImage(walDir), 1_000, new PlatformStats())) {
+                assertEquals(5 + 2, recovered.recovered(), "five pets from the snapshot, two records after it");
+                assertEquals(6, recovered.pets.size());
+                assertEquals("rejected", recovered.pets.findById(after.getId()).getApprovalStatus());
+            }
+        }
+
+        // Crossing snapshotRecords snapshots in the background
+        Path busyDir = dir.resolve("busy");
+        try (DurableStore store = open(busyDir, 3, new PlatformStats())) {
+            for (int i = 0; i < 4; i++) {
+                store.pets.add(pet(8, "Pet " + i));
+            }
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (store.snapshots() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(store.snapshots() > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("A clean close leaves a snapshot, and the directory cannot be shared")
+    void testCloseAndLock() throws Exception {
+        Path walDir = dir.resolve("wal");
+        int petId;
+        try (DurableStore store = open(walDir, 1_000, new PlatformStats())) {
+            Pet pet = pet(9, "Max");
+            store.pets.add(pet);
+            petId = pet.getId();
+            assertThrows(DatabaseException.class, () -> open(walDir, 1_000, new PlatformStats()));
+        }
+        assertEquals(List.of("snapshot-1.dat"), files(walDir, "snapshot-*"));
+        assertEquals(0, Files.size(walDir.resolve("wal-1.log")));
+
+        try (DurableStore store = open(walDir, 1_000, new PlatformStats())) {
+            assertEquals(1, store.recovered());
+            assertEquals("Max", store.pets.findById(petId).getName());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new DurableStore.Config(walDir, "sometimes", 10, 1_000));
+    }
+
+    @Test
+    @DisplayName("A torn record at the end of the log is cut off")
+    void testTornTail() throws Exception {
+        Path walDir = dir.resolve("wal");
+        Path image;
+        Pet first = pet(10, "First");
+        Pet second = pet(10, "Second");
+        try (DurableStore store = open(walDir, 1_000, new PlatformStats())) {
+            store.pets.add(first);
+            store.pets.add(second);
+            image = crashImage(walDir);
+        }
+        Path log = image.resolve("wal-0.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        long torn = Files.size(log);
+
+        try (DurableStore store = open(image, 1_000, new PlatformStats())) {
+            assertEquals(1, store.recovered());
+            assertNotNull(store.pets.findById(first.getId()));
+            assertNull(store.pets.findById(second.getId()));
+            assertTrue(Files.size(log) < torn, "torn record removed");
+            store.pets.updateAdoptionStatus(first.getId(), "pending");
+            try (DurableStore again = open(crashImage(image), 1_000, new PlatformStats())) {
+                assertEquals("pending", again.pets.findById(first.getId()).getAdoptionStatus());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent writers share fsyncs and every write is durable")
+    void testGroupCommit() throws Exception {
+        Path walDir = dir.resolve("wal");
+        int threads = 8;
+        int perThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (DurableStore store = open(walDir, 100_000, new PlatformStats())) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        store.pets.add(pet(11, "Pet " + thread + "-" + i));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+
+            assertEquals(threads * perThread, store.records());
+            assertTrue(store.syncs() < store.records(), store.syncs() + " fsyncs for " + store.records() + " records");
+            try (DurableStore recovered = open(crashImage(walDir), 100_000, new PlatformStats())) {
+                assertEquals(threads * perThread, recovered.pets.size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
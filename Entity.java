@@ -0,0 +1,48 @@
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Abstract base class for all entities
+ * Demonstrates inheritance and abstraction
+ */
+abstract class Entity implements Persistable {
+    protected int id;
+    protected LocalDateTime createdAt;
+    protected LocalDateTime updatedAt;
+
+    public Entity() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Entity(int id) {
+        this.id = id;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // Abstract methods - polymorphism
+    abstract void validate() throws Exception;
+
+    abstract String getEntityType();
+
+    @Override
+    public String toString() {
+        return String.format("[%s] ID: %d | Created: %s | Updated: %s",
+                getEntityType(), id,
+                createdAt.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
+                updatedAt.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+    }
+}
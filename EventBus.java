@@ -0,0 +1,125 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EventBus - In-process publish/subscribe for pet and application transitions
+ * Servlets publish an event to the users it concerns (or to everyone); each
+ * subscriber is a connection of one user, e.g. an EventServlet SSE stream.
+ * An event is encoded to its SSE frame once, however many subscribers get it,
+ * and delivery never blocks the publisher: subscribers only buffer the frame.
+ */
+public final class EventBus {
+    static final EventBus DEFAULT = new EventBus();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Integer, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Receiver of events; offer() must not block
+     */
+    interface Subscriber {
+        /**
+         * @return false if the event could not be taken (the subscriber is closing)
+         */
+        boolean offer(Event event);
+    }
+
+    /**
+     * One published event with its SSE wire form
+     */
+    static final class Event {
+        final long id;
+        final String type;
+        final String data;
+        final byte[] frame;
+
+        Event(long id, String type, String data) {
+            this.id = id;
+            this.type = type;
+            this.data = data;
+            this.frame = ("id: " + id + "\nevent: " + type + "\ndata: " + data + "\n\n")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    void subscribe(int userId, Subscriber subscriber) {
+        byUser.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    }
+
+    void unsubscribe(int userId, Subscriber subscriber) {
+        byUser.computeIfPresent(userId, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    /**
+     * Deliver an event to every connection of the given users
+     * @param data JSON payload, on a single line
+     */
+    Event publish(String type, String data, int... userIds) {
+        Event event = new Event(sequence.incrementAndGet(), type, data);
+        published.increment();
+        for (int i = 0; i < userIds.length; i++) {
+            if (indexOf(userIds, userIds[i]) < i) {
+                continue; // same user twice, e.g. an admin who is also the shelter
+            }
+            Set<Subscriber> subscribers = byUser.get(userIds[i]);
+            if (subscribers != null) {
+                deliver(event, subscribers);
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Deliver an event to every connected user
+     */
+    Event broadcast(String type, String data) {
+        Event event = new Event(sequence.incrementAndGet(), type, data);
+        published.increment();
+        for (Set<Subscriber> subscribers : byUser.values()) {
+            deliver(event, subscribers);
+        }
+        return event;
+    }
+
+    private void deliver(Event event, Set<Subscriber> subscribers) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(event)) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int subscriberCount() {
+        int count = 0;
+        for (Set<Subscriber> subscribers : byUser.values()) {
+            count += subscribers.size();
+        }
+        return count;
+    }
+
+    long publishedCount() {
+        return published.sum();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EventBusTest - Unit tests for EventBus
+ * Tests event routing to users' subscribers and the SSE frame encoding
+ *
+ * Coverage:
+ * - Events reach only the targeted users
+ * - Broadcast reaches every user
+ * - A user listed twice gets the event once
+ * - Unsubscribed and refusing subscribers
+ * - SSE wire format
+ */
+@DisplayName("EventBus Publish/Subscribe Tests")
+public class EventBusTest {
+
+    private EventBus bus;
+
+    /**
+     * Subscriber that records what it is offered
+     */
+    private static class Recorder implements EventBus.Subscriber {
+        final List<EventBus.Event> events = new ArrayList<>();
+        boolean accept = true;
+
+        @Override
+        public boolean offer(EventBus.Event event) {
+            if (accept) {
+                events.add(event);
+            }
+            return accept;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        bus = new EventBus();
+    }
+
+    @Test
+    @DisplayName("Should deliver events only to the targeted users")
+    void testTargeting() {
+        Recorder adopter = new Recorder();
+        Recorder shelter = new Recorder();
+        Recorder other = new Recorder();
+        bus.subscribe(3, adopter);
+        bus.subscribe(2, shelter);
+        bus.subscribe(4, other);
+
+        bus.publish("application.status", "{\"applicationId\":1}", 3, 2);
+
+        assertEquals(1, adopter.events.size());
+        assertEquals(1, shelter.events.size());
+        assertTrue(other.events.isEmpty());
+        assertEquals(1, bus.publishedCount());
+    }
+
+    @Test
+    @DisplayName("Should broadcast to every connected user")
+    void testBroadcast() {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        bus.subscribe(3, first);
+        bus.subscribe(4, second);
+
+        bus.broadcast("pet.status", "{\"petId\":1}");
+
+        assertEquals(1, first.events.size());
+        assertEquals(1, second.events.size());
+        assertEquals(2, bus.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should deliver once to a user listed twice")
+    void testDuplicateRecipients() {
+        Recorder shelter = new Recorder();
+        bus.subscribe(2, shelter);
+
+        bus.publish("application.status", "{}", 2, 2);
+
+        assertEquals(1, shelter.events.size());
+    }
+
+    @Test
+    @DisplayName("Should stop delivering after unsubscribe and count refused events")
+    void testUnsubscribeAndDrops() {
+        Recorder open = new Recorder();
+        Recorder closing = new Recorder();
+        closing.accept = false;
+        bus.subscribe(3, open);
+        bus.subscribe(3, closing);
+
+        bus.publish("pet.status", "{}", 3);
+        assertEquals(1, bus.droppedCount());
+
+        bus.unsubscribe(3, open);
+        bus.unsubscribe(3, closing);
+        bus.publish("pet.status", "{}", 3);
+
+        assertEquals(1, open.events.size());
+        assertEquals(0, bus.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should encode events as SSE frames with increasing ids")
+    void testFrameFormat() {
+        EventBus.Event first = bus.broadcast("pet.status", "{\"petId\":1}");
+        EventBus.Event second = bus.broadcast("pet.status", "{\"petId\":2}");
+
+        assertEquals("id: 1\nevent: pet.status\ndata: {\"petId\":1}\n\n",
+                new String(first.frame, StandardCharsets.UTF_8));
+        assertTrue(second.id > first.id);
+    }
+}
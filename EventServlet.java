@@ -0,0 +1,243 @@
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EventServlet - Server-Sent Events stream of the user's pet and application updates
+ * GET /api/events - text/event-stream fed by EventBus.DEFAULT
+ *
+ * Streams hold no thread: the request goes async and frames are written with
+ * non-blocking I/O (WriteListener), so an idle subscriber costs one small
+ * connection object. Each connection buffers at most MAX_PENDING frames; a
+ * client that falls further behind is disconnected and its EventSource
+ * reconnects. One timer sends heartbeats, which also keeps proxies from
+ * timing out, and closes streams that have stalled or outlived their login.
+ *
+ * Configuration: petadoption.events.heartbeatMs, .maxPending,
+ * .maxConnections and .maxAgeMs (streams are closed and re-opened at least
+ * this often so expired tokens are noticed).
+ */
+public class EventServlet extends HttpServlet {
+    static final long HEARTBEAT_MILLIS = Long.getLong("petadoption.events.heartbeatMs", 15_000);
+    static final int MAX_PENDING = Integer.getInteger("petadoption.events.maxPending", 64);
+    static final int MAX_CONNECTIONS = Integer.getInteger("petadoption.events.maxConnections", 50_000);
+    static final long MAX_AGE_MILLIS = Long.getLong("petadoption.events.maxAgeMs", 30 * 60 * 1000L);
+
+    private static final byte[] PREAMBLE = "retry: 5000\n: connected\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final Set<Connection> CONNECTIONS = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService HEARTBEATS = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "petadoption-events-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        HEARTBEATS.scheduleWithFixedDelay(EventServlet::heartbeat, HEARTBEAT_MILLIS, HEARTBEAT_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private final EventBus bus;
+
+    public EventServlet() {
+        this(EventBus.DEFAULT);
+    }
+
+    EventServlet(EventBus bus) {
+        this.bus = bus;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        AuthPrincipal principal = AuthPrincipal.of(request);
+        if (principal == null) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType("application/json");
+            response.getWriter().println("{\"success\": false, \"message\": \"Not authenticated\"}");
+            return;
+        }
+        if (CONNECTIONS.size() >= MAX_CONNECTIONS) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "5");
+            response.setContentType("application/json");
+            response.getWriter().println("{\"success\": false, \"message\": \"Too many event streams\"}");
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        // Stops reverse proxies from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext async = request.startAsync();
+        async.setTimeout(0); // lifetime is managed by the heartbeat timer
+        long loginExpiryMillis = principal.expiresAtEpochSecond == Long.MAX_VALUE ? Long.MAX_VALUE
+                : TimeUnit.SECONDS.toMillis(principal.expiresAtEpochSecond);
+        long expiresAtMillis = Math.min(System.currentTimeMillis() + MAX_AGE_MILLIS, loginExpiryMillis);
+        Connection connection = new Connection(bus, principal.userIdAsInt(), async, response.getOutputStream(),
+                expiresAtMillis);
+        async.addListener(connection);
+        CONNECTIONS.add(connection);
+        bus.subscribe(connection.userId, connection);
+        // Starts the writes: the container calls onWritePossible once the stream is ready
+        connection.out.setWriteListener(connection);
+    }
+
+    /**
+     * Ping every stream, closing the ones that have expired or stopped draining
+     */
+    static void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Connection connection : CONNECTIONS) {
+            if (now >= connection.expiresAtMillis || connection.stalledSince(now) > 2 * HEARTBEAT_MILLIS) {
+                connection.close();
+            } else {
+                connection.enqueue(HEARTBEAT);
+            }
+        }
+    }
+
+    static int connectionCount() {
+        return CONNECTIONS.size();
+    }
+
+    /**
+     * One subscriber's stream: a bounded frame buffer drained whenever the socket can take more
+     */
+    static final class Connection implements EventBus.Subscriber, WriteListener, AsyncListener {
+        final int userId;
+        final ServletOutputStream out;
+        final long expiresAtMillis;
+        private final EventBus bus;
+        private final AsyncContext async;
+        private final ArrayDeque<byte[]> pending = new ArrayDeque<>();
+        private boolean unflushed;
+        private boolean closed;
+        // When the buffer last became non-empty, or 0 while it is empty
+        private long backlogSinceMillis;
+
+        Connection(EventBus bus, int userId, AsyncContext async, ServletOutputStream out, long expiresAtMillis) {
+            this.bus = bus;
+            this.userId = userId;
+            this.async = async;
+            this.out = out;
+            this.expiresAtMillis = expiresAtMillis;
+            pending.add(PREAMBLE);
+            backlogSinceMillis = System.currentTimeMillis();
+        }
+
+        @Override
+        public boolean offer(EventBus.Event event) {
+            return enqueue(event.frame);
+        }
+
+        synchronized boolean enqueue(byte[] frame) {
+            if (closed) {
+                return false;
+            }
+            if (pending.size() >= MAX_PENDING) {
+                // Slow consumer: drop the stream rather than buffer without bound
+                close();
+                return false;
+            }
+            if (pending.isEmpty()) {
+                backlogSinceMillis = System.currentTimeMillis();
+            }
+            pending.add(frame);
+            drain();
+            return true;
+        }
+
+        /**
+         * Write as much as the socket accepts without blocking; the container calls
+         * onWritePossible when the rest can go
+         */
+        private synchronized void drain() {
+            try {
+                while (!closed && out.isReady()) {
+                    byte[] frame = pending.poll();
+                    if (frame != null) {
+                        out.write(frame);
+                        unflushed = true;
+                    } else if (unflushed) {
+                        unflushed = false;
+                        out.flush();
+                    } else {
+                        backlogSinceMillis = 0;
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        synchronized long stalledSince(long nowMillis) {
+            return backlogSinceMillis == 0 ? 0 : nowMillis - backlogSinceMillis;
+        }
+
+        @Override
+        public void onWritePossible() {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            close();
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            CONNECTIONS.remove(this);
+            bus.unsubscribe(userId, this);
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
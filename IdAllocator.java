@@ -0,0 +1,51 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IdAllocator - Lock-free id sequences
+ * One shared sequence per entity type, used by the servlets and the console
+ * backend. next() is a single atomic increment, so concurrent creates never
+ * receive the same id and never wait on a lock.
+ */
+public final class IdAllocator {
+    public static final IdAllocator USERS = new IdAllocator("users");
+    public static final IdAllocator PETS = new IdAllocator("pets");
+    public static final IdAllocator APPLICATIONS = new IdAllocator("applications");
+    public static final IdAllocator MESSAGES = new IdAllocator("messages");
+
+    private final String name;
+    private final AtomicInteger last = new AtomicInteger();
+
+    IdAllocator(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Hand out the next unused id
+     */
+    public int next() {
+        int id = last.incrementAndGet();
+        if (id <= 0) {
+            throw new IllegalStateException("Id sequence '" + name + "' exhausted");
+        }
+        return id;
+    }
+
+    /**
+     * Mark every id up to and including the given one as taken,
+     * e.g. after loading seed data with explicit ids
+     */
+    public void reserveUpTo(int id) {
+        last.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Last id handed out or reserved
+     */
+    public int current() {
+        return last.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
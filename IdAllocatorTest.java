@@ -0,0 +1,101 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IdAllocatorTest - Stress tests for IdAllocator
+ * Fires thousands of concurrent creates and checks that no id is handed out twice
+ *
+ * Coverage:
+ * - Unique ids under contention
+ * - Reserving seeded ids
+ * - Concurrent pet creation through PetStore
+ * - Concurrent application creation
+ */
+@DisplayName("IdAllocator Concurrency Tests")
+public class IdAllocatorTest {
+
+    private static final int THREADS = 32;
+    private static final int CREATES_PER_THREAD = 500;
+
+    @Test
+    @DisplayName("Should hand out unique ids under contention")
+    void testUniqueIdsUnderContention() throws InterruptedException {
+        IdAllocator allocator = new IdAllocator("test");
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(() -> assertTrue(ids.add(allocator.next()), "Id handed out twice"));
+
+        assertEquals(THREADS * CREATES_PER_THREAD, ids.size(), "Every create should get its own id");
+        assertEquals(THREADS * CREATES_PER_THREAD, allocator.current(), "Ids should be dense");
+    }
+
+    @Test
+    @DisplayName("Should continue after reserved seed ids")
+    void testReserveUpTo() {
+        IdAllocator allocator = new IdAllocator("test");
+        allocator.reserveUpTo(3);
+        allocator.reserveUpTo(2);
+
+        assertEquals(4, allocator.next(), "Next id should follow the highest reserved id");
+    }
+
+    @Test
+    @DisplayName("Should add pets concurrently without duplicate ids")
+    void testConcurrentPetCreates() throws InterruptedException {
+        IdAllocator allocator = new IdAllocator("pets");
+        PetStore store = new PetStore();
+
+        // PetStore.add throws on a duplicate id
+        runConcurrently(() -> store.add(new Pet(allocator.next(), 2, "Pet", "Dog", "Mixed", 1, "")));
+
+        assertEquals(THREADS * CREATES_PER_THREAD, store.size(), "Every pet should be stored");
+    }
+
+    @Test
+    @DisplayName("Should create applications concurrently without duplicate ids")
+    void testConcurrentApplicationCreates() throws InterruptedException {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ApplicationStore store = new ApplicationStore();
+
+        // Stored applications without an id are numbered from IdAllocator.APPLICATIONS
+        runConcurrently(() -> {
+            Application app = new Application(0, 3, 1, "notes");
+            app.setStatus("rejected");
+            store.add(app);
+            assertTrue(ids.add(app.getId()), "Application id handed out twice");
+        });
+
+        assertEquals(THREADS * CREATES_PER_THREAD, ids.size(), "Every application should get its own id");
+    }
+
+    // Helper method: release all threads at once, then run the task repeatedly on each
+    private void runConcurrently(Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < CREATES_PER_THREAD; i++) {
+                        task.run();
+                    }
+                } catch (Throwable e) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS), "Creates should finish");
+        assertEquals(0, failures.get(), "No create should fail");
+    }
+}
@@ -0,0 +1,5 @@
+class InvalidUserException extends Exception {
+    public InvalidUserException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,4 @@
 import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
@@ -12,28 +11,22 @@ import java.io.PrintWriter;
  * LoginServlet - Handles user authentication
  * POST /api/login - Authenticate user with email and password
  * GET /api/logout - Logout user
+ *
+ * In token mode (petadoption.auth.mode, see SessionTokens) a login returns a
+ * signed token, also set as an HttpOnly, Secure cookie, instead of creating an HttpSession.
+ * Accounts are looked up in Repositories.web().
  */
-public class LoginServlet extends HttpServlet {
+public class LoginServlet extends AsyncHttpServlet {
     private static final Gson gson = new Gson();
 
-    // Demo users (in production, query database)
-    static class User {
-        String id, name, email, role, password;
-        User(String id, String name, String email, String role, String password) {
-            this.id = id;
-            this.name = name;
-            this.email = email;
-            this.role = role;
-            this.password = password;
-        }
-    }
+    private static final UserRepository users = Repositories.web().users;
 
-    private static final User[] DEMO_USERS = {
-        new User("1", "Admin User", "admin@petadoption.com", "admin", "admin123"),
-        new User("2", "Happy Paws Shelter", "shelter@happypaws.com", "shelter", "shelter123"),
-        new User("3", "John Adopter", "john@email.com", "adopter", "john123"),
-        new User("4", "Sarah Adopter", "sarah@email.com", "adopter", "sarah123")
-    };
+    /**
+     * User with these credentials, or null; unknown emails cost the same as wrong passwords
+     */
+    static User authenticate(String email, String password) throws DatabaseException {
+        return users.login(email, password);
+    }
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
@@ -56,30 +49,34 @@ public class LoginServlet extends HttpServlet {
             String password = loginRequest.get("password").getAsString();
 
             // Validate credentials
-            User authenticatedUser = null;
-            for (User user : DEMO_USERS) {
-                if (user.email.equals(email) && user.password.equals(password)) {
-                    authenticatedUser = user;
-                    break;
-                }
-            }
+            User authenticatedUser = authenticate(email, password);
 
             if (authenticatedUser != null) {
-                // Create session
-                HttpSession session = request.getSession(true);
-                session.setAttribute("userId", authenticatedUser.id);
-                session.setAttribute("userEmail", authenticatedUser.email);
-                session.setAttribute("userName", authenticatedUser.name);
-                session.setAttribute("userRole", authenticatedUser.role);
-                session.setMaxInactiveInterval(30 * 60); // 30 minutes
+                String userId = String.valueOf(authenticatedUser.getId());
+                JsonObject responseJson = new JsonObject();
+                if (SessionTokens.tokenMode()) {
+                    // Stateless: everything needed to authenticate later travels in the token
+                    String token = SessionTokens.issue(userId, authenticatedUser.getEmail(),
+                            authenticatedUser.getName(), authenticatedUser.getRole());
+                    setTokenCookie(response, token, SessionTokens.TTL_SECONDS);
+                    responseJson.addProperty("token", token);
+                    responseJson.addProperty("expiresIn", SessionTokens.TTL_SECONDS);
+                } else {
+                    // Create session
+                    HttpSession session = request.getSession(true);
+                    session.setAttribute("userId", userId);
+                    session.setAttribute("userEmail", authenticatedUser.getEmail());
+                    session.setAttribute("userName", authenticatedUser.getName());
+                    session.setAttribute("userRole", authenticatedUser.getRole());
+                    session.setMaxInactiveInterval(30 * 60); // 30 minutes
+                }
 
                 // Return success response
-                JsonObject responseJson = new JsonObject();
                 responseJson.addProperty("success", true);
                 responseJson.addProperty("message", "Login successful");
-                responseJson.addProperty("userId", authenticatedUser.id);
-                responseJson.addProperty("userName", authenticatedUser.name);
-                responseJson.addProperty("userRole", authenticatedUser.role);
+                responseJson.addProperty("userId", userId);
+                responseJson.addProperty("userName", authenticatedUser.getName());
+                responseJson.addProperty("userRole", authenticatedUser.getRole());
 
                 response.setStatus(HttpServletResponse.SC_OK);
                 out.println(responseJson.toString());
@@ -111,6 +108,8 @@ public class LoginServlet extends HttpServlet {
             if (session != null) {
                 session.invalidate();
             }
+            // Tokens cannot be revoked server-side; dropping the cookie ends the browser's login
+            setTokenCookie(response, "", 0);
             response.setContentType("application/json");
             JsonObject responseJson = new JsonObject();
             responseJson.addProperty("success", true);
@@ -118,13 +117,13 @@ public class LoginServlet extends HttpServlet {
             response.getWriter().println(responseJson.toString());
         } else if ("status".equals(action)) {
             response.setContentType("application/json");
-            HttpSession session = request.getSession(false);
+            AuthPrincipal principal = AuthPrincipal.of(request);
             JsonObject responseJson = new JsonObject();
 
-            if (session != null && session.getAttribute("userId") != null) {
+            if (principal != null) {
                 responseJson.addProperty("loggedIn", true);
-                responseJson.addProperty("userName", (String) session.getAttribute("userName"));
-                responseJson.addProperty("userRole", (String) session.getAttribute("userRole"));
+                responseJson.addProperty("userName", principal.name);
+                responseJson.addProperty("userRole", principal.role);
             } else {
                 responseJson.addProperty("loggedIn", false);
             }
@@ -134,4 +133,13 @@ public class LoginServlet extends HttpServlet {
             response.getWriter().println("{\"error\": \"Unknown action\"}");
         }
     }
+
+    /**
+     * Set (or, with maxAge 0, clear) the login cookie; written by hand because
+     * the Servlet 5 Cookie API cannot express SameSite
+     */
+    private static void setTokenCookie(HttpServletResponse response, String token, long maxAgeSeconds) {
+        response.addHeader("Set-Cookie", SessionTokens.COOKIE_NAME + "=" + token
+                + "; Max-Age=" + maxAgeSeconds + "; Path=/; HttpOnly; Secure; SameSite=Strict");
+    }
 }
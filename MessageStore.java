@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * MessageStore - Per-recipient mailboxes for PetAdoptionBackend's messages
+ * Every message is filed in its recipient's inbox and in the conversation of
+ * its (sender, recipient) pair, both ordered newest first by message id
+ * (ids are allocated in sending order). Reads are keyset-paginated: a page
+ * starts just below the oldest id of the previous one, so reading a page
+ * costs O(log n + page size) however large the mailbox is.
+ */
+public class MessageStore {
+    private final Map<Integer, PetAdoptionBackend.Message> byId = new ConcurrentHashMap<>();
+    private final Mailboxes<Integer> inboxes = new Mailboxes<>();
+    private final Mailboxes<Long> conversations = new Mailboxes<>();
+    // userId -> partnerId -> newest message exchanged with that partner
+    private final Map<Integer, Map<Integer, PetAdoptionBackend.Message>> latestByPartner = new ConcurrentHashMap<>();
+
+    /**
+     * Mailbox per key, newest message first
+     */
+    private static final class Mailboxes<K> {
+        private final Map<K, ConcurrentSkipListMap<Integer, PetAdoptionBackend.Message>> boxes = new ConcurrentHashMap<>();
+
+        void add(K key, PetAdoptionBackend.Message message) {
+            boxes.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>(Comparator.reverseOrder()))
+                    .put(message.id, message);
+        }
+
+        void remove(K key, PetAdoptionBackend.Message message) {
+            boxes.computeIfPresent(key, (k, box) -> {
+                box.remove(message.id);
+                return box.isEmpty() ? null : box;
+            });
+        }
+
+        List<PetAdoptionBackend.Message> page(K key, int beforeId, int limit) {
+            ConcurrentSkipListMap<Integer, PetAdoptionBackend.Message> box = boxes.get(key);
+            if (box == null || limit <= 0) {
+                return Collections.emptyList();
+            }
+            // Descending map: the tail after beforeId holds the older messages
+            NavigableMap<Integer, PetAdoptionBackend.Message> older = beforeId > 0 ? box.tailMap(beforeId, false) : box;
+            List<PetAdoptionBackend.Message> page = new ArrayList<>(Math.min(limit, 64));
+            for (PetAdoptionBackend.Message message : older.values()) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(message);
+            }
+            return page;
+        }
+
+        int size(K key) {
+            ConcurrentSkipListMap<Integer, PetAdoptionBackend.Message> box = boxes.get(key);
+            return box == null ? 0 : box.size();
+        }
+    }
+
+    /**
+     * Conversation key: the same for both directions between two users
+     */
+    static long conversationKey(int userA, int userB) {
+        int low = Math.min(userA, userB);
+        int high = Math.max(userA, userB);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    void add(PetAdoptionBackend.Message message) {
+        if (byId.putIfAbsent(message.id, message) != null) {
+            throw new IllegalStateException("Duplicate message id " + message.id);
+        }
+        inboxes.add(message.recipientId, message);
+        conversations.add(conversationKey(message.senderId, message.recipientId), message);
+        recordLatest(message.senderId, message.recipientId, message);
+        recordLatest(message.recipientId, message.senderId, message);
+    }
+
+    private void recordLatest(int userId, int partnerId, PetAdoptionBackend.Message message) {
+        latestByPartner.computeIfAbsent(userId, k -> new ConcurrentHashMap<>())
+                .merge(partnerId, message, (current, added) -> added.id > current.id ? added : current);
+    }
+
+    PetAdoptionBackend.Message findById(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Every message, in no particular order (live, weakly consistent view)
+     */
+    Collection<PetAdoptionBackend.Message> findAll() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    /**
+     * Up to limit messages received by the user, newest first, older than beforeId (0 for the newest page)
+     */
+    List<PetAdoptionBackend.Message> inbox(int recipientId, int beforeId, int limit) {
+        return inboxes.page(recipientId, beforeId, limit);
+    }
+
+    int inboxSize(int recipientId) {
+        return inboxes.size(recipientId);
+    }
+
+    /**
+     * Messages exchanged between two users in either direction, newest first
+     */
+    List<PetAdoptionBackend.Message> conversation(int userA, int userB, int beforeId, int limit) {
+        return conversations.page(conversationKey(userA, userB), beforeId, limit);
+    }
+
+    /**
+     * The user's conversations as their newest message each, most recent conversation first
+     */
+    List<PetAdoptionBackend.Message> threads(int userId) {
+        Map<Integer, PetAdoptionBackend.Message> latest = latestByPartner.get(userId);
+        if (latest == null) {
+            return Collections.emptyList();
+        }
+        List<PetAdoptionBackend.Message> threads = new ArrayList<>(latest.values());
+        threads.sort((a, b) -> Integer.compare(b.id, a.id));
+        return threads;
+    }
+
+    /**
+     * Delete a message from every index; a conversation's latest entry falls back to its next newest message
+     */
+    PetAdoptionBackend.Message remove(int id) {
+        PetAdoptionBackend.Message message = byId.remove(id);
+        if (message == null) {
+            return null;
+        }
+        inboxes.remove(message.recipientId, message);
+        long key = conversationKey(message.senderId, message.recipientId);
+        conversations.remove(key, message);
+        List<PetAdoptionBackend.Message> newest = conversations.page(key, 0, 1);
+        for (int[] side : new int[][] { { message.senderId, message.recipientId },
+                { message.recipientId, message.senderId } }) {
+            latestByPartner.computeIfPresent(side[0], (user, partners) -> {
+                if (newest.isEmpty()) {
+                    partners.remove(side[1]);
+                } else {
+                    partners.put(side[1], newest.get(0));
+                }
+                return partners.isEmpty() ? null : partners;
+            });
+        }
+        return message;
+    }
+
+    int size() {
+        return byId.size();
+    }
+}
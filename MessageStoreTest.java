@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.List;
+
+/**
+ * MessageStoreTest - Unit tests for MessageStore
+ * Tests mailbox indexing, threading and newest-first pagination
+ *
+ * Coverage:
+ * - Inbox holds only the recipient's messages
+ * - Keyset pagination, newest first
+ * - Conversations in both directions
+ * - Thread list with the latest message per partner
+ * - Removal from every index
+ */
+@DisplayName("MessageStore Mailbox Tests")
+public class MessageStoreTest {
+
+    private MessageStore store;
+    private int nextId;
+
+    private PetAdoptionBackend.Message send(int from, int to, String content) {
+        PetAdoptionBackend.Message message = new PetAdoptionBackend.Message(++nextId, from, to, content);
+        store.add(message);
+        return message;
+    }
+
+    @BeforeEach
+    void setUp() {
+        store = new MessageStore();
+        nextId = 0;
+    }
+
+    @Test
+    @DisplayName("Should file messages in the recipient's inbox only")
+    void testInbox() {
+        send(3, 2, "Is Max still available?");
+        send(4, 2, "Can I visit on Saturday?");
+        send(2, 3, "Yes, he is!");
+
+        assertEquals(2, store.inboxSize(2));
+        assertEquals(1, store.inboxSize(3));
+        assertEquals(0, store.inboxSize(4));
+        assertEquals("Yes, he is!", store.inbox(3, 0, 10).get(0).content);
+    }
+
+    @Test
+    @DisplayName("Should page through the inbox newest first")
+    void testPagination() {
+        for (int i = 1; i <= 25; i++) {
+            send(3, 2, "message " + i);
+        }
+
+        List<PetAdoptionBackend.Message> first = store.inbox(2, 0, 10);
+        assertEquals(10, first.size());
+        assertEquals("message 25", first.get(0).content);
+        assertEquals("message 16", first.get(9).content);
+
+        List<PetAdoptionBackend.Message> second = store.inbox(2, first.get(9).id, 10);
+        assertEquals("message 15", second.get(0).content);
+
+        List<PetAdoptionBackend.Message> last = store.inbox(2, second.get(9).id, 10);
+        assertEquals(5, last.size());
+        assertEquals("message 1", last.get(4).content);
+    }
+
+    @Test
+    @DisplayName("Should thread a conversation across both directions")
+    void testConversation() {
+        send(3, 2, "Hello shelter");
+        send(4, 2, "Unrelated");
+        send(2, 3, "Hello John");
+        send(3, 2, "When can I visit?");
+
+        List<PetAdoptionBackend.Message> conversation = store.conversation(2, 3, 0, 10);
+        assertEquals(3, conversation.size());
+        assertEquals("When can I visit?", conversation.get(0).content);
+        assertEquals("Hello shelter", conversation.get(2).content);
+        assertEquals(conversation, store.conversation(3, 2, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should list threads by their latest message")
+    void testThreads() {
+        send(3, 2, "From John");
+        send(4, 2, "From Sarah");
+        send(2, 3, "Reply to John");
+
+        List<PetAdoptionBackend.Message> threads = store.threads(2);
+        assertEquals(2, threads.size());
+        assertEquals("Reply to John", threads.get(0).content);
+        assertEquals("From Sarah", threads.get(1).content);
+        assertEquals(1, store.threads(4).size());
+    }
+
+    @Test
+    @DisplayName("Should remove a message from every index")
+    void testRemove() {
+        PetAdoptionBackend.Message first = send(3, 2, "First");
+        PetAdoptionBackend.Message second = send(3, 2, "Second");
+
+        assertSame(second, store.remove(second.id));
+        assertNull(store.findById(second.id));
+        assertEquals(List.of(first), store.inbox(2, 0, 10));
+        assertEquals(first, store.threads(2).get(0), "Thread falls back to the previous message");
+
+        store.remove(first.id);
+        assertTrue(store.threads(2).isEmpty());
+        assertTrue(store.threads(3).isEmpty());
+        assertEquals(0, store.size());
+    }
+}
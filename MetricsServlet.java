@@ -0,0 +1,70 @@
+import com.google.gson.stream.JsonWriter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * MetricsServlet - Operational counters for admins
+ * GET /api/metrics - Rate limiter admissions, rejections and tracked clients,
+ *                    the load-shedding state of the request queue and the
+ *                    event streams
+ */
+public class MetricsServlet extends AsyncHttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+
+        if (!"admin".equals(AuthPrincipal.roleOf(request))) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            out.println("{\"success\": false, \"message\": \"Admin access required\"}");
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        JsonWriter json = PetServlet.newJsonWriter(out);
+        json.beginObject();
+        json.name("rateLimits").beginArray();
+        for (RateLimiter.RateLimitStats stats : RateLimitFilter.stats()) {
+            json.beginObject();
+            json.name("endpoint").value(stats.name);
+            json.name("allowed").value(stats.allowed);
+            json.name("rejected").value(stats.rejected);
+            json.name("buckets").value(stats.buckets);
+            json.name("evictions").value(stats.evictions);
+            json.endObject();
+        }
+        json.endArray();
+
+        AdmissionController.AdmissionStats admission = AsyncHttpServlet.ADMISSION.stats();
+        json.name("admission").beginObject();
+        json.name("queued").value(admission.queued);
+        json.name("running").value(admission.running);
+        json.name("averageQueueWaitMs").value(admission.averageWaitMillis);
+        json.name("pressure").value(admission.pressure);
+        json.name("byPriority").beginObject();
+        for (int i = 0; i < AdmissionController.PRIORITY_NAMES.length; i++) {
+            json.name(AdmissionController.PRIORITY_NAMES[i]).beginObject();
+            json.name("admitted").value(admission.admitted[i]);
+            json.name("shed").value(admission.shed[i]);
+            json.endObject();
+        }
+        json.endObject();
+        json.endObject();
+
+        json.name("events").beginObject();
+        json.name("streams").value(EventServlet.connectionCount());
+        json.name("subscribers").value(EventBus.DEFAULT.subscriberCount());
+        json.name("published").value(EventBus.DEFAULT.publishedCount());
+        json.name("dropped").value(EventBus.DEFAULT.droppedCount());
+        json.endObject();
+        json.endObject();
+        json.flush();
+        out.println();
+    }
+}
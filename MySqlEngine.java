@@ -0,0 +1,87 @@
+import java.util.*;
+import java.sql.*;
+
+/**
+ * DatabaseConnection's MySQL pool: one borrowed connection per unit of work,
+ * with statements prepared for that work and closed when it ends
+ */
+class MySqlEngine implements SqlEngine {
+    static final MySqlEngine INSTANCE = new MySqlEngine();
+    private static final int ER_DUP_ENTRY = 1062;
+
+    private MySqlEngine() {
+    }
+
+    @Override
+    public <R> R read(Work<R> work) throws SQLException, DatabaseException {
+        return run(work);
+    }
+
+    @Override
+    public <R> R write(Work<R> work) throws SQLException, DatabaseException {
+        return run(work);
+    }
+
+    @Override
+    public boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == ER_DUP_ENTRY;
+    }
+
+    private static <R> R run(Work<R> work) throws SQLException, DatabaseException {
+        try (Connection conn = DatabaseConnection.getConnection();
+                Session session = new Session(conn)) {
+            return work.run(session);
+        }
+    }
+
+    private static final class Session implements SqlSession, AutoCloseable {
+        private final Connection conn;
+        private final List<Statement> opened = new ArrayList<>();
+
+        Session(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public Connection connection() {
+            return conn;
+        }
+
+        @Override
+        public PreparedStatement prepare(String sql) throws SQLException {
+            return track(conn.prepareStatement(sql));
+        }
+
+        @Override
+        public PreparedStatement prepareInsert(String sql) throws SQLException {
+            return track(conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS));
+        }
+
+        private PreparedStatement track(PreparedStatement pstmt) throws SQLException {
+            opened.add(pstmt);
+            RequestDeadline.applyTo(pstmt);
+            return pstmt;
+        }
+
+        @Override
+        public int[] generatedIds(PreparedStatement insert, int rows) throws SQLException {
+            int[] ids = new int[rows];
+            int found = 0;
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                while (found < rows && keys.next()) {
+                    ids[found++] = keys.getInt(1);
+                }
+            }
+            return found == rows ? ids : Arrays.copyOf(ids, found);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            // Before the connection goes back to the pool
+            RequestDeadline.releaseStatement();
+            for (Statement statement : opened) {
+                statement.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.spec.KeySpec;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PasswordHasher - Salted, adaptive password hashing (PBKDF2-HMAC-SHA256)
+ * Stored form: pbkdf2$<iterations>$<salt>$<hash>, salt and hash in base64,
+ * so every hash carries its own work factor and old hashes keep verifying
+ * after the factor is raised (needsRehash tells callers to upgrade them).
+ * Hashes are only upgraded, never downgraded, so nodes with different work
+ * factors behind one load balancer do not rewrite each other's hashes.
+ * Passwords stored in plaintext before hashing was introduced are matched
+ * once by verifyLegacy() and then replaced with a hash.
+ *
+ * Work factor (system properties):
+ * - petadoption.auth.hashIterations  fixed iteration count, or
+ * - petadoption.auth.hashTargetMs    calibrate at startup so one hash takes about
+ *                                    this long on this machine (default 50 ms),
+ *                                    never below MIN_ITERATIONS; rounded to
+ *                                    MIN_ITERATIONS times a power of two, so
+ *                                    timing noise gives the same count every start
+ */
+public final class PasswordHasher {
+    static final String PREFIX = "pbkdf2";
+    static final int MIN_ITERATIONS = 100_000;
+    static final int ITERATIONS = workFactor();
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // Verified against when an email is unknown, so a miss costs as much as a wrong password
+    private static final String DUMMY_HASH = hash("not-a-password", ITERATIONS);
+
+    private PasswordHasher() {
+    }
+
+    public static String hash(String password) {
+        return hash(password, ITERATIONS);
+    }
+
+    static String hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$"
+                + encoder.encodeToString(derive(password, salt, iterations));
+    }
+
+    /**
+     * Check a password against a stored hash; malformed hashes never match
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] salt = decoder.decode(parts[2]);
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, salt, iterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * True for a stored value from before hashing: a plaintext password rather than a pbkdf2$ hash
+     */
+    public static boolean isLegacy(String stored) {
+        return stored != null && !stored.isEmpty() && !stored.startsWith(PREFIX + "$");
+    }
+
+    /**
+     * Check a password against a legacy plaintext value in constant time, spending as long as
+     * verify() so the stored form cannot be told apart by timing; on success the caller must
+     * store hash(password) in its place
+     */
+    public static boolean verifyLegacy(String password, String stored) {
+        if (password == null || !isLegacy(stored)) {
+            return false;
+        }
+        verify(password, DUMMY_HASH);
+        return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                stored.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Spend the same time as a real verification for a user that does not exist
+     */
+    public static boolean verifyMissingUser(String password) {
+        verify(password == null ? "" : password, DUMMY_HASH);
+        return false;
+    }
+
+    /**
+     * True when a stored value is a legacy plaintext password, a malformed hash, or a hash with
+     * fewer iterations than the current work factor
+     */
+    public static boolean needsRehash(String stored) {
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(parts[1]) < ITERATIONS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Iteration count that makes one hash take about targetMillis on this machine,
+     * rounded to the nearest MIN_ITERATIONS times a power of two
+     */
+    static int calibrate(long targetMillis) {
+        int probe = 10_000;
+        derive("calibration", new byte[SALT_BYTES], probe); // warm up the JIT
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            derive("calibration", new byte[SALT_BYTES], probe);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double measured = (double) targetMillis * 1_000_000L * probe / Math.max(1, best);
+        if (measured <= MIN_ITERATIONS) {
+            return MIN_ITERATIONS;
+        }
+        long doublings = Math.round(Math.log(measured / MIN_ITERATIONS) / Math.log(2));
+        return (int) Math.min(Integer.MAX_VALUE, (long) MIN_ITERATIONS << Math.min(doublings, 20));
+    }
+
+    private static int workFactor() {
+        Integer fixed = Integer.getInteger("petadoption.auth.hashIterations");
+        if (fixed != null) {
+            if (fixed < 1) {
+                throw new IllegalArgumentException("petadoption.auth.hashIterations must be positive");
+            }
+            return fixed;
+        }
+        return calibrate(Long.getLong("petadoption.auth.hashTargetMs", 50));
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * PasswordHasherTest - Unit tests for PasswordHasher
+ * Tests salted hashing, verification and work-factor upgrades
+ *
+ * Coverage:
+ * - Correct and wrong passwords
+ * - Unique salt per hash
+ * - Malformed stored hashes
+ * - Legacy plaintext passwords matched only by verifyLegacy
+ * - Rehash only when the work factor was raised
+ * - Calibration floor and rounding
+ */
+@DisplayName("PasswordHasher Tests")
+public class PasswordHasherTest {
+
+    @Test
+    @DisplayName("Should verify only the original password")
+    void testVerify() {
+        String stored = PasswordHasher.hash("admin123");
+
+        assertTrue(stored.startsWith(PasswordHasher.PREFIX + "$" + PasswordHasher.ITERATIONS + "$"));
+        assertFalse(stored.contains("admin123"), "Password must not be stored");
+        assertTrue(PasswordHasher.verify("admin123", stored));
+        assertFalse(PasswordHasher.verify("admin124", stored));
+        assertFalse(PasswordHasher.verify(null, stored));
+    }
+
+    @Test
+    @DisplayName("Should salt every hash differently")
+    void testUniqueSalt() {
+        String first = PasswordHasher.hash("john123", 1_000);
+        String second = PasswordHasher.hash("john123", 1_000);
+
+        assertNotEquals(first, second);
+        assertTrue(PasswordHasher.verify("john123", first));
+        assertTrue(PasswordHasher.verify("john123", second));
+    }
+
+    @Test
+    @DisplayName("Should never match malformed or plaintext hashes")
+    void testMalformed() {
+        assertFalse(PasswordHasher.verify("admin123", "admin123"));
+        assertFalse(PasswordHasher.verify("admin123", "pbkdf2$x$y$z"));
+        assertFalse(PasswordHasher.verify("admin123", "pbkdf2$1000$!!$!!"));
+        assertFalse(PasswordHasher.verify("admin123", null));
+        assertFalse(PasswordHasher.verifyMissingUser("admin123"));
+    }
+
+    @Test
+    @DisplayName("Should match a legacy plaintext password once, for an upgrade")
+    void testLegacy() {
+        assertTrue(PasswordHasher.isLegacy("admin123"));
+        assertTrue(PasswordHasher.verifyLegacy("admin123", "admin123"));
+        assertFalse(PasswordHasher.verifyLegacy("admin124", "admin123"));
+        assertFalse(PasswordHasher.verifyLegacy(null, "admin123"));
+        assertTrue(PasswordHasher.needsRehash("admin123"));
+
+        String stored = PasswordHasher.hash("admin123", 1_000);
+        assertFalse(PasswordHasher.isLegacy(stored));
+        assertFalse(PasswordHasher.verifyLegacy(stored, stored), "a hash is never compared as plaintext");
+        assertFalse(PasswordHasher.isLegacy("pbkdf2$x$y$z"));
+        assertFalse(PasswordHasher.isLegacy(""));
+        assertFalse(PasswordHasher.verifyLegacy("", ""));
+    }
+
+    @Test
+    @DisplayName("Should ask for a rehash when the work factor changed")
+    void testNeedsRehash() {
+        String weak = PasswordHasher.hash("sarah123", 1_000);
+
+        assertTrue(PasswordHasher.verify("sarah123", weak), "Old hashes keep verifying");
+        assertTrue(PasswordHasher.needsRehash(weak));
+        assertFalse(PasswordHasher.needsRehash(PasswordHasher.hash("sarah123")));
+        assertFalse(PasswordHasher.needsRehash(PasswordHasher.hash("sarah123", PasswordHasher.ITERATIONS + 1)),
+                "A stronger hash from another node is never downgraded");
+        assertTrue(PasswordHasher.needsRehash("pbkdf2$x$y$z"));
+    }
+
+    @Test
+    @DisplayName("Should calibrate to a stable multiple of the minimum work factor")
+    void testCalibration() {
+        assertEquals(PasswordHasher.MIN_ITERATIONS, PasswordHasher.calibrate(0));
+        assertTrue(PasswordHasher.ITERATIONS >= PasswordHasher.MIN_ITERATIONS);
+        int calibrated = PasswordHasher.calibrate(500);
+        assertEquals(0, calibrated % PasswordHasher.MIN_ITERATIONS);
+        assertEquals(1, Integer.bitCount(calibrated / PasswordHasher.MIN_ITERATIONS),
+                calibrated + " should be MIN_ITERATIONS times a power of two");
+    }
+}
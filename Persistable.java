@@ -0,0 +1,10 @@
+/**
+ * Interface for database persistence
+ */
+interface Persistable {
+    void save() throws DatabaseException;
+
+    void delete() throws DatabaseException;
+
+    void update() throws DatabaseException;
+}
@@ -0,0 +1,139 @@
+import java.util.*;
+
+/**
+ * Pet class - inherits from Entity, implements Searchable
+ */
+class Pet extends Entity implements Searchable<Pet> {
+    private int shelterId;
+    private String name;
+    private String type;
+    private String breed;
+    private int age;
+    private String description;
+    // Volatile: the in-memory PetStore changes them in place while other threads read
+    private volatile String adoptionStatus;
+    private volatile String approvalStatus;
+
+    public Pet(int id, int shelterId, String name, String type, String breed, int age, String description) {
+        super(id);
+        this.shelterId = shelterId;
+        this.name = name;
+        this.type = normalizeType(type);
+        this.breed = breed;
+        this.age = age;
+        this.description = description;
+        this.adoptionStatus = "available";
+        this.approvalStatus = "pending";
+    }
+
+    /**
+     * Type as stored and matched: first letter upper case, the rest lower case ("dog" becomes "Dog"),
+     * so a type lookup is a plain equality on an indexed column
+     */
+    static String normalizeType(String type) {
+        if (type == null || type.isEmpty()) {
+            return type;
+        }
+        return type.substring(0, 1).toUpperCase(Locale.ROOT) + type.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getBreed() {
+        return breed;
+    }
+
+    public int getShelterId() {
+        return shelterId;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getAdoptionStatus() {
+        return adoptionStatus;
+    }
+
+    public void setAdoptionStatus(String status) {
+        this.adoptionStatus = status;
+    }
+
+    public String getApprovalStatus() {
+        return approvalStatus;
+    }
+
+    public void setApprovalStatus(String status) {
+        this.approvalStatus = status;
+    }
+
+    /**
+     * Detached copy, for a cache that must not hand out the object it holds
+     */
+    Pet copy() {
+        Pet copy = new Pet(id, shelterId, name, type, breed, age, description);
+        copy.adoptionStatus = adoptionStatus;
+        copy.approvalStatus = approvalStatus;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
+    @Override
+    void validate() throws PetNotFoundException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new PetNotFoundException("Pet name cannot be empty!");
+        }
+        if (age < 0 || age > 50) {
+            throw new PetNotFoundException("Invalid pet age!");
+        }
+    }
+
+    @Override
+    String getEntityType() {
+        return "Pet";
+    }
+
+    @Override
+    public List<Pet> search(String keyword) throws DatabaseException {
+        return new PetDAO().search(keyword);
+    }
+
+    @Override
+    public List<Pet> findAll() throws DatabaseException {
+        // Will be implemented in DAO
+        return new ArrayList<>();
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + String.format(
+                " | Name: %s | Type: %s | Breed: %s | Age: %d | Status: %s | Approval: %s",
+                name, type, breed, age, adoptionStatus, approvalStatus);
+    }
+
+    @Override
+    public void save() throws DatabaseException {
+        // Will be implemented in DAO
+    }
+
+    @Override
+    public void delete() throws DatabaseException {
+        // Will be implemented in DAO
+    }
+
+    @Override
+    public void update() throws DatabaseException {
+        // Will be implemented in DAO
+    }
+}
@@ -1,8 +1,8 @@
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Scanner;
+import java.util.function.IntFunction;
 
 /**
  * Complete Pet Adoption Platform Backend
@@ -11,87 +11,7 @@ import java.util.Scanner;
 public class PetAdoptionBackend {
 
     // ===================== DATA MODELS =====================
-
-    static class User {
-        int id;
-        String name;
-        String email;
-        String role; // admin, shelter, adopter
-        String password;
-        LocalDateTime createdAt;
-
-        User(int id, String name, String email, String role, String password) {
-            this.id = id;
-            this.name = name;
-            this.email = email;
-            this.role = role;
-            this.password = password;
-            this.createdAt = LocalDateTime.now();
-        }
-
-        @Override
-        public String toString() {
-            return String.format("ID: %d | Name: %s | Email: %s | Role: %s | Created: %s",
-                    id, name, email, role, createdAt.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-        }
-    }
-
-    static class Pet {
-        int id;
-        int shelterId;
-        String name;
-        String type; // dog, cat, rabbit, etc.
-        String breed;
-        int age;
-        String description;
-        String photoUrl;
-        String adoptionStatus; // available, adopted, pending
-        String approvalStatus; // pending, approved, rejected
-        LocalDateTime createdAt;
-
-        Pet(int id, int shelterId, String name, String type, String breed, int age, String description) {
-            this.id = id;
-            this.shelterId = shelterId;
-            this.name = name;
-            this.type = type;
-            this.breed = breed;
-            this.age = age;
-            this.description = description;
-            this.adoptionStatus = "available";
-            this.approvalStatus = "pending";
-            this.createdAt = LocalDateTime.now();
-        }
-
-        @Override
-        public String toString() {
-            return String.format("ID: %d | Name: %s | Type: %s | Breed: %s | Age: %d | Status: %s | Approval: %s",
-                    id, name, type, breed, age, adoptionStatus, approvalStatus);
-        }
-    }
-
-    static class Application {
-        int id;
-        int adopterId;
-        int petId;
-        String status; // submitted, approved, rejected, adopted
-        String applicationNotes;
-        LocalDateTime submittedAt;
-
-        Application(int id, int adopterId, int petId, String applicationNotes) {
-            this.id = id;
-            this.adopterId = adopterId;
-            this.petId = petId;
-            this.applicationNotes = applicationNotes;
-            this.status = "submitted";
-            this.submittedAt = LocalDateTime.now();
-        }
-
-        @Override
-        public String toString() {
-            return String.format("App ID: %d | Adopter ID: %d | Pet ID: %d | Status: %s | Submitted: %s",
-                    id, adopterId, petId, status, submittedAt.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-        }
-    }
+    // Users, pets and applications are the shared User, Pet and Application entities
 
     static class Message {
         int id;
@@ -115,23 +35,46 @@ public class PetAdoptionBackend {
         }
     }
 
-    // ===================== IN-MEMORY STORAGE =====================
-    private static final Map<Integer, User> users = new HashMap<>();
-    private static final Map<Integer, Pet> pets = new HashMap<>();
-    private static final Map<Integer, Application> applications = new HashMap<>();
-    private static final Map<Integer, Message> messages = new HashMap<>();
+    // ===================== STORAGE =====================
+    // Analytics counters, updated by the repositories with every change so the dashboards never scan
+    private static final PlatformStats stats = new PlatformStats();
+    // Users, pets and applications, in the engine chosen by petadoption.repository (see Repositories);
+    // in memory they and the messages survive restarts once petadoption.wal.dir is set (see DurableStore)
+    private static final Repositories repositories = openRepositories();
+    private static final UserRepository users = repositories.users;
+    private static final PetRepository pets = repositories.pets;
+    private static final ApplicationRepository applications = repositories.applications;
+    // Per-recipient inboxes and per-pair conversations, newest first
+    private static final MessageStore messages = repositories.messages;
 
-    private static int nextUserId = 1;
-    private static int nextPetId = 1;
-    private static int nextApplicationId = 1;
-    private static int nextMessageId = 1;
     private static User currentUser = null;
 
+    /**
+     * Storage behind the console, for tools in this package (the benchmarks) that seed it directly
+     */
+    static Repositories storage() {
+        return repositories;
+    }
+
+    private static Repositories openRepositories() {
+        Repositories.Config config = Repositories.Config.fromSystemProperties();
+        try {
+            return Repositories.open(config, stats);
+        } catch (DatabaseException e) {
+            throw new IllegalStateException("Cannot open " + config + " storage: " + e.getMessage(), e);
+        }
+    }
+
     // ===================== MAIN MENU =====================
 
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
-        initializeSampleData();
+        try {
+            initializeSampleData();
+        } catch (DatabaseException e) {
+            System.out.println("❌ " + e.getMessage());
+            return;
+        }
 
         System.out.println("╔══════════════════════════════════════════════════════════╗");
         System.out.println("║   Welcome to Online Pet Adoption Platform                ║");
@@ -139,20 +82,29 @@ public class PetAdoptionBackend {
 
         boolean running = true;
         while (running) {
-            if (currentUser == null) {
-                running = loginMenu(scanner);
-            } else {
-                running = roleBasedMenu(scanner);
+            try {
+                if (currentUser == null) {
+                    running = loginMenu(scanner);
+                } else {
+                    running = roleBasedMenu(scanner);
+                }
+            } catch (DatabaseException e) {
+                System.out.println("❌ " + e.getMessage());
             }
         }
 
         System.out.println("\nThank you for using Pet Adoption Platform! Goodbye!");
         scanner.close();
+        try {
+            repositories.close();
+        } catch (DatabaseException e) {
+            System.out.println("❌ Error closing storage: " + e.getMessage());
+        }
     }
 
     // ===================== LOGIN & AUTHENTICATION =====================
 
-    private static boolean loginMenu(Scanner scanner) {
+    private static boolean loginMenu(Scanner scanner) throws DatabaseException {
         System.out.println("\n=== LOGIN MENU ===");
         System.out.println("1. Login");
         System.out.println("2. Create New Account");
@@ -176,27 +128,31 @@ public class PetAdoptionBackend {
         return true;
     }
 
-    private static void login(Scanner scanner) {
+    private static void login(Scanner scanner) throws DatabaseException {
         System.out.print("Enter email: ");
         String email = scanner.nextLine().trim();
         System.out.print("Enter password: ");
         String password = scanner.nextLine().trim();
 
-        for (User user : users.values()) {
-            if (user.email.equals(email) && user.password.equals(password)) {
-                currentUser = user;
-                System.out.println("\n✓ Login successful! Welcome, " + user.name + " (" + user.role + ")");
-                return;
-            }
+        // Hashes made with an older work factor are upgraded on success
+        User user = users.login(email, password);
+        if (user != null) {
+            currentUser = user;
+            System.out.println("\n✓ Login successful! Welcome, " + user.getName() + " (" + user.getRole() + ")");
+            return;
         }
         System.out.println("❌ Invalid email or password!");
     }
 
-    private static void createAccount(Scanner scanner) {
+    private static void createAccount(Scanner scanner) throws DatabaseException {
         System.out.print("Enter full name: ");
         String name = scanner.nextLine().trim();
         System.out.print("Enter email: ");
         String email = scanner.nextLine().trim();
+        if (users.findByEmail(email) != null) {
+            System.out.println("❌ Email already registered!");
+            return;
+        }
         System.out.print("Enter password: ");
         String password = scanner.nextLine().trim();
 
@@ -208,15 +164,21 @@ public class PetAdoptionBackend {
         String roleChoice = scanner.nextLine().trim();
         String role = roleChoice.equals("2") ? "shelter" : "adopter";
 
-        User newUser = new User(nextUserId++, name, email, role, password);
-        users.put(newUser.id, newUser);
+        User user = new User(0, name, email, role, password);
+        try {
+            user.validate();
+        } catch (InvalidUserException e) {
+            System.out.println("❌ " + e.getMessage());
+            return;
+        }
+        users.add(user);
         System.out.println("✓ Account created successfully!");
     }
 
     // ===================== ROLE-BASED MENUS =====================
 
-    private static boolean roleBasedMenu(Scanner scanner) {
-        switch (currentUser.role) {
+    private static boolean roleBasedMenu(Scanner scanner) throws DatabaseException {
+        switch (currentUser.getRole()) {
             case "admin":
                 return adminMenu(scanner);
             case "shelter":
@@ -231,7 +193,7 @@ public class PetAdoptionBackend {
     }
 
     // ===== ADMIN MENU =====
-    private static boolean adminMenu(Scanner scanner) {
+    private static boolean adminMenu(Scanner scanner) throws DatabaseException {
         System.out.println("\n╔══════════════════════════════════════════════════════════╗");
         System.out.println("║              ADMIN DASHBOARD                            ║");
         System.out.println("╚══════════════════════════════════════════════════════════╝");
@@ -266,7 +228,7 @@ public class PetAdoptionBackend {
         return true;
     }
 
-    private static void adminUserManagement(Scanner scanner) {
+    private static void adminUserManagement(Scanner scanner) throws DatabaseException {
         System.out.println("\n=== USER MANAGEMENT ===");
         System.out.println("1. View All Users");
         System.out.println("2. Delete User");
@@ -278,7 +240,7 @@ public class PetAdoptionBackend {
         switch (choice) {
             case "1":
                 System.out.println("\n--- All Users ---");
-                for (User user : users.values()) {
+                for (User user : users.findAll()) {
                     System.out.println("  " + user);
                 }
                 System.out.println("Total users: " + users.size());
@@ -300,15 +262,16 @@ public class PetAdoptionBackend {
                 System.out.print("Enter user ID: ");
                 try {
                     int userId = Integer.parseInt(scanner.nextLine().trim());
-                    User user = users.get(userId);
+                    User user = users.findById(userId);
                     if (user != null) {
-                        System.out.println("Current role: " + user.role);
+                        System.out.println("Current role: " + user.getRole());
                         System.out.println("1. admin\n2. shelter\n3. adopter");
                         System.out.print("Select new role: ");
                         String roleChoice = scanner.nextLine().trim();
                         String[] roles = { "", "admin", "shelter", "adopter" };
                         if (Integer.parseInt(roleChoice) >= 1 && Integer.parseInt(roleChoice) <= 3) {
-                            user.role = roles[Integer.parseInt(roleChoice)];
+                            user.setRole(roles[Integer.parseInt(roleChoice)]);
+                            users.update(user);
                             System.out.println("✓ Role updated successfully!");
                         }
                     } else {
@@ -321,7 +284,7 @@ public class PetAdoptionBackend {
         }
     }
 
-    private static void adminPetManagement(Scanner scanner) {
+    private static void adminPetManagement(Scanner scanner) throws DatabaseException {
         System.out.println("\n=== PET LISTING MANAGEMENT ===");
         System.out.println("1. View Pending Pet Listings");
         System.out.println("2. Approve Pet Listing");
@@ -334,19 +297,15 @@ public class PetAdoptionBackend {
         switch (choice) {
             case "1":
                 System.out.println("\n--- Pending Listings ---");
-                for (Pet pet : pets.values()) {
-                    if (pet.approvalStatus.equals("pending")) {
-                        System.out.println("  " + pet);
-                    }
+                for (Pet pet : pets.findByApprovalStatus("pending", 0, Integer.MAX_VALUE)) {
+                    System.out.println("  " + pet);
                 }
                 break;
             case "2":
                 System.out.print("Enter pet ID to approve: ");
                 try {
                     int petId = Integer.parseInt(scanner.nextLine().trim());
-                    Pet pet = pets.get(petId);
-                    if (pet != null) {
-                        pet.approvalStatus = "approved";
+                    if (pets.updateApprovalStatus(petId, "approved")) {
                         System.out.println("✓ Pet listing approved!");
                     } else {
                         System.out.println("❌ Pet not found!");
@@ -359,9 +318,7 @@ public class PetAdoptionBackend {
                 System.out.print("Enter pet ID to reject: ");
                 try {
                     int petId = Integer.parseInt(scanner.nextLine().trim());
-                    Pet pet = pets.get(petId);
-                    if (pet != null) {
-                        pet.approvalStatus = "rejected";
+                    if (pets.updateApprovalStatus(petId, "rejected")) {
                         System.out.println("✓ Pet listing rejected!");
                     } else {
                         System.out.println("❌ Pet not found!");
@@ -372,7 +329,7 @@ public class PetAdoptionBackend {
                 break;
             case "4":
                 System.out.println("\n--- All Pets ---");
-                for (Pet pet : pets.values()) {
+                for (Pet pet : pets.findAll()) {
                     System.out.println("  " + pet);
                 }
                 System.out.println("Total pets: " + pets.size());
@@ -381,26 +338,22 @@ public class PetAdoptionBackend {
     }
 
     private static void viewPlatformAnalytics() {
+        PlatformStats.Counters global = stats.global();
         System.out.println("\n=== PLATFORM ANALYTICS ===");
-        System.out.println("Total Users: " + users.size());
-        System.out.println("Total Pets Listed: " + pets.size());
-        System.out.println("Total Applications: " + applications.size());
-
-        long adoptedCount = pets.values().stream().filter(p -> p.adoptionStatus.equals("adopted")).count();
-        long availableCount = pets.values().stream().filter(p -> p.adoptionStatus.equals("available")).count();
-
-        System.out.println("Pets Adopted: " + adoptedCount);
-        System.out.println("Pets Available: " + availableCount);
-
-        long approvedApps = applications.values().stream().filter(a -> a.status.equals("approved")).count();
-        System.out.println("Approved Applications: " + approvedApps);
+        System.out.println("Total Users: " + stats.users());
+        System.out.println("Total Pets Listed: " + global.pets.sum());
+        System.out.println("Total Applications: " + global.applications.sum());
+        System.out.println("Pets Adopted: " + global.petsWithAdoptionStatus("adopted"));
+        System.out.println("Pets Available: " + global.petsWithAdoptionStatus("available"));
+        System.out.println("Approved Applications: " + global.applicationsWithStatus("approved"));
     }
 
-    private static void manageSystemSettings(Scanner scanner) {
+    private static void manageSystemSettings(Scanner scanner) throws DatabaseException {
         System.out.println("\n=== SYSTEM SETTINGS ===");
         System.out.println("1. View Settings");
         System.out.println("2. Update Max Application Time");
         System.out.println("3. Update Platform Name");
+        System.out.println("4. Verify Statistics");
         System.out.print("Choose option: ");
 
         String choice = scanner.nextLine().trim();
@@ -420,11 +373,16 @@ public class PetAdoptionBackend {
                 System.out.println("✓ Settings updated!");
                 scanner.nextLine();
                 break;
+            case "4":
+                int drifted = repositories.reconcile();
+                System.out.println(drifted == 0 ? "✓ Statistics are consistent"
+                        : "✓ Corrected " + drifted + " drifted counters");
+                break;
         }
     }
 
     // ===== SHELTER MENU =====
-    private static boolean shelterMenu(Scanner scanner) {
+    private static boolean shelterMenu(Scanner scanner) throws DatabaseException {
         System.out.println("\n╔══════════════════════════════════════════════════════════╗");
         System.out.println("║              SHELTER DASHBOARD                          ║");
         System.out.println("╚══════════════════════════════════════════════════════════╝");
@@ -463,7 +421,7 @@ public class PetAdoptionBackend {
         return true;
     }
 
-    private static void listNewPet(Scanner scanner) {
+    private static void listNewPet(Scanner scanner) throws DatabaseException {
         System.out.println("\n=== LIST NEW PET ===");
         System.out.print("Pet name: ");
         String name = scanner.nextLine().trim();
@@ -476,37 +434,31 @@ public class PetAdoptionBackend {
         System.out.print("Description: ");
         String description = scanner.nextLine().trim();
 
-        Pet newPet = new Pet(nextPetId++, currentUser.id, name, type, breed, age, description);
-        pets.put(newPet.id, newPet);
-        System.out.println("✓ Pet listing submitted! Awaiting admin approval. (Pet ID: " + newPet.id + ")");
+        Pet newPet = new Pet(0, currentUser.getId(), name, type, breed, age, description);
+        pets.add(newPet);
+        System.out.println("✓ Pet listing submitted! Awaiting admin approval. (Pet ID: " + newPet.getId() + ")");
     }
 
-    private static void viewShelterPets() {
+    private static void viewShelterPets() throws DatabaseException {
         System.out.println("\n=== YOUR PETS ===");
         boolean found = false;
-        for (Pet pet : pets.values()) {
-            if (pet.shelterId == currentUser.id) {
-                System.out.println("  " + pet);
-                found = true;
-            }
+        for (Pet pet : pets.findByShelter(currentUser.getId())) {
+            System.out.println("  " + pet);
+            found = true;
         }
         if (!found) {
             System.out.println("You haven't listed any pets yet.");
         }
     }
 
-    private static void manageShelterApplications(Scanner scanner) {
+    private static void manageShelterApplications(Scanner scanner) throws DatabaseException {
         System.out.println("\n=== APPLICATIONS FOR YOUR PETS ===");
         boolean found = false;
-        for (Application app : applications.values()) {
-            Pet pet = pets.get(app.petId);
-            if (pet != null && pet.shelterId == currentUser.id) {
-                System.out.println("  " + app);
-                User adopter = users.get(app.adopterId);
-                System.out.println("    Adopter: " + (adopter != null ? adopter.name : "Unknown"));
-                System.out.println("    Notes: " + app.applicationNotes);
-                found = true;
-            }
+        for (Application app : applications.findByShelter(currentUser.getId())) {
+            System.out.println("  " + app);
+            System.out.println("    Adopter: " + userName(app.getAdopterId()));
+            System.out.println("    Notes: " + app.getApplicationNotes());
+            found = true;
         }
         if (!found) {
             System.out.println("No applications received yet.");
@@ -516,24 +468,34 @@ public class PetAdoptionBackend {
         try {
             int appId = Integer.parseInt(scanner.nextLine().trim());
             if (appId > 0) {
-                Application app = applications.get(appId);
-                if (app != null) {
+                // Only applications for this shelter's own pets can be updated
+                Application app = applications.findById(appId);
+                if (app != null && app.getShelterId() == currentUser.getId()) {
                     System.out.println("1. Approve\n2. Reject\n3. Mark as Adopted");
                     System.out.print("Choose: ");
                     String choice = scanner.nextLine().trim();
+                    int outcome = ApplicationRepository.UPDATED;
                     switch (choice) {
                         case "1":
-                            app.status = "approved";
+                            outcome = applications.updateStatus(appId, "approved");
                             break;
                         case "2":
-                            app.status = "rejected";
+                            outcome = applications.updateStatus(appId, "rejected");
                             break;
                         case "3":
-                            app.status = "adopted";
-                            pets.get(app.petId).adoptionStatus = "adopted";
+                            outcome = applications.updateStatus(appId, "adopted");
+                            if (outcome == ApplicationRepository.UPDATED) {
+                                pets.updateAdoptionStatus(app.getPetId(), "adopted");
+                            }
                             break;
                     }
-                    System.out.println("✓ Application status updated!");
+                    if (outcome == ApplicationRepository.CLASHED) {
+                        System.out.println("❌ Adopter already has another active application for this pet!");
+                    } else if (outcome == ApplicationRepository.NOT_FOUND) {
+                        System.out.println("❌ Application not found!");
+                    } else {
+                        System.out.println("✓ Application status updated!");
+                    }
                 }
             }
         } catch (NumberFormatException e) {
@@ -541,51 +503,26 @@ public class PetAdoptionBackend {
         }
     }
 
-    private static void communicateWithAdopters(Scanner scanner) {
+    private static void communicateWithAdopters(Scanner scanner) throws DatabaseException {
         System.out.println("\n=== MESSAGES ===");
         System.out.println("1. Send Message");
         System.out.println("2. View Received Messages");
+        System.out.println("3. View Conversations");
         System.out.print("Choose: ");
 
-        String choice = scanner.nextLine().trim();
-
-        switch (choice) {
-            case "1":
-                System.out.print("Recipient user ID: ");
-                int recipientId = Integer.parseInt(scanner.nextLine().trim());
-                System.out.print("Message: ");
-                String content = scanner.nextLine().trim();
-                Message msg = new Message(nextMessageId++, currentUser.id, recipientId, content);
-                messages.put(msg.id, msg);
-                System.out.println("✓ Message sent!");
-                break;
-            case "2":
-                System.out.println("\n--- Your Messages ---");
-                for (Message m : messages.values()) {
-                    if (m.recipientId == currentUser.id) {
-                        User sender = users.get(m.senderId);
-                        System.out.println("From " + (sender != null ? sender.name : "Unknown") + ": " + m.content);
-                    }
-                }
-                break;
-        }
+        messagesMenu(scanner);
     }
 
     private static void viewShelterStatistics() {
+        PlatformStats.Counters mine = stats.shelterCounters(currentUser.getId());
         System.out.println("\n=== YOUR ADOPTION STATISTICS ===");
-        long myPets = pets.values().stream().filter(p -> p.shelterId == currentUser.id).count();
-        long myAdopted = pets.values().stream()
-                .filter(p -> p.shelterId == currentUser.id && p.adoptionStatus.equals("adopted")).count();
-        long myApplications = applications.values().stream()
-                .filter(a -> pets.containsKey(a.petId) && pets.get(a.petId).shelterId == currentUser.id).count();
-
-        System.out.println("Total Pets Listed: " + myPets);
-        System.out.println("Pets Adopted: " + myAdopted);
-        System.out.println("Total Applications Received: " + myApplications);
+        System.out.println("Total Pets Listed: " + mine.pets.sum());
+        System.out.println("Pets Adopted: " + mine.petsWithAdoptionStatus("adopted"));
+        System.out.println("Total Applications Received: " + mine.applications.sum());
     }
 
     // ===== ADOPTER MENU =====
-    private static boolean adopterMenu(Scanner scanner) {
+    private static boolean adopterMenu(Scanner scanner) throws DatabaseException {
         System.out.println("\n╔══════════════════════════════════════════════════════════╗");
         System.out.println("║              ADOPTER DASHBOARD                          ║");
         System.out.println("╚══════════════════════════════════════════════════════════╝");
@@ -624,11 +561,12 @@ public class PetAdoptionBackend {
         return true;
     }
 
-    private static void browsePets(Scanner scanner) {
+    private static void browsePets(Scanner scanner) throws DatabaseException {
         System.out.println("\n=== BROWSE AVAILABLE PETS ===");
         System.out.println("1. View All Available Pets");
         System.out.println("2. Search by Type");
         System.out.println("3. Search by Breed");
+        System.out.println("4. Keyword Search");
         System.out.print("Choose: ");
 
         String choice = scanner.nextLine().trim();
@@ -636,10 +574,10 @@ public class PetAdoptionBackend {
         switch (choice) {
             case "1":
                 System.out.println("\n--- Available Pets ---");
-                for (Pet pet : pets.values()) {
-                    if (pet.adoptionStatus.equals("available") && pet.approvalStatus.equals("approved")) {
-                        System.out.println("  ID: " + pet.id + " | Name: " + pet.name + " | Type: " + pet.type +
-                                " | Breed: " + pet.breed + " | Age: " + pet.age);
+                for (Pet pet : pets.findByAdoptionStatus("available", 0, Integer.MAX_VALUE)) {
+                    if ("approved".equals(pet.getApprovalStatus())) {
+                        System.out.println("  ID: " + pet.getId() + " | Name: " + pet.getName() + " | Type: "
+                                + pet.getType() + " | Breed: " + pet.getBreed() + " | Age: " + pet.getAge());
                     }
                 }
                 break;
@@ -647,8 +585,8 @@ public class PetAdoptionBackend {
                 System.out.print("Enter pet type: ");
                 String type = scanner.nextLine().trim();
                 System.out.println("\n--- Pets of type: " + type + " ---");
-                for (Pet pet : pets.values()) {
-                    if (pet.type.equalsIgnoreCase(type) && pet.adoptionStatus.equals("available")) {
+                for (Pet pet : pets.findByType(type)) {
+                    if ("available".equals(pet.getAdoptionStatus())) {
                         System.out.println("  " + pet);
                     }
                 }
@@ -657,8 +595,18 @@ public class PetAdoptionBackend {
                 System.out.print("Enter breed: ");
                 String breed = scanner.nextLine().trim();
                 System.out.println("\n--- Pets of breed: " + breed + " ---");
-                for (Pet pet : pets.values()) {
-                    if (pet.breed.equalsIgnoreCase(breed) && pet.adoptionStatus.equals("available")) {
+                for (Pet pet : pets.findByAdoptionStatus("available", 0, Integer.MAX_VALUE)) {
+                    if (pet.getBreed().equalsIgnoreCase(breed)) {
+                        System.out.println("  " + pet);
+                    }
+                }
+                break;
+            case "4":
+                System.out.print("Enter keywords: ");
+                String keywords = scanner.nextLine().trim();
+                System.out.println("\n--- Best matches for: " + keywords + " ---");
+                for (Pet pet : pets.search(keywords, 20)) {
+                    if ("available".equals(pet.getAdoptionStatus())) {
                         System.out.println("  " + pet);
                     }
                 }
@@ -666,17 +614,20 @@ public class PetAdoptionBackend {
         }
     }
 
-    private static void applyForAdoption(Scanner scanner) {
+    private static void applyForAdoption(Scanner scanner) throws DatabaseException {
         System.out.print("Enter pet ID to apply: ");
         try {
             int petId = Integer.parseInt(scanner.nextLine().trim());
-            Pet pet = pets.get(petId);
-            if (pet != null && pet.adoptionStatus.equals("available")) {
+            Pet pet = pets.findById(petId);
+            if (pet != null && "available".equals(pet.getAdoptionStatus())) {
                 System.out.print("Why do you want to adopt this pet? ");
                 String notes = scanner.nextLine().trim();
-                Application app = new Application(nextApplicationId++, currentUser.id, petId, notes);
-                applications.put(app.id, app);
-                System.out.println("✓ Application submitted! (Application ID: " + app.id + ")");
+                Application app = applications.submit(currentUser.getId(), petId, pet.getShelterId(), notes);
+                if (app == null) {
+                    System.out.println("❌ You already have an active application for this pet!");
+                } else {
+                    System.out.println("✓ Application submitted! (Application ID: " + app.getId() + ")");
+                }
             } else {
                 System.out.println("❌ Pet not available!");
             }
@@ -685,27 +636,25 @@ public class PetAdoptionBackend {
         }
     }
 
-    private static void viewMyApplications() {
+    private static void viewMyApplications() throws DatabaseException {
         System.out.println("\n=== YOUR APPLICATIONS ===");
         boolean found = false;
-        for (Application app : applications.values()) {
-            if (app.adopterId == currentUser.id) {
-                Pet pet = pets.get(app.petId);
-                System.out.println("  Application ID: " + app.id + " | Pet: " + (pet != null ? pet.name : "Unknown") +
-                        " | Status: " + app.status);
-                found = true;
-            }
+        for (Application app : applications.findByAdopter(currentUser.getId())) {
+            Pet pet = pets.findById(app.getPetId());
+            System.out.println("  Application ID: " + app.getId() + " | Pet: " + (pet != null ? pet.getName() : "Unknown")
+                    + " | Status: " + app.getStatus());
+            found = true;
         }
         if (!found) {
             System.out.println("You haven't submitted any applications yet.");
         }
     }
 
-    private static void manageProfile(Scanner scanner) {
+    private static void manageProfile(Scanner scanner) throws DatabaseException {
         System.out.println("\n=== PROFILE MANAGEMENT ===");
         System.out.println("Current Profile:");
-        System.out.println("  Name: " + currentUser.name);
-        System.out.println("  Email: " + currentUser.email);
+        System.out.println("  Name: " + currentUser.getName());
+        System.out.println("  Email: " + currentUser.getEmail());
 
         System.out.println("\n1. Update Name");
         System.out.println("2. Update Email");
@@ -717,20 +666,28 @@ public class PetAdoptionBackend {
         switch (choice) {
             case "1":
                 System.out.print("New name: ");
-                currentUser.name = scanner.nextLine().trim();
+                currentUser.setName(scanner.nextLine().trim());
+                users.update(currentUser);
                 System.out.println("✓ Name updated!");
                 break;
             case "2":
                 System.out.print("New email: ");
-                currentUser.email = scanner.nextLine().trim();
+                String newEmail = scanner.nextLine().trim();
+                if (users.findByEmail(newEmail) != null) {
+                    System.out.println("❌ Email already registered!");
+                    break;
+                }
+                currentUser.setEmail(newEmail);
+                users.update(currentUser);
                 System.out.println("✓ Email updated!");
                 break;
             case "3":
                 System.out.print("Current password: ");
                 String oldPwd = scanner.nextLine().trim();
-                if (oldPwd.equals(currentUser.password)) {
+                if (PasswordHasher.verify(oldPwd, currentUser.getPasswordHash())) {
                     System.out.print("New password: ");
-                    currentUser.password = scanner.nextLine().trim();
+                    currentUser.setPasswordHash(PasswordHasher.hash(scanner.nextLine().trim()));
+                    users.update(currentUser);
                     System.out.println("✓ Password updated!");
                 } else {
                     System.out.println("❌ Incorrect password!");
@@ -739,59 +696,130 @@ public class PetAdoptionBackend {
         }
     }
 
-    private static void adopterMessages(Scanner scanner) {
+    private static void adopterMessages(Scanner scanner) throws DatabaseException {
         System.out.println("\n=== MESSAGES ===");
         System.out.println("1. Send Message");
         System.out.println("2. View Received Messages");
+        System.out.println("3. View Conversations");
         System.out.print("Choose: ");
 
+        messagesMenu(scanner);
+    }
+
+    // ===================== MESSAGING =====================
+
+    private static final int MESSAGE_PAGE_SIZE = 10;
+
+    /**
+     * Send / inbox / conversations, shared by the shelter and adopter menus
+     */
+    private static void messagesMenu(Scanner scanner) throws DatabaseException {
         String choice = scanner.nextLine().trim();
 
         switch (choice) {
             case "1":
                 System.out.print("Recipient user ID: ");
                 int recipientId = Integer.parseInt(scanner.nextLine().trim());
+                if (users.findById(recipientId) == null) {
+                    System.out.println("❌ User not found!");
+                    break;
+                }
                 System.out.print("Message: ");
                 String content = scanner.nextLine().trim();
-                Message msg = new Message(nextMessageId++, currentUser.id, recipientId, content);
-                messages.put(msg.id, msg);
+                messages.add(new Message(IdAllocator.MESSAGES.next(), currentUser.getId(), recipientId, content));
                 System.out.println("✓ Message sent!");
                 break;
             case "2":
-                System.out.println("\n--- Your Messages ---");
-                for (Message m : messages.values()) {
-                    if (m.recipientId == currentUser.id) {
-                        User sender = users.get(m.senderId);
-                        System.out.println("From " + (sender != null ? sender.name : "Unknown") + ": " + m.content);
-                    }
+                System.out.println("\n--- Your Messages (" + messages.inboxSize(currentUser.getId()) + ") ---");
+                showPages(scanner, beforeId -> messages.inbox(currentUser.getId(), beforeId, MESSAGE_PAGE_SIZE));
+                break;
+            case "3":
+                System.out.println("\n--- Your Conversations ---");
+                List<Message> threads = messages.threads(currentUser.getId());
+                if (threads.isEmpty()) {
+                    System.out.println("No conversations yet.");
+                    break;
+                }
+                for (Message latest : threads) {
+                    int partnerId = latest.senderId == currentUser.getId() ? latest.recipientId : latest.senderId;
+                    System.out.println("  [" + partnerId + "] " + userName(partnerId) + ": " + latest.content);
+                }
+                System.out.print("Open conversation with user ID (Enter to go back): ");
+                String partner = scanner.nextLine().trim();
+                if (!partner.isEmpty()) {
+                    int partnerId = Integer.parseInt(partner);
+                    showPages(scanner, beforeId -> messages.conversation(currentUser.getId(), partnerId, beforeId,
+                            MESSAGE_PAGE_SIZE));
                 }
                 break;
         }
     }
 
+    /**
+     * Print newest-first pages of messages until the user stops or they run out
+     */
+    private static void showPages(Scanner scanner, IntFunction<List<Message>> pageBefore) throws DatabaseException {
+        int beforeId = 0;
+        while (true) {
+            List<Message> page = pageBefore.apply(beforeId);
+            for (Message m : page) {
+                System.out.println("From " + userName(m.senderId) + ": " + m.content);
+            }
+            if (page.size() < MESSAGE_PAGE_SIZE || !scanner.hasNextLine()) {
+                return;
+            }
+            System.out.print("More? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                return;
+            }
+            beforeId = page.get(page.size() - 1).id;
+        }
+    }
+
+    private static String userName(int userId) throws DatabaseException {
+        User user = users.findById(userId);
+        return user != null ? user.getName() : "Unknown";
+    }
+
     // ===================== SAMPLE DATA INITIALIZATION =====================
 
-    private static void initializeSampleData() {
+    /**
+     * Load the sample accounts, pets and applications into empty storage, unless it is durable
+     * (see Repositories.demoData()); a database that already holds users is used as it is
+     */
+    private static void initializeSampleData() throws DatabaseException {
+        if (users.size() > 0) {
+            System.out.println("✓ Loaded " + users.size() + " users and " + pets.size() + " pets from "
+                    + repositories.config() + " storage\n");
+            return;
+        }
+        if (!repositories.demoData()) {
+            System.out.println("✓ Empty " + repositories.config() + " storage: create an account to begin"
+                    + " (-Dpetadoption.demoData=true loads the sample accounts)\n");
+            return;
+        }
+
         // Create sample users
-        users.put(1, new User(1, "Admin User", "admin@petadoption.com", "admin", "admin123"));
-        users.put(2, new User(2, "Happy Paws Shelter", "shelter@happypaws.com", "shelter", "shelter123"));
-        users.put(3, new User(3, "John Adopter", "john@email.com", "adopter", "john123"));
-        users.put(4, new User(4, "Sarah Adopter", "sarah@email.com", "adopter", "sarah123"));
-        nextUserId = 5;
+        users.add(new User(0, "Admin User", "admin@petadoption.com", "admin", "admin123"));
+        User shelter = new User(0, "Happy Paws Shelter", "shelter@happypaws.com", "shelter", "shelter123");
+        users.add(shelter);
+        User john = new User(0, "John Adopter", "john@email.com", "adopter", "john123");
+        users.add(john);
+        User sarah = new User(0, "Sarah Adopter", "sarah@email.com", "adopter", "sarah123");
+        users.add(sarah);
 
         // Create sample pets
-        pets.put(1, new Pet(1, 2, "Max", "dog", "Golden Retriever", 3, "Friendly and energetic"));
-        pets.get(1).approvalStatus = "approved";
-        pets.put(2, new Pet(2, 2, "Luna", "cat", "Siamese", 2, "Calm and affectionate"));
-        pets.get(2).approvalStatus = "approved";
-        pets.put(3, new Pet(3, 2, "Buddy", "dog", "Labrador", 4, "Loyal and playful"));
-        pets.get(3).approvalStatus = "pending";
-        nextPetId = 4;
+        Pet max = new Pet(0, shelter.getId(), "Max", "dog", "Golden Retriever", 3, "Friendly and energetic");
+        max.setApprovalStatus("approved");
+        pets.add(max);
+        Pet luna = new Pet(0, shelter.getId(), "Luna", "cat", "Siamese", 2, "Calm and affectionate");
+        luna.setApprovalStatus("approved");
+        pets.add(luna);
+        pets.add(new Pet(0, shelter.getId(), "Buddy", "dog", "Labrador", 4, "Loyal and playful"));
 
         // Create sample applications
-        applications.put(1, new Application(1, 3, 1, "I love dogs and have a large backyard"));
-        applications.put(2, new Application(2, 4, 2, "Always wanted a cat"));
-        nextApplicationId = 3;
+        applications.submit(john.getId(), max.getId(), shelter.getId(), "I love dogs and have a large backyard");
+        applications.submit(sarah.getId(), luna.getId(), shelter.getId(), "Always wanted a cat");
 
         System.out.println("✓ Sample data loaded successfully!\n");
     }
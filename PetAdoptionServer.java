@@ -0,0 +1,200 @@
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServlet;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.concurrent.Executor;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.DefaultServlet;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+/**
+ * PetAdoptionServer - Embedded Jetty entry point for the web application
+ * Mounts the REST servlets and serves the static frontend:
+ *
+ * /api/pets/*          PetServlet
+ * /api/applications/*  ApplicationServlet
+ * /api/login/*         LoginServlet
+ * /api/metrics         MetricsServlet (admin)
+ * /api/events          EventServlet (Server-Sent Events)
+ * /api/stats/*         StatsServlet (admin, or a shelter for its own statistics)
+ * / , /index.html, /script.js, /styles.css  static files from the frontend directory
+ *
+ * Thread model (petadoption.server.threads):
+ * - virtual: every request runs on its own virtual thread, so blocking JDBC calls
+ *   no longer cap concurrency at the worker count (default on Java 21+)
+ * - pooled:  a bounded QueuedThreadPool of platform threads
+ *
+ * Servlets run their handlers on AsyncHttpServlet's virtual threads under a per-request
+ * deadline (petadoption.async.*).
+ *
+ * Run: mvn exec:java, or java PetAdoptionServer with -Dpetadoption.server.* overrides
+ */
+public class PetAdoptionServer {
+    // Only these files are served; the frontend lives next to the sources
+    static final String[] STATIC_FILES = { "index.html", "script.js", "styles.css" };
+
+    /**
+     * Server settings, read from petadoption.server.* system properties
+     */
+    static class ServerConfig {
+        final int port;
+        final String threadModel;
+        final int minThreads;
+        final int maxThreads;
+        final int idleTimeoutMillis;
+        final int stopTimeoutMillis;
+        final String staticDir;
+
+        ServerConfig(int port, String threadModel, int minThreads, int maxThreads, int idleTimeoutMillis,
+                int stopTimeoutMillis, String staticDir) {
+            if (!"virtual".equals(threadModel) && !"pooled".equals(threadModel)) {
+                throw new IllegalArgumentException("Unknown thread model: " + threadModel
+                        + " (expected virtual or pooled)");
+            }
+            if (minThreads < 1 || maxThreads < minThreads) {
+                throw new IllegalArgumentException("Invalid thread pool bounds: " + minThreads + ".." + maxThreads);
+            }
+            this.port = port;
+            this.threadModel = threadModel;
+            this.minThreads = minThreads;
+            this.maxThreads = maxThreads;
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            this.stopTimeoutMillis = stopTimeoutMillis;
+            this.staticDir = staticDir;
+        }
+
+        static ServerConfig fromSystemProperties() {
+            return new ServerConfig(
+                    Integer.getInteger("petadoption.server.port", 8080),
+                    System.getProperty("petadoption.server.threads",
+                            VirtualThreads.areSupported() ? "virtual" : "pooled"),
+                    Integer.getInteger("petadoption.server.minThreads", 8),
+                    Integer.getInteger("petadoption.server.maxThreads", 200),
+                    Integer.getInteger("petadoption.server.idleTimeoutMs", 30_000),
+                    Integer.getInteger("petadoption.server.stopTimeoutMs", 10_000),
+                    System.getProperty("petadoption.server.staticDir", "."));
+        }
+
+        boolean useVirtualThreads() {
+            return "virtual".equals(threadModel);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ServerConfig config = ServerConfig.fromSystemProperties();
+        SessionTokens.warnIfRandomSecret();
+        Server server = createServer(config);
+        // Stopped by Jetty's shutdown hook as well: checkpoint the SQLite WAL or snapshot the durable store
+        server.addEventListener(new LifeCycle.Listener() {
+            @Override
+            public void lifeCycleStopped(LifeCycle event) {
+                try {
+                    Repositories.closeWeb();
+                } catch (DatabaseException e) {
+                    System.err.println("❌ Error closing storage: " + e.getMessage());
+                }
+            }
+        });
+        server.start();
+        System.out.println("✓ Pet Adoption server started on http://localhost:" + port(server)
+                + " (" + config.threadModel + " threads)");
+        server.join();
+    }
+
+    /**
+     * Build a configured, not yet started, Jetty server
+     */
+    static Server createServer(ServerConfig config) {
+        Server server = new Server(createThreadPool(config));
+
+        HttpConfiguration httpConfig = new HttpConfiguration();
+        httpConfig.setSendServerVersion(false);
+        ServerConnector connector = new ServerConnector(server, new HttpConnectionFactory(httpConfig));
+        connector.setPort(config.port);
+        connector.setIdleTimeout(config.idleTimeoutMillis);
+        server.addConnector(connector);
+
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/");
+        mountServlets(context);
+        mountStaticFiles(context, config.staticDir);
+        server.setHandler(context);
+
+        server.setStopAtShutdown(true);
+        server.setStopTimeout(config.stopTimeoutMillis);
+        return server;
+    }
+
+    /**
+     * Bounded platform-thread pool; in virtual mode it only runs Jetty's selectors
+     * and request handling is handed to a virtual thread per task
+     */
+    static QueuedThreadPool createThreadPool(ServerConfig config) {
+        QueuedThreadPool threadPool = new QueuedThreadPool(config.maxThreads, config.minThreads);
+        threadPool.setName("petadoption");
+        if (config.useVirtualThreads()) {
+            if (!VirtualThreads.areSupported()) {
+                throw new IllegalStateException("Virtual threads need Java 21 or newer");
+            }
+            Executor virtualThreads = VirtualThreads.getDefaultVirtualThreadsExecutor();
+            threadPool.setVirtualThreadsExecutor(virtualThreads);
+        }
+        return threadPool;
+    }
+
+    static void mountServlets(ServletContextHandler context) {
+        // Parse the login token once per API request, before the servlets look at it
+        context.addFilter(AuthFilter.class, "/api/*", EnumSet.of(DispatcherType.REQUEST));
+        // Runs after AuthFilter so signed-in clients are limited per user
+        context.addFilter(RateLimitFilter.class, "/api/*", EnumSet.of(DispatcherType.REQUEST));
+        mount(context, new PetServlet(), "/api/pets/*");
+        mount(context, new ApplicationServlet(), "/api/applications/*");
+        mount(context, new LoginServlet(), "/api/login/*");
+        mount(context, new MetricsServlet(), "/api/metrics");
+        mount(context, new EventServlet(), "/api/events");
+        mount(context, new StatsServlet(), "/api/stats/*");
+    }
+
+    private static void mount(ServletContextHandler context, HttpServlet servlet, String pathSpec) {
+        ServletHolder holder = new ServletHolder(servlet);
+        // AsyncHttpServlet moves request handling off the container thread
+        holder.setAsyncSupported(true);
+        context.addServlet(holder, pathSpec);
+    }
+
+    /**
+     * Serve the whitelisted frontend files only, never the rest of the directory
+     */
+    static void mountStaticFiles(ServletContextHandler context, String staticDir) {
+        Path dir = Paths.get(staticDir).toAbsolutePath().normalize();
+        for (String file : STATIC_FILES) {
+            if (!Files.isRegularFile(dir.resolve(file))) {
+                System.err.println("❌ Static file not found: " + dir.resolve(file));
+            }
+        }
+        ServletHolder files = new ServletHolder("static", DefaultServlet.class);
+        files.setInitParameter("resourceBase", dir.toString());
+        files.setInitParameter("dirAllowed", "false");
+        files.setInitParameter("welcomeServlets", "false");
+        files.setInitParameter("redirectWelcome", "false");
+        context.setWelcomeFiles(new String[] { "index.html" });
+        // "" is the context root itself, answered with the welcome file
+        context.addServlet(files, "");
+        for (String file : STATIC_FILES) {
+            context.addServlet(files, "/" + file);
+        }
+    }
+
+    static int port(Server server) {
+        return ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+    }
+}
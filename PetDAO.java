@@ -0,0 +1,308 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.sql.*;
+
+/**
+ * PetDAO - Data Access Object for Pet entities
+ */
+class PetDAO extends BaseDAO<Pet> {
+    private static final String TABLE_NAME = "pets";
+    private static final int SEARCH_LIMIT = 100;
+
+    // Full-text index per engine, shared by its PetDAOs: loaded from the table on first search
+    // and kept in step by save/update/delete
+    private static final Map<SqlEngine, SearchIndex> SEARCH_INDEXES = new ConcurrentHashMap<>();
+
+    private final SearchIndex searchIndex;
+
+    private static final class SearchIndex {
+        final PetSearchIndex index = new PetSearchIndex();
+        volatile boolean loaded = false;
+    }
+
+    public PetDAO() {
+        this(MySqlEngine.INSTANCE);
+    }
+
+    public PetDAO(SqlEngine engine) {
+        super(Pet.class, engine);
+        this.searchIndex = SEARCH_INDEXES.computeIfAbsent(engine, k -> new SearchIndex());
+    }
+
+    @Override
+    String tableName() {
+        return TABLE_NAME;
+    }
+
+    @Override
+    String insertSql() {
+        return "INSERT INTO " + TABLE_NAME
+                + " (shelter_id, name, type, breed, age, description, adoption_status, approval_status)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    @Override
+    void bindInsert(PreparedStatement pstmt, Pet pet) throws SQLException {
+        pstmt.setInt(1, pet.getShelterId());
+        pstmt.setString(2, pet.getName());
+        pstmt.setString(3, pet.getType());
+        pstmt.setString(4, pet.getBreed());
+        pstmt.setInt(5, pet.getAge());
+        pstmt.setString(6, pet.getDescription());
+        pstmt.setString(7, pet.getAdoptionStatus());
+        pstmt.setString(8, pet.getApprovalStatus());
+    }
+
+    @Override
+    String updateSql() {
+        return "UPDATE " + TABLE_NAME
+                + " SET name = ?, type = ?, breed = ?, age = ?, description = ?, adoption_status = ?, approval_status = ?"
+                + " WHERE id = ?";
+    }
+
+    @Override
+    void bindUpdate(PreparedStatement pstmt, Pet pet) throws SQLException {
+        pstmt.setString(1, pet.getName());
+        pstmt.setString(2, pet.getType());
+        pstmt.setString(3, pet.getBreed());
+        pstmt.setInt(4, pet.getAge());
+        pstmt.setString(5, pet.getDescription());
+        pstmt.setString(6, pet.getAdoptionStatus());
+        pstmt.setString(7, pet.getApprovalStatus());
+        pstmt.setInt(8, pet.getId());
+    }
+
+    @Override
+    void afterSave(Pet pet) {
+        indexForSearch(pet);
+    }
+
+    @Override
+    void afterUpdate(Pet pet) {
+        indexForSearch(pet);
+    }
+
+    @Override
+    void afterDelete(int id) {
+        searchIndex.index.remove(id);
+    }
+
+    // Hook run after updateAdoptionStatus/updateApprovalStatus changed a row
+    void afterStatusChange(int id) {
+    }
+
+    @Override
+    void save(Pet pet) throws DatabaseException {
+        insertOne(pet);
+        System.out.println("✓ Pet saved successfully!");
+    }
+
+    @Override
+    String columns() {
+        return "id, shelter_id, name, type, breed, age, description, adoption_status, approval_status";
+    }
+
+    @Override
+    Pet mapRow(ResultSet rs) throws SQLException {
+        Pet pet = new Pet(
+                rs.getInt("id"),
+                rs.getInt("shelter_id"),
+                rs.getString("name"),
+                rs.getString("type"),
+                rs.getString("breed"),
+                rs.getInt("age"),
+                rs.getString("description"));
+        pet.setAdoptionStatus(rs.getString("adoption_status"));
+        pet.setApprovalStatus(rs.getString("approval_status"));
+        return pet;
+    }
+
+    @Override
+    Pet findById(int id) throws DatabaseException {
+        return queryOne("find pet", selectSql("WHERE id = ?"), id);
+    }
+
+    @Override
+    List<Pet> findAll() throws DatabaseException {
+        return queryList("fetch pets", selectSql("ORDER BY id"));
+    }
+
+    @Override
+    void update(Pet pet) throws DatabaseException {
+        updateOne(pet);
+        System.out.println("✓ Pet updated successfully!");
+    }
+
+    @Override
+    void delete(int id) throws DatabaseException {
+        deleteOne(id);
+        System.out.println("✓ Pet deleted successfully!");
+    }
+
+    /**
+     * Find available pets (polymorphism - overriding method behavior)
+     */
+    List<Pet> findAvailable() throws DatabaseException {
+        return findByStatus("available");
+    }
+
+    /**
+     * Pets with the given adoption status, served by idx_pets_adoption_status
+     */
+    List<Pet> findByStatus(String adoptionStatus) throws DatabaseException {
+        return queryList("fetch " + adoptionStatus + " pets", selectSql("WHERE adoption_status = ? ORDER BY id"),
+                adoptionStatus);
+    }
+
+    /**
+     * Keyset page of adoption-status matches: up to limit pets with id greater than afterId, in id order
+     */
+    List<Pet> findByStatus(String adoptionStatus, int afterId, int limit) throws DatabaseException {
+        return queryList("fetch " + adoptionStatus + " pets",
+                selectSql("WHERE adoption_status = ? AND id > ? ORDER BY id LIMIT ?"), adoptionStatus, afterId, limit);
+    }
+
+    /**
+     * Keyset page of approval-status matches, served by idx_pets_approval_status
+     */
+    List<Pet> findByApprovalStatus(String approvalStatus, int afterId, int limit) throws DatabaseException {
+        return queryList("fetch " + approvalStatus + " pets",
+                selectSql("WHERE approval_status = ? AND id > ? ORDER BY id LIMIT ?"), approvalStatus, afterId, limit);
+    }
+
+    /**
+     * Keyset page over every pet, in id order
+     */
+    List<Pet> findPage(int afterId, int limit) throws DatabaseException {
+        return queryList("fetch pets", selectSql("WHERE id > ? ORDER BY id LIMIT ?"), afterId, limit);
+    }
+
+    /**
+     * Pets of a type, case-insensitive; types are stored normalised, so this is served by idx_pets_type
+     */
+    List<Pet> findByType(String type) throws DatabaseException {
+        return queryList("fetch pets by type", selectSql("WHERE type = ? ORDER BY id"), Pet.normalizeType(type));
+    }
+
+    /**
+     * Pets listed by one shelter, served by idx_pets_shelter
+     */
+    List<Pet> findByShelter(int shelterId) throws DatabaseException {
+        return queryList("fetch shelter pets", selectSql("WHERE shelter_id = ? ORDER BY id"), shelterId);
+    }
+
+    /**
+     * Set one pet's adoption status
+     * @return the pet as it was before the change, or null if it does not exist
+     */
+    Pet updateAdoptionStatus(int id, String status) throws DatabaseException {
+        return updateStatus("adoption_status", id, status);
+    }
+
+    /**
+     * Set one pet's approval status
+     * @return the pet as it was before the change, or null if it does not exist
+     */
+    Pet updateApprovalStatus(int id, String status) throws DatabaseException {
+        return updateStatus("approval_status", id, status);
+    }
+
+    // Read and update in one unit of work, so the caller learns the status it replaced
+    private Pet updateStatus(String column, int id, String status) throws DatabaseException {
+        String select = selectSql("WHERE id = ?");
+        String update = "UPDATE " + TABLE_NAME + " SET " + column + " = ? WHERE id = ?";
+        Pet before;
+        try {
+            before = engine.write(session -> {
+                PreparedStatement find = session.prepare(select);
+                find.setInt(1, id);
+                Pet pet;
+                try (ResultSet rs = find.executeQuery()) {
+                    pet = rs.next() ? mapRow(rs) : null;
+                }
+                if (pet == null) {
+                    return null;
+                }
+                PreparedStatement pstmt = session.prepare(update);
+                pstmt.setString(1, status);
+                pstmt.setInt(2, id);
+                return pstmt.executeUpdate() > 0 ? pet : null;
+            });
+        } catch (SQLException e) {
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to update pet " + column.replace('_', ' ') + ": " + e.getMessage(), e);
+        }
+        if (before != null) {
+            afterStatusChange(id);
+        }
+        return before;
+    }
+
+    /**
+     * Full-text search over name, type, breed and description, best match first
+     */
+    List<Pet> search(String keyword) throws DatabaseException {
+        return search(keyword, SEARCH_LIMIT);
+    }
+
+    List<Pet> search(String keyword, int limit) throws DatabaseException {
+        ensureSearchIndexLoaded();
+        List<PetSearchIndex.Hit> hits = searchIndex.index.search(keyword, limit);
+        if (hits.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Fetch all hits in one round trip, then restore rank order
+        StringBuilder sql = new StringBuilder(selectSql("WHERE id IN ("));
+        for (int i = 0; i < hits.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        Map<Integer, Pet> byId = new HashMap<>(hits.size() * 2);
+        try {
+            engine.read(session -> {
+                PreparedStatement pstmt = session.prepare(sql.toString());
+                for (int i = 0; i < hits.size(); i++) {
+                    pstmt.setInt(i + 1, hits.get(i).id);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Pet pet = mapRow(rs);
+                        byId.put(pet.getId(), pet);
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to search pets: " + e.getMessage(), e);
+        }
+
+        List<Pet> pets = new ArrayList<>(hits.size());
+        for (PetSearchIndex.Hit hit : hits) {
+            Pet pet = byId.get(hit.id);
+            if (pet != null) {
+                pets.add(pet);
+            }
+        }
+        return pets;
+    }
+
+    private void ensureSearchIndexLoaded() throws DatabaseException {
+        if (searchIndex.loaded) {
+            return;
+        }
+        synchronized (searchIndex) {
+            if (!searchIndex.loaded) {
+                for (Pet pet : findAll()) {
+                    indexForSearch(pet);
+                }
+                searchIndex.loaded = true;
+            }
+        }
+    }
+
+    private void indexForSearch(Pet pet) {
+        searchIndex.index.index(pet.getId(), pet.getName(), pet.getType(), pet.getBreed(), pet.getDescription());
+    }
+}
@@ -0,0 +1,5 @@
+class PetNotFoundException extends Exception {
+    public PetNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Pet storage shared by PetServlet, ApplicationServlet and PetAdoptionBackend
+ * Listings come back in id order. Pets returned by the in-memory implementation
+ * are the stored objects, so statuses must only be changed through the
+ * update methods; the SQL implementations return fresh copies.
+ */
+interface PetRepository {
+
+    /**
+     * Add a pet; one without an id (0) is given the next one
+     */
+    void add(Pet pet) throws DatabaseException;
+
+    /**
+     * Add many pets at once (seeding, imports)
+     */
+    void addAll(Collection<Pet> pets) throws DatabaseException;
+
+    Pet findById(int id) throws DatabaseException;
+
+    /**
+     * Every pet, in id order
+     */
+    Collection<Pet> findAll() throws DatabaseException;
+
+    /**
+     * Keyset page: up to limit pets with id greater than afterId, in id order
+     */
+    List<Pet> findAll(int afterId, int limit) throws DatabaseException;
+
+    List<Pet> findByAdoptionStatus(String status, int afterId, int limit) throws DatabaseException;
+
+    List<Pet> findByApprovalStatus(String status, int afterId, int limit) throws DatabaseException;
+
+    /**
+     * Pets of a type, case-insensitive
+     */
+    List<Pet> findByType(String type) throws DatabaseException;
+
+    List<Pet> findByShelter(int shelterId) throws DatabaseException;
+
+    /**
+     * Full-text search over name, type, breed and description, best match first
+     */
+    List<Pet> search(String query, int limit) throws DatabaseException;
+
+    /**
+     * @return false if the pet does not exist
+     */
+    boolean updateAdoptionStatus(int id, String status) throws DatabaseException;
+
+    /**
+     * @return false if the pet does not exist
+     */
+    boolean updateApprovalStatus(int id, String status) throws DatabaseException;
+
+    /**
+     * @return the removed pet, or null if it did not exist
+     */
+    Pet remove(int id) throws DatabaseException;
+
+    int size() throws DatabaseException;
+
+    /**
+     * Count every stored pet, for PlatformStats.reconcile()
+     */
+    void recount(PlatformStats.Recount recount) throws DatabaseException;
+}
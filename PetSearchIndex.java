@@ -0,0 +1,236 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * PetSearchIndex - In-process inverted index for pet full-text search
+ * Indexes name, type, breed and description with per-field weights and ranks
+ * matches with BM25. Every query term also matches as a prefix, so "gold ret"
+ * finds "Golden Retriever". index()/remove() only touch that pet's postings,
+ * so the index can be kept up to date on every save, update and delete.
+ */
+public class PetSearchIndex {
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field weights: a hit in the name counts more than one in the description
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float TYPE_WEIGHT = 2.0f;
+    private static final float BREED_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // Prefix-only matches score lower than exact term matches
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (document ordinal -> weighted term frequency)
+    private final TreeMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+    // Pets are stored under dense ordinals so per-pet lengths and ids live in plain arrays
+    private final Map<Integer, Integer> ordinals = new HashMap<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int[] ids = new int[16];
+    private float[] lengths = new float[16];
+    private final List<Map<String, Float>> termsByOrdinal = new ArrayList<>();
+    private double totalLength = 0;
+
+    /**
+     * Ranked search result
+     */
+    public static final class Hit {
+        public final int id;
+        public final double score;
+
+        Hit(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Add or replace a pet's entry
+     */
+    public void index(int id, String name, String type, String breed, String description) {
+        Map<String, Float> termFreqs = new HashMap<>();
+        addField(termFreqs, name, NAME_WEIGHT);
+        addField(termFreqs, type, TYPE_WEIGHT);
+        addField(termFreqs, breed, BREED_WEIGHT);
+        addField(termFreqs, description, DESCRIPTION_WEIGHT);
+        float length = 0;
+        for (float tf : termFreqs.values()) {
+            length += tf;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            int ord = allocateOrdinal();
+            ordinals.put(id, ord);
+            ids[ord] = id;
+            lengths[ord] = length;
+            termsByOrdinal.set(ord, termFreqs);
+            for (Map.Entry<String, Float> entry : termFreqs.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(ord, entry.getValue());
+            }
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop a pet from the index
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(int id) {
+        Integer ord = ordinals.remove(id);
+        if (ord == null) {
+            return;
+        }
+        for (String term : termsByOrdinal.get(ord).keySet()) {
+            Map<Integer, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(ord);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= lengths[ord];
+        termsByOrdinal.set(ord, null);
+        freeOrdinals.push(ord);
+    }
+
+    private int allocateOrdinal() {
+        if (!freeOrdinals.isEmpty()) {
+            return freeOrdinals.pop();
+        }
+        int ord = termsByOrdinal.size();
+        termsByOrdinal.add(null);
+        if (ord == ids.length) {
+            ids = Arrays.copyOf(ids, ord * 2);
+            lengths = Arrays.copyOf(lengths, ord * 2);
+        }
+        return ord;
+    }
+
+    /**
+     * Best matches for a free-text query, highest score first
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            int docCount = ordinals.size();
+            if (docCount == 0) {
+                return Collections.emptyList();
+            }
+            double avgLength = totalLength / docCount;
+            // Accumulated per matched pet only, so a query costs what it matches rather than the index size
+            Map<Integer, Double> scores = new HashMap<>();
+            Map<Integer, Double> termBest = new HashMap<>();
+
+            for (String term : terms) {
+                // Best contribution of this query term per pet, over the exact term and its prefix expansions
+                SortedMap<String, Map<Integer, Float>> matches = postings.subMap(term, term + Character.MAX_VALUE);
+                int expansions = 0;
+                for (Map.Entry<String, Map<Integer, Float>> match : matches.entrySet()) {
+                    if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    double factor = match.getKey().equals(term) ? 1.0 : PREFIX_FACTOR;
+                    Map<Integer, Float> docs = match.getValue();
+                    double idf = Math.log(1 + (docCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                    for (Map.Entry<Integer, Float> doc : docs.entrySet()) {
+                        int ord = doc.getKey();
+                        double tf = doc.getValue();
+                        double norm = K1 * (1 - B + B * lengths[ord] / avgLength);
+                        termBest.merge(ord, factor * idf * tf * (K1 + 1) / (tf + norm), Math::max);
+                    }
+                }
+                termBest.forEach((ord, score) -> scores.merge(ord, score, Double::sum));
+                termBest.clear();
+            }
+
+            // Keep only the top `limit` hits in a min-heap
+            PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(limit, scores.size()) + 1,
+                    (a, b) -> a.score != b.score ? Double.compare(a.score, b.score) : Integer.compare(b.id, a.id));
+            for (Map.Entry<Integer, Double> scored : scores.entrySet()) {
+                double score = scored.getValue();
+                if (top.size() < limit || score > top.peek().score) {
+                    top.offer(new Hit(ids[scored.getKey()], score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                hits.add(top.poll());
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-case words made of letters and digits
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addField(Map<String, Float> termFreqs, String text, float weight) {
+        for (String token : tokenize(text)) {
+            termFreqs.merge(token, weight, Float::sum);
+        }
+    }
+}
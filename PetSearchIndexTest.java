@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.List;
+
+/**
+ * PetSearchIndexTest - Unit tests for PetSearchIndex
+ * Tests tokenization, ranking, prefix matching and incremental updates
+ *
+ * Coverage:
+ * - Tokenization
+ * - Exact and prefix matches
+ * - Field-weighted ranking
+ * - Re-indexing and removal
+ */
+@DisplayName("PetSearchIndex Full-Text Tests")
+public class PetSearchIndexTest {
+
+    private PetSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PetSearchIndex();
+        index.index(1, "Buddy", "Dog", "Golden Retriever", "Friendly and loyal");
+        index.index(2, "Whiskers", "Cat", "Persian", "Calm and affectionate");
+        index.index(3, "Goldie", "Fish", "Goldfish", "Quiet companion, loves a golden bowl");
+    }
+
+    @Test
+    @DisplayName("Should split text into lower-case words")
+    void testTokenize() {
+        assertEquals(List.of("golden", "retriever", "3"), PetSearchIndex.tokenize("Golden-Retriever, 3!"));
+        assertTrue(PetSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find pets by exact word")
+    void testExactMatch() {
+        List<PetSearchIndex.Hit> hits = index.search("persian", 10);
+        assertEquals(1, hits.size());
+        assertEquals(2, hits.get(0).id);
+    }
+
+    @Test
+    @DisplayName("Should match words by prefix")
+    void testPrefixMatch() {
+        List<PetSearchIndex.Hit> hits = index.search("retr", 10);
+        assertEquals(1, hits.size(), "Prefix should match retriever");
+        assertEquals(1, hits.get(0).id);
+    }
+
+    @Test
+    @DisplayName("Should rank breed matches above description matches")
+    void testRanking() {
+        List<PetSearchIndex.Hit> hits = index.search("golden", 10);
+        assertEquals(2, hits.size(), "Both golden pets should match");
+        assertEquals(1, hits.get(0).id, "Breed hit should outrank description hit");
+        assertTrue(hits.get(0).score > hits.get(1).score);
+    }
+
+    @Test
+    @DisplayName("Should respect the result limit")
+    void testLimit() {
+        assertEquals(1, index.search("gold", 1).size());
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and removals")
+    void testIncrementalUpdates() {
+        index.index(2, "Whiskers", "Cat", "Siamese", "Calm and affectionate");
+        assertTrue(index.search("persian", 10).isEmpty(), "Old breed should no longer match");
+        assertEquals(1, index.search("siamese", 10).size(), "New breed should match");
+
+        index.remove(1);
+        assertTrue(index.search("retriever", 10).isEmpty(), "Removed pet should not match");
+        assertEquals(2, index.size());
+    }
+}
@@ -1,58 +1,53 @@
 import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * PetServlet - Handles pet operations
  * GET /api/pets - List all pets
  * GET /api/pets?filter=available - Filter pets
+ * GET /api/pets?limit=20&cursor=41&fields=id,name - Keyset page with field projection
+ *     (the next page's cursor is returned in the X-Next-Cursor header)
+ * GET /api/pets/search?q=golden+ret - Ranked full-text search (limit/fields also apply)
  * POST /api/pets - Add new pet (Shelter only)
  * PUT /api/pets - Update pet (Admin/Shelter only)
  * DELETE /api/pets/{id} - Delete pet (Admin only)
+ *
+ * Pets are read and written through Repositories.web(), whichever engine backs it.
  */
-public class PetServlet extends HttpServlet {
+public class PetServlet extends AsyncHttpServlet {
     private static final Gson gson = new Gson();
-    private static List<PetData> petDatabase = new ArrayList<>();
-
-    static class PetData {
-        int id;
-        int shelterId;
-        String name, type, breed;
-        int age;
-        String description;
-        String adoptionStatus, approvalStatus;
-
-        PetData(int id, int shelterId, String name, String type, String breed, int age,
-                String description, String adoptionStatus, String approvalStatus) {
-            this.id = id;
-            this.shelterId = shelterId;
-            this.name = name;
-            this.type = type;
-            this.breed = breed;
-            this.age = age;
-            this.description = description;
-            this.adoptionStatus = adoptionStatus;
-            this.approvalStatus = approvalStatus;
-        }
-    }
-
-    // Initialize demo data
-    static {
-        petDatabase.add(new PetData(1, 2, "Buddy", "Dog", "Golden Retriever", 3,
-                "Friendly and loyal", "available", "approved"));
-        petDatabase.add(new PetData(2, 2, "Whiskers", "Cat", "Persian", 2,
-                "Calm and affectionate", "available", "approved"));
-        petDatabase.add(new PetData(3, 2, "Hoppy", "Rabbit", "Holland Lop", 1,
-                "Energetic bunny", "pending", "pending"));
+    static final PetRepository pets = Repositories.web().pets;
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    // Field projection bits for ?fields=
+    static final int FIELD_ID = 1;
+    static final int FIELD_SHELTER_ID = 1 << 1;
+    static final int FIELD_NAME = 1 << 2;
+    static final int FIELD_TYPE = 1 << 3;
+    static final int FIELD_BREED = 1 << 4;
+    static final int FIELD_AGE = 1 << 5;
+    static final int FIELD_DESCRIPTION = 1 << 6;
+    static final int FIELD_ADOPTION_STATUS = 1 << 7;
+    static final int FIELD_APPROVAL_STATUS = 1 << 8;
+    static final int ALL_FIELDS = (1 << 9) - 1;
+
+    /**
+     * Pet by id, for servlets that need the pet's shelter
+     */
+    static Pet findPet(int id) throws DatabaseException {
+        return pets.findById(id);
     }
 
     @Override
@@ -64,26 +59,100 @@ public class PetServlet extends HttpServlet {
 
         String pathInfo = request.getPathInfo();
         String filter = request.getParameter("filter");
+        String cursor = request.getParameter("cursor");
+        String limitParam = request.getParameter("limit");
 
-        JsonArray petsArray = new JsonArray();
-
-        // Filter by status if requested
-        for (PetData pet : petDatabase) {
-            if (filter != null) {
-                if ("available".equals(filter) && "available".equals(pet.adoptionStatus)) {
-                    petsArray.add(petToJson(pet));
-                } else if ("adopted".equals(filter) && "adopted".equals(pet.adoptionStatus)) {
-                    petsArray.add(petToJson(pet));
-                } else if ("approved".equals(filter) && "approved".equals(pet.approvalStatus)) {
-                    petsArray.add(petToJson(pet));
-                }
+        int fields;
+        int afterId;
+        int limit;
+        try {
+            fields = parseFields(request.getParameter("fields"));
+            afterId = cursor == null ? 0 : parsePositiveInt(cursor, "cursor");
+            limit = limitParam == null ? DEFAULT_PAGE_SIZE
+                    : Math.min(parsePositiveInt(limitParam, "limit"), MAX_PAGE_SIZE);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            out.println(errorJson(e.getMessage()));
+            return;
+        }
+        if ("/search".equals(pathInfo)) {
+            String query = request.getParameter("q");
+            if (query == null || query.isBlank()) {
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                out.println("{\"success\": false, \"message\": \"Missing search query q\"}");
+                return;
+            }
+            List<Pet> hits;
+            try {
+                hits = pets.search(query, limitParam == null ? DEFAULT_SEARCH_LIMIT : limit);
+            } catch (DatabaseException e) {
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                out.println(errorJson("Error: " + e.getMessage()));
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_OK);
+            JsonWriter json = newJsonWriter(out);
+            json.beginArray();
+            for (Pet pet : hits) {
+                writePet(json, pet, fields);
+            }
+            json.endArray();
+            json.flush();
+            out.println();
+            return;
+        }
+
+        // Without limit/cursor the whole catalogue is returned, as before
+        boolean paged = cursor != null || limitParam != null;
+        int fetch = paged ? limit + 1 : Integer.MAX_VALUE;
+
+        // Filter by status if requested, straight from the status indexes
+        Collection<Pet> listed;
+        try {
+            if (filter == null) {
+                listed = paged ? pets.findAll(afterId, fetch) : pets.findAll();
+            } else if ("available".equals(filter) || "adopted".equals(filter)) {
+                listed = pets.findByAdoptionStatus(filter, afterId, fetch);
+            } else if ("approved".equals(filter)) {
+                listed = pets.findByApprovalStatus(filter, afterId, fetch);
             } else {
-                petsArray.add(petToJson(pet));
+                listed = Collections.emptyList();
             }
+        } catch (DatabaseException e) {
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            out.println(errorJson("Error: " + e.getMessage()));
+            return;
         }
 
+        // One extra row was fetched to tell whether another page follows
+        int count = listed.size();
+        if (paged && count > limit) {
+            count = limit;
+            // The cursor is the last pet on this page; headers go out before the body, so find it first
+            int lastId = 0;
+            int seen = 0;
+            for (Pet pet : listed) {
+                if (seen++ == limit) {
+                    break;
+                }
+                lastId = pet.getId();
+            }
+            response.setHeader("X-Next-Cursor", String.valueOf(lastId));
+        }
+
+        // Stream each pet straight onto the response instead of building a JsonArray tree
         response.setStatus(HttpServletResponse.SC_OK);
-        out.println(petsArray.toString());
+        JsonWriter json = newJsonWriter(out);
+        json.beginArray();
+        for (Pet pet : listed) {
+            if (count-- == 0) {
+                break;
+            }
+            writePet(json, pet, fields);
+        }
+        json.endArray();
+        json.flush();
+        out.println();
     }
 
     @Override
@@ -93,14 +162,14 @@ public class PetServlet extends HttpServlet {
         response.setCharacterEncoding("UTF-8");
         PrintWriter out = response.getWriter();
 
-        HttpSession session = request.getSession(false);
-        if (session == null || session.getAttribute("userRole") == null) {
+        AuthPrincipal principal = AuthPrincipal.of(request);
+        if (principal == null || principal.role == null) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             out.println("{\"success\": false, \"message\": \"Not authenticated\"}");
             return;
         }
 
-        String userRole = (String) session.getAttribute("userRole");
+        String userRole = principal.role;
         if (!"shelter".equals(userRole) && !"admin".equals(userRole)) {
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             out.println("{\"success\": false, \"message\": \"Only shelters can add pets\"}");
@@ -116,35 +185,33 @@ public class PetServlet extends HttpServlet {
             }
 
             JsonObject petRequest = gson.fromJson(sb.toString(), JsonObject.class);
-            int shelterId = Integer.parseInt((String) session.getAttribute("userId"));
-
-            // Generate ID
-            int newId = petDatabase.isEmpty() ? 1 : petDatabase.get(petDatabase.size() - 1).id + 1;
+            int shelterId = principal.userIdAsInt();
 
-            PetData newPet = new PetData(
-                newId,
+            Pet newPet = new Pet(
+                0,
                 shelterId,
                 petRequest.get("name").getAsString(),
                 petRequest.get("type").getAsString(),
                 petRequest.get("breed").getAsString(),
                 petRequest.get("age").getAsInt(),
-                petRequest.get("description").getAsString(),
-                "pending",
-                "pending"
+                petRequest.get("description").getAsString()
             );
+            newPet.setAdoptionStatus("pending");
+            newPet.setApprovalStatus("pending");
 
-            petDatabase.add(newPet);
+            // The repository assigns the id
+            pets.add(newPet);
 
             JsonObject responseJson = new JsonObject();
             responseJson.addProperty("success", true);
             responseJson.addProperty("message", "Pet added successfully and pending approval");
-            responseJson.addProperty("petId", newId);
+            responseJson.addProperty("petId", newPet.getId());
 
             response.setStatus(HttpServletResponse.SC_CREATED);
             out.println(responseJson.toString());
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            out.println("{\"success\": false, \"message\": \"Error: " + e.getMessage() + "\"}");
+            out.println(errorJson("Error: " + e.getMessage()));
         }
     }
 
@@ -155,8 +222,7 @@ public class PetServlet extends HttpServlet {
         response.setCharacterEncoding("UTF-8");
         PrintWriter out = response.getWriter();
 
-        HttpSession session = request.getSession(false);
-        if (session == null || !"admin".equals(session.getAttribute("userRole"))) {
+        if (!"admin".equals(AuthPrincipal.roleOf(request))) {
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             out.println("{\"success\": false, \"message\": \"Admin access required\"}");
             return;
@@ -174,30 +240,51 @@ public class PetServlet extends HttpServlet {
             int petId = updateRequest.get("petId").getAsInt();
             String action = updateRequest.get("action").getAsString();
 
-            for (PetData pet : petDatabase) {
-                if (pet.id == petId) {
-                    if ("approve".equals(action)) {
-                        pet.approvalStatus = "approved";
-                    } else if ("reject".equals(action)) {
-                        pet.approvalStatus = "rejected";
-                    } else if ("adopt".equals(action)) {
-                        pet.adoptionStatus = "adopted";
-                    }
-
-                    JsonObject responseJson = new JsonObject();
-                    responseJson.addProperty("success", true);
-                    responseJson.addProperty("message", "Pet updated: " + action);
-                    response.setStatus(HttpServletResponse.SC_OK);
-                    out.println(responseJson.toString());
-                    return;
-                }
+            boolean found;
+            if ("approve".equals(action)) {
+                found = pets.updateApprovalStatus(petId, "approved");
+            } else if ("reject".equals(action)) {
+                found = pets.updateApprovalStatus(petId, "rejected");
+            } else if ("adopt".equals(action)) {
+                found = pets.updateAdoptionStatus(petId, "adopted");
+            } else {
+                found = pets.findById(petId) != null;
+            }
+
+            if (found) {
+                publishStatus(pets.findById(petId));
+                JsonObject responseJson = new JsonObject();
+                responseJson.addProperty("success", true);
+                responseJson.addProperty("message", "Pet updated: " + action);
+                response.setStatus(HttpServletResponse.SC_OK);
+                out.println(responseJson.toString());
+                return;
             }
 
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             out.println("{\"success\": false, \"message\": \"Pet not found\"}");
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            out.println("{\"success\": false, \"message\": \"Error: " + e.getMessage() + "\"}");
+            out.println(errorJson("Error: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Tell /api/events subscribers about a pet's new status: everyone once the
+     * pet is publicly listed, otherwise only its shelter
+     */
+    static void publishStatus(Pet pet) {
+        if (pet == null) {
+            return;
+        }
+        JsonObject data = new JsonObject();
+        data.addProperty("petId", pet.getId());
+        data.addProperty("adoptionStatus", pet.getAdoptionStatus());
+        data.addProperty("approvalStatus", pet.getApprovalStatus());
+        if ("approved".equals(pet.getApprovalStatus())) {
+            EventBus.DEFAULT.broadcast("pet.status", data.toString());
+        } else {
+            EventBus.DEFAULT.publish("pet.status", data.toString(), pet.getShelterId());
         }
     }
 
@@ -208,8 +295,7 @@ public class PetServlet extends HttpServlet {
         response.setCharacterEncoding("UTF-8");
         PrintWriter out = response.getWriter();
 
-        HttpSession session = request.getSession(false);
-        if (session == null || !"admin".equals(session.getAttribute("userRole"))) {
+        if (!"admin".equals(AuthPrincipal.roleOf(request))) {
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             out.println("{\"success\": false, \"message\": \"Admin access required\"}");
             return;
@@ -219,34 +305,121 @@ public class PetServlet extends HttpServlet {
             String pathInfo = request.getPathInfo();
             int petId = Integer.parseInt(pathInfo.substring(1));
 
-            for (PetData pet : petDatabase) {
-                if (pet.id == petId) {
-                    petDatabase.remove(pet);
-                    response.setStatus(HttpServletResponse.SC_OK);
-                    out.println("{\"success\": true, \"message\": \"Pet deleted\"}");
-                    return;
-                }
+            if (pets.remove(petId) != null) {
+                response.setStatus(HttpServletResponse.SC_OK);
+                out.println("{\"success\": true, \"message\": \"Pet deleted\"}");
+                return;
             }
 
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             out.println("{\"success\": false, \"message\": \"Pet not found\"}");
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            out.println("{\"success\": false, \"message\": \"Error: " + e.getMessage() + "\"}");
+            out.println(errorJson("Error: " + e.getMessage()));
         }
     }
 
-    private JsonObject petToJson(PetData pet) {
-        JsonObject json = new JsonObject();
-        json.addProperty("id", pet.id);
-        json.addProperty("shelterId", pet.shelterId);
-        json.addProperty("name", pet.name);
-        json.addProperty("type", pet.type);
-        json.addProperty("breed", pet.breed);
-        json.addProperty("age", pet.age);
-        json.addProperty("description", pet.description);
-        json.addProperty("adoptionStatus", pet.adoptionStatus);
-        json.addProperty("approvalStatus", pet.approvalStatus);
+    /**
+     * JsonWriter configured like JsonElement.toString(), so streamed output matches the old tree output byte for byte
+     */
+    static JsonWriter newJsonWriter(java.io.Writer out) {
+        JsonWriter json = new JsonWriter(out);
+        json.setLenient(true);
         return json;
     }
+
+    static void writePet(JsonWriter json, Pet pet) throws IOException {
+        writePet(json, pet, ALL_FIELDS);
+    }
+
+    /**
+     * Write only the fields whose bits are set
+     */
+    static void writePet(JsonWriter json, Pet pet, int fields) throws IOException {
+        json.beginObject();
+        if ((fields & FIELD_ID) != 0) {
+            json.name("id").value(pet.getId());
+        }
+        if ((fields & FIELD_SHELTER_ID) != 0) {
+            json.name("shelterId").value(pet.getShelterId());
+        }
+        if ((fields & FIELD_NAME) != 0) {
+            json.name("name").value(pet.getName());
+        }
+        if ((fields & FIELD_TYPE) != 0) {
+            json.name("type").value(pet.getType());
+        }
+        if ((fields & FIELD_BREED) != 0) {
+            json.name("breed").value(pet.getBreed());
+        }
+        if ((fields & FIELD_AGE) != 0) {
+            json.name("age").value(pet.getAge());
+        }
+        if ((fields & FIELD_DESCRIPTION) != 0) {
+            json.name("description").value(pet.getDescription());
+        }
+        if ((fields & FIELD_ADOPTION_STATUS) != 0) {
+            json.name("adoptionStatus").value(pet.getAdoptionStatus());
+        }
+        if ((fields & FIELD_APPROVAL_STATUS) != 0) {
+            json.name("approvalStatus").value(pet.getApprovalStatus());
+        }
+        json.endObject();
+    }
+
+    /**
+     * Parse a comma separated ?fields= list into projection bits (null means every field)
+     */
+    static int parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL_FIELDS;
+        }
+        int mask = 0;
+        for (String field : fields.split(",")) {
+            switch (field.trim()) {
+                case "id":
+                    mask |= FIELD_ID;
+                    break;
+                case "shelterId":
+                    mask |= FIELD_SHELTER_ID;
+                    break;
+                case "name":
+                    mask |= FIELD_NAME;
+                    break;
+                case "type":
+                    mask |= FIELD_TYPE;
+                    break;
+                case "breed":
+                    mask |= FIELD_BREED;
+                    break;
+                case "age":
+                    mask |= FIELD_AGE;
+                    break;
+                case "description":
+                    mask |= FIELD_DESCRIPTION;
+                    break;
+                case "adoptionStatus":
+                    mask |= FIELD_ADOPTION_STATUS;
+                    break;
+                case "approvalStatus":
+                    mask |= FIELD_APPROVAL_STATUS;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown field: " + field.trim());
+            }
+        }
+        return mask;
+    }
+
+    private static int parsePositiveInt(String value, String name) {
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid " + name + ": must be a positive integer");
+    }
 }
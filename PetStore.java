@@ -0,0 +1,298 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * PetStore - Thread-safe in-memory PetRepository
+ * O(1) lookup by id plus secondary indexes on adoptionStatus, approvalStatus,
+ * type and shelterId. Index buckets are ordered by pet id, so listings come back
+ * in the order pets were added and filtered reads cost O(matching pets).
+ *
+ * Pets are stored and returned as-is, so all status changes must go through
+ * this class for the indexes to stay in step. A PetSearchIndex over the text
+ * fields is maintained alongside for search(), and every change is counted in
+ * a PlatformStats.
+ */
+public class PetStore implements PetRepository {
+    private final Map<Integer, Pet> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Pet> ordered = new ConcurrentSkipListMap<>();
+    private final Index<String> byAdoptionStatus = new Index<>();
+    private final Index<String> byApprovalStatus = new Index<>();
+    private final Index<String> byType = new Index<>();
+    private final Index<Integer> byShelter = new Index<>();
+    private final PetSearchIndex searchIndex = new PetSearchIndex();
+    private final PlatformStats stats;
+
+    public PetStore() {
+        this(new PlatformStats());
+    }
+
+    public PetStore(PlatformStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Secondary index: key -> pets with that key, ordered by id
+     */
+    private static final class Index<K> {
+        private final Map<K, ConcurrentSkipListMap<Integer, Pet>> buckets = new ConcurrentHashMap<>();
+
+        void add(K key, Pet pet) {
+            if (key == null) {
+                return;
+            }
+            buckets.compute(key, (k, bucket) -> {
+                if (bucket == null) {
+                    bucket = new ConcurrentSkipListMap<>();
+                }
+                bucket.put(pet.getId(), pet);
+                return bucket;
+            });
+        }
+
+        void remove(K key, Pet pet) {
+            if (key == null) {
+                return;
+            }
+            buckets.computeIfPresent(key, (k, bucket) -> {
+                bucket.remove(pet.getId());
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+
+        /**
+         * Pets under the key with id greater than afterId, in id order
+         */
+        Collection<Pet> get(K key, int afterId) {
+            ConcurrentSkipListMap<Integer, Pet> bucket = key == null ? null : buckets.get(key);
+            return bucket == null ? Collections.emptyList() : bucket.tailMap(afterId, false).values();
+        }
+    }
+
+    /**
+     * Add a pet, taking the next id from IdAllocator.PETS if it has none; fails if the id is already taken
+     */
+    @Override
+    public void add(Pet pet) {
+        if (pet.getId() == 0) {
+            pet.id = IdAllocator.PETS.next();
+        } else {
+            IdAllocator.PETS.reserveUpTo(pet.getId());
+        }
+        synchronized (pet) {
+            if (byId.putIfAbsent(pet.getId(), pet) != null) {
+                throw new IllegalStateException("Duplicate pet id: " + pet.getId());
+            }
+            ordered.put(pet.getId(), pet);
+            byAdoptionStatus.add(pet.getAdoptionStatus(), pet);
+            byApprovalStatus.add(pet.getApprovalStatus(), pet);
+            byType.add(typeKey(pet.getType()), pet);
+            byShelter.add(pet.getShelterId(), pet);
+            searchIndex.index(pet.getId(), pet.getName(), pet.getType(), pet.getBreed(), pet.getDescription());
+            stats.petAdded(pet.getShelterId(), pet.getAdoptionStatus(), pet.getApprovalStatus());
+        }
+    }
+
+    @Override
+    public void addAll(Collection<Pet> pets) {
+        for (Pet pet : pets) {
+            add(pet);
+        }
+    }
+
+    @Override
+    public Pet findById(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Every pet, in id order (live, weakly consistent view)
+     */
+    @Override
+    public Collection<Pet> findAll() {
+        return Collections.unmodifiableCollection(ordered.values());
+    }
+
+    /**
+     * Keyset page: up to limit pets with id greater than afterId, in id order
+     */
+    @Override
+    public List<Pet> findAll(int afterId, int limit) {
+        return collect(ordered.tailMap(afterId, false).values(), pet -> true, limit);
+    }
+
+    public List<Pet> findByAdoptionStatus(String status) {
+        return findByAdoptionStatus(status, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Pet> findByAdoptionStatus(String status, int afterId, int limit) {
+        return collect(byAdoptionStatus.get(status, afterId), pet -> status.equals(pet.getAdoptionStatus()), limit);
+    }
+
+    public List<Pet> findByApprovalStatus(String status) {
+        return findByApprovalStatus(status, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Pet> findByApprovalStatus(String status, int afterId, int limit) {
+        return collect(byApprovalStatus.get(status, afterId), pet -> status.equals(pet.getApprovalStatus()), limit);
+    }
+
+    /**
+     * Pets of a type, case-insensitive
+     */
+    @Override
+    public List<Pet> findByType(String type) {
+        String key = typeKey(type);
+        return collect(byType.get(key, 0), pet -> key.equals(typeKey(pet.getType())), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Pet> findByShelter(int shelterId) {
+        return collect(byShelter.get(shelterId, 0), pet -> pet.getShelterId() == shelterId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Full-text search over name, type, breed and description, best match first
+     */
+    @Override
+    public List<Pet> search(String query, int limit) {
+        List<Pet> result = new ArrayList<>();
+        for (PetSearchIndex.Hit hit : searchIndex.search(query, limit)) {
+            Pet pet = byId.get(hit.id);
+            if (pet != null) {
+                result.add(pet);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Move a pet to a new adoption status, re-indexing it
+     * @return false if the pet does not exist
+     */
+    @Override
+    public boolean updateAdoptionStatus(int id, String status) {
+        Pet pet = byId.get(id);
+        if (pet == null) {
+            return false;
+        }
+        synchronized (pet) {
+            if (byId.get(id) != pet) {
+                return false;
+            }
+            String previous = pet.getAdoptionStatus();
+            byAdoptionStatus.add(status, pet);
+            pet.setAdoptionStatus(status);
+            if (previous != null && !previous.equals(status)) {
+                byAdoptionStatus.remove(previous, pet);
+            }
+            stats.petAdoptionStatusChanged(pet.getShelterId(), previous, status);
+        }
+        return true;
+    }
+
+    /**
+     * Move a pet to a new approval status, re-indexing it
+     * @return false if the pet does not exist
+     */
+    @Override
+    public boolean updateApprovalStatus(int id, String status) {
+        Pet pet = byId.get(id);
+        if (pet == null) {
+            return false;
+        }
+        synchronized (pet) {
+            if (byId.get(id) != pet) {
+                return false;
+            }
+            String previous = pet.getApprovalStatus();
+            byApprovalStatus.add(status, pet);
+            pet.setApprovalStatus(status);
+            if (previous != null && !previous.equals(status)) {
+                byApprovalStatus.remove(previous, pet);
+            }
+            stats.petApprovalStatusChanged(pet.getShelterId(), previous, status);
+        }
+        return true;
+    }
+
+    /**
+     * Remove a pet from the store and every index
+     * @return the removed pet, or null if it did not exist
+     */
+    @Override
+    public Pet remove(int id) {
+        Pet pet = byId.get(id);
+        if (pet == null) {
+            return null;
+        }
+        synchronized (pet) {
+            if (!byId.remove(id, pet)) {
+                return null;
+            }
+            ordered.remove(id);
+            byAdoptionStatus.remove(pet.getAdoptionStatus(), pet);
+            byApprovalStatus.remove(pet.getApprovalStatus(), pet);
+            byType.remove(typeKey(pet.getType()), pet);
+            byShelter.remove(pet.getShelterId(), pet);
+            searchIndex.remove(id);
+            stats.petRemoved(pet.getShelterId(), pet.getAdoptionStatus(), pet.getApprovalStatus());
+        }
+        return pet;
+    }
+
+    /**
+     * Highest id currently stored, or 0 when empty
+     */
+    public int lastId() {
+        Map.Entry<Integer, Pet> last = ordered.lastEntry();
+        return last == null ? 0 : last.getKey();
+    }
+
+    @Override
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Count every stored pet, for PlatformStats.reconcile()
+     */
+    @Override
+    public void recount(PlatformStats.Recount recount) {
+        for (Pet pet : ordered.values()) {
+            synchronized (pet) {
+                recount.pet(pet.getShelterId(), pet.getAdoptionStatus(), pet.getApprovalStatus());
+            }
+        }
+    }
+
+    private static String typeKey(String type) {
+        return type == null ? null : type.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Copy an index bucket, re-checking the predicate so a pet caught mid-transition
+     * never shows up under a status it no longer has
+     */
+    private static List<Pet> collect(Collection<Pet> bucket,
+            Predicate<Pet> stillMatches, int limit) {
+        List<Pet> result = new ArrayList<>(Math.min(limit, 64));
+        for (Pet pet : bucket) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (stillMatches.test(pet)) {
+                result.add(pet);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,122 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.List;
+
+/**
+ * PetStoreTest - Unit tests for PetStore
+ * Tests id lookup and secondary index consistency
+ *
+ * Coverage:
+ * - Lookup by id
+ * - Filter by adoption/approval status, type and shelter
+ * - Keyset pages after a cursor
+ * - Index updates on status transitions
+ * - Removal from every index
+ * - Duplicate id rejection
+ */
+@DisplayName("PetStore Index Tests")
+public class PetStoreTest {
+
+    private PetStore store;
+
+    private static Pet pet(int id, int shelterId, String name, String type, String breed, int age,
+            String description, String adoptionStatus, String approvalStatus) {
+        Pet pet = new Pet(id, shelterId, name, type, breed, age, description);
+        pet.setAdoptionStatus(adoptionStatus);
+        pet.setApprovalStatus(approvalStatus);
+        return pet;
+    }
+
+    @BeforeEach
+    void setUp() {
+        store = new PetStore();
+        store.add(pet(1, 2, "Buddy", "Dog", "Golden Retriever", 3,
+                "Friendly and loyal", "available", "approved"));
+        store.add(pet(2, 2, "Whiskers", "Cat", "Persian", 2,
+                "Calm and affectionate", "available", "approved"));
+        store.add(pet(3, 5, "Hoppy", "Rabbit", "Holland Lop", 1,
+                "Energetic bunny", "pending", "pending"));
+    }
+
+    @Test
+    @DisplayName("Should find pet by id")
+    void testFindById() {
+        assertEquals("Whiskers", store.findById(2).getName(), "Pet 2 should be Whiskers");
+        assertNull(store.findById(99), "Unknown id should return null");
+    }
+
+    @Test
+    @DisplayName("Should filter by status, type and shelter")
+    void testSecondaryIndexes() {
+        assertEquals(2, store.findByAdoptionStatus("available").size(), "Should have 2 available pets");
+        assertEquals(2, store.findByApprovalStatus("approved").size(), "Should have 2 approved pets");
+        assertEquals(1, store.findByType("dog").size(), "Type lookup should ignore case");
+        assertEquals(1, store.findByShelter(5).size(), "Shelter 5 should have 1 pet");
+    }
+
+    @Test
+    @DisplayName("Should page by id after the cursor")
+    void testKeysetPaging() {
+        List<Pet> firstPage = store.findAll(0, 2);
+        assertEquals(2, firstPage.size(), "First page should be full");
+
+        List<Pet> secondPage = store.findAll(firstPage.get(1).getId(), 2);
+        assertEquals(1, secondPage.size(), "Second page should hold the remaining pet");
+        assertEquals(3, secondPage.get(0).getId());
+
+        List<Pet> available = store.findByAdoptionStatus("available", 1, 10);
+        assertEquals(1, available.size(), "Only pet 2 is available after cursor 1");
+    }
+
+    @Test
+    @DisplayName("Should move pet between status indexes on adoption")
+    void testAdoptionStatusTransition() {
+        assertTrue(store.updateAdoptionStatus(1, "adopted"));
+
+        List<Pet> available = store.findByAdoptionStatus("available");
+        List<Pet> adopted = store.findByAdoptionStatus("adopted");
+        assertEquals(1, available.size(), "Only one pet should remain available");
+        assertEquals(1, adopted.size(), "Adopted index should contain the pet");
+        assertEquals(1, adopted.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Should move pet between approval indexes")
+    void testApprovalStatusTransition() {
+        assertTrue(store.updateApprovalStatus(3, "approved"));
+
+        assertEquals(3, store.findByApprovalStatus("approved").size(), "All pets should be approved");
+        assertTrue(store.findByApprovalStatus("pending").isEmpty(), "Pending index should be empty");
+    }
+
+    @Test
+    @DisplayName("Should remove pet from every index")
+    void testRemove() {
+        assertNotNull(store.remove(1));
+
+        assertNull(store.findById(1));
+        assertEquals(1, store.findByAdoptionStatus("available").size());
+        assertTrue(store.findByType("Dog").isEmpty(), "Dog index should be empty");
+        assertNull(store.remove(1), "Second delete should find nothing");
+    }
+
+    @Test
+    @DisplayName("Should keep listings in id order")
+    void testOrderedListing() {
+        int previous = 0;
+        for (Pet pet : store.findAll()) {
+            assertTrue(pet.getId() > previous, "Pets should be listed in id order");
+            previous = pet.getId();
+        }
+        assertEquals(3, store.lastId());
+    }
+
+    @Test
+    @DisplayName("Should reject duplicate ids")
+    void testDuplicateId() {
+        assertThrows(IllegalStateException.class, () -> store.add(pet(1, 2, "Copy", "Dog",
+                "Beagle", 1, "", "available", "pending")));
+    }
+}
@@ -0,0 +1,331 @@
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PlatformStats - Platform and per-shelter counters, maintained as data changes
+ * The stores report every create, delete and status transition here, so reading
+ * the analytics is O(1) in the number of pets and applications instead of a scan.
+ * Counters are LongAdders: updates from many request threads do not contend on
+ * one cache line, and reads sum a handful of cells.
+ *
+ * reconcile() compares the counters with a full recount taken from the system
+ * of record and corrects any drift. The counters are copied when the recount
+ * starts (startRecount) and again when it ends: a counter is corrected by the
+ * difference between the recount and its value at the start, so updates made
+ * since are kept, and a counter that changed while the recount ran is left
+ * for the next pass, since the recount may or may not have seen that change.
+ */
+public final class PlatformStats {
+    // Shared by the web tier's stores
+    static final PlatformStats DEFAULT = new PlatformStats();
+
+    private final LongAdder users = new LongAdder();
+    private final Counters global = new Counters();
+    private final Map<Integer, Counters> byShelter = new ConcurrentHashMap<>();
+    private final LongAdder reconciliations = new LongAdder();
+    private final LongAdder corrections = new LongAdder();
+    private volatile long lastReconciledMillis;
+
+    /**
+     * Pet and application counters of the whole platform or of one shelter
+     */
+    static final class Counters {
+        final LongAdder pets = new LongAdder();
+        final LongAdder applications = new LongAdder();
+        final Map<String, LongAdder> petsByAdoptionStatus = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> petsByApprovalStatus = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> applicationsByStatus = new ConcurrentHashMap<>();
+
+        long petsWithAdoptionStatus(String status) {
+            return sum(petsByAdoptionStatus, status);
+        }
+
+        long petsWithApprovalStatus(String status) {
+            return sum(petsByApprovalStatus, status);
+        }
+
+        long applicationsWithStatus(String status) {
+            return sum(applicationsByStatus, status);
+        }
+
+        /**
+         * Non-zero counts by status, sorted by status name
+         */
+        static Map<String, Long> counts(Map<String, LongAdder> byStatus) {
+            Map<String, Long> result = new TreeMap<>();
+            for (Map.Entry<String, LongAdder> entry : byStatus.entrySet()) {
+                long count = entry.getValue().sum();
+                if (count != 0) {
+                    result.put(entry.getKey(), count);
+                }
+            }
+            return result;
+        }
+
+        private static long sum(Map<String, LongAdder> byStatus, String status) {
+            LongAdder counter = byStatus.get(status);
+            return counter == null ? 0 : counter.sum();
+        }
+
+        private static void add(Map<String, LongAdder> byStatus, String status, long delta) {
+            if (status != null) {
+                byStatus.computeIfAbsent(status, k -> new LongAdder()).add(delta);
+            }
+        }
+    }
+
+    /**
+     * Actual counts gathered by walking the system of record, for reconcile()
+     */
+    static final class Recount {
+        private final PlatformStats counted = new PlatformStats();
+        // The counters as the recount started; null compares against the counters as they are
+        private final PlatformStats started;
+
+        Recount() {
+            this(null);
+        }
+
+        private Recount(PlatformStats started) {
+            this.started = started;
+        }
+
+        void users(long count) {
+            counted.users.add(count);
+        }
+
+        void pet(int shelterId, String adoptionStatus, String approvalStatus) {
+            pets(shelterId, adoptionStatus, approvalStatus, 1);
+        }
+
+        /**
+         * A group of pets with the same shelter and statuses, e.g. one GROUP BY row
+         */
+        void pets(int shelterId, String adoptionStatus, String approvalStatus, long count) {
+            petDelta(counted.global, adoptionStatus, approvalStatus, count);
+            petDelta(counted.shelter(shelterId), adoptionStatus, approvalStatus, count);
+        }
+
+        void application(int shelterId, String status) {
+            applications(shelterId, status, 1);
+        }
+
+        void applications(int shelterId, String status, long count) {
+            applicationDelta(counted.global, status, count);
+            if (shelterId > 0) {
+                applicationDelta(counted.shelter(shelterId), status, count);
+            }
+        }
+    }
+
+    // ===================== UPDATES =====================
+
+    void userAdded() {
+        users.increment();
+    }
+
+    void userRemoved() {
+        users.decrement();
+    }
+
+    void petAdded(int shelterId, String adoptionStatus, String approvalStatus) {
+        petDelta(global, adoptionStatus, approvalStatus, 1);
+        petDelta(shelter(shelterId), adoptionStatus, approvalStatus, 1);
+    }
+
+    void petRemoved(int shelterId, String adoptionStatus, String approvalStatus) {
+        petDelta(global, adoptionStatus, approvalStatus, -1);
+        petDelta(shelter(shelterId), adoptionStatus, approvalStatus, -1);
+    }
+
+    void petAdoptionStatusChanged(int shelterId, String from, String to) {
+        if (!same(from, to)) {
+            move(global.petsByAdoptionStatus, from, to);
+            move(shelter(shelterId).petsByAdoptionStatus, from, to);
+        }
+    }
+
+    void petApprovalStatusChanged(int shelterId, String from, String to) {
+        if (!same(from, to)) {
+            move(global.petsByApprovalStatus, from, to);
+            move(shelter(shelterId).petsByApprovalStatus, from, to);
+        }
+    }
+
+    /**
+     * @param shelterId shelter that listed the pet applied for, 0 if unknown
+     */
+    void applicationAdded(int shelterId, String status) {
+        applicationDelta(global, status, 1);
+        if (shelterId > 0) {
+            applicationDelta(shelter(shelterId), status, 1);
+        }
+    }
+
+    void applicationRemoved(int shelterId, String status) {
+        applicationDelta(global, status, -1);
+        if (shelterId > 0) {
+            applicationDelta(shelter(shelterId), status, -1);
+        }
+    }
+
+    void applicationStatusChanged(int shelterId, String from, String to) {
+        if (!same(from, to)) {
+            move(global.applicationsByStatus, from, to);
+            if (shelterId > 0) {
+                move(shelter(shelterId).applicationsByStatus, from, to);
+            }
+        }
+    }
+
+    private Counters shelter(int shelterId) {
+        return byShelter.computeIfAbsent(shelterId, k -> new Counters());
+    }
+
+    private static void petDelta(Counters counters, String adoptionStatus, String approvalStatus, long delta) {
+        counters.pets.add(delta);
+        Counters.add(counters.petsByAdoptionStatus, adoptionStatus, delta);
+        Counters.add(counters.petsByApprovalStatus, approvalStatus, delta);
+    }
+
+    private static void applicationDelta(Counters counters, String status, long delta) {
+        counters.applications.add(delta);
+        Counters.add(counters.applicationsByStatus, status, delta);
+    }
+
+    private static void move(Map<String, LongAdder> byStatus, String from, String to) {
+        Counters.add(byStatus, from, -1);
+        Counters.add(byStatus, to, 1);
+    }
+
+    private static boolean same(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // ===================== READS =====================
+
+    long users() {
+        return users.sum();
+    }
+
+    Counters global() {
+        return global;
+    }
+
+    /**
+     * Counters of one shelter; all zero for a shelter with no pets or applications
+     */
+    Counters shelterCounters(int shelterId) {
+        Counters counters = byShelter.get(shelterId);
+        return counters != null ? counters : new Counters();
+    }
+
+    long reconciliations() {
+        return reconciliations.sum();
+    }
+
+    long corrections() {
+        return corrections.sum();
+    }
+
+    long lastReconciledMillis() {
+        return lastReconciledMillis;
+    }
+
+    // ===================== RECONCILIATION =====================
+
+    /**
+     * A recount to fill from the system of record and pass to reconcile(); call it just before counting
+     */
+    Recount startRecount() {
+        return new Recount(copy());
+    }
+
+    /**
+     * Bring every counter in line with a recount
+     * @return number of counters that had drifted
+     */
+    int reconcile(Recount recount) {
+        PlatformStats actual = recount.counted;
+        PlatformStats ended = copy();
+        PlatformStats started = recount.started != null ? recount.started : ended;
+        int drifted = correct(users, actual.users.sum(), started.users.sum(), ended.users.sum());
+        drifted += correct(global, actual.global, started.global, ended.global);
+        Set<Integer> shelters = new HashSet<>(byShelter.keySet());
+        shelters.addAll(actual.byShelter.keySet());
+        for (int shelterId : shelters) {
+            drifted += correct(shelter(shelterId), actual.shelterCounters(shelterId),
+                    started.shelterCounters(shelterId), ended.shelterCounters(shelterId));
+        }
+        reconciliations.increment();
+        corrections.add(drifted);
+        lastReconciledMillis = System.currentTimeMillis();
+        return drifted;
+    }
+
+    private static int correct(Counters current, Counters actual, Counters started, Counters ended) {
+        int drifted = correct(current.pets, actual.pets.sum(), started.pets.sum(), ended.pets.sum());
+        drifted += correct(current.applications, actual.applications.sum(), started.applications.sum(),
+                ended.applications.sum());
+        drifted += correct(current.petsByAdoptionStatus, actual.petsByAdoptionStatus,
+                started.petsByAdoptionStatus, ended.petsByAdoptionStatus);
+        drifted += correct(current.petsByApprovalStatus, actual.petsByApprovalStatus,
+                started.petsByApprovalStatus, ended.petsByApprovalStatus);
+        drifted += correct(current.applicationsByStatus, actual.applicationsByStatus,
+                started.applicationsByStatus, ended.applicationsByStatus);
+        return drifted;
+    }
+
+    private static int correct(Map<String, LongAdder> current, Map<String, LongAdder> actual,
+            Map<String, LongAdder> started, Map<String, LongAdder> ended) {
+        Set<String> statuses = new HashSet<>(current.keySet());
+        statuses.addAll(actual.keySet());
+        int drifted = 0;
+        for (String status : statuses) {
+            drifted += correct(current.computeIfAbsent(status, k -> new LongAdder()), Counters.sum(actual, status),
+                    Counters.sum(started, status), Counters.sum(ended, status));
+        }
+        return drifted;
+    }
+
+    private static int correct(LongAdder counter, long expected, long started, long ended) {
+        if (started != ended) {
+            return 0; // changed while the recount ran
+        }
+        long delta = expected - started;
+        if (delta == 0) {
+            return 0;
+        }
+        counter.add(delta);
+        return 1;
+    }
+
+    /**
+     * Current values of every counter
+     */
+    private PlatformStats copy() {
+        PlatformStats copy = new PlatformStats();
+        copy.users.add(users.sum());
+        copy(global, copy.global);
+        for (Map.Entry<Integer, Counters> entry : byShelter.entrySet()) {
+            copy(entry.getValue(), copy.shelter(entry.getKey()));
+        }
+        return copy;
+    }
+
+    private static void copy(Counters from, Counters to) {
+        to.pets.add(from.pets.sum());
+        to.applications.add(from.applications.sum());
+        copy(from.petsByAdoptionStatus, to.petsByAdoptionStatus);
+        copy(from.petsByApprovalStatus, to.petsByApprovalStatus);
+        copy(from.applicationsByStatus, to.applicationsByStatus);
+    }
+
+    private static void copy(Map<String, LongAdder> from, Map<String, LongAdder> to) {
+        from.forEach((status, count) -> Counters.add(to, status, count.sum()));
+    }
+}
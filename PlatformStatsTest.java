@@ -0,0 +1,147 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * PlatformStatsTest - Unit tests for PlatformStats
+ * Tests counters maintained by the stores and their reconciliation
+ *
+ * Coverage:
+ * - Pet creation, transitions and removal through PetStore
+ * - Application submission and decisions through ApplicationStore
+ * - Per-shelter counters kept apart
+ * - Reconciliation corrects drifted counters only
+ * - Updates made while a recount runs are kept
+ */
+@DisplayName("PlatformStats Counter Tests")
+public class PlatformStatsTest {
+
+    private PlatformStats stats;
+    private PetStore pets;
+    private ApplicationStore applications;
+
+    private Pet pet(int id, int shelterId) {
+        Pet pet = new Pet(id, shelterId, "Pet " + id, "Dog", "Beagle", 2, "Friendly");
+        pets.add(pet);
+        return pet;
+    }
+
+    @BeforeEach
+    void setUp() {
+        stats = new PlatformStats();
+        pets = new PetStore(stats);
+        applications = new ApplicationStore(stats);
+    }
+
+    @Test
+    @DisplayName("Should follow pets through creation, transitions and removal")
+    void testPetCounters() {
+        pet(1, 2);
+        pet(2, 2);
+        pets.updateApprovalStatus(1, "approved");
+        pets.updateAdoptionStatus(1, "adopted");
+        pets.remove(2);
+
+        PlatformStats.Counters global = stats.global();
+        assertEquals(1, global.pets.sum());
+        assertEquals(1, global.petsWithAdoptionStatus("adopted"));
+        assertEquals(0, global.petsWithAdoptionStatus("available"));
+        assertEquals(1, global.petsWithApprovalStatus("approved"));
+        assertEquals(0, global.petsWithApprovalStatus("pending"));
+    }
+
+    @Test
+    @DisplayName("Should count applications by status as they are decided")
+    void testApplicationCounters() {
+        pet(1, 2);
+        Application first = applications.submit(3, 1, 2, "Yard");
+        applications.submit(4, 1, 2, "Flat");
+        applications.updateStatus(first.getId(), "approved");
+
+        PlatformStats.Counters shelter = stats.shelterCounters(2);
+        assertEquals(2, shelter.applications.sum());
+        assertEquals(1, shelter.applicationsWithStatus("approved"));
+        assertEquals(1, shelter.applicationsWithStatus("submitted"));
+    }
+
+    @Test
+    @DisplayName("Should keep each shelter's counters separate")
+    void testPerShelter() {
+        pet(1, 2);
+        pet(2, 5);
+        pet(3, 5);
+        applications.submit(3, 2, 5, "Walks");
+
+        assertEquals(1, stats.shelterCounters(2).pets.sum());
+        assertEquals(2, stats.shelterCounters(5).pets.sum());
+        assertEquals(0, stats.shelterCounters(2).applications.sum());
+        assertEquals(1, stats.shelterCounters(5).applications.sum());
+        assertEquals(0, stats.shelterCounters(99).pets.sum());
+        assertEquals(3, stats.global().pets.sum());
+    }
+
+    @Test
+    @DisplayName("Should report no drift when counters match a recount")
+    void testReconcileConsistent() {
+        pet(1, 2);
+        applications.submit(3, 1, 2, "Yard");
+        stats.userAdded();
+
+        PlatformStats.Recount recount = new PlatformStats.Recount();
+        recount.users(1);
+        pets.recount(recount);
+        applications.recount(recount);
+
+        assertEquals(0, stats.reconcile(recount));
+        assertEquals(1, stats.reconciliations());
+    }
+
+    @Test
+    @DisplayName("Should correct drifted counters from a recount")
+    void testReconcileCorrectsDrift() {
+        pet(1, 2);
+        // A change that bypassed the store
+        pets.findById(1).setAdoptionStatus("adopted");
+        stats.petAdded(7, "available", "approved");
+
+        PlatformStats.Recount recount = new PlatformStats.Recount();
+        pets.recount(recount);
+        int drifted = stats.reconcile(recount);
+
+        assertTrue(drifted > 0);
+        assertEquals(drifted, stats.corrections());
+        assertEquals(1, stats.global().pets.sum());
+        assertEquals(1, stats.global().petsWithAdoptionStatus("adopted"));
+        assertEquals(0, stats.global().petsWithAdoptionStatus("available"));
+        assertEquals(0, stats.shelterCounters(7).pets.sum());
+        assertEquals(1, stats.shelterCounters(2).petsWithAdoptionStatus("adopted"));
+    }
+
+    @Test
+    @DisplayName("Should keep updates made while a recount runs")
+    void testReconcileConcurrentUpdate() {
+        pet(1, 2);
+        // Drift the recount should correct
+        stats.applicationAdded(2, "pending");
+
+        PlatformStats.Recount recount = stats.startRecount();
+        pets.recount(recount);
+        applications.recount(recount);
+        // Lands after the pets were counted
+        pet(2, 2);
+        pets.updateAdoptionStatus(1, "pending");
+        int drifted = stats.reconcile(recount);
+
+        assertTrue(drifted > 0);
+        assertEquals(0, stats.global().applications.sum());
+        assertEquals(2, stats.global().pets.sum(), "the new pet is not counted away");
+        assertEquals(1, stats.global().petsWithAdoptionStatus("pending"));
+        assertEquals(1, stats.global().petsWithAdoptionStatus("available"));
+
+        PlatformStats.Recount next = stats.startRecount();
+        pets.recount(next);
+        applications.recount(next);
+        assertEquals(0, stats.reconcile(next), "nothing left to correct");
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Pool settings, read from system properties so a deployment can size the pool
+ * without recompiling (e.g. -Dpetadoption.db.pool.max=20)
+ */
+class PoolConfig {
+    final String url;
+    final String user;
+    final String password;
+    final int minSize;
+    final int maxSize;
+    final long borrowTimeoutMillis;
+    final long idleTimeoutMillis;
+    final long evictionIntervalMillis;
+    final long validationIntervalMillis;
+    final int validationTimeoutSeconds;
+
+    PoolConfig(String url, String user, String password, int minSize, int maxSize,
+            long borrowTimeoutMillis, long idleTimeoutMillis, long evictionIntervalMillis,
+            long validationIntervalMillis, int validationTimeoutSeconds) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.evictionIntervalMillis = evictionIntervalMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    static PoolConfig fromSystemProperties(String defaultUrl, String defaultUser, String defaultPassword) {
+        return new PoolConfig(
+                System.getProperty("petadoption.db.url", defaultUrl),
+                System.getProperty("petadoption.db.user", defaultUser),
+                System.getProperty("petadoption.db.password", defaultPassword),
+                Integer.getInteger("petadoption.db.pool.min", 2),
+                Integer.getInteger("petadoption.db.pool.max", 10),
+                Long.getLong("petadoption.db.pool.borrowTimeoutMs", 5000),
+                Long.getLong("petadoption.db.pool.idleTimeoutMs", 10 * 60 * 1000),
+                Long.getLong("petadoption.db.pool.evictionIntervalMs", 30 * 1000),
+                Long.getLong("petadoption.db.pool.validationIntervalMs", 500),
+                Integer.getInteger("petadoption.db.pool.validationTimeoutSec", 2));
+    }
+}
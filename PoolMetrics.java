@@ -0,0 +1,36 @@
+/**
+ * Point-in-time view of the pool counters
+ */
+class PoolMetrics {
+    final int active;
+    final int idle;
+    final int total;
+    final int waiting;
+    final long borrows;
+    final long timeouts;
+    final long created;
+    final long evicted;
+    final double avgWaitMillis;
+    final double maxWaitMillis;
+
+    PoolMetrics(int active, int idle, int total, int waiting, long borrows, long timeouts,
+            long created, long evicted, double avgWaitMillis, double maxWaitMillis) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.waiting = waiting;
+        this.borrows = borrows;
+        this.timeouts = timeouts;
+        this.created = created;
+        this.evicted = evicted;
+        this.avgWaitMillis = avgWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d idle=%d total=%d waiting=%d borrows=%d timeouts=%d created=%d evicted=%d "
+                + "avgWait=%.2fms maxWait=%.2fms",
+                active, idle, total, waiting, borrows, timeouts, created, evicted, avgWaitMillis, maxWaitMillis);
+    }
+}
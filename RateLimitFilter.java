@@ -0,0 +1,137 @@
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitFilter - Per-client admission control for login and write endpoints
+ * Mounted after AuthFilter. Each endpoint has its own RateLimiter:
+ * - login:        POST /api/login, keyed by client IP (no user yet)
+ * - applications: POST/PUT/DELETE /api/applications, keyed by user id, else IP
+ * - pets:         POST/PUT/DELETE /api/pets, keyed by user id, else IP
+ * Reads are never limited. Over the limit the client gets 429 with Retry-After.
+ *
+ * Limits: petadoption.ratelimit.<endpoint>.perMinute and .burst;
+ * petadoption.ratelimit.maxBuckets caps tracked clients per endpoint and
+ * petadoption.ratelimit.trustForwardedFor uses X-Forwarded-For behind a proxy.
+ * Each proxy appends the address it saw, so only the right end of the header
+ * can be trusted: the client is the entry petadoption.ratelimit.forwardedHops
+ * (the number of proxies in front of the server, default 1) from the right.
+ * Entries further left were sent by the client and are ignored.
+ */
+public class RateLimitFilter implements Filter {
+    private static final int MAX_BUCKETS = Integer.getInteger("petadoption.ratelimit.maxBuckets", 1 << 20);
+    private static final boolean TRUST_FORWARDED_FOR = Boolean.getBoolean("petadoption.ratelimit.trustForwardedFor");
+    private static final int FORWARDED_HOPS = Math.max(1, Integer.getInteger("petadoption.ratelimit.forwardedHops", 1));
+
+    static final RateLimiter LOGIN = limiter("login", 10, 5);
+    static final RateLimiter APPLICATIONS = limiter("applications", 30, 10);
+    static final RateLimiter PETS = limiter("pets", 60, 20);
+
+    // Idle buckets are dropped in the background; full stripes also sweep themselves
+    private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "petadoption-ratelimit-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        long sweepMillis = Long.getLong("petadoption.ratelimit.sweepMs", 30_000);
+        SWEEPER.scheduleWithFixedDelay(() -> {
+            LOGIN.evictIdle();
+            APPLICATIONS.evictIdle();
+            PETS.evictIdle();
+        }, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static RateLimiter limiter(String endpoint, int perMinute, int burst) {
+        String prefix = "petadoption.ratelimit." + endpoint + ".";
+        return new RateLimiter(endpoint,
+                Integer.getInteger(prefix + "perMinute", perMinute) / 60.0,
+                Integer.getInteger(prefix + "burst", burst),
+                MAX_BUCKETS);
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        RateLimiter limiter = limiterFor(request);
+        if (limiter != null) {
+            long waitNanos = limiter.tryAcquire(clientKey(request, limiter));
+            if (waitNanos > 0) {
+                HttpServletResponse response = (HttpServletResponse) res;
+                response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                        waitNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+                response.setStatus(429);
+                response.setContentType("application/json");
+                response.setCharacterEncoding("UTF-8");
+                response.getWriter().println("{\"success\": false, \"message\": \"Too many requests, please retry later\"}");
+                return;
+            }
+        }
+        chain.doFilter(req, res);
+    }
+
+    /**
+     * Limiter for the request's endpoint, or null for requests that are not limited
+     */
+    static RateLimiter limiterFor(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return null;
+        }
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/login")) {
+            return "POST".equals(method) ? LOGIN : null;
+        }
+        if (path.startsWith("/api/applications")) {
+            return APPLICATIONS;
+        }
+        if (path.startsWith("/api/pets")) {
+            return PETS;
+        }
+        return null;
+    }
+
+    /**
+     * Signed-in users are limited per account wherever they connect from; everyone else per IP
+     */
+    static String clientKey(HttpServletRequest request, RateLimiter limiter) {
+        if (limiter != LOGIN) {
+            AuthPrincipal principal = AuthPrincipal.of(request);
+            if (principal != null) {
+                return "user:" + principal.userId;
+            }
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    static String clientIp(HttpServletRequest request) {
+        if (TRUST_FORWARDED_FOR) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isEmpty()) {
+                String[] hops = forwarded.split(",");
+                return hops[Math.max(0, hops.length - FORWARDED_HOPS)].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    static List<RateLimiter.RateLimitStats> stats() {
+        List<RateLimiter.RateLimitStats> stats = new ArrayList<>();
+        stats.add(LOGIN.stats());
+        stats.add(APPLICATIONS.stats());
+        stats.add(PETS.stats());
+        return stats;
+    }
+}
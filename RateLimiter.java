@@ -0,0 +1,164 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * RateLimiter - Lock-free token buckets, one per client key
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time"
+ * (the GCRA form of a token bucket): a request is admitted when that time is
+ * no more than the burst allowance ahead of now, and admitting it moves the
+ * time forward by one emission interval with a CAS. No locks, no refill thread.
+ *
+ * Buckets live in striped maps with a hard size cap. A bucket whose arrival
+ * time is in the past is full again and indistinguishable from a new one, so
+ * evictIdle() can drop it at any time; a stripe that hits its cap is swept
+ * inline, so memory stays bounded however many distinct clients appear. A
+ * request racing with the eviction of its bucket can at worst get one extra permit.
+ */
+public final class RateLimiter {
+    private static final int STRIPES = 16;
+
+    final String name;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxBucketsPerStripe;
+    private final LongSupplier clock;
+    private final List<Map<String, AtomicLong>> stripes = new ArrayList<>(STRIPES);
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Rejection counters and size of one limiter
+     */
+    static class RateLimitStats {
+        final String name;
+        final long allowed;
+        final long rejected;
+        final long evictions;
+        final int buckets;
+
+        RateLimitStats(String name, long allowed, long rejected, long evictions, int buckets) {
+            this.name = name;
+            this.allowed = allowed;
+            this.rejected = rejected;
+            this.evictions = evictions;
+            this.buckets = buckets;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: allowed=%d rejected=%d buckets=%d evictions=%d",
+                    name, allowed, rejected, buckets, evictions);
+        }
+    }
+
+    RateLimiter(String name, double permitsPerSecond, int burst, int maxBuckets) {
+        this(name, permitsPerSecond, burst, maxBuckets, System::nanoTime);
+    }
+
+    RateLimiter(String name, double permitsPerSecond, int burst, int maxBuckets, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxBuckets < STRIPES) {
+            throw new IllegalArgumentException("Invalid rate limit for " + name + ": " + permitsPerSecond
+                    + "/s, burst " + burst + ", " + maxBuckets + " buckets");
+        }
+        this.name = name;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * (burst - 1);
+        this.maxBucketsPerStripe = maxBuckets / STRIPES;
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Take one permit for the key
+     * @return 0 if admitted, otherwise nanoseconds until a permit will be available
+     */
+    long tryAcquire(String key) {
+        Map<String, AtomicLong> stripe = stripes.get((key.hashCode() & 0x7fffffff) % STRIPES);
+        AtomicLong bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxBucketsPerStripe) {
+                makeRoom(stripe);
+            }
+            bucket = stripe.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        while (true) {
+            long now = clock.getAsLong();
+            long stored = bucket.get();
+            long arrival = stored == Long.MIN_VALUE || stored - now < 0 ? now : stored;
+            long wait = arrival - now - burstNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(stored, arrival + intervalNanos)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop every bucket that has refilled completely
+     * @return number of buckets removed
+     */
+    int evictIdle() {
+        int removed = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            removed += evictIdle(stripe);
+        }
+        return removed;
+    }
+
+    private int evictIdle(Map<String, AtomicLong> stripe) {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Iterator<AtomicLong> it = stripe.values().iterator(); it.hasNext();) {
+            long stored = it.next().get();
+            if (stored == Long.MIN_VALUE || stored - now <= 0) {
+                it.remove();
+                removed++;
+            }
+        }
+        evictions.add(removed);
+        return removed;
+    }
+
+    /**
+     * Full stripe: drop idle buckets, and if every client is still active, arbitrary
+     * ones. An evicted active client merely starts again with a full bucket.
+     */
+    private void makeRoom(Map<String, AtomicLong> stripe) {
+        if (evictIdle(stripe) > 0) {
+            return;
+        }
+        int excess = stripe.size() - maxBucketsPerStripe + 1;
+        for (Iterator<AtomicLong> it = stripe.values().iterator(); it.hasNext() && excess > 0; excess--) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    RateLimitStats stats() {
+        return new RateLimitStats(name, allowed.sum(), rejected.sum(), evictions.sum(), size());
+    }
+}
@@ -0,0 +1,122 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RateLimiterTest - Unit tests for RateLimiter
+ * Tests token-bucket admission with a controllable clock
+ *
+ * Coverage:
+ * - Burst admitted, then rejected with a retry delay
+ * - Refill over time
+ * - Independent clients
+ * - Idle-bucket eviction and the bucket cap
+ * - Concurrent callers never exceed the burst
+ */
+@DisplayName("RateLimiter Token Bucket Tests")
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private AtomicLong now;
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000 * SECOND);
+        // One permit per second, bursts of three
+        limiter = new RateLimiter("test", 1, 3, 1_024, now::get);
+    }
+
+    @Test
+    @DisplayName("Should admit the burst and then ask the client to wait")
+    void testBurstThenReject() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ip:1.2.3.4"), "Request " + i + " is within the burst");
+        }
+        long wait = limiter.tryAcquire("ip:1.2.3.4");
+        assertEquals(SECOND, wait);
+
+        RateLimiter.RateLimitStats stats = limiter.stats();
+        assertEquals(3, stats.allowed);
+        assertEquals(1, stats.rejected);
+    }
+
+    @Test
+    @DisplayName("Should refill one permit per interval")
+    void testRefill() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("user:3");
+        }
+        assertTrue(limiter.tryAcquire("user:3") > 0);
+
+        now.addAndGet(SECOND);
+        assertEquals(0, limiter.tryAcquire("user:3"));
+        assertTrue(limiter.tryAcquire("user:3") > 0);
+    }
+
+    @Test
+    @DisplayName("Should keep separate buckets per client")
+    void testIndependentClients() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("user:3");
+        }
+        assertTrue(limiter.tryAcquire("user:3") > 0);
+        assertEquals(0, limiter.tryAcquire("user:4"));
+    }
+
+    @Test
+    @DisplayName("Should evict refilled buckets and cap the number tracked")
+    void testEviction() {
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("ip:10.0.0." + i);
+        }
+        assertEquals(100, limiter.size());
+
+        now.addAndGet(SECOND);
+        assertEquals(100, limiter.evictIdle());
+        assertEquals(0, limiter.size());
+
+        // Far more clients than the cap, all still active
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("ip:client-" + i);
+        }
+        assertTrue(limiter.size() <= 1_024, "Buckets should stay within the cap, was " + limiter.size());
+    }
+
+    @Test
+    @DisplayName("Should never admit more than the burst under concurrency")
+    void testConcurrentCallers() throws InterruptedException {
+        int threads = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 10; j++) {
+                        if (limiter.tryAcquire("ip:9.9.9.9") == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(3, admitted.get());
+        assertEquals(threads * 10 - 3, limiter.stats().rejected);
+    }
+}
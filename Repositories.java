@@ -0,0 +1,509 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// ===================== SQL IMPLEMENTATIONS =====================
+
+/**
+ * PetRepository over PetDAO, for either SqlEngine
+ * Counters are updated after each write commits; PlatformStats.reconcile()
+ * corrects any drift from writers outside this process.
+ */
+class SqlPetRepository implements PetRepository {
+    private final PetDAO dao;
+    private final StatsDAO statsDAO;
+    private final PlatformStats stats;
+
+    SqlPetRepository(PetDAO dao, PlatformStats stats) {
+        this.dao = dao;
+        this.statsDAO = new StatsDAO(dao.engine);
+        this.stats = stats;
+    }
+
+    @Override
+    public void add(Pet pet) throws DatabaseException {
+        dao.insertOne(pet);
+        stats.petAdded(pet.getShelterId(), pet.getAdoptionStatus(), pet.getApprovalStatus());
+    }
+
+    /**
+     * JDBC batches, one transaction per chunk
+     */
+    @Override
+    public void addAll(Collection<Pet> pets) throws DatabaseException {
+        dao.saveAll(pets);
+        for (Pet pet : pets) {
+            stats.petAdded(pet.getShelterId(), pet.getAdoptionStatus(), pet.getApprovalStatus());
+        }
+    }
+
+    @Override
+    public Pet findById(int id) throws DatabaseException {
+        return dao.findById(id);
+    }
+
+    @Override
+    public Collection<Pet> findAll() throws DatabaseException {
+        return dao.findAll();
+    }
+
+    @Override
+    public List<Pet> findAll(int afterId, int limit) throws DatabaseException {
+        return dao.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<Pet> findByAdoptionStatus(String status, int afterId, int limit) throws DatabaseException {
+        return dao.findByStatus(status, afterId, limit);
+    }
+
+    @Override
+    public List<Pet> findByApprovalStatus(String status, int afterId, int limit) throws DatabaseException {
+        return dao.findByApprovalStatus(status, afterId, limit);
+    }
+
+    @Override
+    public List<Pet> findByType(String type) throws DatabaseException {
+        return dao.findByType(type);
+    }
+
+    @Override
+    public List<Pet> findByShelter(int shelterId) throws DatabaseException {
+        return dao.findByShelter(shelterId);
+    }
+
+    @Override
+    public List<Pet> search(String query, int limit) throws DatabaseException {
+        return dao.search(query, limit);
+    }
+
+    @Override
+    public boolean updateAdoptionStatus(int id, String status) throws DatabaseException {
+        Pet before = dao.updateAdoptionStatus(id, status);
+        if (before == null) {
+            return false;
+        }
+        stats.petAdoptionStatusChanged(before.getShelterId(), before.getAdoptionStatus(), status);
+        return true;
+    }
+
+    @Override
+    public boolean updateApprovalStatus(int id, String status) throws DatabaseException {
+        Pet before = dao.updateApprovalStatus(id, status);
+        if (before == null) {
+            return false;
+        }
+        stats.petApprovalStatusChanged(before.getShelterId(), before.getApprovalStatus(), status);
+        return true;
+    }
+
+    @Override
+    public Pet remove(int id) throws DatabaseException {
+        Pet pet = dao.findById(id);
+        if (pet == null || !dao.deleteOne(id)) {
+            return null;
+        }
+        stats.petRemoved(pet.getShelterId(), pet.getAdoptionStatus(), pet.getApprovalStatus());
+        return pet;
+    }
+
+    @Override
+    public int size() throws DatabaseException {
+        return dao.count();
+    }
+
+    @Override
+    public void recount(PlatformStats.Recount recount) throws DatabaseException {
+        statsDAO.countPets(recount);
+    }
+}
+
+/**
+ * ApplicationRepository over ApplicationDAO, for either SqlEngine
+ */
+class SqlApplicationRepository implements ApplicationRepository {
+    private final ApplicationDAO dao;
+    private final StatsDAO statsDAO;
+    private final PlatformStats stats;
+
+    SqlApplicationRepository(ApplicationDAO dao, PlatformStats stats) {
+        this.dao = dao;
+        this.statsDAO = new StatsDAO(dao.engine);
+        this.stats = stats;
+    }
+
+    @Override
+    public Application submit(int adopterId, int petId, int shelterId, String notes) throws DatabaseException {
+        Application application = new Application(0, adopterId, petId, notes);
+        application.setShelterId(shelterId);
+        if (!dao.submit(application)) {
+            return null;
+        }
+        stats.applicationAdded(shelterId, application.getStatus());
+        return application;
+    }
+
+    @Override
+    public void add(Application application) throws DatabaseException {
+        dao.insertOne(application);
+        stats.applicationAdded(application.getShelterId(), application.getStatus());
+    }
+
+    @Override
+    public Application findById(int id) throws DatabaseException {
+        return dao.findById(id);
+    }
+
+    @Override
+    public Collection<Application> findAll() throws DatabaseException {
+        return dao.findAll();
+    }
+
+    @Override
+    public List<Application> findByAdopter(int adopterId) throws DatabaseException {
+        return dao.findByAdopter(adopterId);
+    }
+
+    @Override
+    public List<Application> findByPet(int petId) throws DatabaseException {
+        return dao.findApplicationsForPet(petId);
+    }
+
+    @Override
+    public List<Application> findByShelter(int shelterId) throws DatabaseException {
+        return dao.findByShelter(shelterId);
+    }
+
+    @Override
+    public Application findActive(int adopterId, int petId) throws DatabaseException {
+        return dao.findActive(adopterId, petId);
+    }
+
+    @Override
+    public int updateStatus(int id, String status) throws DatabaseException {
+        ApplicationDAO.StatusChange change = dao.updateStatus(id, status);
+        if (change.outcome == UPDATED) {
+            Application before = change.before;
+            stats.applicationStatusChanged(before.getShelterId(), before.getStatus(), status);
+        }
+        return change.outcome;
+    }
+
+    @Override
+    public Application remove(int id) throws DatabaseException {
+        Application application = dao.findById(id);
+        if (application == null || !dao.deleteOne(id)) {
+            return null;
+        }
+        stats.applicationRemoved(application.getShelterId(), application.getStatus());
+        return application;
+    }
+
+    @Override
+    public int size() throws DatabaseException {
+        return dao.count();
+    }
+
+    @Override
+    public void recount(PlatformStats.Recount recount) throws DatabaseException {
+        statsDAO.countApplications(recount);
+    }
+}
+
+/**
+ * UserRepository over UserDAO, for either SqlEngine
+ */
+class SqlUserRepository implements UserRepository {
+    private final UserDAO dao;
+    private final PlatformStats stats;
+
+    SqlUserRepository(UserDAO dao, PlatformStats stats) {
+        this.dao = dao;
+        this.stats = stats;
+    }
+
+    @Override
+    public void add(User user) throws DatabaseException {
+        dao.insertOne(user);
+        stats.userAdded();
+    }
+
+    @Override
+    public User findById(int id) throws DatabaseException {
+        return dao.findById(id);
+    }
+
+    @Override
+    public User findByEmail(String email) throws DatabaseException {
+        return dao.findByEmail(email);
+    }
+
+    @Override
+    public Collection<User> findAll() throws DatabaseException {
+        return dao.findAll();
+    }
+
+    @Override
+    public void update(User user) throws DatabaseException {
+        dao.updateOne(user);
+    }
+
+    @Override
+    public User remove(int id) throws DatabaseException {
+        User user = dao.findById(id);
+        if (user == null || !dao.deleteOne(id)) {
+            return null;
+        }
+        stats.userRemoved();
+        return user;
+    }
+
+    @Override
+    public int size() throws DatabaseException {
+        return dao.count();
+    }
+}
+
+// ===================== FACTORY =====================
+
+/**
+ * Repositories - One storage engine behind every PetRepository, ApplicationRepository and UserRepository
+ * The servlets (through web()) and PetAdoptionBackend program against the
+ * SPI only, so the engine is chosen by configuration:
+ * - petadoption.repository=memory (default): PetStore, ApplicationStore and UserStore,
+ *   made durable by DurableStore's write-ahead log when petadoption.wal.dir is set
+ * - petadoption.repository=sqlite: the DAOs over an embedded SQLiteEngine (petadoption.sqlite.*)
+ * - petadoption.repository=mysql: the DAOs over DatabaseConnection's pool (petadoption.db.*)
+ * With petadoption.repository.cache=true the SQL engines read users and pets
+ * through CachedUserDAO and CachedPetDAO.
+ *
+ * Every implementation keeps the given PlatformStats up to date; the SQL ones
+ * start it from a recount of the stored rows.
+ */
+public final class Repositories implements AutoCloseable {
+    static final String MEMORY = "memory";
+    static final String SQLITE = "sqlite";
+    static final String MYSQL = "mysql";
+
+    final PetRepository pets;
+    final ApplicationRepository applications;
+    final UserRepository users;
+    // The console backend's messages: always in memory, logged with everything else when durable
+    final MessageStore messages;
+    private final PlatformStats stats;
+    private final Config config;
+    private final AutoCloseable engine; // closed with the repositories, null if shared
+
+    /**
+     * Which engine backs the repositories
+     */
+    static final class Config {
+        final String engine;
+        final boolean cached;
+
+        Config(String engine, boolean cached) {
+            if (!MEMORY.equals(engine) && !SQLITE.equals(engine) && !MYSQL.equals(engine)) {
+                throw new IllegalArgumentException("Unknown repository engine: " + engine
+                        + " (expected " + MEMORY + ", " + SQLITE + " or " + MYSQL + ")");
+            }
+            this.engine = engine;
+            this.cached = cached;
+        }
+
+        static Config fromSystemProperties() {
+            return new Config(System.getProperty("petadoption.repository", MEMORY).trim().toLowerCase(),
+                    Boolean.getBoolean("petadoption.repository.cache"));
+        }
+
+        @Override
+        public String toString() {
+            return engine + (cached && !MEMORY.equals(engine) ? " (cached)" : "");
+        }
+    }
+
+    private Repositories(PetRepository pets, ApplicationRepository applications, UserRepository users,
+            MessageStore messages, PlatformStats stats, Config config, AutoCloseable engine) {
+        this.pets = pets;
+        this.applications = applications;
+        this.users = users;
+        this.messages = messages;
+        this.stats = stats;
+        this.config = config;
+        this.engine = engine;
+    }
+
+    /**
+     * Open the configured engine's repositories, counting into stats
+     */
+    static Repositories open(Config config, PlatformStats stats) throws DatabaseException {
+        switch (config.engine) {
+            case SQLITE: {
+                SQLiteEngine engine = SQLiteEngine.open(SQLiteEngine.Config.fromSystemProperties());
+                return sql(engine, config, stats, engine);
+            }
+            case MYSQL:
+                // The pool is shared with the rest of the process and closed by DatabaseConnection
+                return sql(MySqlEngine.INSTANCE, config, stats, null);
+            default: {
+                DurableStore.Config wal = DurableStore.Config.fromSystemProperties();
+                if (wal.enabled()) {
+                    DurableStore durable = DurableStore.open(wal, stats);
+                    return new Repositories(durable.pets, durable.applications, durable.users, durable.messages,
+                            stats, config, durable);
+                }
+                return new Repositories(new PetStore(stats), new ApplicationStore(stats), new UserStore(stats),
+                        new MessageStore(), stats, config, null);
+            }
+        }
+    }
+
+    /**
+     * SQL repositories over an engine; reads users and pets through the caches if configured
+     */
+    static Repositories sql(SqlEngine engine, Config config, PlatformStats stats, AutoCloseable owned)
+            throws DatabaseException {
+        PetDAO petDAO = config.cached ? new CachedPetDAO(engine) : new PetDAO(engine);
+        UserDAO userDAO = config.cached ? new CachedUserDAO(engine) : new UserDAO(engine);
+        Repositories repositories = new Repositories(new SqlPetRepository(petDAO, stats),
+                new SqlApplicationRepository(new ApplicationDAO(engine), stats), new SqlUserRepository(userDAO, stats),
+                new MessageStore(), stats, config, owned);
+        repositories.reconcile();
+        return repositories;
+    }
+
+    /**
+     * Users over a DAO the caller already holds, for logins outside a full set of repositories
+     */
+    static UserRepository users(UserDAO dao, PlatformStats stats) {
+        return new SqlUserRepository(dao, stats);
+    }
+
+    /**
+     * The web tier's repositories, counted in PlatformStats.DEFAULT and seeded with the demo data if
+     * demoData() allows; opened on first use, so the console backend's own repositories never open them
+     */
+    static Repositories web() {
+        return Web.INSTANCE;
+    }
+
+    private static final class Web {
+        static final Repositories INSTANCE = openWeb();
+    }
+
+    private static volatile Repositories openedWeb; // set once web() has opened them
+
+    private static Repositories openWeb() {
+        Config config = Config.fromSystemProperties();
+        try {
+            Repositories repositories = open(config, PlatformStats.DEFAULT);
+            if (repositories.demoData()) {
+                repositories.seedDemoData();
+            }
+            openedWeb = repositories;
+            return repositories;
+        } catch (DatabaseException e) {
+            throw new IllegalStateException("Cannot open " + config + " repositories: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Close the web tier's repositories when the server stops, if anything opened them
+     */
+    static void closeWeb() throws DatabaseException {
+        Repositories repositories = openedWeb;
+        if (repositories != null) {
+            repositories.close();
+        }
+    }
+
+    Config config() {
+        return config;
+    }
+
+    /**
+     * Whether the data outlives the process: a SQL engine, or the in-memory stores with a write-ahead log
+     */
+    boolean durable() {
+        return !MEMORY.equals(config.engine) || engine != null;
+    }
+
+    /**
+     * Whether to load the demo accounts, whose passwords are public: by default only into storage that
+     * forgets them on exit; petadoption.demoData=true or false overrides
+     */
+    boolean demoData() {
+        return Boolean.parseBoolean(System.getProperty("petadoption.demoData", String.valueOf(!durable())));
+    }
+
+    /**
+     * Recount every user, pet and application and correct the counters
+     * @return number of counters that had drifted
+     */
+    int reconcile() throws DatabaseException {
+        PlatformStats.Recount recount = stats.startRecount();
+        recount.users(users.size());
+        pets.recount(recount);
+        applications.recount(recount);
+        return stats.reconcile(recount);
+    }
+
+    /**
+     * The web tier's demo accounts, pets and applications; each is only added to an empty repository,
+     * so a database keeps whatever it already holds. Callers check demoData() first.
+     */
+    void seedDemoData() throws DatabaseException {
+        if (users.size() == 0) {
+            users.add(new User(0, "Admin User", "admin@petadoption.com", "admin", "admin123"));
+            users.add(new User(0, "Happy Paws Shelter", "shelter@happypaws.com", "shelter", "shelter123"));
+            users.add(new User(0, "John Adopter", "john@email.com", "adopter", "john123"));
+            users.add(new User(0, "Sarah Adopter", "sarah@email.com", "adopter", "sarah123"));
+        }
+        User shelter = users.findByEmail("shelter@happypaws.com");
+        if (pets.size() == 0 && shelter != null) {
+            List<Pet> demo = new ArrayList<>();
+            demo.add(demoPet(shelter.getId(), "Buddy", "Dog", "Golden Retriever", 3, "Friendly and loyal",
+                    "available", "approved"));
+            demo.add(demoPet(shelter.getId(), "Whiskers", "Cat", "Persian", 2, "Calm and affectionate",
+                    "available", "approved"));
+            demo.add(demoPet(shelter.getId(), "Hoppy", "Rabbit", "Holland Lop", 1, "Energetic bunny",
+                    "pending", "pending"));
+            for (Pet pet : demo) {
+                pets.add(pet);
+            }
+            User john = users.findByEmail("john@email.com");
+            User sarah = users.findByEmail("sarah@email.com");
+            if (applications.size() == 0 && john != null && sarah != null) {
+                applications.submit(john.getId(), demo.get(0).getId(), shelter.getId(),
+                        "I love dogs and have a big backyard!");
+                applications.submit(sarah.getId(), demo.get(1).getId(), shelter.getId(),
+                        "Cats are perfect for my apartment.");
+            }
+        }
+    }
+
+    private static Pet demoPet(int shelterId, String name, String type, String breed, int age, String description,
+            String adoptionStatus, String approvalStatus) {
+        Pet pet = new Pet(0, shelterId, name, type, breed, age, description);
+        pet.setAdoptionStatus(adoptionStatus);
+        pet.setApprovalStatus(approvalStatus);
+        return pet;
+    }
+
+    /**
+     * Close an embedded engine opened for these repositories (checkpointing its WAL),
+     * or snapshot and close the durable in-memory store
+     */
+    @Override
+    public void close() throws DatabaseException {
+        if (engine == null) {
+            return;
+        }
+        try {
+            engine.close();
+        } catch (DatabaseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException("Error closing " + config + " repositories: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RepositoriesTest - Unit tests for the repository SPI
+ * Runs the same scenario against the in-memory stores and the SQL repositories
+ * over an embedded database file in a temporary directory
+ *
+ * Coverage:
+ * - Pet paging, status lookups, type lookups and search
+ * - Duplicate active applications refused, also when submitted concurrently,
+ *   re-applying after rejection, and distinct status change outcomes
+ * - Status changes kept in the platform counters
+ * - Login and password hash upgrades, including legacy plaintext passwords
+ * - Engine configuration and reopening a database
+ * - Demo accounts only in non-durable storage unless asked for
+ */
+@DisplayName("Repository SPI Tests")
+public class RepositoriesTest {
+
+    @TempDir
+    Path dir;
+
+    private Repositories sqlite(String file, boolean cached, PlatformStats stats) throws DatabaseException {
+        SQLiteEngine engine = SQLiteEngine.open(new SQLiteEngine.Config(dir.resolve(file).toString(), 2, "NORMAL",
+                64L * 1024 * 1024, 2048, 1000, 2000, 16));
+        return Repositories.sql(engine, new Repositories.Config(Repositories.SQLITE, cached), stats, engine);
+    }
+
+    private static Pet pet(int shelterId, String name, String type, String breed) {
+        Pet pet = new Pet(0, shelterId, name, type, breed, 2, "Friendly");
+        pet.setApprovalStatus("approved");
+        return pet;
+    }
+
+    /**
+     * The behaviour every implementation must share
+     */
+    private static void exercise(Repositories repositories, PlatformStats stats) throws Exception {
+        User shelter = new User(0, "Shelter", "shelter@repo.test", "shelter", "shelter123");
+        User adopter = new User(0, "Adopter", "adopter@repo.test", "adopter", "adopter123");
+        repositories.users.add(shelter);
+        repositories.users.add(adopter);
+        assertTrue(shelter.getId() > 0 && adopter.getId() > shelter.getId());
+        assertEquals(adopter.getId(), repositories.users.findByEmail("adopter@repo.test").getId());
+
+        PetRepository pets = repositories.pets;
+        Pet max = pet(shelter.getId(), "Max", "Dog", "Beagle");
+        pets.add(max);
+        Pet luna = pet(shelter.getId(), "Luna", "Cat", "Siamese");
+        pets.add(luna);
+        pets.add(pet(shelter.getId(), "Rex", "Dog", "Boxer"));
+        assertEquals(3, pets.size());
+
+        List<Pet> firstPage = pets.findAll(0, 2);
+        assertEquals(2, firstPage.size());
+        List<Pet> secondPage = pets.findAll(firstPage.get(1).getId(), 2);
+        assertEquals(1, secondPage.size());
+        assertEquals("Rex", secondPage.get(0).getName());
+        assertEquals(2, pets.findByType("dog").size());
+        assertEquals("Max", pets.search("beagle", 10).get(0).getName());
+        assertEquals(3, pets.findByShelter(shelter.getId()).size());
+
+        assertTrue(pets.updateAdoptionStatus(max.getId(), "adopted"));
+        assertFalse(pets.updateAdoptionStatus(999_999, "adopted"));
+        assertEquals("adopted", pets.findById(max.getId()).getAdoptionStatus());
+        assertEquals(2, pets.findByAdoptionStatus("available", 0, 10).size());
+        assertEquals(1, stats.global().petsWithAdoptionStatus("adopted"));
+        assertEquals(1, stats.shelterCounters(shelter.getId()).petsWithAdoptionStatus("adopted"));
+
+        ApplicationRepository applications = repositories.applications;
+        Application app = applications.submit(adopter.getId(), max.getId(), shelter.getId(), "Big garden");
+        assertNotNull(app);
+        assertNull(applications.submit(adopter.getId(), max.getId(), shelter.getId(), "Again"),
+                "duplicate active application");
+        assertEquals(app.getId(), applications.findActive(adopter.getId(), max.getId()).getId());
+        assertEquals(shelter.getId(), applications.findById(app.getId()).getShelterId());
+
+        assertEquals(ApplicationRepository.UPDATED, applications.updateStatus(app.getId(), "rejected"));
+        assertNull(applications.findActive(adopter.getId(), max.getId()));
+        assertNotNull(applications.submit(adopter.getId(), max.getId(), shelter.getId(), "Second try"));
+        assertEquals(ApplicationRepository.CLASHED, applications.updateStatus(app.getId(), "submitted"),
+                "only one active application per adopter and pet");
+        assertEquals(ApplicationRepository.NOT_FOUND, applications.updateStatus(999_999, "approved"));
+        assertEquals(2, applications.findByShelter(shelter.getId()).size());
+        assertEquals(2, applications.findByAdopter(adopter.getId()).size());
+        assertEquals(1, stats.global().applicationsWithStatus("rejected"));
+
+        assertEquals("Luna", pets.remove(luna.getId()).getName());
+        assertNull(pets.findById(luna.getId()));
+        assertEquals(2, pets.size());
+        assertEquals(0, repositories.reconcile(), "counters kept up to date");
+    }
+
+    @Test
+    @DisplayName("In-memory repositories follow the contract")
+    void testMemory() throws Exception {
+        PlatformStats stats = new PlatformStats();
+        try (Repositories repositories = Repositories.open(new Repositories.Config(Repositories.MEMORY, false),
+                stats)) {
+            assertTrue(repositories.pets instanceof PetStore);
+            assertTrue(repositories.demoData(), "nothing outlives the process");
+            exercise(repositories, stats);
+        }
+    }
+
+    @Test
+    @DisplayName("SQLite repositories follow the contract, with and without caching")
+    void testSqlite() throws Exception {
+        PlatformStats stats = new PlatformStats();
+        try (Repositories repositories = sqlite("pets.db", false, stats)) {
+            assertFalse(repositories.demoData(), "no public passwords in a database");
+            System.setProperty("petadoption.demoData", "true");
+            try {
+                assertTrue(repositories.demoData());
+            } finally {
+                System.clearProperty("petadoption.demoData");
+            }
+            exercise(repositories, stats);
+        }
+
+        PlatformStats cachedStats = new PlatformStats();
+        try (Repositories repositories = sqlite("cached.db", true, cachedStats)) {
+            exercise(repositories, cachedStats);
+        }
+    }
+
+    /**
+     * Identical submissions racing each other: exactly one is stored
+     */
+    private static void submitConcurrently(Repositories repositories) throws Exception {
+        User adopter = new User(0, "Racer", "racer@repo.test", "adopter", "racer123");
+        repositories.users.add(adopter);
+        Pet pet = pet(adopter.getId(), "Dash", "Dog", "Whippet");
+        repositories.pets.add(pet);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Application>> submissions = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                submissions.add(executor.submit(() -> {
+                    start.await();
+                    return repositories.applications.submit(adopter.getId(), pet.getId(), 0, "Me!");
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<Application> submission : submissions) {
+                if (submission.get(30, TimeUnit.SECONDS) != null) {
+                    accepted++;
+                }
+            }
+            assertEquals(1, accepted);
+            assertEquals(1, repositories.applications.findByPet(pet.getId()).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Only one of several identical concurrent submissions is stored")
+    void testConcurrentSubmit() throws Exception {
+        try (Repositories repositories = Repositories.open(new Repositories.Config(Repositories.MEMORY, false),
+                new PlatformStats())) {
+            submitConcurrently(repositories);
+        }
+        try (Repositories repositories = sqlite("race.db", false, new PlatformStats())) {
+            submitConcurrently(repositories);
+        }
+    }
+
+    @Test
+    @DisplayName("Login verifies the password and upgrades old hashes")
+    void testLoginRehash() throws Exception {
+        UserRepository users = new UserStore();
+        String oldHash = PasswordHasher.hash("secret123", Math.max(1, PasswordHasher.ITERATIONS / 2));
+        users.add(User.fromStorage(0, "Old", "old@repo.test", "adopter", oldHash));
+
+        assertNull(users.login("old@repo.test", "wrong"));
+        assertNull(users.login("nobody@repo.test", "secret123"));
+        assertEquals(oldHash, users.findByEmail("old@repo.test").getPasswordHash());
+
+        User user = users.login("old@repo.test", "secret123");
+        assertNotNull(user);
+        assertNotEquals(oldHash, user.getPasswordHash(), "hash upgraded");
+        assertFalse(PasswordHasher.needsRehash(users.findByEmail("old@repo.test").getPasswordHash()));
+        assertNotNull(users.login("old@repo.test", "secret123"));
+
+        // Stored before passwords were hashed
+        users.add(User.fromStorage(0, "Legacy", "legacy@repo.test", "adopter", "plain123"));
+        assertNull(users.login("legacy@repo.test", "plain124"));
+        User legacy = users.login("legacy@repo.test", "plain123");
+        assertNotNull(legacy);
+        assertFalse(PasswordHasher.isLegacy(users.findByEmail("legacy@repo.test").getPasswordHash()),
+                "plaintext replaced with a hash");
+        assertNotNull(users.login("legacy@repo.test", "plain123"));
+    }
+
+    @Test
+    @DisplayName("A reopened database keeps its rows and is not seeded twice")
+    void testReopenSqlite() throws Exception {
+        try (Repositories repositories = sqlite("pets.db", false, new PlatformStats())) {
+            repositories.seedDemoData();
+            repositories.seedDemoData();
+            assertEquals(4, repositories.users.size());
+            assertEquals(3, repositories.pets.size());
+            assertEquals(2, repositories.applications.size());
+        }
+
+        PlatformStats stats = new PlatformStats();
+        try (Repositories repositories = sqlite("pets.db", false, stats)) {
+            repositories.seedDemoData();
+            assertEquals(3, repositories.pets.size());
+            assertEquals(4, stats.users(), "counters recounted on open");
+            assertEquals(2, stats.global().petsWithAdoptionStatus("available"));
+            assertNotNull(repositories.users.login("john@email.com", "john123"));
+        }
+    }
+
+    @Test
+    @DisplayName("Only known engines are accepted")
+    void testConfig() {
+        assertThrows(IllegalArgumentException.class, () -> new Repositories.Config("postgres", false));
+        assertEquals("sqlite (cached)", new Repositories.Config(Repositories.SQLITE, true).toString());
+        assertEquals("memory", new Repositories.Config(Repositories.MEMORY, true).toString());
+        assertEquals(Repositories.MEMORY, Repositories.Config.fromSystemProperties().engine);
+    }
+}
@@ -0,0 +1,147 @@
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * RequestDeadline - Time budget of the request running on the current thread
+ * AsyncHttpServlet starts one per request; BaseDAO applies it to every JDBC
+ * statement (setQueryTimeout with the remaining time) and registers the
+ * statement so a request that runs out of time can cancel it from outside.
+ * The engine releases the statement before its connection goes back to the
+ * pool, so a late cancel never reaches another request's query.
+ * Code running without a deadline (console apps, tests) is unaffected.
+ */
+public final class RequestDeadline {
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private Statement running; // guarded by this
+    private volatile boolean cancelled;
+    private volatile boolean exceeded; // work failed with ExceededException
+
+    /**
+     * Thrown when work continues past its request's deadline
+     */
+    public static class ExceededException extends RuntimeException {
+        public ExceededException(String message) {
+            super(message);
+        }
+
+        public ExceededException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    RequestDeadline(long timeoutMillis) {
+        this.deadlineNanos = System.nanoTime() + timeoutMillis * 1_000_000L;
+    }
+
+    /**
+     * Deadline of the request on this thread, or null
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run the given work with this deadline attached to the current thread
+     */
+    void runWith(Runnable work) {
+        RequestDeadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            work.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    public boolean isExpired() {
+        return cancelled || System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Fail fast once the deadline has passed
+     */
+    public void check() {
+        if (isExpired()) {
+            exceeded = true;
+            throw new ExceededException("Request deadline exceeded");
+        }
+    }
+
+    /**
+     * Whether work under this deadline failed because it ran out of time (even if the
+     * failure was caught); a request that finished in time keeps its response
+     */
+    public boolean exceeded() {
+        return exceeded;
+    }
+
+    /**
+     * Cancel the statement that is running now, if any; later statements fail fast
+     */
+    public void cancel() {
+        cancelled = true;
+        // Under the lock, so the connection is not handed on while its statement is being cancelled
+        synchronized (this) {
+            if (running != null) {
+                try {
+                    running.cancel();
+                } catch (SQLException e) {
+                    // Already finished or driver cannot cancel; the query timeout still applies
+                }
+            }
+        }
+    }
+
+    /**
+     * Report a statement that failed because the request ran out of time
+     * (query timeout or cancel) as a deadline failure rather than a database error
+     */
+    public static void throwIfExpired(SQLException e) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            deadline.exceeded = true;
+            throw new ExceededException("Request deadline exceeded", e);
+        }
+    }
+
+    /**
+     * Bound a statement by the current thread's deadline, if there is one.
+     * The JDBC timeout is in whole seconds, so it is rounded up.
+     */
+    public static void applyTo(Statement statement) throws SQLException {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return;
+        }
+        deadline.check();
+        long remaining = deadline.remainingMillis();
+        statement.setQueryTimeout((int) Math.max(1, (remaining + 999) / 1000));
+        synchronized (deadline) {
+            deadline.running = statement;
+        }
+    }
+
+    /**
+     * Forget the current thread's registered statement. Engines call this before handing
+     * its connection back: the statement may be reused by another request (an SQLite
+     * cancel interrupts whatever runs on the connection), so it must not be cancelled now.
+     */
+    public static void releaseStatement() {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            synchronized (deadline) {
+                deadline.running = null;
+            }
+        }
+    }
+}
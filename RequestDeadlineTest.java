@@ -0,0 +1,147 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RequestDeadlineTest - Unit tests for RequestDeadline
+ * Tests how a request's time budget bounds its JDBC statements
+ *
+ * Coverage:
+ * - No deadline outside a request
+ * - Query timeout from the remaining time
+ * - Cancelling the running statement, never one already released
+ * - Expired deadlines fail fast
+ * - Timeout errors reported as deadline failures
+ * - Only requests that ran into their deadline count as exceeded
+ */
+@DisplayName("RequestDeadline Tests")
+public class RequestDeadlineTest {
+
+    /**
+     * Statement double recording setQueryTimeout and cancel calls
+     */
+    private static Statement recordingStatement(List<String> calls) {
+        return (Statement) Proxy.newProxyInstance(RequestDeadlineTest.class.getClassLoader(),
+                new Class<?>[] { Statement.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "setQueryTimeout":
+                            calls.add("timeout=" + args[0]);
+                            return null;
+                        case "cancel":
+                            calls.add("cancel");
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Test
+    @DisplayName("Should leave statements alone without a deadline")
+    void testNoDeadline() throws SQLException {
+        List<String> calls = new ArrayList<>();
+        assertNull(RequestDeadline.current());
+        RequestDeadline.applyTo(recordingStatement(calls));
+        RequestDeadline.throwIfExpired(new SQLException("boom"));
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should set the query timeout from the remaining time")
+    void testQueryTimeout() {
+        List<String> calls = new ArrayList<>();
+        new RequestDeadline(2_500).runWith(() -> {
+            try {
+                RequestDeadline.applyTo(recordingStatement(calls));
+            } catch (SQLException e) {
+                fail(e);
+            }
+        });
+        assertEquals(List.of("timeout=3"), calls);
+        assertNull(RequestDeadline.current(), "Deadline should be detached after the request");
+    }
+
+    @Test
+    @DisplayName("Should cancel the running statement")
+    void testCancel() {
+        List<String> calls = new ArrayList<>();
+        RequestDeadline deadline = new RequestDeadline(10_000);
+        deadline.runWith(() -> {
+            try {
+                RequestDeadline.applyTo(recordingStatement(calls));
+            } catch (SQLException e) {
+                fail(e);
+            }
+        });
+        deadline.cancel();
+        assertTrue(deadline.isExpired());
+        assertEquals(List.of("timeout=10", "cancel"), calls);
+    }
+
+    @Test
+    @DisplayName("Should not cancel a statement whose connection was handed back")
+    void testReleasedStatement() {
+        List<String> calls = new ArrayList<>();
+        RequestDeadline deadline = new RequestDeadline(10_000);
+        deadline.runWith(() -> {
+            try {
+                RequestDeadline.applyTo(recordingStatement(calls));
+            } catch (SQLException e) {
+                fail(e);
+            }
+            RequestDeadline.releaseStatement();
+        });
+        deadline.cancel();
+        assertTrue(deadline.isExpired());
+        assertEquals(List.of("timeout=10"), calls);
+    }
+
+    @Test
+    @DisplayName("Should refuse new statements once expired")
+    void testExpired() {
+        List<String> calls = new ArrayList<>();
+        RequestDeadline deadline = new RequestDeadline(0);
+        assertTrue(deadline.isExpired());
+        assertEquals(0, deadline.remainingMillis());
+        deadline.runWith(() -> assertThrows(RequestDeadline.ExceededException.class,
+                () -> RequestDeadline.applyTo(recordingStatement(calls))));
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report timeout errors as deadline failures")
+    void testThrowIfExpired() {
+        SQLException timeout = new SQLException("Query timed out");
+        new RequestDeadline(0).runWith(() -> {
+            RequestDeadline.ExceededException e = assertThrows(RequestDeadline.ExceededException.class,
+                    () -> RequestDeadline.throwIfExpired(timeout));
+            assertSame(timeout, e.getCause());
+        });
+        new RequestDeadline(10_000).runWith(() -> assertDoesNotThrow(() -> RequestDeadline.throwIfExpired(timeout)));
+    }
+
+    @Test
+    @DisplayName("Should only count work that ran into the deadline as exceeded")
+    void testExceeded() {
+        RequestDeadline finished = new RequestDeadline(0);
+        finished.runWith(() -> { });
+        assertTrue(finished.isExpired());
+        assertFalse(finished.exceeded(), "Work that finished keeps its response");
+
+        RequestDeadline caught = new RequestDeadline(10_000);
+        caught.runWith(() -> {
+            caught.cancel();
+            try {
+                RequestDeadline.throwIfExpired(new SQLException("Statement cancelled"));
+            } catch (RequestDeadline.ExceededException e) {
+                // A servlet's catch-all swallows it
+            }
+        });
+        assertTrue(caught.exceeded());
+    }
+}
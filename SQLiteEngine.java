@@ -0,0 +1,536 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SQLiteEngine - Embedded SQLite storage for the DAOs, no database server needed
+ * Pass it to a DAO (new PetDAO(engine), new CachedUserDAO(engine), ...) and the
+ * DAO's statements run against a local file instead of the MySQL pool.
+ *
+ * The database runs in WAL mode, so readers never block the writer and the
+ * writer never blocks readers:
+ * - writes go through one writer connection; callers queue for it in arrival
+ *   order (a fair lock), which also avoids SQLITE_BUSY between our own writers
+ * - reads borrow one of several query_only reader connections
+ * - each connection keeps its prepared statements, so a repeated query is
+ *   parsed and planned once per connection
+ *
+ * Configured with petadoption.sqlite.* system properties (see Config).
+ */
+class SQLiteEngine implements SqlEngine, AutoCloseable {
+    private static final Set<String> SYNCHRONOUS_MODES = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+
+    private final Config config;
+    private final ReentrantLock writeLock = new ReentrantLock(true);
+    private final Session writer;
+    // Most recently used first, so a warm connection and its statements are reused
+    private final LinkedBlockingDeque<Session> idleReaders;
+    private volatile boolean closed = false;
+
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder prepared = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder totalWriteWaitNanos = new LongAdder();
+    private final LongAccumulator maxWriteWaitNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Engine settings, read from system properties (e.g. -Dpetadoption.sqlite.path=/var/lib/pets.db)
+     */
+    static final class Config {
+        final String path;
+        final int readers;
+        final String synchronous;
+        final long mmapBytes;
+        final int cacheKib;
+        final int busyTimeoutMillis;
+        final long waitMillis;
+        final int statementCacheSize;
+
+        Config(String path, int readers, String synchronous, long mmapBytes, int cacheKib,
+                int busyTimeoutMillis, long waitMillis, int statementCacheSize) {
+            if (readers < 1 || statementCacheSize < 1) {
+                throw new IllegalArgumentException("Invalid SQLite settings: readers=" + readers
+                        + ", statementCache=" + statementCacheSize);
+            }
+            // Spliced into a PRAGMA, so only the documented values are accepted
+            if (!SYNCHRONOUS_MODES.contains(synchronous.toUpperCase())) {
+                throw new IllegalArgumentException("Unknown synchronous mode: " + synchronous
+                        + " (expected " + SYNCHRONOUS_MODES + ")");
+            }
+            this.path = path;
+            this.readers = readers;
+            this.synchronous = synchronous.toUpperCase();
+            this.mmapBytes = mmapBytes;
+            this.cacheKib = cacheKib;
+            this.busyTimeoutMillis = busyTimeoutMillis;
+            this.waitMillis = waitMillis;
+            this.statementCacheSize = statementCacheSize;
+        }
+
+        /**
+         * Defaults suit a single node: NORMAL sync is durable across application
+         * crashes in WAL mode (a power loss can drop the last commits), 256 MiB of
+         * the file memory-mapped and a 16 MiB page cache per connection
+         */
+        static Config fromSystemProperties() {
+            return new Config(
+                    System.getProperty("petadoption.sqlite.path", "pet_adoption.db"),
+                    Integer.getInteger("petadoption.sqlite.readers",
+                            Math.max(2, Runtime.getRuntime().availableProcessors())),
+                    System.getProperty("petadoption.sqlite.synchronous", "NORMAL"),
+                    Long.getLong("petadoption.sqlite.mmapBytes", 256L * 1024 * 1024),
+                    Integer.getInteger("petadoption.sqlite.cacheKib", 16 * 1024),
+                    Integer.getInteger("petadoption.sqlite.busyTimeoutMs", 5000),
+                    Long.getLong("petadoption.sqlite.waitMs", 5000),
+                    Integer.getInteger("petadoption.sqlite.statementCache", 64));
+        }
+    }
+
+    /**
+     * Point-in-time view of the engine counters
+     */
+    static final class Metrics {
+        final long reads;
+        final long writes;
+        final long timeouts;
+        final int idleReaders;
+        final long statementsPrepared;
+        final long statementsReused;
+        final double avgWriteWaitMillis;
+        final double maxWriteWaitMillis;
+
+        Metrics(long reads, long writes, long timeouts, int idleReaders, long statementsPrepared,
+                long statementsReused, double avgWriteWaitMillis, double maxWriteWaitMillis) {
+            this.reads = reads;
+            this.writes = writes;
+            this.timeouts = timeouts;
+            this.idleReaders = idleReaders;
+            this.statementsPrepared = statementsPrepared;
+            this.statementsReused = statementsReused;
+            this.avgWriteWaitMillis = avgWriteWaitMillis;
+            this.maxWriteWaitMillis = maxWriteWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("reads=%d writes=%d timeouts=%d idleReaders=%d prepared=%d reused=%d "
+                    + "avgWriteWait=%.3fms maxWriteWait=%.3fms",
+                    reads, writes, timeouts, idleReaders, statementsPrepared, statementsReused,
+                    avgWriteWaitMillis, maxWriteWaitMillis);
+        }
+    }
+
+    private SQLiteEngine(Config config) throws SQLException {
+        this.config = config;
+        this.idleReaders = new LinkedBlockingDeque<>(config.readers);
+        this.writer = open(false);
+        List<Session> readers = new ArrayList<>();
+        try {
+            createTables(writer.conn);
+            for (int i = 0; i < config.readers; i++) {
+                Session reader = open(true);
+                readers.add(reader);
+                idleReaders.add(reader);
+            }
+        } catch (SQLException e) {
+            closeQuietly(writer);
+            for (Session reader : readers) {
+                closeQuietly(reader);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Open (creating if needed) the database file, switch it to WAL and create the schema
+     */
+    static SQLiteEngine open(Config config) throws DatabaseException {
+        try {
+            SQLiteEngine engine = new SQLiteEngine(config);
+            System.out.println("✓ SQLite database '" + config.path + "' ready (WAL, " + config.readers
+                    + " readers)");
+            return engine;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to open SQLite database " + config.path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Session open(boolean reader) throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:sqlite:" + config.path);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + config.busyTimeoutMillis);
+            if (!reader) {
+                // Stored in the file, so readers opened afterwards are in WAL mode as well
+                try (ResultSet rs = stmt.executeQuery("PRAGMA journal_mode = WAL")) {
+                    String mode = rs.next() ? rs.getString(1) : null;
+                    if (!"wal".equalsIgnoreCase(mode)) {
+                        throw new SQLException("WAL journaling not available (journal_mode=" + mode + ")");
+                    }
+                }
+            }
+            stmt.execute("PRAGMA synchronous = " + config.synchronous);
+            stmt.execute("PRAGMA mmap_size = " + config.mmapBytes);
+            // Negative cache_size is in KiB rather than pages
+            stmt.execute("PRAGMA cache_size = -" + config.cacheKib);
+            stmt.execute("PRAGMA temp_store = MEMORY");
+            stmt.execute("PRAGMA foreign_keys = ON");
+            if (reader) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return new Session(conn);
+    }
+
+    /**
+     * The MySQL schema in SQLite terms; updated_at is kept by triggers instead of ON UPDATE
+     */
+    private static void createTables(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "name TEXT NOT NULL," +
+                    "email TEXT UNIQUE NOT NULL," +
+                    "role TEXT NOT NULL," +
+                    "password TEXT NOT NULL," +
+                    "created_at TEXT DEFAULT CURRENT_TIMESTAMP," +
+                    "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS pets (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "shelter_id INTEGER NOT NULL," +
+                    "name TEXT NOT NULL," +
+                    "type TEXT NOT NULL," +
+                    "breed TEXT NOT NULL," +
+                    "age INTEGER NOT NULL," +
+                    "description TEXT," +
+                    "adoption_status TEXT DEFAULT 'available'," +
+                    "approval_status TEXT DEFAULT 'pending'," +
+                    "created_at TEXT DEFAULT CURRENT_TIMESTAMP," +
+                    "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS applications (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "adopter_id INTEGER NOT NULL REFERENCES users(id)," +
+                    "pet_id INTEGER NOT NULL REFERENCES pets(id)," +
+                    "status TEXT DEFAULT 'submitted'," +
+                    "application_notes TEXT," +
+                    // Epoch milliseconds, like messages.sent_at: ApplicationDAO binds it as a Timestamp
+                    "created_at INTEGER NOT NULL," +
+                    "updated_at TEXT DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+            // sent_at holds epoch milliseconds, which is how the driver binds a Timestamp
+            stmt.execute("CREATE TABLE IF NOT EXISTS messages (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "sender_id INTEGER NOT NULL REFERENCES users(id)," +
+                    "recipient_id INTEGER NOT NULL REFERENCES users(id)," +
+                    "content TEXT NOT NULL," +
+                    "sent_at INTEGER NOT NULL" +
+                    ")");
+            // Rows written before types were normalised (see Pet.normalizeType)
+            String normalizedType = "UPPER(SUBSTR(type, 1, 1)) || LOWER(SUBSTR(type, 2))";
+            stmt.executeUpdate("UPDATE pets SET type = " + normalizedType + " WHERE type <> " + normalizedType);
+            for (String table : new String[] { "users", "pets", "applications" }) {
+                stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_updated AFTER UPDATE ON " + table
+                        + " FOR EACH ROW WHEN NEW.updated_at = OLD.updated_at BEGIN UPDATE " + table
+                        + " SET updated_at = CURRENT_TIMESTAMP WHERE id = NEW.id; END");
+            }
+
+            // Same secondary indexes as the MySQL schema
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_pets_adoption_status ON pets (adoption_status, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_pets_approval_status ON pets (approval_status, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_pets_shelter ON pets (shelter_id, adoption_status)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_pets_type ON pets (type, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_applications_pet ON applications (pet_id, status)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_applications_adopter ON applications (adopter_id, pet_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_applications_status ON applications (status, id)");
+            // One active application per adopter and pet
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_applications_active"
+                    + " ON applications (adopter_id, pet_id) WHERE " + ApplicationDAO.ACTIVE);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_messages_recipient ON messages (recipient_id, sent_at)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_messages_conversation"
+                    + " ON messages (sender_id, recipient_id, sent_at)");
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // ===================== READS AND WRITES =====================
+
+    @Override
+    public <R> R read(Work<R> work) throws SQLException, DatabaseException {
+        // Inside a write, read through the writer so the work sees its own uncommitted rows
+        if (writeLock.isHeldByCurrentThread()) {
+            reads.increment();
+            return work.run(writer);
+        }
+        Session reader = borrowReader();
+        try {
+            reads.increment();
+            return work.run(reader);
+        } finally {
+            RequestDeadline.releaseStatement();
+            returnReader(reader);
+        }
+    }
+
+    @Override
+    public <R> R write(Work<R> work) throws SQLException, DatabaseException {
+        long start = System.nanoTime();
+        acquireWriter();
+        try {
+            long waited = System.nanoTime() - start;
+            totalWriteWaitNanos.add(waited);
+            maxWriteWaitNanos.accumulate(waited);
+            writes.increment();
+            return work.run(writer);
+        } finally {
+            RequestDeadline.releaseStatement();
+            try {
+                // Never hand the next writer a transaction left open by failed work
+                if (!writer.conn.getAutoCommit()) {
+                    writer.conn.rollback();
+                    writer.conn.setAutoCommit(true);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean isDuplicateKey(SQLException e) {
+        // SQLITE_CONSTRAINT (19); the driver names the extended code in the message. Matched through
+        // plain JDBC so the backend still compiles without the driver on the classpath.
+        return e.getErrorCode() == 19 && e.getMessage() != null
+                && e.getMessage().contains("SQLITE_CONSTRAINT_UNIQUE");
+    }
+
+    /**
+     * Wait for our turn on the writer, bounded by the request deadline and petadoption.sqlite.waitMs
+     */
+    private void acquireWriter() throws DatabaseException {
+        long waitMillis = waitMillis();
+        boolean acquired;
+        try {
+            acquired = writeLock.tryLock(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupted while waiting for the SQLite writer", e);
+        }
+        if (!acquired) {
+            throw waitTimedOut("the SQLite writer", waitMillis);
+        }
+        if (closed) {
+            writeLock.unlock();
+            throw new DatabaseException("SQLite engine is closed");
+        }
+    }
+
+    private Session borrowReader() throws DatabaseException {
+        if (closed) {
+            throw new DatabaseException("SQLite engine is closed");
+        }
+        long waitMillis = waitMillis();
+        Session reader;
+        try {
+            reader = idleReaders.pollFirst(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupted while waiting for an SQLite reader", e);
+        }
+        if (reader == null) {
+            throw waitTimedOut("an SQLite reader", waitMillis);
+        }
+        return reader;
+    }
+
+    private void returnReader(Session reader) {
+        if (closed) {
+            closeQuietly(reader);
+        } else {
+            idleReaders.offerFirst(reader);
+        }
+    }
+
+    private long waitMillis() {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            deadline.check();
+            return Math.min(config.waitMillis, deadline.remainingMillis());
+        }
+        return config.waitMillis;
+    }
+
+    private DatabaseException waitTimedOut(String what, long waitMillis) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            deadline.check();
+        }
+        timeouts.increment();
+        return new DatabaseException("Timed out after " + waitMillis + "ms waiting for " + what
+                + " (" + metrics() + ")");
+    }
+
+    Metrics metrics() {
+        long writeCount = writes.sum();
+        return new Metrics(
+                reads.sum(),
+                writeCount,
+                timeouts.sum(),
+                idleReaders.size(),
+                prepared.sum(),
+                reused.sum(),
+                writeCount == 0 ? 0 : totalWriteWaitNanos.sum() / 1_000_000.0 / writeCount,
+                maxWriteWaitNanos.get() / 1_000_000.0);
+    }
+
+    /**
+     * Checkpoint the WAL into the database file and close every connection;
+     * readers still lent out are closed as they come back
+     */
+    @Override
+    public void close() throws DatabaseException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writeLock.lock();
+        try (Statement stmt = writer.conn.createStatement()) {
+            stmt.execute("PRAGMA optimize");
+            stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to checkpoint SQLite database: " + e.getMessage(), e);
+        } finally {
+            closeQuietly(writer);
+            writeLock.unlock();
+            Session reader;
+            while ((reader = idleReaders.poll()) != null) {
+                closeQuietly(reader);
+            }
+            System.out.println("✓ SQLite database '" + config.path + "' closed!");
+        }
+    }
+
+    private static void closeQuietly(Session session) {
+        try {
+            session.close();
+        } catch (SQLException ignored) {
+            // Closing anyway
+        }
+    }
+
+    // ===================== SESSION =====================
+
+    /**
+     * One SQLite connection and its prepared statements, most recently used kept
+     */
+    private final class Session implements SqlSession {
+        final Connection conn;
+        private final Map<String, PreparedStatement> statements;
+        private PreparedStatement lastInsertRowid;
+
+        Session(Connection conn) {
+            this.conn = conn;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= config.statementCacheSize) {
+                        return false;
+                    }
+                    try {
+                        eldest.getValue().close();
+                    } catch (SQLException ignored) {
+                        // Dropped from the cache either way
+                    }
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public Connection connection() {
+            return conn;
+        }
+
+        @Override
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement pstmt = statements.get(sql);
+            if (pstmt == null) {
+                pstmt = conn.prepareStatement(sql);
+                statements.put(sql, pstmt);
+                prepared.increment();
+            } else {
+                pstmt.clearParameters();
+                // A previous request's timeout must not carry over
+                pstmt.setQueryTimeout(0);
+                reused.increment();
+            }
+            RequestDeadline.applyTo(pstmt);
+            return pstmt;
+        }
+
+        @Override
+        public PreparedStatement prepareInsert(String sql) throws SQLException {
+            return prepare(sql);
+        }
+
+        /**
+         * Ids from last_insert_rowid(): with one writer and AUTOINCREMENT keys, the rows
+         * of a batch got consecutive ids ending at the last one inserted
+         */
+        @Override
+        public int[] generatedIds(PreparedStatement insert, int rows) throws SQLException {
+            if (lastInsertRowid == null) {
+                lastInsertRowid = conn.prepareStatement("SELECT last_insert_rowid()");
+            }
+            long last;
+            try (ResultSet rs = lastInsertRowid.executeQuery()) {
+                last = rs.next() ? rs.getLong(1) : 0;
+            }
+            if (last == 0) {
+                return new int[0];
+            }
+            int[] ids = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                ids[i] = (int) (last - rows + 1 + i);
+            }
+            return ids;
+        }
+
+        void close() throws SQLException {
+            try {
+                for (PreparedStatement pstmt : statements.values()) {
+                    pstmt.close();
+                }
+                if (lastInsertRowid != null) {
+                    lastInsertRowid.close();
+                }
+            } finally {
+                conn.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQLiteEngineTest - Unit tests for SQLiteEngine
+ * Tests the DAOs against an embedded database file in a temporary directory
+ *
+ * Coverage:
+ * - WAL journaling and the configured pragmas
+ * - User, pet and application CRUD through the DAOs
+ * - Batch inserts get the ids of their rows
+ * - Readers neither wait for nor see an open write transaction
+ * - Prepared statements are reused and readers cannot write
+ */
+@DisplayName("SQLiteEngine Tests")
+public class SQLiteEngineTest {
+
+    @TempDir
+    Path dir;
+
+    private SQLiteEngine engine;
+
+    @BeforeEach
+    void setUp() throws DatabaseException {
+        engine = SQLiteEngine.open(new SQLiteEngine.Config(dir.resolve("pets.db").toString(), 2, "NORMAL",
+                64L * 1024 * 1024, 2048, 1000, 2000, 16));
+    }
+
+    @AfterEach
+    void tearDown() throws DatabaseException {
+        engine.close();
+    }
+
+    private String pragma(String name) throws Exception {
+        return engine.read(session -> {
+            try (Statement stmt = session.connection().createStatement();
+                    ResultSet rs = stmt.executeQuery("PRAGMA " + name)) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        });
+    }
+
+    private int countPets() throws Exception {
+        return engine.read(session -> {
+            try (ResultSet rs = session.prepare("SELECT COUNT(*) FROM pets").executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Database runs in WAL mode with the configured pragmas")
+    void testPragmas() throws Exception {
+        assertEquals("wal", pragma("journal_mode"));
+        assertEquals("1", pragma("synchronous"), "NORMAL");
+        assertEquals("-2048", pragma("cache_size"));
+        assertEquals(String.valueOf(64L * 1024 * 1024), pragma("mmap_size"));
+        assertEquals("1", pragma("foreign_keys"));
+    }
+
+    @Test
+    @DisplayName("Users, pets and applications round-trip through the DAOs")
+    void testDaoRoundTrip() throws Exception {
+        UserDAO userDAO = new UserDAO(engine);
+        PetDAO petDAO = new PetDAO(engine);
+        ApplicationDAO appDAO = new ApplicationDAO(engine);
+
+        User shelter = new User(0, "Shelter", "shelter@pet.com", "shelter", "shelter123");
+        userDAO.save(shelter);
+        User adopter = new User(0, "Adopter", "adopter@pet.com", "adopter", "adopter123");
+        userDAO.save(adopter);
+        assertTrue(shelter.getId() > 0 && adopter.getId() > shelter.getId());
+        UserRepository logins = Repositories.users(userDAO, new PlatformStats());
+        assertNotNull(logins.login("adopter@pet.com", "adopter123"));
+        assertNull(logins.login("adopter@pet.com", "wrong"));
+
+        Pet pet = new Pet(0, shelter.getId(), "Max", "Dog", "Golden Retriever", 3, "Friendly");
+        petDAO.save(pet);
+        pet.setAdoptionStatus("pending");
+        petDAO.update(pet);
+        assertEquals("pending", petDAO.findById(pet.getId()).getAdoptionStatus());
+        assertEquals(1, petDAO.findByShelter(shelter.getId()).size());
+        assertEquals("Max", petDAO.search("golden").get(0).getName());
+
+        // The search index follows the stored description
+        Pet edited = new Pet(pet.getId(), shelter.getId(), "Max", "Dog", "Golden Retriever", 3, "Loves swimming");
+        edited.setAdoptionStatus("pending");
+        petDAO.update(edited);
+        assertEquals("Loves swimming", petDAO.findById(pet.getId()).getDescription());
+        assertEquals("Max", petDAO.search("swimming").get(0).getName());
+
+        // Types are stored normalised, so any spelling finds them
+        petDAO.save(new Pet(0, shelter.getId(), "Tom", "CAT", "Siamese", 2, "Calm"));
+        assertEquals("Cat", petDAO.findByType("cat").get(0).getType());
+        assertEquals(1, petDAO.findByType("Cat").size());
+
+        Application application = new Application(0, adopter.getId(), pet.getId(), "Big garden");
+        appDAO.save(application);
+        application.setStatus("approved");
+        appDAO.update(application);
+        assertEquals(1, appDAO.findByShelter(shelter.getId()).size());
+        assertEquals("approved", appDAO.findById(application.getId()).getStatus());
+
+        appDAO.delete(application.getId());
+        petDAO.delete(pet.getId());
+        assertNull(petDAO.findById(pet.getId()));
+        assertTrue(petDAO.search("golden").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Batch inserts write back the ids of their rows")
+    void testBatchIds() throws Exception {
+        PetDAO petDAO = new PetDAO(engine);
+        petDAO.setBatchSize(7);
+        petDAO.save(new Pet(0, 1, "First", "Cat", "Persian", 2, ""));
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pets.add(new Pet(0, 1, "Pet " + i, "Dog", "Mixed", 1, ""));
+        }
+        assertEquals(50, petDAO.saveAll(pets));
+
+        for (Pet pet : pets) {
+            assertEquals(pet.getName(), petDAO.findById(pet.getId()).getName());
+        }
+        assertEquals(51, countPets());
+    }
+
+    @Test
+    @DisplayName("Readers neither wait for nor see an open write transaction")
+    void testReadersDuringWrite() throws Exception {
+        new PetDAO(engine).save(new Pet(0, 1, "Max", "Dog", "Beagle", 3, ""));
+
+        engine.write(session -> {
+            session.connection().setAutoCommit(false);
+            PetDAO petDAO = new PetDAO(engine);
+            PreparedStatement insert = session.prepare(petDAO.insertSql());
+            petDAO.bindInsert(insert, new Pet(0, 1, "Luna", "Cat", "Siamese", 2, ""));
+            insert.executeUpdate();
+            try {
+                // Another thread reads the last committed snapshot without blocking
+                int seen = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return countPets();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }).get(1, TimeUnit.SECONDS);
+                assertEquals(1, seen);
+                // The writing thread reads its own uncommitted row
+                assertEquals(2, countPets());
+            } catch (Exception e) {
+                throw new SQLException(e);
+            }
+            session.connection().commit();
+            return null;
+        });
+        assertEquals(2, countPets());
+    }
+
+    @Test
+    @DisplayName("Prepared statements are reused and readers cannot write")
+    void testStatementReuseAndReadOnlyReaders() throws Exception {
+        PetDAO petDAO = new PetDAO(engine);
+        Pet pet = new Pet(0, 1, "Max", "Dog", "Beagle", 3, "");
+        petDAO.save(pet);
+
+        petDAO.findById(pet.getId());
+        long prepared = engine.metrics().statementsPrepared;
+        long reused = engine.metrics().statementsReused;
+        for (int i = 0; i < 20; i++) {
+            petDAO.findById(pet.getId());
+        }
+        assertEquals(prepared, engine.metrics().statementsPrepared, "no new statements");
+        assertTrue(engine.metrics().statementsReused >= reused + 20);
+
+        assertThrows(SQLException.class, () -> engine.read(session ->
+                session.prepare("DELETE FROM pets").executeUpdate()));
+        assertEquals(1, countPets());
+    }
+}
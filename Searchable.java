@@ -0,0 +1,10 @@
+import java.util.*;
+
+/**
+ * Interface for searchable entities
+ */
+interface Searchable<T> {
+    List<T> search(String keyword) throws DatabaseException;
+
+    List<T> findAll() throws DatabaseException;
+}
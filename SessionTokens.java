@@ -0,0 +1,158 @@
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * SessionTokens - Stateless, HMAC-signed login tokens
+ * A token is base64url(payload) + "." + base64url(HMAC-SHA256(payload)), the
+ * payload a small JSON object with the user's id, email, name, role and
+ * expiry. Any node holding the same key can verify it, so logins need no
+ * session store and no sticky routing.
+ *
+ * Configuration (system properties):
+ * - petadoption.auth.mode           token (default) or session
+ * - petadoption.auth.secret         base64 key shared by all nodes; when unset a
+ *                                   random key is generated and the server warns at
+ *                                   startup (single node only, logins end on restart)
+ * - petadoption.auth.tokenTtlSeconds token lifetime, default 1800
+ */
+public final class SessionTokens {
+    static final String COOKIE_NAME = "petadoption_token";
+    static final String MODE = System.getProperty("petadoption.auth.mode", "token");
+    static final long TTL_SECONDS = Long.getLong("petadoption.auth.tokenTtlSeconds", 30 * 60);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    static final boolean RANDOM_SECRET = System.getProperty("petadoption.auth.secret", "").isEmpty();
+    private static final SecretKeySpec KEY = new SecretKeySpec(loadSecret(), ALGORITHM);
+    // Mac instances are not thread-safe. Handlers run on short-lived virtual threads, so a
+    // ThreadLocal would initialise a new one per request; borrow an initialised one instead.
+    private static final Queue<Mac> MACS = new ConcurrentLinkedQueue<>();
+
+    private SessionTokens() {
+    }
+
+    static boolean tokenMode() {
+        return "token".equals(MODE);
+    }
+
+    private static byte[] loadSecret() {
+        String configured = System.getProperty("petadoption.auth.secret");
+        if (configured != null && !configured.isEmpty()) {
+            byte[] secret = Base64.getDecoder().decode(configured);
+            if (secret.length < 32) {
+                throw new IllegalArgumentException("petadoption.auth.secret must be at least 32 bytes");
+            }
+            return secret;
+        }
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+
+    /**
+     * Print a warning at startup when tokens are signed with a key only this process knows
+     */
+    static void warnIfRandomSecret() {
+        if (tokenMode() && RANDOM_SECRET) {
+            System.err.println("⚠ petadoption.auth.secret is not set: login tokens are signed with a random key,"
+                    + " so other nodes reject them and every login ends when this server restarts");
+        }
+    }
+
+    /**
+     * Issue a token for the given user, valid for TTL_SECONDS
+     */
+    static String issue(String userId, String email, String name, String role) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("sub", userId);
+        payload.addProperty("email", email);
+        payload.addProperty("name", name);
+        payload.addProperty("role", role);
+        payload.addProperty("exp", Instant.now().getEpochSecond() + TTL_SECONDS);
+        String body = ENCODER.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        return body + "." + ENCODER.encodeToString(sign(body));
+    }
+
+    /**
+     * Principal carried by a token, or null if it is malformed, forged or expired
+     */
+    static AuthPrincipal verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return null;
+        }
+        String body = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            // Constant-time comparison so the signature cannot be guessed byte by byte
+            if (!MessageDigest.isEqual(sign(body), signature)) {
+                return null;
+            }
+            JsonObject payload = JsonParser.parseString(
+                    new String(DECODER.decode(body), StandardCharsets.UTF_8)).getAsJsonObject();
+            long expiresAt = payload.get("exp").getAsLong();
+            if (Instant.now().getEpochSecond() >= expiresAt) {
+                return null;
+            }
+            return new AuthPrincipal(
+                    payload.get("sub").getAsString(),
+                    payload.get("email").getAsString(),
+                    payload.get("name").getAsString(),
+                    payload.get("role").getAsString(),
+                    expiresAt);
+        } catch (RuntimeException e) {
+            // Bad base64 or JSON: treat like any other invalid token
+            return null;
+        }
+    }
+
+    /**
+     * Token sent with the request, from the Authorization header or the login cookie
+     */
+    static String fromRequest(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return header.substring(7).trim();
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static byte[] sign(String body) {
+        Mac mac = MACS.poll();
+        if (mac == null) {
+            try {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(KEY);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+            }
+        }
+        try {
+            return mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            // doFinal resets the Mac, so it is ready for the next caller
+            MACS.offer(mac);
+        }
+    }
+}
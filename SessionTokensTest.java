@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * SessionTokensTest - Unit tests for SessionTokens
+ * Tests issuing and verifying signed login tokens
+ *
+ * Coverage:
+ * - Round trip of the principal
+ * - Tampered payload rejected
+ * - Forged signature rejected
+ * - Malformed tokens rejected
+ */
+@DisplayName("SessionTokens Signing Tests")
+public class SessionTokensTest {
+
+    @Test
+    @DisplayName("Should carry the principal through a token")
+    void testRoundTrip() {
+        String token = SessionTokens.issue("2", "shelter@happypaws.com", "Happy Paws Shelter", "shelter");
+        AuthPrincipal principal = SessionTokens.verify(token);
+
+        assertNotNull(principal);
+        assertEquals(2, principal.userIdAsInt());
+        assertEquals("shelter@happypaws.com", principal.email);
+        assertEquals("Happy Paws Shelter", principal.name);
+        assertTrue(principal.hasRole("shelter"));
+        assertTrue(principal.expiresAtEpochSecond > System.currentTimeMillis() / 1000);
+    }
+
+    @Test
+    @DisplayName("Should reject a token whose payload was changed")
+    void testTamperedPayload() {
+        String adopter = SessionTokens.issue("3", "john@email.com", "John Adopter", "adopter");
+        String admin = SessionTokens.issue("1", "admin@petadoption.com", "Admin User", "admin");
+        // Adopter's signature on the admin's payload
+        String forged = admin.substring(0, admin.indexOf('.')) + adopter.substring(adopter.indexOf('.'));
+
+        assertNull(SessionTokens.verify(forged));
+    }
+
+    @Test
+    @DisplayName("Should reject a forged signature")
+    void testForgedSignature() {
+        String token = SessionTokens.issue("3", "john@email.com", "John Adopter", "adopter");
+        int sig = token.indexOf('.') + 1;
+        String forged = token.substring(0, sig) + (token.charAt(sig) == 'A' ? 'B' : 'A') + token.substring(sig + 1);
+
+        assertNull(SessionTokens.verify(forged));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed tokens")
+    void testMalformed() {
+        assertNull(SessionTokens.verify(""));
+        assertNull(SessionTokens.verify("no-dot"));
+        assertNull(SessionTokens.verify(".sig"));
+        assertNull(SessionTokens.verify("a.b.c"));
+        assertNull(SessionTokens.verify("!!!.???"));
+    }
+}
@@ -0,0 +1,25 @@
+import java.sql.*;
+
+/**
+ * Where a DAO's statements run
+ * read() may run concurrently with anything; write() is for work that changes rows.
+ * MySqlEngine borrows a pooled connection per call, SQLiteEngine
+ * queues writes on one connection and serves reads from several.
+ */
+interface SqlEngine {
+    /**
+     * JDBC work run against one session
+     */
+    interface Work<R> {
+        R run(SqlSession session) throws SQLException;
+    }
+
+    <R> R read(Work<R> work) throws SQLException, DatabaseException;
+
+    <R> R write(Work<R> work) throws SQLException, DatabaseException;
+
+    /**
+     * True when a statement failed because it would duplicate a unique key
+     */
+    boolean isDuplicateKey(SQLException e);
+}
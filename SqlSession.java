@@ -0,0 +1,25 @@
+import java.sql.*;
+
+/**
+ * One connection lent to a unit of work
+ * Statements belong to the session: callers bind and execute them (and close their
+ * ResultSets) but never close the statements, so an engine may reuse them.
+ */
+interface SqlSession {
+    Connection connection();
+
+    /**
+     * Statement for sql with no parameters bound, bounded by the request deadline
+     */
+    PreparedStatement prepare(String sql) throws SQLException;
+
+    /**
+     * Statement for an INSERT whose keys are read back with generatedIds()
+     */
+    PreparedStatement prepareInsert(String sql) throws SQLException;
+
+    /**
+     * Ids generated by the last execution (or batch) of an insert statement, in row order
+     */
+    int[] generatedIds(PreparedStatement insert, int rows) throws SQLException;
+}
@@ -0,0 +1,102 @@
+import java.sql.*;
+
+/**
+ * StatsDAO - Grouped counts for reconciling PlatformStats against the database
+ * Three aggregate queries, whose result size follows the number of shelters
+ * and statuses rather than the number of rows read by the application.
+ */
+class StatsDAO {
+    private final SqlEngine engine;
+
+    StatsDAO() {
+        this(MySqlEngine.INSTANCE);
+    }
+
+    StatsDAO(SqlEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * One or more counting queries run on a single statement
+     */
+    private interface Counting {
+        void count(Statement stmt) throws SQLException;
+    }
+
+    /**
+     * Add the stored users, pets and applications to a recount
+     */
+    void recount(PlatformStats.Recount recount) throws DatabaseException {
+        run(stmt -> {
+            countUsers(stmt, recount);
+            countPets(stmt, recount);
+            countApplications(stmt, recount);
+        });
+    }
+
+    /**
+     * Add the stored pets to a recount
+     */
+    void countPets(PlatformStats.Recount recount) throws DatabaseException {
+        run(stmt -> countPets(stmt, recount));
+    }
+
+    /**
+     * Add the stored applications to a recount
+     */
+    void countApplications(PlatformStats.Recount recount) throws DatabaseException {
+        run(stmt -> countApplications(stmt, recount));
+    }
+
+    /**
+     * Correct the counters from a fresh recount
+     * @return number of counters that had drifted
+     */
+    int reconcile(PlatformStats stats) throws DatabaseException {
+        PlatformStats.Recount recount = stats.startRecount();
+        recount(recount);
+        return stats.reconcile(recount);
+    }
+
+    private void run(Counting counting) throws DatabaseException {
+        try {
+            engine.read(session -> {
+                try (Statement stmt = session.connection().createStatement()) {
+                    RequestDeadline.applyTo(stmt);
+                    counting.count(stmt);
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            RequestDeadline.throwIfExpired(e);
+            throw new DatabaseException("Failed to count statistics: " + e.getMessage(), e);
+        }
+    }
+
+    private static void countUsers(Statement stmt, PlatformStats.Recount recount) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
+            rs.next();
+            recount.users(rs.getLong(1));
+        }
+    }
+
+    private static void countPets(Statement stmt, PlatformStats.Recount recount) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT shelter_id, adoption_status, approval_status, COUNT(*)"
+                + " FROM pets GROUP BY shelter_id, adoption_status, approval_status")) {
+            while (rs.next()) {
+                recount.pets(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getLong(4));
+            }
+        }
+    }
+
+    private static void countApplications(Statement stmt, PlatformStats.Recount recount) throws SQLException {
+        // Applications whose pet is gone count towards the platform only (shelter 0)
+        try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(p.shelter_id, 0), a.status, COUNT(*)"
+                + " FROM applications a LEFT JOIN pets p ON p.id = a.pet_id"
+                + " GROUP BY COALESCE(p.shelter_id, 0), a.status")) {
+            while (rs.next()) {
+                recount.applications(rs.getInt(1), rs.getString(2), rs.getLong(3));
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+import com.google.gson.stream.JsonWriter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StatsServlet - Platform and shelter analytics from PlatformStats.DEFAULT
+ * GET /api/stats - Users, pets and applications by status (Admin only)
+ * GET /api/stats/shelter/{id} - One shelter's pets and applications (Admin or that shelter)
+ *
+ * Both answer from counters kept up to date by the repositories, without scanning.
+ * A daemon timer recounts the repositories every petadoption.stats.reconcileMs
+ * (default 60 s, 0 disables) and corrects any counter that has drifted.
+ */
+public class StatsServlet extends AsyncHttpServlet {
+    static final long RECONCILE_MILLIS = Long.getLong("petadoption.stats.reconcileMs", 60_000);
+
+    static {
+        if (RECONCILE_MILLIS > 0) {
+            ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "petadoption-stats-reconcile");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reconciler.scheduleWithFixedDelay(StatsServlet::reconcile, RECONCILE_MILLIS, RECONCILE_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Recount the web tier's repositories and correct PlatformStats.DEFAULT
+     * @return number of counters that had drifted
+     */
+    static int reconcile() {
+        int drifted;
+        try {
+            drifted = Repositories.web().reconcile();
+        } catch (DatabaseException e) {
+            System.err.println("❌ Statistics recount failed: " + e.getMessage());
+            return 0;
+        }
+        if (drifted > 0) {
+            System.err.println("❌ Statistics drifted: corrected " + drifted + " counters");
+        }
+        return drifted;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+
+        AuthPrincipal principal = AuthPrincipal.of(request);
+        String pathInfo = request.getPathInfo();
+        PlatformStats stats = PlatformStats.DEFAULT;
+
+        if (pathInfo == null || "/".equals(pathInfo)) {
+            if (principal == null || !principal.hasRole("admin")) {
+                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                out.println("{\"success\": false, \"message\": \"Admin access required\"}");
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_OK);
+            JsonWriter json = PetServlet.newJsonWriter(out);
+            json.beginObject();
+            json.name("users").value(stats.users());
+            writeCounters(json, stats.global());
+            json.name("reconciliations").value(stats.reconciliations());
+            json.name("corrections").value(stats.corrections());
+            json.name("lastReconciledAt").value(stats.lastReconciledMillis());
+            json.endObject();
+            json.flush();
+            out.println();
+            return;
+        }
+
+        if (!pathInfo.startsWith("/shelter/")) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            out.println("{\"success\": false, \"message\": \"Unknown statistics\"}");
+            return;
+        }
+        int shelterId;
+        try {
+            shelterId = Integer.parseInt(pathInfo.substring("/shelter/".length()));
+        } catch (NumberFormatException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            out.println("{\"success\": false, \"message\": \"Invalid shelter ID\"}");
+            return;
+        }
+        boolean allowed = principal != null && (principal.hasRole("admin")
+                || principal.hasRole("shelter") && principal.userIdAsInt() == shelterId);
+        if (!allowed) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            out.println("{\"success\": false, \"message\": \"Admin or shelter owner access required\"}");
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        JsonWriter json = PetServlet.newJsonWriter(out);
+        json.beginObject();
+        json.name("shelterId").value(shelterId);
+        writeCounters(json, stats.shelterCounters(shelterId));
+        json.endObject();
+        json.flush();
+        out.println();
+    }
+
+    private static void writeCounters(JsonWriter json, PlatformStats.Counters counters) throws IOException {
+        json.name("pets").beginObject();
+        json.name("total").value(counters.pets.sum());
+        writeByStatus(json, "byAdoptionStatus", counters.petsByAdoptionStatus);
+        writeByStatus(json, "byApprovalStatus", counters.petsByApprovalStatus);
+        json.endObject();
+        json.name("applications").beginObject();
+        json.name("total").value(counters.applications.sum());
+        writeByStatus(json, "byStatus", counters.applicationsByStatus);
+        json.endObject();
+    }
+
+    private static void writeByStatus(JsonWriter json, String name, Map<String, LongAdder> byStatus)
+            throws IOException {
+        json.name(name).beginObject();
+        for (Map.Entry<String, Long> entry : PlatformStats.Counters.counts(byStatus).entrySet()) {
+            json.name(entry.getKey()).value(entry.getValue());
+        }
+        json.endObject();
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * User class - inherits from Entity, implements Authenticatable
+ */
+class User extends Entity implements Authenticatable {
+    private String name;
+    private String email;
+    private String role; // admin, shelter, adopter
+    private String passwordHash; // PasswordHasher format; null if the password was rejected
+
+    /**
+     * New user; the password is hashed straight away and never kept
+     */
+    public User(int id, String name, String email, String role, String password) {
+        this(id, name, email, role);
+        this.passwordHash = password == null || password.length() < 4 ? null : PasswordHasher.hash(password);
+    }
+
+    private User(int id, String name, String email, String role) {
+        super(id);
+        this.name = name;
+        this.email = email;
+        this.role = role;
+    }
+
+    /**
+     * User loaded from storage, with the hash as stored
+     */
+    static User fromStorage(int id, String name, String email, String role, String passwordHash) {
+        User user = new User(id, name, email, role);
+        user.passwordHash = passwordHash;
+        return user;
+    }
+
+    /**
+     * Detached copy, for a cache that must not hand out the object it holds
+     */
+    User copy() {
+        User copy = fromStorage(id, name, email, role, passwordHash);
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    void setEmail(String email) {
+        this.email = email;
+    }
+
+    void setRole(String role) {
+        this.role = role;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    void setPasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
+
+    @Override
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public boolean authenticate(String email, String password) throws InvalidUserException {
+        if (!this.email.equals(email) || !PasswordHasher.verify(password, passwordHash)) {
+            throw new InvalidUserException("Invalid email or password!");
+        }
+        return true;
+    }
+
+    @Override
+    void validate() throws InvalidUserException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new InvalidUserException("User name cannot be empty!");
+        }
+        if (email == null || !email.contains("@")) {
+            throw new InvalidUserException("Invalid email format!");
+        }
+        if (passwordHash == null) {
+            throw new InvalidUserException("Password must be at least 4 characters!");
+        }
+    }
+
+    @Override
+    String getEntityType() {
+        return "User";
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + String.format(" | Name: %s | Email: %s | Role: %s", name, email, role);
+    }
+
+    @Override
+    public void save() throws DatabaseException {
+        // Will be implemented in DAO
+    }
+
+    @Override
+    public void delete() throws DatabaseException {
+        // Will be implemented in DAO
+    }
+
+    @Override
+    public void update() throws DatabaseException {
+        // Will be implemented in DAO
+    }
+}
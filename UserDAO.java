@@ -0,0 +1,99 @@
+import java.util.*;
+import java.sql.*;
+
+/**
+ * UserDAO - Data Access Object for User entities
+ * Implements CRUD operations with JDBC
+ */
+class UserDAO extends BaseDAO<User> {
+    private static final String TABLE_NAME = "users";
+
+    public UserDAO() {
+        super(User.class);
+    }
+
+    public UserDAO(SqlEngine engine) {
+        super(User.class, engine);
+    }
+
+    @Override
+    String tableName() {
+        return TABLE_NAME;
+    }
+
+    @Override
+    String insertSql() {
+        return "INSERT INTO " + TABLE_NAME + " (name, email, role, password) VALUES (?, ?, ?, ?)";
+    }
+
+    @Override
+    void bindInsert(PreparedStatement pstmt, User user) throws SQLException {
+        pstmt.setString(1, user.getName());
+        pstmt.setString(2, user.getEmail());
+        pstmt.setString(3, user.getRole());
+        // The password column holds the salted hash
+        pstmt.setString(4, user.getPasswordHash());
+    }
+
+    @Override
+    String updateSql() {
+        return "UPDATE " + TABLE_NAME + " SET name = ?, email = ?, role = ?, password = ? WHERE id = ?";
+    }
+
+    @Override
+    void bindUpdate(PreparedStatement pstmt, User user) throws SQLException {
+        bindInsert(pstmt, user);
+        pstmt.setInt(5, user.getId());
+    }
+
+    @Override
+    void save(User user) throws DatabaseException {
+        insertOne(user);
+        System.out.println("✓ User saved successfully!");
+    }
+
+    @Override
+    String columns() {
+        return "id, name, email, role, password";
+    }
+
+    @Override
+    User mapRow(ResultSet rs) throws SQLException {
+        return User.fromStorage(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("role"),
+                rs.getString("password"));
+    }
+
+    @Override
+    User findById(int id) throws DatabaseException {
+        return queryOne("find user", selectSql("WHERE id = ?"), id);
+    }
+
+    @Override
+    List<User> findAll() throws DatabaseException {
+        return queryList("fetch users", selectSql("ORDER BY id"));
+    }
+
+    @Override
+    void update(User user) throws DatabaseException {
+        updateOne(user);
+        System.out.println("✓ User updated successfully!");
+    }
+
+    @Override
+    void delete(int id) throws DatabaseException {
+        deleteOne(id);
+        System.out.println("✓ User deleted successfully!");
+    }
+
+    /**
+     * Find user by email (for login)
+     */
+    User findByEmail(String email) throws DatabaseException {
+        // users.email is UNIQUE, so this is a single index probe
+        return queryOne("find user by email", selectSql("WHERE email = ?"), email);
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.Collection;
+
+/**
+ * User storage, with email as the login key
+ */
+interface UserRepository {
+
+    /**
+     * Add a user; one without an id (0) is given the next one
+     */
+    void add(User user) throws DatabaseException;
+
+    User findById(int id) throws DatabaseException;
+
+    User findByEmail(String email) throws DatabaseException;
+
+    /**
+     * Every user, in id order
+     */
+    Collection<User> findAll() throws DatabaseException;
+
+    /**
+     * Store a changed name, email, role or password hash
+     */
+    void update(User user) throws DatabaseException;
+
+    /**
+     * @return the removed user, or null if it did not exist
+     */
+    User remove(int id) throws DatabaseException;
+
+    int size() throws DatabaseException;
+
+    /**
+     * Check credentials: one lookup by email, one hash verification, and unknown
+     * emails cost the same as wrong passwords. Hashes made with an older work
+     * factor, and passwords still stored in plaintext, are upgraded on success.
+     * @return the user, or null if the credentials are wrong
+     */
+    default User login(String email, String password) throws DatabaseException {
+        User user = findByEmail(email);
+        if (user == null) {
+            PasswordHasher.verifyMissingUser(password);
+            return null;
+        }
+        String stored = user.getPasswordHash();
+        if (PasswordHasher.isLegacy(stored) ? !PasswordHasher.verifyLegacy(password, stored)
+                : !PasswordHasher.verify(password, stored)) {
+            return null;
+        }
+        if (PasswordHasher.needsRehash(user.getPasswordHash())) {
+            user.setPasswordHash(PasswordHasher.hash(password));
+            update(user);
+        }
+        return user;
+    }
+}
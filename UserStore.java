@@ -0,0 +1,109 @@
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * UserStore - Thread-safe in-memory UserRepository
+ * O(1) lookup by id and by email, so a login is one lookup plus one hash
+ * however many users there are. Reads never lock; writes are rare and
+ * serialized on the store so the email index cannot be claimed twice.
+ *
+ * Users are stored and returned as-is: after changing one, pass it to
+ * update() so the email index follows.
+ */
+public class UserStore implements UserRepository {
+    private final ConcurrentSkipListMap<Integer, User> byId = new ConcurrentSkipListMap<>();
+    private final Map<String, User> byEmail = new ConcurrentHashMap<>();
+    // Email each user is indexed under, so update() can move a changed one
+    private final Map<Integer, String> indexedEmails = new ConcurrentHashMap<>();
+    private final PlatformStats stats;
+
+    public UserStore() {
+        this(new PlatformStats());
+    }
+
+    public UserStore(PlatformStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Add a user, taking the next id from IdAllocator.USERS if it has none;
+     * fails if the id or the email is already taken
+     */
+    @Override
+    public synchronized void add(User user) {
+        if (user.getId() == 0) {
+            user.id = IdAllocator.USERS.next();
+        } else {
+            IdAllocator.USERS.reserveUpTo(user.getId());
+        }
+        if (byId.containsKey(user.getId())) {
+            throw new IllegalStateException("Duplicate user id: " + user.getId());
+        }
+        if (byEmail.putIfAbsent(user.getEmail(), user) != null) {
+            throw new IllegalStateException("Email already registered: " + user.getEmail());
+        }
+        byId.put(user.getId(), user);
+        indexedEmails.put(user.getId(), user.getEmail());
+        stats.userAdded();
+    }
+
+    @Override
+    public User findById(int id) {
+        return byId.get(id);
+    }
+
+    @Override
+    public User findByEmail(String email) {
+        return email == null ? null : byEmail.get(email);
+    }
+
+    /**
+     * Every user, in id order (live, weakly consistent view)
+     */
+    @Override
+    public Collection<User> findAll() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    /**
+     * Store a changed user, re-indexing its email; fails if the new email belongs to someone else
+     */
+    @Override
+    public synchronized void update(User user) {
+        if (!byId.containsKey(user.getId())) {
+            return;
+        }
+        String previous = indexedEmails.get(user.getId());
+        if (!user.getEmail().equals(previous)) {
+            User owner = byEmail.putIfAbsent(user.getEmail(), user);
+            if (owner != null && owner.getId() != user.getId()) {
+                throw new IllegalStateException("Email already registered: " + user.getEmail());
+            }
+            byEmail.remove(previous);
+            indexedEmails.put(user.getId(), user.getEmail());
+        }
+        byEmail.put(user.getEmail(), user);
+        byId.put(user.getId(), user);
+    }
+
+    /**
+     * @return the removed user, or null if it did not exist
+     */
+    @Override
+    public synchronized User remove(int id) {
+        User user = byId.remove(id);
+        if (user != null) {
+            byEmail.remove(indexedEmails.remove(id));
+            stats.userRemoved();
+        }
+        return user;
+    }
+
+    @Override
+    public int size() {
+        return byId.size();
+    }
+}
@@ -0,0 +1,348 @@
+import com.petadoption.bench.Fixtures;
+import jakarta.servlet.http.HttpServlet;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.function.Predicate;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * BenchFixtures - Default-package side of the benchmark fixtures
+ * Fills the application's in-memory repositories directly (through reflection where
+ * the console's state is private) so that seeding a million rows does not go through the code
+ * being measured. Data is generated deterministically from the catalogue size.
+ */
+public class BenchFixtures implements Fixtures {
+    static final String[] TYPES = { "Dog", "Cat", "Rabbit", "Bird" };
+    static final String[][] BREEDS = {
+            { "Golden Retriever", "Labrador", "Beagle" },
+            { "Persian", "Siamese", "Maine Coon" },
+            { "Holland Lop", "Rex", "Lionhead" },
+            { "Parakeet", "Cockatiel", "Canary" } };
+    static final String[] WORDS = { "friendly", "calm", "playful", "loyal", "shy", "energetic", "gentle",
+            "curious" };
+    static final String[] APPLICATION_STATUSES = { "submitted", "approved", "rejected" };
+
+    // Users: 1 is the admin, then the shelters, then the adopters
+    static final int ADMIN_ID = 1;
+    static final int FIRST_SHELTER_ID = 2;
+
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    private int[] newestApplication;
+
+    // ===================== DATA GENERATION =====================
+
+    static int shelters(int size) {
+        return Math.max(1, size / 100);
+    }
+
+    static int adopters(int size) {
+        return Math.max(1, size / 10);
+    }
+
+    static int firstAdopterId(int size) {
+        return FIRST_SHELTER_ID + shelters(size);
+    }
+
+    static int shelterOf(int petId, int size) {
+        return FIRST_SHELTER_ID + petId % shelters(size);
+    }
+
+    static String typeOf(int petId) {
+        return TYPES[petId % TYPES.length];
+    }
+
+    static String breedOf(int petId) {
+        return BREEDS[petId % TYPES.length][(petId / TYPES.length) % 3];
+    }
+
+    static String descriptionOf(int petId) {
+        return WORDS[petId % WORDS.length] + " and " + WORDS[(petId / 3) % WORDS.length] + " companion";
+    }
+
+    // 60% available, 30% adopted, 10% pending
+    static String adoptionStatusOf(int petId) {
+        int bucket = petId % 10;
+        return bucket < 6 ? "available" : bucket < 9 ? "adopted" : "pending";
+    }
+
+    static String approvalStatusOf(int petId) {
+        return petId % 10 < 9 ? "approved" : "pending";
+    }
+
+    // ===================== PET SERVLET =====================
+
+    @Override
+    public HttpServlet petServlet(int size) {
+        PetStore store = (PetStore) PetServlet.pets;
+        for (Pet pet : new ArrayList<>(store.findAll())) {
+            store.remove(pet.getId());
+        }
+        for (int id = 1; id <= size; id++) {
+            store.add(pet(id, size, typeOf(id)));
+        }
+        return new PetServlet();
+    }
+
+    @Override
+    public void writePets(Writer out) throws IOException {
+        JsonWriter json = PetServlet.newJsonWriter(out);
+        json.beginArray();
+        for (Pet pet : ((PetStore) PetServlet.pets).findAll()) {
+            PetServlet.writePet(json, pet);
+        }
+        json.endArray();
+        json.flush();
+    }
+
+    private static Pet pet(int id, int size, String type) {
+        Pet pet = new Pet(id, shelterOf(id, size), "Pet " + id, type, breedOf(id), id % 15, descriptionOf(id));
+        pet.setAdoptionStatus(adoptionStatusOf(id));
+        pet.setApprovalStatus(approvalStatusOf(id));
+        return pet;
+    }
+
+    // ===================== APPLICATION SERVLET =====================
+
+    @Override
+    public HttpServlet applicationServlet(int size) {
+        ApplicationStore store = (ApplicationStore) ApplicationServlet.applications;
+        for (Application app : new ArrayList<>(store.findAll())) {
+            store.remove(app.getId());
+        }
+        int firstAdopter = firstAdopterId(size);
+        for (int i = 1; i <= size; i++) {
+            Application app = application(i, firstAdopter + i % adopters(size), size);
+            // Keep the newest one active so a repeat submission is rejected as a duplicate
+            if (i == size) {
+                app.setStatus("submitted");
+                newestApplication = new int[] { app.getAdopterId(), app.getPetId() };
+            }
+            store.add(app);
+        }
+        return new ApplicationServlet();
+    }
+
+    private static Application application(int id, int adopterId, int size) {
+        Application app = new Application(id, adopterId, id, "Application " + id);
+        app.setShelterId(shelterOf(id, size));
+        app.setStatus(APPLICATION_STATUSES[id % APPLICATION_STATUSES.length]);
+        return app;
+    }
+
+    @Override
+    public int[] newestApplication() {
+        return newestApplication.clone();
+    }
+
+    // ===================== CONSOLE BACKEND =====================
+
+    /**
+     * The backend's storage, pinned to plain memory: a petadoption.repository or petadoption.wal.dir
+     * given to the JVM would otherwise send the seeding to a database or the write-ahead log
+     */
+    private static Repositories backendStorage() {
+        System.setProperty("petadoption.repository", Repositories.MEMORY);
+        System.clearProperty("petadoption.wal.dir");
+        Repositories storage = PetAdoptionBackend.storage();
+        if (storage.durable()) {
+            throw new IllegalStateException("Backend benchmarks need in-memory storage; PetAdoptionBackend"
+                    + " was already loaded with durable storage");
+        }
+        return storage;
+    }
+
+    /**
+     * Fill the backend's repositories; they run in memory, so they are the stores
+     */
+    @Override
+    public void seedBackend(int size) {
+        Repositories storage = backendStorage();
+        UserStore users = (UserStore) storage.users;
+        PetStore pets = (PetStore) storage.pets;
+        ApplicationStore applications = (ApplicationStore) storage.applications;
+        for (Application app : new ArrayList<>(applications.findAll())) {
+            applications.remove(app.getId());
+        }
+        for (Pet pet : new ArrayList<>(pets.findAll())) {
+            pets.remove(pet.getId());
+        }
+        for (User user : new ArrayList<>(users.findAll())) {
+            users.remove(user.getId());
+        }
+
+        // Each user's password is its role; one hash per role keeps seeding cheap
+        String adminHash = PasswordHasher.hash("admin");
+        String shelterHash = PasswordHasher.hash("shelter");
+        String adopterHash = PasswordHasher.hash("adopter");
+        users.add(User.fromStorage(ADMIN_ID, "Admin", "admin@bench.test", "admin", adminHash));
+        int firstAdopter = firstAdopterId(size);
+        for (int id = FIRST_SHELTER_ID; id < firstAdopter; id++) {
+            users.add(User.fromStorage(id, "Shelter " + id, "shelter" + id + "@bench.test", "shelter",
+                    shelterHash));
+        }
+        for (int id = firstAdopter; id < firstAdopter + adopters(size); id++) {
+            users.add(User.fromStorage(id, "Adopter " + id, "adopter" + id + "@bench.test", "adopter",
+                    adopterHash));
+        }
+        for (int id = 1; id <= size; id++) {
+            pets.add(pet(id, size, typeOf(id).toLowerCase()));
+        }
+        for (int id = 1; id <= size; id++) {
+            applications.add(application(id, firstAdopter + id % adopters(size), size));
+        }
+    }
+
+    @Override
+    public Runnable backendOperation(String name) {
+        UserStore users = (UserStore) backendStorage().users;
+        int lastUser = users.findAll().stream().mapToInt(User::getId).max().orElse(ADMIN_ID);
+        User admin = users.findById(ADMIN_ID);
+        User shelter = users.findById(FIRST_SHELTER_ID);
+        User adopter = users.findById(lastUser);
+        switch (name) {
+            case "login":
+                // Email lookup plus one password verification at the configured work factor
+                return backendCall("login", null, adopter.getEmail() + "\nadopter\n");
+            case "viewPlatformAnalytics":
+                return backendCall(name, admin, null);
+            case "viewShelterPets":
+            case "viewShelterStatistics":
+                return backendCall(name, shelter, null);
+            case "manageShelterApplications":
+                return backendCall(name, shelter, "0\n");
+            case "browseAvailable":
+                return backendCall("browsePets", adopter, "1\n");
+            case "browseByType":
+                return backendCall("browsePets", adopter, "2\ndog\n");
+            case "viewMyApplications":
+                return backendCall(name, adopter, null);
+            default:
+                throw new IllegalArgumentException("Unknown backend operation: " + name);
+        }
+    }
+
+    /**
+     * Call a private static PetAdoptionBackend method as the given user, feeding it console input
+     */
+    private static Runnable backendCall(String method, User user, String input) {
+        MethodHandle handle = staticMethod(PetAdoptionBackend.class, method,
+                input == null ? new Class<?>[0] : new Class<?>[] { Scanner.class });
+        Field currentUser = field(PetAdoptionBackend.class, "currentUser");
+        return () -> {
+            PrintStream console = System.out;
+            System.setOut(DISCARD);
+            try {
+                currentUser.set(null, user);
+                if (input == null) {
+                    handle.invoke();
+                } else {
+                    handle.invoke(new Scanner(input));
+                }
+            } catch (Throwable e) {
+                throw new IllegalStateException(method + " failed", e);
+            } finally {
+                System.setOut(console);
+            }
+        };
+    }
+
+    @Override
+    public Predicate<String> passwordVerifier(String password, int iterations) {
+        String stored = PasswordHasher.hash(password, iterations);
+        return candidate -> PasswordHasher.verify(candidate, stored);
+    }
+
+    // ===================== PET DAO =====================
+
+    @Override
+    public PetReads petDao(int size, boolean cached) throws Exception {
+        System.setProperty("petadoption.db.url", "jdbc:h2:mem:petbench;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        PrintStream console = System.out;
+        System.setOut(DISCARD);
+        try {
+            try (Connection conn = DatabaseConnection.getConnection();
+                    Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+            }
+            staticMethod(DatabaseConnection.class, "createTables").invoke();
+
+            PetDAO dao = cached ? new CachedPetDAO() : new PetDAO();
+            List<Pet> batch = new ArrayList<>(dao.getBatchSize());
+            for (int id = 1; id <= size; id++) {
+                Pet pet = new Pet(0, shelterOf(id, size), "Pet " + id, typeOf(id), breedOf(id), id % 15,
+                        descriptionOf(id));
+                pet.setAdoptionStatus(adoptionStatusOf(id));
+                batch.add(pet);
+                if (batch.size() == dao.getBatchSize() || id == size) {
+                    dao.saveAll(batch);
+                    batch.clear();
+                }
+            }
+            return new PetReads() {
+                @Override
+                public Object findById(int id) throws Exception {
+                    return dao.findById(id);
+                }
+
+                @Override
+                public List<?> findAvailable() throws Exception {
+                    return dao.findAvailable();
+                }
+
+                @Override
+                public List<?> findByShelter(int shelterId) throws Exception {
+                    return dao.findByShelter(shelterId);
+                }
+
+                @Override
+                public List<?> search(String keyword) throws Exception {
+                    return dao.search(keyword);
+                }
+            };
+        } catch (Throwable e) {
+            throw e instanceof Exception ? (Exception) e : new IllegalStateException(e);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    @Override
+    public void closeDatabase() throws Exception {
+        DatabaseConnection.closeConnection();
+    }
+
+    // ===================== REFLECTION HELPERS =====================
+
+    private static Field field(Class<?> owner, String name) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(owner.getName() + "." + name + " not found", e);
+        }
+    }
+
+    private static MethodHandle staticMethod(Class<?> owner, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = owner.getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(owner.getName() + "." + name + " not found", e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.petadoption.bench;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ApplicationServletBenchmark - POST /api/applications duplicate check and GET listing
+ * The duplicate submission is rejected, so the store does not grow between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApplicationServletBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    int size;
+
+    private HttpServlet servlet;
+    private HttpServletRequest duplicateSubmission;
+    private HttpServletRequest listAsAdopter;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = Fixtures.load();
+        servlet = fixtures.applicationServlet(size);
+        int[] newest = fixtures.newestApplication();
+
+        Map<String, Object> adopter = new HashMap<>();
+        adopter.put("userId", String.valueOf(newest[0]));
+        adopter.put("userRole", "adopter");
+        duplicateSubmission = ServletCalls.request("POST", null, Map.of(),
+                "{\"petId\": " + newest[1] + ", \"notes\": \"again\"}", adopter);
+        listAsAdopter = ServletCalls.request("GET", null, Map.of(), null, adopter);
+    }
+
+    @Benchmark
+    public int duplicateCheck() throws Exception {
+        int status = ServletCalls.call(servlet, duplicateSubmission).status;
+        if (status != HttpServletResponse.SC_BAD_REQUEST) {
+            throw new IllegalStateException("Expected the duplicate to be rejected, got " + status);
+        }
+        return status;
+    }
+
+    @Benchmark
+    public long listAsAdopter() throws Exception {
+        return ServletCalls.call(servlet, listAsAdopter).chars;
+    }
+}
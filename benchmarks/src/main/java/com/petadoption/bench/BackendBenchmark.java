@@ -0,0 +1,50 @@
+package com.petadoption.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BackendBenchmark - Lookups and reports in the PetAdoptionBackend console app
+ * Each operation runs the real menu method with canned console input and its
+ * output discarded. The catalogue holds {@code size} pets and applications and
+ * size / 10 adopters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BackendBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    int size;
+
+    @Param({ "login", "viewPlatformAnalytics", "viewShelterPets", "viewShelterStatistics",
+            "manageShelterApplications", "browseAvailable", "browseByType", "viewMyApplications" })
+    String operation;
+
+    private Runnable call;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = Fixtures.load();
+        fixtures.seedBackend(size);
+        call = fixtures.backendOperation(operation);
+    }
+
+    @Benchmark
+    public void run() {
+        call.run();
+    }
+}
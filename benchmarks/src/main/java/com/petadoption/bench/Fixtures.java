@@ -0,0 +1,86 @@
+package com.petadoption.bench;
+
+import jakarta.servlet.http.HttpServlet;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Fixtures - Seeds the application's stores for a benchmark run
+ * The application classes live in the default package, which named packages
+ * cannot import, so the implementation (BenchFixtures) sits in the default
+ * package and is loaded once per trial through this interface.
+ */
+public interface Fixtures {
+
+    /**
+     * Replace the PetServlet catalogue with {@code size} generated pets
+     */
+    HttpServlet petServlet(int size);
+
+    /**
+     * Serialize the whole PetServlet catalogue with PetServlet.writePet
+     */
+    void writePets(Writer out) throws IOException;
+
+    /**
+     * Replace the ApplicationServlet store with {@code size} generated applications
+     */
+    HttpServlet applicationServlet(int size);
+
+    /**
+     * {adopterId, petId} of the newest seeded application, the worst case for a linear duplicate check
+     */
+    int[] newestApplication();
+
+    /**
+     * Replace the PetAdoptionBackend in-memory store with generated users, pets and applications
+     */
+    void seedBackend(int size);
+
+    /**
+     * One PetAdoptionBackend operation, run as the user it needs with console output discarded
+     * @param name one of {@link BackendBenchmark}'s operation names
+     */
+    Runnable backendOperation(String name);
+
+    /**
+     * Check candidates against a PasswordHasher hash of {@code password} made with {@code iterations}
+     */
+    Predicate<String> passwordVerifier(String password, int iterations);
+
+    /**
+     * Create the schema in an embedded H2 database (MySQL mode) and load {@code size} pets through PetDAO
+     */
+    PetReads petDao(int size, boolean cached) throws Exception;
+
+    /**
+     * Close the pooled database connections
+     */
+    void closeDatabase() throws Exception;
+
+    /**
+     * PetDAO read paths
+     */
+    interface PetReads {
+        Object findById(int id) throws Exception;
+
+        List<?> findAvailable() throws Exception;
+
+        List<?> findByShelter(int shelterId) throws Exception;
+
+        List<?> search(String keyword) throws Exception;
+    }
+
+    /**
+     * Load the default-package implementation
+     */
+    static Fixtures load() {
+        try {
+            return (Fixtures) Class.forName("BenchFixtures").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("BenchFixtures not on the classpath", e);
+        }
+    }
+}
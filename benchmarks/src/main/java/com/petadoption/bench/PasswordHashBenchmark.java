@@ -0,0 +1,44 @@
+package com.petadoption.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PasswordHashBenchmark - Cost of one login's password check per work factor
+ * Pick petadoption.auth.hashIterations from these numbers (or let
+ * petadoption.auth.hashTargetMs calibrate it) so a login fits its latency budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @Param({ "100000", "300000", "600000" })
+    int iterations;
+
+    private Predicate<String> verifier;
+
+    @Setup
+    public void setUp() {
+        verifier = Fixtures.load().passwordVerifier("adopter123", iterations);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return verifier.test("adopter123");
+    }
+}
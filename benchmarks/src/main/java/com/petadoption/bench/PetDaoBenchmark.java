@@ -0,0 +1,76 @@
+package com.petadoption.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PetDaoBenchmark - PetDAO read paths against an embedded H2 database in MySQL mode
+ * The schema comes from DatabaseConnection.createTables and rows are loaded
+ * with PetDAO.saveAll, so indexes and SQL are the production ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetDaoBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    int size;
+
+    // Plain PetDAO or the read-through CachedPetDAO
+    @Param({ "false", "true" })
+    boolean cached;
+
+    private Fixtures fixtures;
+    private Fixtures.PetReads dao;
+    private int nextId;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixtures = Fixtures.load();
+        dao = fixtures.petDao(size, cached);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        fixtures.closeDatabase();
+    }
+
+    /**
+     * Walks the ids with a large stride so consecutive lookups hit different rows
+     */
+    @Benchmark
+    public Object findById() throws Exception {
+        nextId = (nextId + 7919) % size;
+        return dao.findById(nextId + 1);
+    }
+
+    @Benchmark
+    public List<?> findAvailable() throws Exception {
+        return dao.findAvailable();
+    }
+
+    @Benchmark
+    public List<?> findByShelter() throws Exception {
+        return dao.findByShelter(2);
+    }
+
+    @Benchmark
+    public List<?> search() throws Exception {
+        return dao.search("golden ret");
+    }
+}
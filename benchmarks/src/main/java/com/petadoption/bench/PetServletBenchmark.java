@@ -0,0 +1,120 @@
+package com.petadoption.bench;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PetServletBenchmark - GET /api/pets filtering, paging, search and JSON serialization
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PetServletBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    int size;
+
+    private Fixtures fixtures;
+    private HttpServlet servlet;
+    private HttpServletRequest listAll;
+    private HttpServletRequest filterAvailable;
+    private HttpServletRequest filterApproved;
+    private HttpServletRequest pageFromMiddle;
+    private HttpServletRequest projectedPage;
+    private HttpServletRequest search;
+
+    @Setup
+    public void setUp() {
+        fixtures = Fixtures.load();
+        servlet = fixtures.petServlet(size);
+        listAll = get(null, Map.of());
+        filterAvailable = get(null, Map.of("filter", "available"));
+        filterApproved = get(null, Map.of("filter", "approved"));
+        pageFromMiddle = get(null, Map.of("limit", "50", "cursor", String.valueOf(size / 2)));
+        projectedPage = get(null, Map.of("limit", "50", "fields", "id,name,adoptionStatus"));
+        search = get("/search", Map.of("q", "golden ret"));
+    }
+
+    @Benchmark
+    public long listAll() throws Exception {
+        return ServletCalls.call(servlet, listAll).chars;
+    }
+
+    @Benchmark
+    public long filterAvailable() throws Exception {
+        return ServletCalls.call(servlet, filterAvailable).chars;
+    }
+
+    @Benchmark
+    public long filterApproved() throws Exception {
+        return ServletCalls.call(servlet, filterApproved).chars;
+    }
+
+    @Benchmark
+    public long pageFromMiddle() throws Exception {
+        return ServletCalls.call(servlet, pageFromMiddle).chars;
+    }
+
+    @Benchmark
+    public long projectedPage() throws Exception {
+        return ServletCalls.call(servlet, projectedPage).chars;
+    }
+
+    @Benchmark
+    public long search() throws Exception {
+        return ServletCalls.call(servlet, search).chars;
+    }
+
+    /**
+     * Serialization alone, without request handling or filtering
+     */
+    @Benchmark
+    public long serializeCatalogue() throws Exception {
+        CountingWriter out = new CountingWriter();
+        fixtures.writePets(out);
+        return out.chars;
+    }
+
+    private static HttpServletRequest get(String pathInfo, Map<String, String> params) {
+        return ServletCalls.request("GET", pathInfo, params, null, null);
+    }
+
+    private static final class CountingWriter extends Writer {
+        long chars;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            chars += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            chars += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.petadoption.bench;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * ServletCalls - Minimal in-process request/response doubles
+ * Enough of the servlet API for the platform's servlets, with the response body
+ * counted and thrown away so only the servlet's own work is measured.
+ */
+final class ServletCalls {
+
+    private ServletCalls() {
+    }
+
+    /**
+     * Result of one call: status code and number of characters written
+     */
+    static final class Result {
+        int status;
+        long chars;
+    }
+
+    static HttpServletRequest request(String method, String pathInfo, Map<String, String> params, String body,
+            Map<String, Object> sessionAttributes) {
+        HttpSession session = sessionAttributes == null ? null
+                : (HttpSession) Proxy.newProxyInstance(ServletCalls.class.getClassLoader(),
+                        new Class<?>[] { HttpSession.class }, (proxy, m, args) -> {
+                            switch (m.getName()) {
+                                case "getAttribute":
+                                    return sessionAttributes.get(args[0]);
+                                case "setAttribute":
+                                    sessionAttributes.put((String) args[0], args[1]);
+                                    return null;
+                                default:
+                                    return null;
+                            }
+                        });
+        return (HttpServletRequest) Proxy.newProxyInstance(ServletCalls.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getMethod":
+                            return method;
+                        case "getPathInfo":
+                            return pathInfo;
+                        case "getParameter":
+                            return params.get(args[0]);
+                        case "getReader":
+                            return new BufferedReader(new StringReader(body == null ? "" : body));
+                        case "getSession":
+                            return session;
+                        case "getProtocol":
+                            return "HTTP/1.1";
+                        case "getRemoteAddr":
+                            return "127.0.0.1";
+                        case "isAsyncSupported":
+                            return false;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    static Result call(HttpServlet servlet, HttpServletRequest request) throws Exception {
+        Result result = new Result();
+        result.status = HttpServletResponse.SC_OK;
+        PrintWriter writer = new PrintWriter(new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                result.chars += len;
+            }
+
+            @Override
+            public void write(String str, int off, int len) {
+                result.chars += len;
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(
+                ServletCalls.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+                (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getWriter":
+                            return writer;
+                        case "setStatus":
+                            result.status = (Integer) args[0];
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+        servlet.service(request, response);
+        writer.flush();
+        return result;
+    }
+}